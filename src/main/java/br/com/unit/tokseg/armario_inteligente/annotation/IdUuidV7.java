@@ -0,0 +1,19 @@
+package br.com.unit.tokseg.armario_inteligente.annotation;
+
+import br.com.unit.tokseg.armario_inteligente.util.GeradorUuidV7;
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca o ID da entidade para ser gerado pelo Hibernate como UUID versão 7, ordenado no tempo.
+ * Substitui {@code @GeneratedValue(strategy = GenerationType.UUID)}, que gera UUIDs aleatórios.
+ */
+@IdGeneratorType(GeradorUuidV7.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IdUuidV7 {
+}
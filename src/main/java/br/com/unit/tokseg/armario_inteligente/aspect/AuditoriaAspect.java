@@ -2,8 +2,10 @@ package br.com.unit.tokseg.armario_inteligente.aspect;
 
 import br.com.unit.tokseg.armario_inteligente.annotation.Auditavel;
 import br.com.unit.tokseg.armario_inteligente.model.*;
-import br.com.unit.tokseg.armario_inteligente.service.NotificacaoService;
+import br.com.unit.tokseg.armario_inteligente.service.AgrupamentoNotificacaoService;
+import br.com.unit.tokseg.armario_inteligente.service.HistoricoEncomendaService;
 import br.com.unit.tokseg.armario_inteligente.service.RegistroAuditoriaService;
+import br.com.unit.tokseg.armario_inteligente.service.TransmissaoNotificacaoService;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -12,7 +14,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Aspect
 @Component
@@ -20,13 +21,19 @@ public class AuditoriaAspect {
     
     private static final Logger logger = LoggerFactory.getLogger(AuditoriaAspect.class);
     private final RegistroAuditoriaService registroAuditoriaService;
-    private final NotificacaoService notificacaoService;
+    private final AgrupamentoNotificacaoService agrupamentoNotificacaoService;
+    private final HistoricoEncomendaService historicoEncomendaService;
+    private final TransmissaoNotificacaoService transmissaoNotificacaoService;
 
     public AuditoriaAspect(
             RegistroAuditoriaService registroAuditoriaService,
-            NotificacaoService notificacaoService) {
+            AgrupamentoNotificacaoService agrupamentoNotificacaoService,
+            HistoricoEncomendaService historicoEncomendaService,
+            TransmissaoNotificacaoService transmissaoNotificacaoService) {
         this.registroAuditoriaService = registroAuditoriaService;
-        this.notificacaoService = notificacaoService;
+        this.agrupamentoNotificacaoService = agrupamentoNotificacaoService;
+        this.historicoEncomendaService = historicoEncomendaService;
+        this.transmissaoNotificacaoService = transmissaoNotificacaoService;
     }
 
     @Around("@annotation(auditavel)")
@@ -67,19 +74,23 @@ public class AuditoriaAspect {
             if (resultado instanceof Usuario) {
                 Usuario usuario = (Usuario) resultado;
                 if (acao.contains("REGISTRO_USUARIO")) {
-                    criarNotificacaoAdmin("Novo usuário registrado: " + usuario.getEmail());
+                    criarNotificacaoAdmin(ModeloNotificacao.NOVO_USUARIO, usuario.getEmail());
                 }
             } else if (resultado instanceof Armario) {
                 Armario armario = (Armario) resultado;
                 if (acao.contains("CADASTRO_ARMARIO")) {
-                    criarNotificacaoAdmin("Novo armário cadastrado: " + armario.getNumero());
+                    criarNotificacaoAdmin(ModeloNotificacao.NOVO_ARMARIO, armario.getNumero());
                 }
             } else if (resultado instanceof Encomenda) {
                 Encomenda encomenda = (Encomenda) resultado;
-                if (acao.contains("CADASTRO_ENCOMENDA")) {
-                    criarNotificacaoUsuario(encomenda.getUsuario(), 
-                        "Nova encomenda registrada para você no armário " + 
-                        encomenda.getArmario().getNumero());
+                // Sem morador não há a quem avisar, e sem armário não há onde retirar
+                if (acao.contains("CADASTRO_ENCOMENDA")
+                        && encomenda.getUsuario() != null && encomenda.getArmario() != null) {
+                    // Encomendas chegando em sequência para o mesmo morador viram um único resumo
+                    agrupamentoNotificacaoService.enfileirar(encomenda.getUsuario().getId(),
+                        TipoNotificacaoAgrupada.NOVA_ENCOMENDA, encomenda.getArmario().getNumero());
+                    historicoEncomendaService.registrar(
+                        encomenda.getIdEncomenda(), TipoEventoEncomenda.NOTIFICADA, null);
                 }
             }
         } catch (Exception e) {
@@ -87,23 +98,8 @@ public class AuditoriaAspect {
         }
     }
 
-    private void criarNotificacaoAdmin(String mensagem) {
-        // TODO: Implementar busca de usuários admin e criar notificação para cada um
-        logger.info("Notificação para admin: {}", mensagem);
+    private void criarNotificacaoAdmin(ModeloNotificacao modelo, String parametro) {
+        logger.info("Notificação para admin: {} ({})", modelo, parametro);
+        transmissaoNotificacaoService.transmitirParaTipo(TipoUsuarioEnum.ADMIN, modelo, parametro);
     }
-
-    private void criarNotificacaoUsuario(Usuario usuario, String mensagem) {
-        String idNotificacao = UUID.randomUUID().toString();
-        LocalDateTime dataEnvio = LocalDateTime.now();
-        
-        Notificacao notificacao = new Notificacao(
-            idNotificacao,
-            usuario,
-            mensagem,
-            dataEnvio
-        );
-        notificacao.setLida(false);
-
-        notificacaoService.salvar(notificacao);
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Executor das importações de manifesto. Poucas threads, para que importações grandes
+     * não disputem conexões com as requisições da API; as demais aguardam na fila.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importacaoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("importacao-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor dos envios de mensagens em massa, para que a requisição não espere a gravação
+     * das notificações de todos os destinatários.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transmissaoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("transmissao-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor das filas de comandos dos armários. Só despacha comandos e trata acks, sem esperar
+     * o hardware, então poucas threads atendem todos os armários.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor comandoArmarioExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("comando-armario-");
+        return executor;
+    }
+}
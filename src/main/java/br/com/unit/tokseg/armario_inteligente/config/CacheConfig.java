@@ -0,0 +1,69 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.util.RespostaSerializada;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches locais dos dados de referência dos armários, que mudam pouco e são muito lidos.
+ *
+ * Cada região é um cache Caffeine (W-TinyLFU) com tamanho máximo e expiração própria, e com
+ * estatísticas ligadas: o Actuator publica {@code cache.gets} com {@code result=hit|miss} por
+ * região, de onde sai a taxa de acerto. As regiões são criadas aqui, e não sob demanda, para que
+ * as métricas já existam na inicialização. A região de respostas serializadas é limitada pela
+ * memória ocupada pelos bytes, e não pela quantidade de entradas.
+ */
+@Configuration
+public class CacheConfig {
+
+    /** Armários por ID. */
+    public static final String ARMARIOS = "armarios";
+
+    /** Listas de armários por filtro (status, localização), incluindo a lista completa. */
+    public static final String ARMARIOS_POR_FILTRO = "armarios-por-filtro";
+
+    /** Compartimentos por ID. */
+    public static final String COMPARTIMENTOS = "compartimentos";
+
+    /** Corpos JSON já serializados das listagens de armários ({@link RespostaSerializada}). */
+    public static final String RESPOSTAS_ARMARIOS = "respostas-armarios";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.armarios.tamanho-maximo:10000}") long tamanhoArmarios,
+            @Value("${cache.armarios-por-filtro.tamanho-maximo:2000}") long tamanhoFiltros,
+            @Value("${cache.compartimentos.tamanho-maximo:50000}") long tamanhoCompartimentos,
+            @Value("${cache.respostas-armarios.memoria-maxima:16MB}") DataSize memoriaRespostas,
+            @Value("${cache.referencia.expiracao:10m}") Duration expiracao) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ARMARIOS, regiao(tamanhoArmarios, expiracao));
+        cacheManager.registerCustomCache(ARMARIOS_POR_FILTRO, regiao(tamanhoFiltros, expiracao));
+        cacheManager.registerCustomCache(COMPARTIMENTOS, regiao(tamanhoCompartimentos, expiracao));
+        cacheManager.registerCustomCache(RESPOSTAS_ARMARIOS, Caffeine.newBuilder()
+                .maximumWeight(memoriaRespostas.toBytes())
+                .weigher((chave, valor) -> ((RespostaSerializada) valor).tamanhoEmMemoria())
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build());
+        // Só as regiões acima: um nome desconhecido é erro de programação, não uma região nova
+        cacheManager.setCacheNames(List.of());
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> regiao(long tamanhoMaximo, Duration expiracao) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracoesSync;
+import br.com.unit.tokseg.armario_inteligente.dto.AuthenticationRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.AuthenticationResponse;
+import br.com.unit.tokseg.armario_inteligente.dto.MutacaoEdgeRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cliente HTTP do servidor central usado por um nó edge. Entra com a conta configurada e guarda o
+ * token; quando o central o recusa (expirado), entra de novo e repete a chamada uma vez.
+ * Falhas de rede chegam como {@link RestClientException}.
+ */
+public class ClienteCentralEdge {
+
+    private static final ParameterizedTypeReference<List<ResultadoMutacaoEdge>> RESULTADOS =
+            new ParameterizedTypeReference<>() { };
+
+    private final RestClient restClient;
+    private final String email;
+    private final String senha;
+    private volatile String token;
+
+    /**
+     * @param restClient Cliente já apontado para o servidor central
+     * @param email Email da conta do nó no central
+     * @param senha Senha da conta do nó no central
+     */
+    public ClienteCentralEdge(RestClient restClient, String email, String senha) {
+        this.restClient = restClient;
+        this.email = email;
+        this.senha = senha;
+    }
+
+    /**
+     * Envia um lote do journal ({@code POST /api/edge/mutacoes}).
+     *
+     * @param mutacoes Alterações na ordem em que foram feitas
+     * @return Resultado de cada alteração
+     */
+    public List<ResultadoMutacaoEdge> enviar(List<MutacaoEdgeRequest> mutacoes) {
+        return autenticado(token -> restClient.post()
+                .uri("/api/edge/mutacoes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(mutacoes)
+                .retrieve()
+                .body(RESULTADOS));
+    }
+
+    /**
+     * Busca as alterações do central posteriores a uma revisão ({@code GET /api/sync}).
+     *
+     * @param desde Maior revisão já recebida
+     * @param limite Quantidade máxima de alterações
+     * @return Página do feed de sincronização
+     */
+    public AlteracoesSync receber(long desde, int limite) {
+        return autenticado(token -> restClient.get()
+                .uri("/api/sync?desde={desde}&limite={limite}", desde, limite)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .body(AlteracoesSync.class));
+    }
+
+    private <T> T autenticado(Function<String, T> chamada) {
+        String atual = token != null ? token : entrar();
+        try {
+            return chamada.apply(atual);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.UNAUTHORIZED && e.getStatusCode() != HttpStatus.FORBIDDEN) {
+                throw e;
+            }
+            return chamada.apply(entrar());
+        }
+    }
+
+    private String entrar() {
+        AuthenticationRequest credenciais = new AuthenticationRequest();
+        credenciais.setEmail(email);
+        credenciais.setSenha(senha);
+        AuthenticationResponse resposta = restClient.post()
+                .uri("/api/v1/auth/authenticate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(credenciais)
+                .retrieve()
+                .body(AuthenticationResponse.class);
+        if (resposta == null || resposta.getToken() == null) {
+            throw new RestClientException("Servidor central não devolveu token para " + email);
+        }
+        token = resposta.getToken();
+        return token;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Transporte dos comandos aos controladores dos armários, escolhido por
+ * {@code app.comandos.transporte}. Por enquanto só há o {@code simulador}, ativado nos perfis de
+ * teste e de teste de carga; a integração com o hardware entra como outra implementação de
+ * {@link TransporteComandoArmario}. Sem transporte configurado, o envio de comandos fica desligado.
+ */
+@Configuration
+public class ComandoArmarioConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.comandos.transporte", havingValue = "simulador")
+    public SimuladorArmario simuladorArmario(
+            @Value("${app.comandos.simulador.latencia:20ms}") Duration latencia,
+            @Value("${app.comandos.simulador.taxa-perda-ack:0}") double taxaPerdaAck) {
+        return new SimuladorArmario(latencia, taxaPerdaAck);
+    }
+}
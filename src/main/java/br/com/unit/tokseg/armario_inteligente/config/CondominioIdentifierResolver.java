@@ -0,0 +1,52 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Informa ao Hibernate o condomínio da sessão: o da thread atual ({@link ContextoCondominio})
+ * ou, se não houver, o condomínio padrão. O acesso raiz desliga o filtro por condomínio e
+ * permite gravar registros com o condomínio já preenchido.
+ */
+public class CondominioIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    private final String condominioPadrao;
+
+    /**
+     * @param condominioPadrao Condomínio usado quando a thread não tem condomínio definido
+     */
+    public CondominioIdentifierResolver(String condominioPadrao) {
+        this.condominioPadrao = ContextoCondominio.validar(condominioPadrao);
+    }
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String atual = ContextoCondominio.atual();
+        return atual != null ? atual : condominioPadrao;
+    }
+
+    /**
+     * Condomínio em uso na thread atual, para ser guardado por tarefas que gravam depois,
+     * em outra thread.
+     *
+     * @return Condomínio definido na thread ou o padrão
+     * @throws IllegalStateException se a thread estiver em acesso raiz
+     */
+    public String condominioAtual() {
+        String atual = resolveCurrentTenantIdentifier();
+        if (isRoot(atual)) {
+            throw new IllegalStateException("Operação exige um condomínio definido, não o acesso raiz");
+        }
+        return atual;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String condominio) {
+        return ContextoCondominio.isRaiz(condominio);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entrega ao Hibernate conexões do destino (banco e schema) de cada condomínio, segundo a
+ * {@link EstrategiaDestinoCondominio}. O acesso raiz indica o destino no próprio identificador.
+ *
+ * O schema é trocado na conexão ao entregá-la; os pools Hikari restauram o schema original
+ * quando a conexão volta ao pool.
+ */
+public class ConexaoPorCondominioProvider implements MultiTenantConnectionProvider<String>, AutoCloseable {
+
+    /**
+     * Banco e schema de um destino.
+     *
+     * @param dataSource DataSource do banco
+     * @param schema Schema dos condomínios, ou nulo para o schema padrão da conexão
+     */
+    public record Destino(DataSource dataSource, String schema) {
+    }
+
+    private final Map<String, Destino> destinos;
+    private final EstrategiaDestinoCondominio estrategia;
+
+    /**
+     * @param destinos Destinos por nome; deve incluir o destino padrão
+     * @param estrategia Estratégia que associa condomínios a destinos
+     */
+    public ConexaoPorCondominioProvider(Map<String, Destino> destinos, EstrategiaDestinoCondominio estrategia) {
+        if (!destinos.containsKey(MultiCondominioProperties.DESTINO_PADRAO)) {
+            throw new IllegalArgumentException("Destino padrão não configurado");
+        }
+        this.destinos = new LinkedHashMap<>(destinos);
+        this.estrategia = estrategia;
+    }
+
+    /**
+     * @return Nomes dos destinos configurados
+     */
+    public Set<String> nomesDestinos() {
+        return destinos.keySet();
+    }
+
+    /**
+     * @param nome Nome do destino
+     * @return Banco e schema do destino
+     * @throws IllegalStateException se o destino não estiver configurado
+     */
+    public Destino destino(String nome) {
+        Destino destino = destinos.get(nome);
+        if (destino == null) {
+            throw new IllegalStateException("Destino de condomínio não configurado: " + nome);
+        }
+        return destino;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return abrir(destino(MultiCondominioProperties.DESTINO_PADRAO));
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection conexao) throws SQLException {
+        conexao.close();
+    }
+
+    @Override
+    public Connection getConnection(String condominio) throws SQLException {
+        String nome = ContextoCondominio.isRaiz(condominio)
+                ? ContextoCondominio.destinoRaiz(condominio)
+                : estrategia.destino(condominio);
+        return abrir(destino(nome));
+    }
+
+    @Override
+    public void releaseConnection(String condominio, Connection conexao) throws SQLException {
+        conexao.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> tipo) {
+        return tipo.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> tipo) {
+        if (isUnwrappableAs(tipo)) {
+            return tipo.cast(this);
+        }
+        throw new IllegalArgumentException("Tipo não suportado: " + tipo);
+    }
+
+    /**
+     * Fecha os pools próprios dos destinos adicionais. O pool padrão, também usado pelos
+     * destinos que só trocam o schema, pertence ao contêiner.
+     */
+    @Override
+    public void close() throws Exception {
+        DataSource padrao = destinos.get(MultiCondominioProperties.DESTINO_PADRAO).dataSource();
+        for (Destino destino : destinos.values()) {
+            if (destino.dataSource() != padrao && destino.dataSource() instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private static Connection abrir(Destino destino) throws SQLException {
+        Connection conexao = destino.dataSource().getConnection();
+        if (destino.schema() != null) {
+            try {
+                conexao.setSchema(destino.schema());
+            } catch (SQLException e) {
+                conexao.close();
+                throw e;
+            }
+        }
+        return conexao;
+    }
+}
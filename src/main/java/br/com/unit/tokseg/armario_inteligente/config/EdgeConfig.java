@@ -0,0 +1,41 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Modo edge, ativado por {@code app.edge.habilitado=true} (perfil {@code edge}): a aplicação roda
+ * num nó do prédio, com banco H2 local em arquivo, e atende recebimento e retirada mesmo sem link
+ * com o servidor central. As alterações locais vão para um journal e são reconciliadas com o
+ * central em lotes quando o link volta ({@code SincronizacaoEdgeService}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.edge", name = "habilitado", havingValue = "true")
+@EnableConfigurationProperties(EdgeProperties.class)
+public class EdgeConfig {
+
+    @Bean
+    public ClienteCentralEdge clienteCentralEdge(RestClient.Builder builder, EdgeProperties edge) {
+        EdgeProperties.Central central = edge.getCentral();
+        if (edge.getCondominio() == null || edge.getCondominio().isBlank()) {
+            throw new IllegalArgumentException("Informe o condomínio do nó em app.edge.condominio");
+        }
+        if (central.getUrl() == null || central.getEmail() == null || central.getSenha() == null) {
+            throw new IllegalArgumentException("Informe url, email e senha do servidor central em app.edge.central");
+        }
+        SimpleClientHttpRequestFactory requisicoes = new SimpleClientHttpRequestFactory();
+        requisicoes.setConnectTimeout(central.getTempoLimite());
+        requisicoes.setReadTimeout(central.getTempoLimite());
+        RestClient restClient = builder.clone()
+                .baseUrl(central.getUrl())
+                .requestFactory(requisicoes)
+                // O login no central é feito no condomínio do nó; depois, o token traz o mesmo condomínio
+                .defaultHeader("X-Condominio", edge.getCondominio())
+                .build();
+        return new ClienteCentralEdge(restClient, central.getEmail(), central.getSenha());
+    }
+}
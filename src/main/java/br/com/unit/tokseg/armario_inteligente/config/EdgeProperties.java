@@ -0,0 +1,36 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuração do modo edge ({@code app.edge.*}), ligado pelo perfil {@code edge}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.edge")
+public class EdgeProperties {
+
+    /** Liga o journal local e a sincronização com o servidor central. */
+    private boolean habilitado;
+
+    /** Condomínio (prédio) atendido pelo nó; todos os dados locais ficam nele. */
+    private String condominio;
+
+    private Central central = new Central();
+
+    /** Quantidade de alterações enviadas ou recebidas por requisição. */
+    private int tamanhoLote = 200;
+
+    @Data
+    public static class Central {
+        /** Endereço do servidor central, por exemplo {@code https://armarios.exemplo.com}. */
+        private String url;
+        /** Conta (PORTEIRO ou ADMIN do condomínio) usada pelo nó no central. */
+        private String email;
+        private String senha;
+        /** Tempo máximo de conexão e de resposta; o link caído não deve segurar a sincronização. */
+        private Duration tempoLimite = Duration.ofSeconds(5);
+    }
+}
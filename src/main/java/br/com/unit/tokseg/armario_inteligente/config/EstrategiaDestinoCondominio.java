@@ -0,0 +1,22 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import java.util.Set;
+
+/**
+ * Estratégia que decide em qual destino (banco ou schema) ficam os dados de cada condomínio.
+ * A implementação padrão lê o mapeamento de {@code app.condominios.mapeamento}; outra pode ser
+ * registrada como bean (ex.: mapeamento lido de um catálogo ou por hash do código).
+ */
+public interface EstrategiaDestinoCondominio {
+
+    /**
+     * @param condominio Código do condomínio
+     * @return Nome do destino do condomínio
+     */
+    String destino(String condominio);
+
+    /**
+     * @return Nomes de todos os destinos, incluindo o padrão
+     */
+    Set<String> destinos();
+}
@@ -0,0 +1,43 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.time.Duration;
+
+/**
+ * Transporte do barramento de invalidação de caches entre instâncias, escolhido por
+ * {@code app.invalidacao.transporte}: {@code postgres} (LISTEN/NOTIFY no banco principal) quando há
+ * mais de uma instância, ou {@code loopback} (padrão) para instância única e testes.
+ */
+@Configuration
+public class InvalidacaoConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.invalidacao.transporte", havingValue = "postgres")
+    public TransporteInvalidacao transporteInvalidacaoPostgres(DataSource dataSource,
+            DataSourceProperties dataSourceProperties, ObjectMapper objectMapper,
+            @Value("${app.invalidacao.canal:invalidacao_cache}") String canal,
+            @Value("${app.invalidacao.espera-reconexao:5s}") Duration esperaReconexao) {
+        // A escuta segura a conexão indefinidamente, então ela não sai do pool
+        TransporteInvalidacaoPostgres.ConexaoEscuta conexaoEscuta = () -> DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        return new TransporteInvalidacaoPostgres(new JdbcTemplate(dataSource), conexaoEscuta, canal, objectMapper,
+                esperaReconexao);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.invalidacao.transporte", havingValue = "loopback", matchIfMissing = true)
+    public TransporteInvalidacao transporteInvalidacaoLoopback() {
+        return new TransporteInvalidacaoLoopback();
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.unit.tokseg.armario_inteligente.config;
 
 import br.com.unit.tokseg.armario_inteligente.service.JwtService;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,6 +33,7 @@ import java.util.stream.Collectors;
  * 2. Verifica se o cabeçalho Authorization contém um token JWT
  * 3. Valida o token e extrai as informações do usuário
  * 4. Configura o contexto de segurança com as informações do usuário autenticado
+ * 5. Define o condomínio da requisição (claim do token ou cabeçalho X-Condominio) e o limpa ao final
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -39,6 +41,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String CONDOMINIO_HEADER = "X-Condominio";
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
@@ -61,10 +64,60 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader(AUTHORIZATION_HEADER);
-        
+
+        String condominio;
+        try {
+            condominio = resolverCondominio(request, authHeader);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Condomínio inválido na requisição: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        if (condominio != null) {
+            ContextoCondominio.definir(condominio);
+        }
+        try {
+            autenticar(request, authHeader);
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoCondominio.limpar();
+        }
+    }
+
+    /**
+     * Resolve o condomínio da requisição: o do token JWT, quando houver, ou o do cabeçalho
+     * {@code X-Condominio} (usado antes do login). Sem nenhum dos dois, vale o condomínio padrão.
+     *
+     * @return Código do condomínio ou nulo para o padrão
+     * @throws IllegalArgumentException se o cabeçalho for inválido ou divergir do token
+     */
+    private String resolverCondominio(HttpServletRequest request, String authHeader) {
+        String doCabecalho = request.getHeader(CONDOMINIO_HEADER);
+        if (doCabecalho != null) {
+            ContextoCondominio.validar(doCabecalho);
+        }
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return doCabecalho;
+        }
+
+        String doToken;
+        try {
+            doToken = jwtService.extractClaim(authHeader.substring(BEARER_PREFIX.length()),
+                    claims -> claims.get(JwtService.CLAIM_CONDOMINIO, String.class));
+        } catch (Exception e) {
+            // Token inválido: a autenticação abaixo registra o erro e a requisição segue sem usuário
+            return doCabecalho;
+        }
+        if (doToken != null && doCabecalho != null && !doToken.equals(doCabecalho)) {
+            throw new IllegalArgumentException("Condomínio do cabeçalho diverge do token");
+        }
+        return doToken != null ? doToken : doCabecalho;
+    }
+
+    private void autenticar(HttpServletRequest request, String authHeader) {
         if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
             logger.debug("Cabeçalho de autorização não encontrado ou inválido");
-            filterChain.doFilter(request, response);
             return;
         }
 
@@ -116,7 +169,5 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (Exception e) {
             logger.error("Erro ao processar token JWT: {}", e.getMessage(), e);
         }
-
-        filterChain.doFilter(request, response);
     }
 } 
\ No newline at end of file
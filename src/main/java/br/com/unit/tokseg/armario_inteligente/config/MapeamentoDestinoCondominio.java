@@ -0,0 +1,42 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estratégia padrão: destino de cada condomínio lido da configuração; condomínios não mapeados
+ * ficam no destino padrão.
+ */
+public class MapeamentoDestinoCondominio implements EstrategiaDestinoCondominio {
+
+    private final Map<String, String> mapeamento;
+    private final Set<String> destinos = new LinkedHashSet<>();
+
+    /**
+     * @param mapeamento Destino de cada condomínio
+     * @param destinos Nomes dos destinos adicionais
+     * @throws IllegalArgumentException se algum condomínio apontar para um destino não declarado
+     */
+    public MapeamentoDestinoCondominio(Map<String, String> mapeamento, Set<String> destinos) {
+        this.destinos.add(MultiCondominioProperties.DESTINO_PADRAO);
+        this.destinos.addAll(destinos);
+        mapeamento.forEach((condominio, destino) -> {
+            if (!this.destinos.contains(destino)) {
+                throw new IllegalArgumentException(
+                        "Condomínio " + condominio + " mapeado para destino não declarado: " + destino);
+            }
+        });
+        this.mapeamento = Map.copyOf(mapeamento);
+    }
+
+    @Override
+    public String destino(String condominio) {
+        return mapeamento.getOrDefault(condominio, MultiCondominioProperties.DESTINO_PADRAO);
+    }
+
+    @Override
+    public Set<String> destinos() {
+        return destinos;
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Multi-condomínio (multi-tenancy).
+ *
+ * Todas as entidades têm a coluna {@code condominio}, marcada com {@code @TenantId}: o Hibernate
+ * preenche a coluna nas inclusões e filtra todas as consultas pelo condomínio da sessão
+ * ({@link CondominioIdentifierResolver}). Quando há destinos adicionais configurados, as conexões
+ * de cada condomínio vêm do seu destino ({@link ConexaoPorCondominioProvider}), e as migrações do
+ * Flyway são aplicadas também em cada destino.
+ */
+@Configuration
+@EnableConfigurationProperties(MultiCondominioProperties.class)
+public class MultiCondominioConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiCondominioConfig.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EstrategiaDestinoCondominio estrategiaDestinoCondominio(MultiCondominioProperties propriedades) {
+        return new MapeamentoDestinoCondominio(propriedades.getMapeamento(), propriedades.getDestinos().keySet());
+    }
+
+    @Bean
+    public CondominioIdentifierResolver condominioIdentifierResolver(MultiCondominioProperties propriedades) {
+        return new CondominioIdentifierResolver(propriedades.getPadrao());
+    }
+
+    @Bean
+    public ConexaoPorCondominioProvider conexaoPorCondominioProvider(DataSource dataSource,
+            DataSourceProperties dataSourceProperties, MultiCondominioProperties propriedades,
+            EstrategiaDestinoCondominio estrategia) {
+        Map<String, ConexaoPorCondominioProvider.Destino> destinos = new LinkedHashMap<>();
+        destinos.put(MultiCondominioProperties.DESTINO_PADRAO, new ConexaoPorCondominioProvider.Destino(dataSource, null));
+        propriedades.getDestinos().forEach((nome, configuracao) -> {
+            DataSource destino = dataSource;
+            if (configuracao.getUrl() != null && !configuracao.getUrl().isBlank()) {
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName("condominios-" + nome);
+                pool.setJdbcUrl(configuracao.getUrl());
+                pool.setUsername(configuracao.getUsername() != null
+                        ? configuracao.getUsername() : dataSourceProperties.determineUsername());
+                pool.setPassword(configuracao.getPassword() != null
+                        ? configuracao.getPassword() : dataSourceProperties.determinePassword());
+                pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+                pool.setMaximumPoolSize(configuracao.getTamanhoPool());
+                destino = pool;
+            }
+            String schema = configuracao.getSchema() != null && !configuracao.getSchema().isBlank()
+                    ? configuracao.getSchema() : null;
+            destinos.put(nome, new ConexaoPorCondominioProvider.Destino(destino, schema));
+        });
+        return new ConexaoPorCondominioProvider(destinos, estrategia);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer multiCondominioHibernateCustomizer(CondominioIdentifierResolver resolver,
+            ConexaoPorCondominioProvider conexaoPorCondominioProvider, MultiCondominioProperties propriedades) {
+        return propriedadesHibernate -> {
+            propriedadesHibernate.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+            // Só com destinos adicionais; com um único destino basta o filtro por coluna
+            if (!propriedades.getDestinos().isEmpty()) {
+                propriedadesHibernate.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, conexaoPorCondominioProvider);
+            }
+        };
+    }
+
+    /**
+     * Aplica as migrações no banco padrão e depois em cada destino adicional.
+     */
+    @Bean
+    public FlywayMigrationStrategy migracaoDestinosCondominio(ConexaoPorCondominioProvider conexaoPorCondominioProvider) {
+        return flyway -> {
+            flyway.migrate();
+            for (String nome : conexaoPorCondominioProvider.nomesDestinos()) {
+                if (MultiCondominioProperties.DESTINO_PADRAO.equals(nome)) {
+                    continue;
+                }
+                ConexaoPorCondominioProvider.Destino destino = conexaoPorCondominioProvider.destino(nome);
+                var configuracao = Flyway.configure().configuration(flyway.getConfiguration())
+                        .dataSource(destino.dataSource());
+                if (destino.schema() != null) {
+                    configuracao.schemas(destino.schema()).defaultSchema(destino.schema());
+                }
+                logger.info("Aplicando migrações no destino de condomínios {}", nome);
+                configuracao.load().migrate();
+            }
+        };
+    }
+}
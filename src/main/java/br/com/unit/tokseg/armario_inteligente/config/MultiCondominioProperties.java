@@ -0,0 +1,43 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuração dos condomínios ({@code app.condominios.*}).
+ *
+ * Por padrão todos os condomínios ficam no banco de {@code spring.datasource}, separados pela
+ * coluna {@code condominio}. Um condomínio pode ser levado para outro destino: um schema próprio
+ * no mesmo banco ou outro banco (shard), declarados em {@code destinos} e associados em
+ * {@code mapeamento}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.condominios")
+public class MultiCondominioProperties {
+
+    /** Nome do destino padrão (o banco de {@code spring.datasource}). */
+    public static final String DESTINO_PADRAO = "padrao";
+
+    /** Condomínio das requisições sem token nem cabeçalho {@code X-Condominio}. */
+    private String padrao = "padrao";
+
+    /** Destinos adicionais, por nome. */
+    private Map<String, Destino> destinos = new LinkedHashMap<>();
+
+    /** Destino de cada condomínio (código do condomínio -> nome do destino). */
+    private Map<String, String> mapeamento = new LinkedHashMap<>();
+
+    @Data
+    public static class Destino {
+        /** URL JDBC do banco; vazia para usar o banco padrão. */
+        private String url;
+        private String username;
+        private String password;
+        /** Schema dos condomínios do destino; vazio para o schema padrão da conexão. */
+        private String schema;
+        private int tamanhoPool = 10;
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roteamento de leituras para réplicas, ativado por {@code app.datasource.leitura.habilitada=true}.
+ *
+ * O DataSource principal da aplicação passa a ser um {@link LazyConnectionDataSourceProxy} sobre o
+ * {@link RoteamentoDataSource}: métodos {@code @Transactional(readOnly = true)} (e as consultas dos
+ * repositórios chamadas fora de transação) leem de uma réplica; o restante, incluindo o Flyway e
+ * o Hibernate, usa o primário configurado em {@code spring.datasource}.
+ * Sem a propriedade, a configuração padrão do Spring Boot continua valendo.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.leitura", name = "habilitada", havingValue = "true")
+@EnableConfigurationProperties(ReplicaLeituraProperties.class)
+public class ReplicaLeituraConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource dataSource = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource dataSourcePrimario,
+            DataSourceProperties propriedades, ReplicaLeituraProperties leitura) {
+        List<ReplicaLeituraProperties.Replica> configuradas = leitura.getReplicas();
+        if (configuradas.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma réplica em app.datasource.leitura.replicas");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < configuradas.size(); i++) {
+            ReplicaLeituraProperties.Replica replica = configuradas.get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (i + 1));
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : propriedades.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : propriedades.determinePassword());
+            dataSource.setDriverClassName(propriedades.determineDriverClassName());
+            dataSource.setMaximumPoolSize(replica.getTamanhoPool());
+            dataSource.setReadOnly(true);
+            // Réplica fora do ar não deve impedir a aplicação de subir: a verificação periódica a trata
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        return new RoteamentoDataSource(dataSourcePrimario, replicas, leitura.getConsultaAtraso(), leitura.getAtrasoMaximo());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    /**
+     * Verificação periódica das réplicas (disponibilidade e atraso).
+     */
+    @Bean
+    public VerificacaoReplicas verificacaoReplicas(RoteamentoDataSource roteamentoDataSource) {
+        return new VerificacaoReplicas(roteamentoDataSource);
+    }
+
+    static class VerificacaoReplicas {
+
+        private final RoteamentoDataSource roteamentoDataSource;
+
+        VerificacaoReplicas(RoteamentoDataSource roteamentoDataSource) {
+            this.roteamentoDataSource = roteamentoDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${app.datasource.leitura.intervalo-verificacao-ms:5000}")
+        public void verificar() {
+            roteamentoDataSource.verificarReplicas();
+        }
+    }
+}
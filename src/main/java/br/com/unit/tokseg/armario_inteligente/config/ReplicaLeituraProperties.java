@@ -0,0 +1,39 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração das réplicas de leitura ({@code app.datasource.leitura.*}).
+ * Usuário, senha e driver vazios herdam os de {@code spring.datasource}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.leitura")
+public class ReplicaLeituraProperties {
+
+    /** Liga o roteamento das transações somente leitura para as réplicas. */
+    private boolean habilitada;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** Consulta que devolve o atraso da réplica em segundos; vazia para não considerar o atraso. */
+    private String consultaAtraso;
+
+    /** Atraso acima do qual a réplica deixa de receber leituras. */
+    private Duration atrasoMaximo = Duration.ofSeconds(30);
+
+    /** Intervalo entre as verificações das réplicas, em milissegundos. */
+    private long intervaloVerificacaoMs = 5000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int tamanhoPool = 10;
+    }
+}
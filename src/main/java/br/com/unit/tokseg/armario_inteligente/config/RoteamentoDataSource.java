@@ -0,0 +1,180 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que envia as transações somente leitura para as réplicas e o restante ao primário.
+ *
+ * A escolha é feita pela marcação {@code readOnly} da transação atual, então precisa estar atrás
+ * de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: a conexão real
+ * só é obtida no primeiro comando, quando a transação já foi iniciada e marcada.
+ * Entre as réplicas disponíveis a escolha é em rodízio. Uma réplica que falha ao entregar uma
+ * conexão é retirada do rodízio e a leitura vai para o primário; a verificação periódica
+ * ({@link #verificarReplicas()}) devolve a réplica ao rodízio quando ela volta a responder e,
+ * se houver consulta de atraso configurada, a retira enquanto o atraso passar do máximo.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoteamentoDataSource.class);
+    static final String PRIMARIO = "primario";
+    private static final int TIMEOUT_VALIDACAO_SEGUNDOS = 2;
+
+    private static final class Replica {
+        private final String nome;
+        private final DataSource dataSource;
+        private volatile boolean disponivel = true;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Replica> replicasPorNome = new HashMap<>();
+    private final String consultaAtraso;
+    private final Duration atrasoMaximo;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    /**
+     * @param primario DataSource do banco primário (escritas e transações sem marcação de leitura)
+     * @param replicas DataSources das réplicas, por nome
+     * @param consultaAtraso Consulta que devolve o atraso da réplica em segundos, ou nulo para ignorar o atraso
+     * @param atrasoMaximo Atraso acima do qual a réplica sai do rodízio (ignorado sem consulta de atraso)
+     */
+    public RoteamentoDataSource(DataSource primario, Map<String, DataSource> replicas,
+            String consultaAtraso, Duration atrasoMaximo) {
+        this.primario = primario;
+        this.consultaAtraso = consultaAtraso != null && !consultaAtraso.isBlank() ? consultaAtraso : null;
+        this.atrasoMaximo = atrasoMaximo;
+
+        Map<Object, Object> destinos = new LinkedHashMap<>();
+        destinos.put(PRIMARIO, primario);
+        replicas.forEach((nome, dataSource) -> {
+            Replica replica = new Replica(nome, dataSource);
+            this.replicas.add(replica);
+            this.replicasPorNome.put(nome, replica);
+            destinos.put(nome, dataSource);
+        });
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARIO;
+        }
+        Replica replica = escolherReplica();
+        return replica != null ? replica.nome : PRIMARIO;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = replicasPorNome.get(determineCurrentLookupKey());
+        if (replica == null) {
+            return primario.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            retirar(replica, "falha ao obter conexão: " + e.getMessage());
+            return primario.getConnection();
+        }
+    }
+
+    /**
+     * Testa cada réplica e atualiza o rodízio: réplicas que não respondem ou estão atrasadas
+     * além do máximo saem; as que voltaram ao normal entram de novo.
+     */
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            String problema = verificar(replica);
+            if (problema == null) {
+                if (!replica.disponivel) {
+                    replica.disponivel = true;
+                    logger.info("Réplica {} de volta ao rodízio de leitura", replica.nome);
+                }
+            } else {
+                retirar(replica, problema);
+            }
+        }
+    }
+
+    /**
+     * @return Nomes das réplicas que estão recebendo leituras
+     */
+    public List<String> replicasDisponiveis() {
+        return replicas.stream().filter(replica -> replica.disponivel).map(replica -> replica.nome).toList();
+    }
+
+    /**
+     * Fecha os pools das réplicas. O primário pertence a quem o criou e não é fechado aqui.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private Replica escolherReplica() {
+        int total = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(total, 1));
+        for (int i = 0; i < total; i++) {
+            Replica replica = replicas.get((inicio + i) % total);
+            if (replica.disponivel) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private String verificar(Replica replica) {
+        try (Connection conexao = replica.dataSource.getConnection()) {
+            if (!conexao.isValid(TIMEOUT_VALIDACAO_SEGUNDOS)) {
+                return "conexão inválida";
+            }
+            if (consultaAtraso == null || atrasoMaximo == null) {
+                return null;
+            }
+            try (Statement comando = conexao.createStatement();
+                    ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+                double atrasoSegundos = resultado.next() ? resultado.getDouble(1) : 0;
+                if (atrasoSegundos * 1000 > atrasoMaximo.toMillis()) {
+                    return String.format("atraso de %.1f s acima do máximo de %d s", atrasoSegundos, atrasoMaximo.toSeconds());
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            return "falha na verificação: " + e.getMessage();
+        }
+    }
+
+    private void retirar(Replica replica, String motivo) {
+        if (replica.disponivel) {
+            replica.disponivel = false;
+            logger.warn("Réplica {} retirada do rodízio de leitura ({}); leituras seguem para o primário", replica.nome, motivo);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Habilita as tarefas agendadas (@Scheduled)
+}
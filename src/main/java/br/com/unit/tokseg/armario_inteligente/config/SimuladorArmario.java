@@ -0,0 +1,129 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.dto.ComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.model.TipoComandoArmario;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controladores de armário simulados em memória, no lugar do hardware em testes, em
+ * desenvolvimento e em testes de carga. Cada comando leva a latência configurada para ser
+ * executado e confirmado; uma fração dos acks pode se perder de propósito, e os testes podem
+ * programar perdas e recusas para um compartimento.
+ *
+ * O simulador registra os comandos executados por armário e conta as sobreposições (um comando
+ * que chega enquanto outro do mesmo armário ainda executa), que não devem acontecer com a fila
+ * por armário.
+ */
+public class SimuladorArmario implements TransporteComandoArmario {
+
+    private final Executor execucao;
+    private final double taxaPerdaAck;
+    private final Map<UUID, Boolean> abertos = new ConcurrentHashMap<>();
+    private final Map<UUID, List<ComandoArmario>> executados = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> emExecucao = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> acksPerdidos = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> recusas = new ConcurrentHashMap<>();
+    private final AtomicInteger sobreposicoes = new AtomicInteger();
+
+    /**
+     * @param latencia Tempo de execução e confirmação de cada comando
+     * @param taxaPerdaAck Fração dos comandos executados cujo ack se perde (0 a 1)
+     */
+    public SimuladorArmario(Duration latencia, double taxaPerdaAck) {
+        if (taxaPerdaAck < 0 || taxaPerdaAck > 1) {
+            throw new IllegalArgumentException("Taxa de perda de ack deve estar entre 0 e 1");
+        }
+        this.execucao = CompletableFuture.delayedExecutor(latencia.toNanos(), TimeUnit.NANOSECONDS);
+        this.taxaPerdaAck = taxaPerdaAck;
+    }
+
+    @Override
+    public CompletableFuture<Void> enviar(ComandoArmario comando) {
+        AtomicInteger executando = emExecucao.computeIfAbsent(comando.idArmario(), id -> new AtomicInteger());
+        if (executando.incrementAndGet() > 1) {
+            sobreposicoes.incrementAndGet();
+        }
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        execucao.execute(() -> {
+            executando.decrementAndGet();
+            if (consumir(recusas, comando.idCompartimento())) {
+                ack.completeExceptionally(new IllegalStateException(
+                        "Porta do compartimento " + comando.idCompartimento() + " obstruída"));
+                return;
+            }
+            abertos.put(comando.idCompartimento(), comando.tipo() == TipoComandoArmario.ABRIR);
+            List<ComandoArmario> doArmario = executados.computeIfAbsent(comando.idArmario(), id -> new ArrayList<>());
+            synchronized (doArmario) {
+                doArmario.add(comando);
+            }
+            boolean perdido = consumir(acksPerdidos, comando.idCompartimento())
+                    || (taxaPerdaAck > 0 && ThreadLocalRandom.current().nextDouble() < taxaPerdaAck);
+            if (!perdido) {
+                ack.complete(null);
+            }
+        });
+        return ack;
+    }
+
+    /**
+     * Executa os próximos comandos do compartimento sem confirmar.
+     *
+     * @param idCompartimento Compartimento
+     * @param quantidade Quantidade de acks a perder
+     */
+    public void perderAcks(UUID idCompartimento, int quantidade) {
+        acksPerdidos.computeIfAbsent(idCompartimento, id -> new AtomicInteger()).addAndGet(quantidade);
+    }
+
+    /**
+     * Recusa os próximos comandos do compartimento, sem executá-los.
+     *
+     * @param idCompartimento Compartimento
+     * @param quantidade Quantidade de comandos a recusar
+     */
+    public void recusar(UUID idCompartimento, int quantidade) {
+        recusas.computeIfAbsent(idCompartimento, id -> new AtomicInteger()).addAndGet(quantidade);
+    }
+
+    /**
+     * @param idCompartimento Compartimento
+     * @return true se o último comando executado no compartimento o abriu
+     */
+    public boolean isAberto(UUID idCompartimento) {
+        return abertos.getOrDefault(idCompartimento, false);
+    }
+
+    /**
+     * @param idArmario Armário
+     * @return Comandos executados pelo controlador do armário, em ordem de execução
+     */
+    public List<ComandoArmario> executados(UUID idArmario) {
+        List<ComandoArmario> doArmario = executados.getOrDefault(idArmario, List.of());
+        synchronized (doArmario) {
+            return List.copyOf(doArmario);
+        }
+    }
+
+    /**
+     * @return Quantidade de comandos recebidos enquanto outro do mesmo armário executava
+     */
+    public int sobreposicoes() {
+        return sobreposicoes.get();
+    }
+
+    private static boolean consumir(Map<UUID, AtomicInteger> contadores, UUID idCompartimento) {
+        AtomicInteger restantes = contadores.get(idCompartimento);
+        return restantes != null && restantes.getAndUpdate(valor -> Math.max(valor - 1, 0)) > 0;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.dto.ComandoArmario;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Meio pelo qual os comandos chegam aos controladores dos armários. O envio não deve bloquear:
+ * a confirmação chega depois, pelo futuro devolvido.
+ */
+public interface TransporteComandoArmario {
+
+    /**
+     * Entrega um comando ao controlador do armário.
+     *
+     * @param comando Comando a executar
+     * @return Futuro concluído com o ack do controlador, concluído com erro se o controlador
+     *         recusar o comando, ou nunca concluído se o ack se perder (o tempo limite fica com
+     *         quem enviou)
+     */
+    CompletableFuture<Void> enviar(ComandoArmario comando);
+}
@@ -0,0 +1,35 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Meio pelo qual as instâncias da aplicação trocam invalidações de cache. Cada lote enviado é
+ * entregue a todos os receptores assinados, inclusive aos da própria instância, que os
+ * identificam pela origem.
+ */
+public interface TransporteInvalidacao {
+
+    /**
+     * Envia um lote a todas as instâncias.
+     *
+     * @param lote Lote de invalidações
+     */
+    void enviar(Lote lote);
+
+    /**
+     * Registra o receptor dos lotes enviados por qualquer instância.
+     *
+     * @param receptor Receptor dos lotes
+     */
+    void assinar(Consumer<Lote> receptor);
+
+    /**
+     * @param origem Identificador da instância que enviou o lote
+     * @param invalidacoes Invalidações do lote
+     */
+    record Lote(String origem, List<InvalidacaoCacheEvent> invalidacoes) {
+    }
+}
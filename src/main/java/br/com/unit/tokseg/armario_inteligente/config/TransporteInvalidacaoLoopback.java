@@ -0,0 +1,25 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transporte em memória: entrega cada lote, na mesma thread, aos receptores assinados nesta
+ * instância do transporte. Serve para instância única e para testes, em que vários barramentos
+ * compartilham o mesmo transporte como se fossem instâncias diferentes.
+ */
+public class TransporteInvalidacaoLoopback implements TransporteInvalidacao {
+
+    private final List<Consumer<Lote>> receptores = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void enviar(Lote lote) {
+        receptores.forEach(receptor -> receptor.accept(lote));
+    }
+
+    @Override
+    public void assinar(Consumer<Lote> receptor) {
+        receptores.add(receptor);
+    }
+}
@@ -0,0 +1,178 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Transporte pelo LISTEN/NOTIFY do PostgreSQL: cada lote vira um {@code pg_notify} em JSON no
+ * canal configurado, e uma thread mantém uma conexão dedicada, fora do pool, escutando o canal.
+ *
+ * O PostgreSQL limita a mensagem a 8000 bytes, então lotes maiores são divididos ao meio até
+ * caberem. Se a conexão de escuta cair, as notificações enviadas até a reconexão se perdem; por
+ * isso, ao reconectar, o transporte entrega aos receptores uma invalidação de todos os caches.
+ */
+public class TransporteInvalidacaoPostgres implements TransporteInvalidacao, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransporteInvalidacaoPostgres.class);
+
+    /** Margem abaixo do limite de 8000 bytes do PostgreSQL. */
+    static final int TAMANHO_MAXIMO_MENSAGEM = 7900;
+
+    private static final Pattern NOME_CANAL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String ORIGEM_RECONEXAO = "reconexao";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConexaoEscuta conexaoEscuta;
+    private final String canal;
+    private final ObjectMapper objectMapper;
+    private final Duration esperaReconexao;
+    private final List<Consumer<Lote>> receptores = new CopyOnWriteArrayList<>();
+    private volatile Thread escuta;
+    private volatile boolean encerrado;
+
+    /**
+     * @param jdbcTemplate JdbcTemplate do pool, usado para enviar as notificações
+     * @param conexaoEscuta Abre a conexão dedicada à escuta
+     * @param canal Nome do canal (minúsculas, dígitos e sublinhado)
+     * @param objectMapper Serializador dos lotes
+     * @param esperaReconexao Espera entre tentativas de reconectar a escuta
+     * @throws IllegalArgumentException se o nome do canal for inválido
+     */
+    public TransporteInvalidacaoPostgres(JdbcTemplate jdbcTemplate, ConexaoEscuta conexaoEscuta, String canal,
+            ObjectMapper objectMapper, Duration esperaReconexao) {
+        if (canal == null || !NOME_CANAL.matcher(canal).matches()) {
+            throw new IllegalArgumentException("Nome de canal inválido: " + canal);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.conexaoEscuta = conexaoEscuta;
+        this.canal = canal;
+        this.objectMapper = objectMapper;
+        this.esperaReconexao = esperaReconexao;
+    }
+
+    @Override
+    public void enviar(Lote lote) {
+        String mensagem = serializar(lote);
+        if (mensagem.getBytes(StandardCharsets.UTF_8).length > TAMANHO_MAXIMO_MENSAGEM) {
+            List<InvalidacaoCacheEvent> invalidacoes = lote.invalidacoes();
+            if (invalidacoes.size() > 1) {
+                int meio = invalidacoes.size() / 2;
+                enviar(new Lote(lote.origem(), invalidacoes.subList(0, meio)));
+                enviar(new Lote(lote.origem(), invalidacoes.subList(meio, invalidacoes.size())));
+                return;
+            }
+            // Uma única invalidação grande demais (chave enorme): amplia para a região inteira
+            InvalidacaoCacheEvent invalidacao = invalidacoes.get(0);
+            mensagem = serializar(new Lote(lote.origem(),
+                    List.of(new InvalidacaoCacheEvent(invalidacao.regiao(), null, null))));
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultado -> null, canal, mensagem);
+    }
+
+    @Override
+    public synchronized void assinar(Consumer<Lote> receptor) {
+        receptores.add(receptor);
+        if (escuta == null) {
+            escuta = new Thread(this::escutar, "invalidacao-" + canal);
+            escuta.setDaemon(true);
+            escuta.start();
+        }
+    }
+
+    @Override
+    public void close() {
+        encerrado = true;
+        Thread thread = escuta;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void escutar() {
+        boolean reconexao = false;
+        while (!encerrado) {
+            try (Connection conexao = conexaoEscuta.abrir()) {
+                try (Statement comando = conexao.createStatement()) {
+                    comando.execute("LISTEN " + canal);
+                }
+                if (reconexao) {
+                    logger.info("Escuta do canal {} restabelecida; invalidando todos os caches", canal);
+                    entregar(new Lote(ORIGEM_RECONEXAO, List.of(InvalidacaoCacheEvent.tudo())));
+                }
+                reconexao = true;
+                PGConnection pg = conexao.unwrap(PGConnection.class);
+                while (!encerrado) {
+                    PGNotification[] notificacoes = pg.getNotifications(500);
+                    if (notificacoes == null) {
+                        continue;
+                    }
+                    for (PGNotification notificacao : notificacoes) {
+                        receber(notificacao.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (encerrado) {
+                    return;
+                }
+                logger.warn("Erro na escuta do canal {}: {}", canal, e.getMessage());
+                reconexao = true;
+                try {
+                    Thread.sleep(esperaReconexao.toMillis());
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receber(String mensagem) {
+        try {
+            entregar(objectMapper.readValue(mensagem, Lote.class));
+        } catch (JsonProcessingException e) {
+            logger.warn("Mensagem de invalidação inválida no canal {}: {}", canal, e.getMessage());
+        }
+    }
+
+    private void entregar(Lote lote) {
+        for (Consumer<Lote> receptor : receptores) {
+            try {
+                receptor.accept(lote);
+            } catch (RuntimeException e) {
+                logger.error("Erro ao aplicar invalidações recebidas: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private String serializar(Lote lote) {
+        try {
+            return objectMapper.writeValueAsString(lote);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o lote de invalidações", e);
+        }
+    }
+
+    /**
+     * Abre a conexão dedicada à escuta, que fica aberta enquanto a aplicação roda.
+     */
+    @FunctionalInterface
+    public interface ConexaoEscuta {
+        Connection abrir() throws SQLException;
+    }
+}
@@ -1,15 +1,32 @@
 package br.com.unit.tokseg.armario_inteligente.controller;
 
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Armario;
 import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
 import br.com.unit.tokseg.armario_inteligente.service.ArmarioService;
+import br.com.unit.tokseg.armario_inteligente.service.CacheArmarioService;
+import br.com.unit.tokseg.armario_inteligente.service.VersaoArmarioService;
+import br.com.unit.tokseg.armario_inteligente.util.RespostaSerializada;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Controller responsável por gerenciar as operações relacionadas aos armários inteligentes.
@@ -24,19 +41,38 @@ import java.util.UUID;
  * - GET /api/armarios/filtro: Busca armários por status e localização (AUTENTICADO)
  * - PUT /api/armarios/{id}/status: Atualiza o status de um armário (ADMIN)
  * - GET /api/armarios/contar/{status}: Conta armários por status (AUTENTICADO)
+ *
+ * As consultas respondem com um ETag forte da versão dos armários envolvidos
+ * ({@link VersaoArmarioService}); com If-None-Match igual a ele, respondem 304 sem consultar o
+ * banco nem serializar a lista. A lista completa e a lista por status guardam o corpo JSON já
+ * serializado (e compactado com gzip, quando grande) no cache, e o escrevem direto na resposta.
  */
 @RestController
 @RequestMapping("/api/armarios")
 public class ArmarioController {
 
     private final ArmarioService armarioService;
+    private final VersaoArmarioService versaoArmarioService;
+    private final CacheArmarioService cacheArmarioService;
+    private final ObjectMapper objectMapper;
+    private final long tamanhoMinimoGzip;
 
     /**
      * Construtor explícito para inicializar o serviço de armário.
      * @param armarioService Serviço de armário a ser injetado
+     * @param versaoArmarioService Serviço das versões usadas como ETag
+     * @param cacheArmarioService Cache com os corpos já serializados das listagens
+     * @param objectMapper Serializador JSON das respostas
+     * @param tamanhoMinimoGzip Tamanho a partir do qual os corpos em cache também são compactados
      */
-    public ArmarioController(ArmarioService armarioService) {
+    public ArmarioController(ArmarioService armarioService, VersaoArmarioService versaoArmarioService,
+            CacheArmarioService cacheArmarioService, ObjectMapper objectMapper,
+            @Value("${cache.respostas-armarios.gzip-minimo:1KB}") DataSize tamanhoMinimoGzip) {
         this.armarioService = armarioService;
+        this.versaoArmarioService = versaoArmarioService;
+        this.cacheArmarioService = cacheArmarioService;
+        this.objectMapper = objectMapper;
+        this.tamanhoMinimoGzip = tamanhoMinimoGzip.toBytes();
     }
 
     /**
@@ -49,25 +85,26 @@ public class ArmarioController {
      */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Armario> criar(@Valid @RequestBody Armario armario) {
+    public ResponseEntity<ArmarioResposta> criar(@Valid @RequestBody Armario armario) {
         if (armarioService.existeNumero(armario.getNumero())) {
             return ResponseEntity.badRequest().build();
         }
 
         Armario novo = armarioService.salvar(armario);
-        return ResponseEntity.ok(novo);
+        return ResponseEntity.ok(ArmarioResposta.de(novo));
     }
 
     /**
      * Lista todos os armários cadastrados no sistema.
      * Requer autenticação.
      * 
-     * @return Lista de todos os armários
+     * @param requisicao Requisição atual
+     * @param resposta Resposta em que a lista é escrita
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Armario>> listarTodos() {
-        return ResponseEntity.ok(armarioService.listarTodos());
+    public void listarTodos(HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        responderSerializado(null, requisicao, resposta);
     }
 
     /**
@@ -75,12 +112,14 @@ public class ArmarioController {
      * Requer autenticação.
      * 
      * @param status Status dos armários a serem buscados
-     * @return Lista de armários com o status especificado
+     * @param requisicao Requisição atual
+     * @param resposta Resposta em que a lista de armários com o status é escrita
      */
     @GetMapping("/status/{status}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Armario>> buscarPorStatus(@PathVariable ArmarioStatus status) {
-        return ResponseEntity.ok(armarioService.buscarPorStatus(status));
+    public void buscarPorStatus(@PathVariable ArmarioStatus status, HttpServletRequest requisicao,
+            HttpServletResponse resposta) throws IOException {
+        responderSerializado(status, requisicao, resposta);
     }
 
     /**
@@ -92,8 +131,10 @@ public class ArmarioController {
      */
     @GetMapping("/localizacao/{localizacao}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Armario>> buscarPorLocalizacao(@PathVariable String localizacao) {
-        return ResponseEntity.ok(armarioService.buscarPorLocalizacao(localizacao));
+    public ResponseEntity<List<ArmarioResposta>> buscarPorLocalizacao(@PathVariable String localizacao,
+            WebRequest requisicao) {
+        return condicional(requisicao, versaoArmarioService.etagLocalizacao(localizacao),
+                () -> armarioService.buscarPorLocalizacao(localizacao));
     }
 
     /**
@@ -106,10 +147,12 @@ public class ArmarioController {
      */
     @GetMapping("/filtro")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Armario>> buscarPorStatusELocalizacao(
+    public ResponseEntity<List<ArmarioResposta>> buscarPorStatusELocalizacao(
             @RequestParam ArmarioStatus status,
-            @RequestParam String localizacao) {
-        return ResponseEntity.ok(armarioService.buscarPorStatusELocalizacao(status, localizacao));
+            @RequestParam String localizacao,
+            WebRequest requisicao) {
+        return condicional(requisicao, versaoArmarioService.etagLocalizacao(localizacao),
+                () -> armarioService.buscarPorStatusELocalizacao(status, localizacao));
     }
 
     /**
@@ -122,10 +165,11 @@ public class ArmarioController {
      */
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Armario> atualizarStatus(
+    public ResponseEntity<ArmarioResposta> atualizarStatus(
             @PathVariable UUID id,
             @RequestParam ArmarioStatus novoStatus) {
         return armarioService.atualizarStatus(id, novoStatus)
+                .map(ArmarioResposta::de)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -139,9 +183,13 @@ public class ArmarioController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Armario> buscarPorId(@PathVariable UUID id) {
+    public ResponseEntity<ArmarioResposta> buscarPorId(@PathVariable UUID id, WebRequest requisicao) {
+        String etag = versaoArmarioService.etagArmario(id);
+        if (etag != null && requisicao.checkNotModified(etag)) {
+            return null;
+        }
         return armarioService.buscarPorId(id)
-                .map(ResponseEntity::ok)
+                .map(armario -> comEtag(etag).body(armario))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -154,7 +202,62 @@ public class ArmarioController {
      */
     @GetMapping("/contar/{status}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Long> contarPorStatus(@PathVariable ArmarioStatus status) {
-        return ResponseEntity.ok(armarioService.contarPorStatus(status));
+    public ResponseEntity<Long> contarPorStatus(@PathVariable ArmarioStatus status, WebRequest requisicao) {
+        return condicional(requisicao, versaoArmarioService.etagConjunto(),
+                () -> armarioService.contarPorStatus(status));
+    }
+
+    /**
+     * Responde 304 quando o If-None-Match da requisição é o ETag atual; senão executa a consulta.
+     * O ETag é lido antes da consulta, então uma gravação confirmada no meio dela não fica escondida.
+     *
+     * @param requisicao Requisição atual
+     * @param etag ETag da versão atual, ou nulo quando a resposta não é versionada
+     * @param consulta Consulta que monta o corpo da resposta
+     * @return Resposta com o corpo e o ETag, ou nulo quando o 304 já foi preparado
+     */
+    private <T> ResponseEntity<T> condicional(WebRequest requisicao, String etag, Supplier<T> consulta) {
+        if (etag != null && requisicao.checkNotModified(etag)) {
+            return null;
+        }
+        return comEtag(etag).body(consulta.get());
+    }
+
+    /**
+     * Responde uma listagem sem filtro de localização com o corpo em cache, serializando-o só
+     * quando não está lá. Segue as mesmas regras de ETag de {@link #condicional}.
+     *
+     * @param status Status dos armários, ou nulo para a lista completa
+     * @param requisicao Requisição atual
+     * @param resposta Resposta em que o corpo é escrito
+     */
+    private void responderSerializado(ArmarioStatus status, HttpServletRequest requisicao,
+            HttpServletResponse resposta) throws IOException {
+        String etag = versaoArmarioService.etagConjunto();
+        if (etag != null) {
+            if (new ServletWebRequest(requisicao, resposta).checkNotModified(etag)) {
+                return;
+            }
+            resposta.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        RespostaSerializada corpo = cacheArmarioService.buscarRespostaArmarios(status, () -> serializar(
+                status != null ? armarioService.buscarPorStatus(status) : armarioService.listarTodos()));
+        corpo.escrever(requisicao, resposta);
+    }
+
+    private RespostaSerializada serializar(List<ArmarioResposta> armarios) {
+        try {
+            return RespostaSerializada.de(objectMapper.writeValueAsBytes(armarios), tamanhoMinimoGzip);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ResponseEntity.BodyBuilder comEtag(String etag) {
+        if (etag == null) {
+            return ResponseEntity.ok();
+        }
+        // O cliente pode guardar a resposta, mas precisa revalidá-la a cada uso
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate());
     }
 }
@@ -0,0 +1,69 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.model.TipoComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.service.ComandoArmarioService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controller dos comandos às portas dos compartimentos.
+ * A resposta sai quando o controlador do armário confirma o comando (ou quando o envio desiste),
+ * sem segurar uma thread do servidor durante a espera. Sem transporte configurado
+ * ({@code app.comandos.transporte}) o endpoint não é registrado.
+ *
+ * Endpoints disponíveis:
+ * - POST /api/compartimentos/{id}/comandos?tipo={ABRIR|TRAVAR}: Envia um comando à porta do compartimento (ADMIN, PORTEIRO)
+ */
+@RestController
+@ConditionalOnProperty(prefix = "app.comandos", name = "transporte")
+@RequestMapping("/api/compartimentos/{id}/comandos")
+public class ComandoArmarioController {
+
+    private final ComandoArmarioService comandoArmarioService;
+
+    /**
+     * Construtor que recebe o serviço de comandos via injeção de dependência.
+     *
+     * @param comandoArmarioService Serviço de comandos dos armários
+     */
+    public ComandoArmarioController(ComandoArmarioService comandoArmarioService) {
+        this.comandoArmarioService = comandoArmarioService;
+    }
+
+    /**
+     * Envia um comando à porta do compartimento, pela fila do armário dele.
+     * Requer perfil ADMIN ou PORTEIRO.
+     *
+     * @param id ID do compartimento
+     * @param tipo Comando
+     * @return Resultado do comando (200 se confirmado, 409 se recusado pelo armário, 504 sem
+     *         confirmação), 404 se o compartimento não existir, 400 se for inválido ou 503 se a
+     *         fila do armário estiver cheia
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public CompletableFuture<ResponseEntity<ResultadoComandoArmario>> enviar(@PathVariable UUID id,
+            @RequestParam TipoComandoArmario tipo) {
+        try {
+            return comandoArmarioService.enviar(id, tipo).thenApply(resultado -> switch (resultado.situacao()) {
+                case CONFIRMADO -> ResponseEntity.ok(resultado);
+                case RECUSADO -> ResponseEntity.status(HttpStatus.CONFLICT).body(resultado);
+                case SEM_CONFIRMACAO -> ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(resultado);
+            });
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        } catch (EntityNotFoundException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+    }
+}
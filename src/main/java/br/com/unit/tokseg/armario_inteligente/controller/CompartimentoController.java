@@ -1,5 +1,6 @@
 package br.com.unit.tokseg.armario_inteligente.controller;
 
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
 import br.com.unit.tokseg.armario_inteligente.service.CompartimentoService;
 import org.springframework.http.ResponseEntity;
@@ -40,7 +41,7 @@ public class CompartimentoController {
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Compartimento>> listarTodos() {
+    public ResponseEntity<List<CompartimentoResposta>> listarTodos() {
         return ResponseEntity.ok(compartimentoService.listarTodos());
     }
 
@@ -52,7 +53,7 @@ public class CompartimentoController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Compartimento> buscarPorId(@PathVariable UUID id) {
+    public ResponseEntity<CompartimentoResposta> buscarPorId(@PathVariable UUID id) {
         return compartimentoService.buscarPorId(id).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -65,8 +66,8 @@ public class CompartimentoController {
      */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Compartimento> criar(@RequestBody Compartimento compartimento) {
-        return ResponseEntity.ok(compartimentoService.salvar(compartimento));
+    public ResponseEntity<CompartimentoResposta> criar(@RequestBody Compartimento compartimento) {
+        return ResponseEntity.ok(CompartimentoResposta.de(compartimentoService.salvar(compartimento)));
     }
 
     /**
@@ -0,0 +1,51 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.dto.MutacaoEdgeRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.service.ReconciliacaoEdgeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller que recebe as alterações feitas nos nós edge (modo offline dos prédios).
+ * O nó recebe os dados do central por {@code GET /api/sync} e envia por aqui o seu journal local.
+ *
+ * Endpoints disponíveis:
+ * - POST /api/edge/mutacoes: Aplica um lote de alterações de um nó e devolve o resultado de cada uma (ADMIN, PORTEIRO)
+ */
+@RestController
+@RequestMapping("/api/edge")
+public class EdgeController {
+
+    private final ReconciliacaoEdgeService reconciliacaoEdgeService;
+
+    /**
+     * Construtor que recebe o serviço de reconciliação via injeção de dependência.
+     *
+     * @param reconciliacaoEdgeService Serviço que aplica as alterações dos nós
+     */
+    public EdgeController(ReconciliacaoEdgeService reconciliacaoEdgeService) {
+        this.reconciliacaoEdgeService = reconciliacaoEdgeService;
+    }
+
+    /**
+     * Aplica as alterações do journal de um nó edge, na ordem enviada. Alterações conflitantes são
+     * resolvidas pelas regras do central e voltam com o estado final; as inválidas voltam rejeitadas.
+     * Requer perfil ADMIN ou PORTEIRO.
+     *
+     * @param mutacoes Alterações do nó (até 1000)
+     * @return Resultado de cada alteração, ou erro 400 se o lote for inválido
+     */
+    @PostMapping("/mutacoes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<List<ResultadoMutacaoEdge>> aplicar(@RequestBody List<MutacaoEdgeRequest> mutacoes) {
+        try {
+            return ResponseEntity.ok(reconciliacaoEdgeService.aplicar(mutacoes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
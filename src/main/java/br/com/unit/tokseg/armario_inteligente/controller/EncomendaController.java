@@ -1,12 +1,27 @@
 package br.com.unit.tokseg.armario_inteligente.controller;
 
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada;
+import br.com.unit.tokseg.armario_inteligente.dto.EstadoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.dto.EventoEncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.PaginaCursor;
+import br.com.unit.tokseg.armario_inteligente.dto.RelatorioCicloEncomendas;
 import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.service.BuscaEncomendaService;
 import br.com.unit.tokseg.armario_inteligente.service.EncomendaService;
+import br.com.unit.tokseg.armario_inteligente.service.HistoricoEncomendaService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controller responsável por gerenciar as operações relacionadas às encomendas.
@@ -14,23 +29,38 @@ import java.util.List;
  * 
  * Endpoints disponíveis:
  * - GET /api/encomendas: Lista todas as encomendas (AUTENTICADO)
+ * - GET /api/encomendas/minhas: Lista as encomendas do usuário autenticado, paginadas por cursor (AUTENTICADO)
+ * - GET /api/encomendas/minhas/retiradas?inicio=&fim=: Lista as encomendas já retiradas do usuário autenticado (AUTENTICADO)
+ * - GET /api/encomendas/busca?q=: Busca encomendas em aberto por descrição ou remetente (ADMIN, PORTEIRO)
+ * - GET /api/encomendas/retiradas?inicio=&fim=&usuario=: Lista as encomendas já retiradas, inclusive arquivadas (ADMIN, PORTEIRO)
+ * - GET /api/encomendas/relatorios/ciclo?inicio=&fim=: Relatório do ciclo de vida das encomendas no período (ADMIN)
  * - GET /api/encomendas/{id}: Busca uma encomenda específica (AUTENTICADO)
+ * - GET /api/encomendas/{id}/historico: Lista os eventos do ciclo de vida da encomenda (ADMIN, PORTEIRO)
+ * - GET /api/encomendas/{id}/estado: Estado atual da encomenda, calculado a partir do histórico (AUTENTICADO)
  * - POST /api/encomendas: Cria uma nova encomenda (AUTENTICADO)
- * - DELETE /api/encomendas/{id}: Remove uma encomenda (ADMIN)
+ * - POST /api/encomendas/{id}/devolucao: Registra a devolução da encomenda ao remetente (ADMIN, PORTEIRO)
+ * - DELETE /api/encomendas/{id}: Registra a retirada de uma encomenda (ADMIN)
  */
 @RestController
 @RequestMapping("/api/encomendas")
 public class EncomendaController {
 
     private final EncomendaService encomendaService;
+    private final BuscaEncomendaService buscaEncomendaService;
+    private final HistoricoEncomendaService historicoEncomendaService;
 
     /**
-     * Construtor que recebe o serviço de encomendas via injeção de dependência.
+     * Construtor que recebe os serviços de encomendas via injeção de dependência.
      * 
      * @param encomendaService Serviço de encomendas a ser injetado
+     * @param buscaEncomendaService Serviço de busca textual de encomendas
+     * @param historicoEncomendaService Serviço do histórico do ciclo de vida das encomendas
      */
-    public EncomendaController(EncomendaService encomendaService) {
+    public EncomendaController(EncomendaService encomendaService, BuscaEncomendaService buscaEncomendaService,
+            HistoricoEncomendaService historicoEncomendaService) {
         this.encomendaService = encomendaService;
+        this.buscaEncomendaService = buscaEncomendaService;
+        this.historicoEncomendaService = historicoEncomendaService;
     }
 
     /**
@@ -41,10 +71,112 @@ public class EncomendaController {
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Encomenda>> listarTodas() {
+    public ResponseEntity<List<EncomendaResposta>> listarTodas() {
         return ResponseEntity.ok(encomendaService.listarTodas());
     }
 
+    /**
+     * Lista as encomendas do usuário autenticado, da mais recente para a mais antiga.
+     * A resposta traz o cursor da próxima página, que deve ser repassado no parâmetro {@code cursor}.
+     * Requer autenticação.
+     * 
+     * @param usuario Usuário autenticado
+     * @param cursor Cursor da página anterior (opcional)
+     * @param limite Quantidade de itens por página (padrão 20, máximo 100)
+     * @return Página de encomendas do usuário ou erro 400 se os parâmetros forem inválidos
+     */
+    @GetMapping("/minhas")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaginaCursor<EncomendaResumo>> listarMinhas(
+            @AuthenticationPrincipal Usuario usuario,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(encomendaService.listarDoUsuario(usuario.getId(), cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Lista as encomendas já retiradas do usuário autenticado, recebidas no período.
+     * Sem período informado, considera os últimos 90 dias.
+     * Requer autenticação.
+     * 
+     * @param usuario Usuário autenticado
+     * @param inicio Início do período (ISO-8601, opcional)
+     * @param fim Fim do período (ISO-8601, opcional)
+     * @return Encomendas retiradas ou erro 400 se o período for inválido
+     */
+    @GetMapping("/minhas/retiradas")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<EncomendaRetirada>> listarMinhasRetiradas(
+            @AuthenticationPrincipal Usuario usuario,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        return listarRetiradas(usuario.getId(), inicio, fim);
+    }
+
+    /**
+     * Lista as encomendas já retiradas, recebidas no período, inclusive as arquivadas.
+     * Sem período informado, considera os últimos 90 dias.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param inicio Início do período (ISO-8601, opcional)
+     * @param fim Fim do período (ISO-8601, opcional)
+     * @param usuario ID do usuário para filtrar (opcional)
+     * @return Encomendas retiradas ou erro 400 se o período for inválido
+     */
+    @GetMapping("/retiradas")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<List<EncomendaRetirada>> listarRetiradas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) UUID usuario) {
+        return listarRetiradas(usuario, inicio, fim);
+    }
+
+    /**
+     * Busca encomendas em aberto pela descrição ou pelo remetente, sem diferenciar acentos.
+     * Os resultados vêm ordenados por relevância.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param q Texto da busca (ex.: "caixa amazon 302")
+     * @param limite Quantidade máxima de resultados (padrão 20)
+     * @return Encomendas encontradas ou erro 400 se a consulta for vazia
+     */
+    @GetMapping("/busca")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<List<EncomendaResumo>> buscar(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(buscaEncomendaService.buscar(q, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Gera o relatório do ciclo de vida das encomendas no período, a partir do histórico.
+     * Requer permissão de ADMIN.
+     * 
+     * @param inicio Início do período (ISO-8601, inclusivo)
+     * @param fim Fim do período (ISO-8601, exclusivo)
+     * @return Relatório do período ou erro 400 se o período for inválido
+     */
+    @GetMapping("/relatorios/ciclo")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RelatorioCicloEncomendas> gerarRelatorioCiclo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        try {
+            return ResponseEntity.ok(historicoEncomendaService.gerarRelatorio(inicio, fim));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Busca uma encomenda específica pelo ID.
      * Requer autenticação.
@@ -54,31 +186,85 @@ public class EncomendaController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Encomenda> buscarPorId(@PathVariable String id) {
+    public ResponseEntity<EncomendaResposta> buscarPorId(@PathVariable String id) {
         return encomendaService.buscarPorId(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Lista os eventos do ciclo de vida de uma encomenda, inclusive depois de retirada.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param id ID da encomenda
+     * @return Eventos da encomenda em ordem cronológica
+     */
+    @GetMapping("/{id}/historico")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<List<EventoEncomendaResumo>> listarHistorico(@PathVariable String id) {
+        return ResponseEntity.ok(historicoEncomendaService.listarHistorico(id));
+    }
+
+    /**
+     * Retorna o estado atual de uma encomenda, calculado a partir do histórico.
+     * Requer autenticação.
+     * 
+     * @param id ID da encomenda
+     * @return Estado da encomenda ou erro 404 se não houver histórico
+     */
+    @GetMapping("/{id}/estado")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<EstadoEncomenda> buscarEstado(@PathVariable String id) {
+        return historicoEncomendaService.buscarEstadoAtual(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Cria uma nova encomenda no sistema.
      * Requer autenticação.
      * 
      * @param encomenda Dados da encomenda a ser criada
-     * @return Encomenda criada
+     * @return Encomenda criada ou erro 400 se os dados forem inválidos (inclusive ID de encomenda arquivada)
      */
     @PostMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Encomenda> criar(@RequestBody Encomenda encomenda) {
-        return ResponseEntity.ok(encomendaService.salvar(encomenda));
+    public ResponseEntity<EncomendaResposta> criar(@RequestBody Encomenda encomenda) {
+        try {
+            return ResponseEntity.ok(EncomendaResposta.de(encomendaService.salvar(encomenda)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Remove uma encomenda do sistema.
+     * Registra a devolução de uma encomenda ao remetente.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param id ID da encomenda devolvida
+     * @param motivo Motivo da devolução (opcional)
+     * @return ResponseEntity sem conteúdo (204), erro 400 se o motivo for longo demais
+     *         ou 404 se a encomenda não existir
+     */
+    @PostMapping("/{id}/devolucao")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<Void> devolver(@PathVariable String id, @RequestParam(required = false) String motivo) {
+        try {
+            encomendaService.devolver(id, motivo);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Registra a retirada de uma encomenda.
      * Requer permissão de ADMIN.
      * 
-     * @param id ID da encomenda a ser removida
-     * @return ResponseEntity sem conteúdo (204) se removida com sucesso
+     * @param id ID da encomenda retirada
+     * @return ResponseEntity sem conteúdo (204) se registrada com sucesso
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -86,4 +272,14 @@ public class EncomendaController {
         encomendaService.remover(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    private ResponseEntity<List<EncomendaRetirada>> listarRetiradas(UUID idUsuario, LocalDateTime inicio, LocalDateTime fim) {
+        LocalDateTime fimPeriodo = fim != null ? fim : LocalDateTime.now();
+        LocalDateTime inicioPeriodo = inicio != null ? inicio : fimPeriodo.minusDays(90);
+        try {
+            return ResponseEntity.ok(encomendaService.listarRetiradas(idUsuario, inicioPeriodo, fimPeriodo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
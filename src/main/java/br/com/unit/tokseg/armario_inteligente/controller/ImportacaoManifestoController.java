@@ -0,0 +1,91 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.dto.StatusImportacaoManifesto;
+import br.com.unit.tokseg.armario_inteligente.service.ImportacaoManifestoService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Controller responsável pela importação dos manifestos de entregas das transportadoras.
+ * A importação roda em segundo plano; o envio devolve o ID para acompanhar o progresso.
+ * 
+ * Endpoints disponíveis:
+ * - POST /api/encomendas/manifestos: Envia um manifesto CSV para importação (ADMIN, PORTEIRO)
+ * - GET /api/encomendas/manifestos/{id}: Consulta o progresso de uma importação (ADMIN, PORTEIRO)
+ * - GET /api/encomendas/manifestos/{id}/erros: Baixa o arquivo com as linhas rejeitadas (ADMIN, PORTEIRO)
+ */
+@RestController
+@RequestMapping("/api/encomendas/manifestos")
+public class ImportacaoManifestoController {
+
+    private final ImportacaoManifestoService importacaoManifestoService;
+
+    /**
+     * Construtor que recebe o serviço de importação via injeção de dependência.
+     * 
+     * @param importacaoManifestoService Serviço de importação de manifestos
+     */
+    public ImportacaoManifestoController(ImportacaoManifestoService importacaoManifestoService) {
+        this.importacaoManifestoService = importacaoManifestoService;
+    }
+
+    /**
+     * Envia um manifesto CSV para importação em segundo plano.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param arquivo Arquivo CSV do manifesto
+     * @return Situação inicial da importação (202), erro 400 se o arquivo for vazio
+     *         ou 503 se houver importações demais na fila
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<StatusImportacaoManifesto> importar(@RequestParam("arquivo") MultipartFile arquivo) {
+        try {
+            return ResponseEntity.accepted().body(importacaoManifestoService.iniciar(arquivo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Consulta o progresso de uma importação.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param id ID da importação
+     * @return Situação da importação ou erro 404 se não existir
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<StatusImportacaoManifesto> buscarStatus(@PathVariable String id) {
+        return importacaoManifestoService.buscarStatus(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Baixa o arquivo com as linhas rejeitadas de uma importação (linha, motivo e conteúdo).
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param id ID da importação
+     * @return Arquivo CSV de erros ou erro 404 se a importação não existir
+     */
+    @GetMapping("/{id}/erros")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<Resource> baixarErros(@PathVariable String id) {
+        return importacaoManifestoService.buscarArquivoErros(id)
+                .<ResponseEntity<Resource>>map(caminho -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"erros-" + id + ".csv\"")
+                        .body(new FileSystemResource(caminho)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
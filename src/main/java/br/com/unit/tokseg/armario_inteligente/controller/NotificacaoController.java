@@ -1,12 +1,24 @@
 package br.com.unit.tokseg.armario_inteligente.controller;
 
+import br.com.unit.tokseg.armario_inteligente.dto.ContagemNaoLidas;
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.PaginaCursor;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoLeitura;
+import br.com.unit.tokseg.armario_inteligente.dto.TransmissaoRequest;
 import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.service.ContadorNaoLidasService;
 import br.com.unit.tokseg.armario_inteligente.service.NotificacaoService;
+import br.com.unit.tokseg.armario_inteligente.service.TransmissaoNotificacaoService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Controller responsável por gerenciar as operações relacionadas às notificações do sistema.
@@ -14,8 +26,13 @@ import java.util.List;
  * 
  * Endpoints disponíveis:
  * - GET /api/notificacoes: Lista todas as notificações (AUTENTICADO)
+ * - GET /api/notificacoes/minhas: Caixa de entrada do usuário logado, paginada por cursor (AUTENTICADO)
+ * - PATCH /api/notificacoes/minhas/lidas: Marca como lidas as notificações informadas do usuário logado (AUTENTICADO)
+ * - PATCH /api/notificacoes/minhas/lidas/todas: Marca como lidas todas as notificações do usuário logado (AUTENTICADO)
+ * - GET /api/notificacoes/nao-lidas/contagem: Quantidade de notificações não lidas do usuário logado (AUTENTICADO)
  * - GET /api/notificacoes/{id}: Busca uma notificação específica (AUTENTICADO)
  * - POST /api/notificacoes: Cria uma nova notificação (ADMIN)
+ * - POST /api/notificacoes/transmissoes: Envia uma mensagem a um grupo de usuários (ADMIN, PORTEIRO)
  * - DELETE /api/notificacoes/{id}: Remove uma notificação (ADMIN)
  */
 @RestController
@@ -23,14 +40,22 @@ import java.util.List;
 public class NotificacaoController {
 
     private final NotificacaoService notificacaoService;
+    private final TransmissaoNotificacaoService transmissaoNotificacaoService;
+    private final ContadorNaoLidasService contadorNaoLidasService;
 
     /**
-     * Construtor que recebe o serviço de notificações via injeção de dependência.
+     * Construtor que recebe os serviços de notificações via injeção de dependência.
      * 
      * @param notificacaoService Serviço de notificações a ser injetado
+     * @param transmissaoNotificacaoService Serviço de envio de mensagens em massa
+     * @param contadorNaoLidasService Contador de notificações não lidas por usuário
      */
-    public NotificacaoController(NotificacaoService notificacaoService) {
+    public NotificacaoController(NotificacaoService notificacaoService,
+            TransmissaoNotificacaoService transmissaoNotificacaoService,
+            ContadorNaoLidasService contadorNaoLidasService) {
         this.notificacaoService = notificacaoService;
+        this.transmissaoNotificacaoService = transmissaoNotificacaoService;
+        this.contadorNaoLidasService = contadorNaoLidasService;
     }
 
     /**
@@ -41,10 +66,85 @@ public class NotificacaoController {
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<Notificacao>> listarTodas() {
+    public ResponseEntity<List<NotificacaoResposta>> listarTodas() {
         return ResponseEntity.ok(notificacaoService.listarTodas());
     }
 
+    /**
+     * Lista as notificações do usuário autenticado, da mais recente para a mais antiga.
+     * A resposta traz o cursor da próxima página, que deve ser repassado no parâmetro {@code cursor}.
+     * Requer autenticação.
+     * 
+     * @param usuario Usuário autenticado
+     * @param cursor Cursor da página anterior (opcional)
+     * @param limite Quantidade de itens por página (padrão 20, máximo 100)
+     * @param naoLidas Se verdadeiro, lista apenas as não lidas (padrão falso)
+     * @return Página de notificações ou erro 400 se os parâmetros forem inválidos
+     */
+    @GetMapping("/minhas")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaginaCursor<NotificacaoResumo>> listarMinhas(
+            @AuthenticationPrincipal Usuario usuario,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite,
+            @RequestParam(defaultValue = "false") boolean naoLidas) {
+        try {
+            return ResponseEntity.ok(notificacaoService.listarDoUsuario(usuario.getId(), cursor, limite, naoLidas));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Marca como lidas as notificações informadas do usuário autenticado, em uma única operação.
+     * IDs de outros usuários ou já lidos são ignorados.
+     * Requer autenticação.
+     * 
+     * @param usuario Usuário autenticado
+     * @param ids IDs das notificações (até 1000)
+     * @return Quantidade de notificações marcadas e de não lidas restantes, ou erro 400 se a lista for inválida
+     */
+    @PatchMapping("/minhas/lidas")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ResultadoLeitura> marcarComoLidas(
+            @AuthenticationPrincipal Usuario usuario,
+            @RequestBody List<UUID> ids) {
+        try {
+            int marcadas = notificacaoService.marcarComoLidas(usuario.getId(), ids);
+            return ResponseEntity.ok(new ResultadoLeitura(marcadas, contadorNaoLidasService.contar(usuario.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Marca como lidas todas as notificações do usuário autenticado, em uma única operação.
+     * Requer autenticação.
+     * 
+     * @param usuario Usuário autenticado
+     * @return Quantidade de notificações marcadas e de não lidas restantes
+     */
+    @PatchMapping("/minhas/lidas/todas")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ResultadoLeitura> marcarTodasComoLidas(@AuthenticationPrincipal Usuario usuario) {
+        int marcadas = notificacaoService.marcarTodasComoLidas(usuario.getId());
+        return ResponseEntity.ok(new ResultadoLeitura(marcadas, contadorNaoLidasService.contar(usuario.getId())));
+    }
+
+    /**
+     * Retorna a quantidade de notificações não lidas do usuário logado.
+     * A contagem é mantida em memória e só consulta o banco na primeira chamada do usuário.
+     * Requer autenticação.
+     * 
+     * @param usuario Usuário autenticado
+     * @return Quantidade de notificações não lidas
+     */
+    @GetMapping("/nao-lidas/contagem")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ContagemNaoLidas> contarNaoLidas(@AuthenticationPrincipal Usuario usuario) {
+        return ResponseEntity.ok(new ContagemNaoLidas(contadorNaoLidasService.contar(usuario.getId())));
+    }
+
     /**
      * Busca uma notificação específica pelo ID.
      * Requer autenticação.
@@ -54,7 +154,7 @@ public class NotificacaoController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Notificacao> buscarPorId(@PathVariable String id) {
+    public ResponseEntity<NotificacaoResposta> buscarPorId(@PathVariable UUID id) {
         return notificacaoService.buscarPorId(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -69,8 +169,31 @@ public class NotificacaoController {
      */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Notificacao> criar(@RequestBody Notificacao notificacao) {
-        return ResponseEntity.ok(notificacaoService.salvar(notificacao));
+    public ResponseEntity<NotificacaoResposta> criar(@RequestBody Notificacao notificacao) {
+        return ResponseEntity.ok(NotificacaoResposta.de(notificacaoService.salvar(notificacao)));
+    }
+
+    /**
+     * Envia uma mensagem a um grupo de usuários, filtrado por tipo e/ou pela localização
+     * dos armários onde têm encomendas (ex.: moradores do Bloco A).
+     * O envio é feito em segundo plano.
+     * Requer permissão de ADMIN ou PORTEIRO.
+     * 
+     * @param requisicao Mensagem e filtros dos destinatários
+     * @return ResponseEntity 202 se o envio foi agendado, erro 400 se a requisição for inválida
+     *         ou 503 se a fila de envios estiver cheia
+     */
+    @PostMapping("/transmissoes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PORTEIRO')")
+    public ResponseEntity<Void> transmitir(@RequestBody TransmissaoRequest requisicao) {
+        try {
+            transmissaoNotificacaoService.transmitir(requisicao);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     /**
@@ -82,7 +205,7 @@ public class NotificacaoController {
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> remover(@PathVariable String id) {
+    public ResponseEntity<Void> remover(@PathVariable UUID id) {
         notificacaoService.remover(id);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,52 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracoesSync;
+import br.com.unit.tokseg.armario_inteligente.service.RevisaoSyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller do feed de sincronização dos totens dos armários.
+ * O totem guarda a maior revisão recebida e pede só o que mudou depois dela.
+ *
+ * Endpoints disponíveis:
+ * - GET /api/sync?desde={revisao}: Alterações de armários, compartimentos e encomendas posteriores à revisão (AUTENTICADO)
+ */
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final RevisaoSyncService revisaoSyncService;
+
+    /**
+     * Construtor que recebe o serviço do feed via injeção de dependência.
+     *
+     * @param revisaoSyncService Serviço do feed de sincronização
+     */
+    public SyncController(RevisaoSyncService revisaoSyncService) {
+        this.revisaoSyncService = revisaoSyncService;
+    }
+
+    /**
+     * Lista as alterações posteriores à revisão informada, em ordem de revisão, com o estado atual
+     * de cada registro; registros excluídos vêm como removidos, sem dados. Quando {@code temMais}
+     * é verdadeiro, o totem deve pedir de novo a partir da revisão retornada.
+     * Requer autenticação.
+     *
+     * @param desde Maior revisão já recebida (padrão 0, tudo)
+     * @param limite Quantidade máxima de alterações (padrão 500, máximo 1000)
+     * @return Alterações e revisão para o próximo pedido, ou erro 400 se os parâmetros forem inválidos
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<AlteracoesSync> listarDesde(
+            @RequestParam(defaultValue = "0") long desde,
+            @RequestParam(defaultValue = "500") int limite) {
+        try {
+            return ResponseEntity.ok(revisaoSyncService.listarDesde(desde, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.unit.tokseg.armario_inteligente.controller;
 
+import br.com.unit.tokseg.armario_inteligente.dto.UsuarioResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Usuario;
 import br.com.unit.tokseg.armario_inteligente.service.UsuarioService;
 import org.springframework.http.ResponseEntity;
@@ -40,11 +41,11 @@ public class UsuarioController {
      * @return ResponseEntity com o usuário criado ou erro 400 se o email já existir
      */
     @PostMapping
-    public ResponseEntity<Usuario> criar(@RequestBody Usuario usuario) {
+    public ResponseEntity<UsuarioResposta> criar(@RequestBody Usuario usuario) {
         if (usuarioService.existeEmail(usuario.getEmail())) {
             return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(usuarioService.salvar(usuario));
+        return ResponseEntity.ok(UsuarioResposta.de(usuarioService.salvar(usuario)));
     }
 
     /**
@@ -53,7 +54,7 @@ public class UsuarioController {
      * @return Lista de todos os usuários
      */
     @GetMapping
-    public ResponseEntity<List<Usuario>> listar() {
+    public ResponseEntity<List<UsuarioResposta>> listar() {
         return ResponseEntity.ok(usuarioService.listarTodos());
     }
 
@@ -64,7 +65,7 @@ public class UsuarioController {
      * @return Usuário encontrado ou erro 404 se não existir
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Usuario> buscarPorId(@PathVariable UUID id) {
+    public ResponseEntity<UsuarioResposta> buscarPorId(@PathVariable UUID id) {
         return usuarioService.buscarPorId(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -0,0 +1,21 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+
+/**
+ * Alteração de um registro no feed de sincronização.
+ *
+ * @param revisao Revisão da alteração
+ * @param tipo Tipo do registro
+ * @param id ID do registro
+ * @param removido Se o registro foi excluído ou deixou de estar em aberto (o totem deve descartá-lo)
+ * @param dados Estado atual do registro ({@link ArmarioResposta}, {@link CompartimentoResposta} ou
+ *              {@link EncomendaResposta}), ou nulo quando removido
+ */
+public record AlteracaoSync(
+        long revisao,
+        TipoRegistroSync tipo,
+        String id,
+        boolean removido,
+        Object dados) {
+}
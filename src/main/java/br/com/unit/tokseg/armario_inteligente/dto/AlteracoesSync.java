@@ -0,0 +1,16 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import java.util.List;
+
+/**
+ * Resposta do feed de sincronização.
+ *
+ * @param revisao Revisão a informar no próximo pedido ({@code desde})
+ * @param temMais Se há mais alterações além das devolvidas (o totem deve pedir de novo em seguida)
+ * @param alteracoes Alterações em ordem de revisão, uma por registro
+ */
+public record AlteracoesSync(
+        long revisao,
+        boolean temMais,
+        List<AlteracaoSync> alteracoes) {
+}
@@ -0,0 +1,42 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Resposta dos endpoints de armário.
+ * A encomenda atual aparece só pelo ID, sem carregar a encomenda nem o morador.
+ */
+public record ArmarioResposta(
+        UUID id,
+        String numero,
+        ArmarioStatus status,
+        String localizacao,
+        String idEncomendaAtual) {
+
+    /**
+     * @return true se o armário está ocupado
+     */
+    @JsonProperty("ocupado")
+    public boolean ocupado() {
+        return status == ArmarioStatus.OCUPADO;
+    }
+
+    /**
+     * Monta a resposta a partir de uma entidade já carregada.
+     *
+     * @param armario Armário de origem
+     * @return Resposta do armário
+     */
+    public static ArmarioResposta de(Armario armario) {
+        return new ArmarioResposta(
+                armario.getId(),
+                armario.getNumero(),
+                armario.getStatus(),
+                armario.getLocalizacao(),
+                armario.getEncomendaAtual() != null ? armario.getEncomendaAtual().getIdEncomenda() : null);
+    }
+}
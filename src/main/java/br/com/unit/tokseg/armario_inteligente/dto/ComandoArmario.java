@@ -0,0 +1,23 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoComandoArmario;
+
+import java.util.UUID;
+
+/**
+ * Comando entregue ao controlador de um armário. As retentativas repetem o mesmo ID, para que o
+ * controlador possa reconhecer um comando já executado cujo ack se perdeu.
+ *
+ * @param id ID do comando
+ * @param idArmario Armário cujo controlador executa o comando
+ * @param idCompartimento Compartimento da porta
+ * @param tipo Comando
+ * @param tentativa Número da tentativa (a primeira é 1)
+ */
+public record ComandoArmario(
+        UUID id,
+        UUID idArmario,
+        UUID idCompartimento,
+        TipoComandoArmario tipo,
+        int tentativa) {
+}
@@ -0,0 +1,32 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+
+import java.util.UUID;
+
+/**
+ * Resposta dos endpoints de compartimento.
+ * O armário e a encomenda atual aparecem só pelo ID (e o número do armário).
+ */
+public record CompartimentoResposta(
+        UUID idCompartimento,
+        UUID idArmario,
+        String numeroArmario,
+        boolean ocupado,
+        String idEncomendaAtual) {
+
+    /**
+     * Monta a resposta a partir de uma entidade já carregada.
+     *
+     * @param compartimento Compartimento de origem
+     * @return Resposta do compartimento
+     */
+    public static CompartimentoResposta de(Compartimento compartimento) {
+        return new CompartimentoResposta(
+                compartimento.getIdCompartimento(),
+                compartimento.getArmario() != null ? compartimento.getArmario().getId() : null,
+                compartimento.getArmario() != null ? compartimento.getArmario().getNumero() : null,
+                compartimento.isOcupado(),
+                compartimento.getEncomendaAtual() != null ? compartimento.getEncomendaAtual().getIdEncomenda() : null);
+    }
+}
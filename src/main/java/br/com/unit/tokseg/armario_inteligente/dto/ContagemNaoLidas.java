@@ -0,0 +1,7 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+/**
+ * Quantidade de notificações não lidas do usuário.
+ */
+public record ContagemNaoLidas(long naoLidas) {
+}
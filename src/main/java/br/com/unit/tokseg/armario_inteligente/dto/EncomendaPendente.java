@@ -0,0 +1,32 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Dados mínimos de uma encomenda aguardando retirada, usados para controlar prazos em memória.
+ */
+public record EncomendaPendente(
+        String idEncomenda,
+        UUID idUsuario,
+        String descricao,
+        LocalDateTime dataRecebimento,
+        String condominio) {
+
+    /**
+     * Monta os dados a partir de uma entidade já carregada.
+     *
+     * @param encomenda Encomenda de origem
+     * @return Dados da encomenda pendente
+     */
+    public static EncomendaPendente de(Encomenda encomenda) {
+        return new EncomendaPendente(
+                encomenda.getIdEncomenda(),
+                encomenda.getUsuario() != null ? encomenda.getUsuario().getId() : null,
+                encomenda.getDescricao(),
+                encomenda.getDataRecebimento(),
+                encomenda.getCondominio());
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resposta dos endpoints de encomenda.
+ * Traz do armário só o ID e o número, e do morador só o ID e o nome.
+ */
+public record EncomendaResposta(
+        String idEncomenda,
+        String descricao,
+        String remetente,
+        LocalDateTime dataRecebimento,
+        LocalDateTime dataRetirada,
+        UUID idArmario,
+        String numeroArmario,
+        UUID idUsuario,
+        String nomeUsuario) {
+
+    /**
+     * Monta a resposta a partir de uma entidade já carregada.
+     *
+     * @param encomenda Encomenda de origem
+     * @return Resposta da encomenda
+     */
+    public static EncomendaResposta de(Encomenda encomenda) {
+        return new EncomendaResposta(
+                encomenda.getIdEncomenda(),
+                encomenda.getDescricao(),
+                encomenda.getRemetente(),
+                encomenda.getDataRecebimento(),
+                encomenda.getDataRetirada(),
+                encomenda.getArmario() != null ? encomenda.getArmario().getId() : null,
+                encomenda.getArmario() != null ? encomenda.getArmario().getNumero() : null,
+                encomenda.getUsuario() != null ? encomenda.getUsuario().getId() : null,
+                encomenda.getUsuario() != null ? encomenda.getUsuario().getNome() : null);
+    }
+}
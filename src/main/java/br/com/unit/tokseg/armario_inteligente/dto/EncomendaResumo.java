@@ -0,0 +1,34 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção enxuta de uma encomenda, usada nas listagens do morador e na busca textual.
+ * Lê apenas as colunas exibidas na tela, sem carregar armário nem usuário.
+ * O condomínio é usado internamente (índice de busca) e não é serializado.
+ */
+public record EncomendaResumo(
+        String idEncomenda,
+        String descricao,
+        String remetente,
+        LocalDateTime dataRecebimento,
+        @JsonIgnore String condominio) {
+
+    /**
+     * Monta o resumo a partir de uma entidade já carregada.
+     *
+     * @param encomenda Encomenda de origem
+     * @return Resumo da encomenda
+     */
+    public static EncomendaResumo de(Encomenda encomenda) {
+        return new EncomendaResumo(
+                encomenda.getIdEncomenda(),
+                encomenda.getDescricao(),
+                encomenda.getRemetente(),
+                encomenda.getDataRecebimento(),
+                encomenda.getCondominio());
+    }
+}
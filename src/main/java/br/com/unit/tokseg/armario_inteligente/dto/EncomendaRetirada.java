@@ -0,0 +1,17 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Encomenda já retirada, lida da tabela operacional ou do arquivo.
+ *
+ * @param arquivada Indica se a encomenda já foi movida para o arquivo
+ */
+public record EncomendaRetirada(
+        String idEncomenda,
+        String descricao,
+        String remetente,
+        LocalDateTime dataRecebimento,
+        LocalDateTime dataRetirada,
+        boolean arquivada) {
+}
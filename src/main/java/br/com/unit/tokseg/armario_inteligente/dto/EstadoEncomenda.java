@@ -0,0 +1,36 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.SnapshotEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado atual de uma encomenda, calculado a partir do último snapshot e dos eventos posteriores.
+ *
+ * @param eventosAposSnapshot Quantos eventos precisaram ser aplicados sobre o snapshot
+ */
+public record EstadoEncomenda(
+        String idEncomenda,
+        TipoEventoEncomenda situacao,
+        LocalDateTime dataRecebimento,
+        LocalDateTime dataArmazenamento,
+        String localArmazenamento,
+        LocalDateTime dataUltimaNotificacao,
+        LocalDateTime dataConclusao,
+        int totalEventos,
+        int eventosAposSnapshot) {
+
+    public static EstadoEncomenda de(SnapshotEncomenda snapshot, int eventosAposSnapshot) {
+        return new EstadoEncomenda(
+                snapshot.getIdEncomenda(),
+                snapshot.getSituacao(),
+                snapshot.getDataRecebimento(),
+                snapshot.getDataArmazenamento(),
+                snapshot.getLocalArmazenamento(),
+                snapshot.getDataUltimaNotificacao(),
+                snapshot.getDataConclusao(),
+                snapshot.getTotalEventos(),
+                eventosAposSnapshot);
+    }
+}
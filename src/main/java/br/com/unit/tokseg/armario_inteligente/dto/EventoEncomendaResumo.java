@@ -0,0 +1,17 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento do histórico de uma encomenda, como é exposto pela API e lido nos relatórios.
+ * Por ser um record, não fica preso ao contexto de persistência durante leituras longas.
+ */
+public record EventoEncomendaResumo(
+        Long id,
+        String idEncomenda,
+        TipoEventoEncomenda tipo,
+        LocalDateTime dataHora,
+        String detalhes) {
+}
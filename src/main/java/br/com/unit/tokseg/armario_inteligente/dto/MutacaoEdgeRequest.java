@@ -0,0 +1,27 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoMutacaoEdge;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Alteração enviada por um nó edge ao servidor central.
+ *
+ * @param id ID da alteração no journal do nó
+ * @param tipo Tipo da alteração
+ * @param idRegistro ID do compartimento ou da encomenda
+ * @param dataHora Momento da alteração no nó
+ * @param revisaoBase Revisão do registro no central que o nó conhecia (nula se nenhuma)
+ * @param ocupado Novo status de ocupação ({@code OCUPACAO_COMPARTIMENTO})
+ * @param encomenda Estado local da encomenda ({@code ENCOMENDA_SALVA})
+ */
+public record MutacaoEdgeRequest(
+        UUID id,
+        TipoMutacaoEdge tipo,
+        String idRegistro,
+        LocalDateTime dataHora,
+        Long revisaoBase,
+        Boolean ocupado,
+        EncomendaResposta encomenda) {
+}
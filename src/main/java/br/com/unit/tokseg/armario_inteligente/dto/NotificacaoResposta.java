@@ -0,0 +1,46 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.ModeloNotificacao;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resposta dos endpoints administrativos de notificação.
+ * O destinatário aparece só pelo ID; a mensagem é montada a partir do modelo na serialização.
+ */
+public record NotificacaoResposta(
+        UUID idNotificacao,
+        UUID idUsuario,
+        ModeloNotificacao modelo,
+        @JsonIgnore String parametros,
+        LocalDateTime dataEnvio,
+        boolean lida) {
+
+    /**
+     * @return Mensagem montada a partir do modelo e dos parâmetros
+     */
+    @JsonProperty("mensagem")
+    public String mensagem() {
+        return modelo != null ? modelo.renderizar(parametros) : null;
+    }
+
+    /**
+     * Monta a resposta a partir de uma entidade já carregada.
+     *
+     * @param notificacao Notificação de origem
+     * @return Resposta da notificação
+     */
+    public static NotificacaoResposta de(Notificacao notificacao) {
+        return new NotificacaoResposta(
+                notificacao.getIdNotificacao(),
+                notificacao.getUsuario() != null ? notificacao.getUsuario().getId() : null,
+                notificacao.getModelo(),
+                notificacao.getParametros(),
+                notificacao.getDataEnvio(),
+                notificacao.isLida());
+    }
+}
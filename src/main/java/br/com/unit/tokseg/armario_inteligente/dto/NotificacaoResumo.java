@@ -0,0 +1,29 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.ModeloNotificacao;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projeção de uma notificação para a caixa de entrada do usuário.
+ * Lê apenas as colunas exibidas, sem carregar o usuário; a mensagem é montada a partir
+ * do modelo na serialização.
+ */
+public record NotificacaoResumo(
+        UUID idNotificacao,
+        ModeloNotificacao modelo,
+        @JsonIgnore String parametros,
+        LocalDateTime dataEnvio,
+        boolean lida) {
+
+    /**
+     * @return Mensagem montada a partir do modelo e dos parâmetros
+     */
+    @JsonProperty("mensagem")
+    public String mensagem() {
+        return modelo != null ? modelo.renderizar(parametros) : null;
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados com paginação por cursor (keyset).
+ * O cliente repassa {@code proximoCursor} na próxima requisição para continuar a leitura;
+ * quando {@code temMais} é falso não há mais itens.
+ *
+ * @param <T> Tipo dos itens da página
+ */
+public record PaginaCursor<T>(List<T> itens, String proximoCursor, boolean temMais) {
+}
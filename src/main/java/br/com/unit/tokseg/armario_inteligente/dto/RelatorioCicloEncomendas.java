@@ -0,0 +1,20 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Relatório do ciclo de vida das encomendas em um período, gerado pela reprodução do histórico.
+ *
+ * @param horasMediasAteRetirada Tempo médio entre recebimento e retirada, considerando apenas
+ *                               encomendas recebidas e retiradas dentro do período (nulo se não houver)
+ */
+public record RelatorioCicloEncomendas(
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        Map<TipoEventoEncomenda, Long> eventosPorTipo,
+        long encomendasRetiradas,
+        Double horasMediasAteRetirada) {
+}
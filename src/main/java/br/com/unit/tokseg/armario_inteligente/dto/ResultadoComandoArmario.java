@@ -0,0 +1,35 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoComandoArmario;
+
+import java.util.UUID;
+
+/**
+ * Resultado de um comando enviado a um armário.
+ *
+ * @param id ID do comando
+ * @param idArmario Armário do compartimento
+ * @param idCompartimento Compartimento da porta
+ * @param tipo Comando
+ * @param situacao Como o comando terminou
+ * @param tentativas Quantidade de envios feitos
+ * @param latenciaMs Tempo desde a entrada na fila do armário até o resultado, em milissegundos
+ */
+public record ResultadoComandoArmario(
+        UUID id,
+        UUID idArmario,
+        UUID idCompartimento,
+        TipoComandoArmario tipo,
+        Situacao situacao,
+        int tentativas,
+        long latenciaMs) {
+
+    public enum Situacao {
+        /** O controlador confirmou a execução (ack). */
+        CONFIRMADO,
+        /** O controlador recusou o comando (por exemplo, porta obstruída); não há nova tentativa. */
+        RECUSADO,
+        /** Nenhuma tentativa foi confirmada dentro do tempo limite. */
+        SEM_CONFIRMACAO
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+/**
+ * Resultado de uma marcação de notificações como lidas.
+ *
+ * @param marcadas Quantidade de notificações que passaram a lidas
+ * @param naoLidas Quantidade de notificações que continuam não lidas
+ */
+public record ResultadoLeitura(int marcadas, long naoLidas) {
+}
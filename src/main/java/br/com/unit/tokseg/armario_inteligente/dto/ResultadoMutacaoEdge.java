@@ -0,0 +1,29 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import java.util.UUID;
+
+/**
+ * Resultado da aplicação, no servidor central, de uma alteração enviada por um nó edge.
+ *
+ * @param id ID da alteração no journal do nó
+ * @param situacao O que o central fez com a alteração
+ * @param ocupado Status de ocupação final do compartimento, nas mudanças de ocupação
+ */
+public record ResultadoMutacaoEdge(
+        UUID id,
+        Situacao situacao,
+        Boolean ocupado) {
+
+    public enum Situacao {
+        /** Aplicada sem conflito. */
+        APLICADA,
+        /** O central já estava no estado enviado (reenvio ou alteração igual feita no central). */
+        JA_APLICADA,
+        /** O registro mudou no central desde a revisão base; a alteração do nó é mais recente e foi aplicada. */
+        CONFLITO_EDGE_VENCEU,
+        /** O registro mudou no central desde a revisão base; o estado do central foi mantido. */
+        CONFLITO_CENTRAL_VENCEU,
+        /** Inválida no central (registro inexistente ou dados incompletos); descartada. */
+        REJEITADA
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Situação de uma importação de manifesto de transportadora.
+ *
+ * @param percentual Percentual do arquivo já lido (0 a 100)
+ * @param possuiErros Indica se há arquivo de erros disponível para download
+ */
+public record StatusImportacaoManifesto(
+        String id,
+        String arquivo,
+        Situacao situacao,
+        int percentual,
+        long linhasLidas,
+        long importadas,
+        long rejeitadas,
+        boolean possuiErros,
+        LocalDateTime inicio,
+        LocalDateTime fim,
+        String mensagem) {
+
+    public enum Situacao {
+        AGUARDANDO,
+        PROCESSANDO,
+        CONCLUIDA,
+        FALHOU
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para requisição de envio de uma mensagem a um grupo de usuários.
+ * Os filtros são combinados: informando os dois, a mensagem vai para os usuários do tipo
+ * com encomendas em aberto nos armários da localização.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransmissaoRequest {
+    private String mensagem;
+
+    /** Tipo dos usuários destinatários (opcional) */
+    private TipoUsuarioEnum tipoUsuario;
+
+    /** Localização dos armários: destinatários são os donos das encomendas em aberto nesses armários (opcional) */
+    private String localizacaoArmario;
+}
@@ -0,0 +1,39 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Resposta dos endpoints de usuário, sem a senha e sem os dados de autenticação.
+ */
+public record UsuarioResposta(
+        UUID id,
+        String nome,
+        String email,
+        String telefone,
+        TipoUsuarioEnum tipo,
+        boolean ativo,
+        LocalDateTime dataCriacao,
+        LocalDateTime dataAtualizacao) {
+
+    /**
+     * Monta a resposta a partir de uma entidade já carregada.
+     *
+     * @param usuario Usuário de origem
+     * @return Resposta do usuário
+     */
+    public static UsuarioResposta de(Usuario usuario) {
+        return new UsuarioResposta(
+                usuario.getId(),
+                usuario.getNome(),
+                usuario.getEmail(),
+                usuario.getTelefone(),
+                usuario.getTipo(),
+                usuario.isAtivo(),
+                usuario.getDataCriacao(),
+                usuario.getDataAtualizacao());
+    }
+}
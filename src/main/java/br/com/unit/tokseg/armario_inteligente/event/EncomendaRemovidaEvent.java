@@ -0,0 +1,11 @@
+package br.com.unit.tokseg.armario_inteligente.event;
+
+/**
+ * Evento publicado quando uma encomenda deixa de estar em aberto (retirada ou removida).
+ * Os ouvintes usam {@code @TransactionalEventListener}, então só o recebem depois do commit, exceto
+ * o journal do modo edge, que grava a alteração na mesma transação ({@code @EventListener}).
+ *
+ * @param idEncomenda ID da encomenda
+ */
+public record EncomendaRemovidaEvent(String idEncomenda) {
+}
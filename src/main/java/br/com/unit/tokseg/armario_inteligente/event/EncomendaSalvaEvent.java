@@ -0,0 +1,13 @@
+package br.com.unit.tokseg.armario_inteligente.event;
+
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+
+/**
+ * Evento publicado quando uma encomenda é criada ou alterada.
+ * Os ouvintes usam {@code @TransactionalEventListener}, então só o recebem depois do commit, exceto
+ * o journal do modo edge, que grava a alteração na mesma transação ({@code @EventListener}).
+ *
+ * @param encomenda Encomenda no estado em que foi salva
+ */
+public record EncomendaSalvaEvent(Encomenda encomenda) {
+}
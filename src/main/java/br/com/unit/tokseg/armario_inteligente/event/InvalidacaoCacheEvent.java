@@ -0,0 +1,32 @@
+package br.com.unit.tokseg.armario_inteligente.event;
+
+/**
+ * Invalidação de uma entrada de cache em memória, recebida de outra instância pelo
+ * {@link br.com.unit.tokseg.armario_inteligente.service.BarramentoInvalidacaoService}.
+ * Os ouvintes aplicam a invalidação só no próprio cache, sem publicá-la de novo.
+ *
+ * Campos nulos ampliam o alcance: sem chave, a região inteira do condomínio (ou a região inteira,
+ * também sem condomínio); sem região, todos os caches. Regiões cujas chaves não dependem do
+ * condomínio (como IDs de usuário) invalidam uma entrada com chave e sem condomínio.
+ *
+ * @param regiao Nome da região de cache
+ * @param condominio Condomínio da entrada, ou nulo nas regiões sem separação por condomínio
+ * @param chave Chave da entrada dentro da região e do condomínio
+ */
+public record InvalidacaoCacheEvent(String regiao, String condominio, String chave) {
+
+    /**
+     * @return Invalidação de todos os caches
+     */
+    public static InvalidacaoCacheEvent tudo() {
+        return new InvalidacaoCacheEvent(null, null, null);
+    }
+
+    /**
+     * @param regiao Nome da região de cache
+     * @return true se a invalidação alcança a região
+     */
+    public boolean alcanca(String regiao) {
+        return this.regiao == null || this.regiao.equals(regiao);
+    }
+}
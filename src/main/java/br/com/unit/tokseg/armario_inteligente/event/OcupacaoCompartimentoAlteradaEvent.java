@@ -0,0 +1,14 @@
+package br.com.unit.tokseg.armario_inteligente.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado quando o status de ocupação de um compartimento é alterado.
+ * É publicado dentro da transação: ouvintes com {@code @EventListener} gravam junto da alteração,
+ * e os com {@code @TransactionalEventListener} só o recebem depois do commit.
+ *
+ * @param idCompartimento ID do compartimento
+ * @param ocupado Novo status de ocupação
+ */
+public record OcupacaoCompartimentoAlteradaEvent(UUID idCompartimento, boolean ocupado) {
+}
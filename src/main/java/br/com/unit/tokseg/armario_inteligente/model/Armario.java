@@ -5,34 +5,37 @@
 
 package br.com.unit.tokseg.armario_inteligente.model;
 
+import br.com.unit.tokseg.armario_inteligente.annotation.IdUuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
 
 import java.util.UUID;
 
 /**
  * Entidade que representa um armário inteligente no sistema.
  * Um armário pode estar disponível, ocupado ou em manutenção.
- * Cada armário tem um número único e uma localização específica.
+ * Cada armário tem um número único no condomínio e uma localização específica.
  * 
  * Relacionamentos:
  * - Um armário pode ter uma encomenda atual (opcional)
  * - Um armário pode ter vários compartimentos (relacionamento não mapeado nesta classe)
  */
 @Entity
-@Table(name = "armario")
+@Table(name = "armario", uniqueConstraints = @UniqueConstraint(columnNames = {"condominio", "numero"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -40,17 +43,17 @@ import java.util.UUID;
 public class Armario {
     /**
      * Identificador único do armário.
-     * Gerado automaticamente pelo banco de dados.
+     * UUID versão 7 gerado na inclusão, ordenado pelo instante de criação.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @IdUuidV7
     private UUID id;
 
     /**
      * Número identificador do armário.
-     * Deve ser único no sistema.
+     * Deve ser único dentro do condomínio.
      */
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String numero;
 
     /**
@@ -72,10 +75,19 @@ public class Armario {
      * Encomenda atual no armário, se houver.
      * Relacionamento opcional (nullable = true por padrão).
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_encomenda_atual", referencedColumnName = "id_encomenda")
     private Encomenda encomendaAtual;
 
+    /**
+     * Condomínio dono do registro. Preenchido pelo Hibernate com o condomínio da sessão
+     * e usado para filtrar todas as consultas.
+     */
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
     public boolean isOcupado() {
         return status == ArmarioStatus.OCUPADO;
     }
@@ -1,31 +1,39 @@
 package br.com.unit.tokseg.armario_inteligente.model;
 
+import br.com.unit.tokseg.armario_inteligente.annotation.IdUuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
 import java.util.UUID;
 
 @Entity
 @Table(name = "Compartimento")
 public class Compartimento {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @IdUuidV7
     private UUID idCompartimento;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "armario_id", referencedColumnName = "id")
     private Armario armario;
 
     private boolean ocupado;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_encomenda_atual", referencedColumnName = "id_encomenda")
     private Encomenda encomendaAtual;
 
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
     public Compartimento() {}
 
     public Compartimento(Armario armario, boolean ocupado, Encomenda encomendaAtual) {
@@ -65,4 +73,7 @@ public class Compartimento {
     public void setEncomendaAtual(Encomenda encomendaAtual) {
         this.encomendaAtual = encomendaAtual;
     }
+
+    public String getCondominio() { return condominio; }
+    public void setCondominio(String condominio) { this.condominio = condominio; }
 }
@@ -0,0 +1,30 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entidade que guarda a última revisão de sincronização distribuída em cada condomínio.
+ * A linha fica bloqueada do momento em que a transação reserva as suas revisões até o commit,
+ * então as revisões ficam visíveis na mesma ordem em que foram distribuídas.
+ */
+@Entity
+@Table(name = "contador_revisao")
+public class ContadorRevisao {
+
+    @Id
+    @Column(length = 40)
+    private String condominio;
+
+    @Column(nullable = false)
+    private long valor;
+
+    public ContadorRevisao() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public String getCondominio() { return condominio; }
+    public long getValor() { return valor; }
+}
@@ -2,8 +2,10 @@ package br.com.unit.tokseg.armario_inteligente.model;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -12,10 +14,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
 
 /**
  * Entidade que representa uma encomenda no sistema.
  * Uma encomenda pode estar associada a um armário e a um usuário.
+ * A tabela guarda apenas as encomendas em aberto e as retiradas recentemente;
+ * as demais ficam na tabela de arquivo.
  * 
  * Relacionamentos:
  * - Uma encomenda pertence a um armário (opcional)
@@ -42,14 +47,26 @@ public class Encomenda {
     @Column(name = "dataRecebimento", nullable = false)
     private LocalDateTime dataRecebimento;
 
-    @ManyToOne
+    /**
+     * Data da retirada (ou devolução). Nula enquanto a encomenda aguarda retirada;
+     * encomendas retiradas são movidas depois para o arquivo ({@link EncomendaArquivada}).
+     */
+    @Column(name = "data_retirada")
+    private LocalDateTime dataRetirada;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "armario_id", referencedColumnName = "id")
     private Armario armario;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idUsuario", referencedColumnName = "id")
     private Usuario usuario;
 
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
     // Getters e Setters
     public String getIdEncomenda() {
         return idEncomenda;
@@ -83,6 +100,14 @@ public class Encomenda {
         this.dataRecebimento = dataRecebimento;
     }
 
+    public LocalDateTime getDataRetirada() {
+        return dataRetirada;
+    }
+
+    public void setDataRetirada(LocalDateTime dataRetirada) {
+        this.dataRetirada = dataRetirada;
+    }
+
     public Armario getArmario() {
         return armario;
     }
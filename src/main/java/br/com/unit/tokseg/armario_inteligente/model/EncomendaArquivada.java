@@ -0,0 +1,68 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entidade que representa uma encomenda já retirada, movida para o arquivo.
+ * No PostgreSQL a tabela é particionada por mês de {@code data_recebimento}; consultas com
+ * período leem apenas as partições necessárias. Armário e usuário são guardados só pelo ID,
+ * sem chave estrangeira, para que o arquivo não impeça a exclusão de cadastros antigos.
+ */
+@Entity
+@Table(name = "encomenda_arquivo")
+public class EncomendaArquivada {
+
+    @Id
+    @Column(name = "id_encomenda")
+    private String idEncomenda;
+
+    @Column(nullable = false)
+    private String descricao;
+
+    @Column(nullable = false)
+    private String remetente;
+
+    @Column(name = "data_recebimento", nullable = false)
+    private LocalDateTime dataRecebimento;
+
+    @Column(name = "data_retirada", nullable = false)
+    private LocalDateTime dataRetirada;
+
+    @Column(name = "id_armario")
+    private UUID idArmario;
+
+    @Column(name = "id_usuario")
+    private UUID idUsuario;
+
+    @Column(name = "data_arquivamento", nullable = false)
+    private LocalDateTime dataArquivamento;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public EncomendaArquivada() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public String getIdEncomenda() { return idEncomenda; }
+    public String getDescricao() { return descricao; }
+    public String getRemetente() { return remetente; }
+    public LocalDateTime getDataRecebimento() { return dataRecebimento; }
+    public LocalDateTime getDataRetirada() { return dataRetirada; }
+    public UUID getIdArmario() { return idArmario; }
+    public UUID getIdUsuario() { return idUsuario; }
+    public LocalDateTime getDataArquivamento() { return dataArquivamento; }
+
+    public String getCondominio() { return condominio; }
+    public void setCondominio(String condominio) { this.condominio = condominio; }
+}
@@ -0,0 +1,91 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entidade que representa um evento do ciclo de vida de uma encomenda.
+ * A tabela é somente de inclusão (append-only): eventos nunca são alterados nem apagados,
+ * e continuam disponíveis mesmo depois que a encomenda sai da tabela {@code encomenda}.
+ * Por isso não há chave estrangeira para a encomenda, apenas o seu ID.
+ *
+ * O ID vem de uma sequence com incremento 50, o que permite ao Hibernate gravar os eventos
+ * em lotes JDBC.
+ */
+@Entity
+@Table(name = "evento_encomenda")
+public class EventoEncomenda {
+
+    /**
+     * Tamanho da coluna {@code detalhes}.
+     */
+    public static final int TAMANHO_MAXIMO_DETALHES = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_encomenda_seq")
+    @SequenceGenerator(name = "evento_encomenda_seq", sequenceName = "evento_encomenda_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "id_encomenda", nullable = false)
+    private String idEncomenda;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoEventoEncomenda tipo;
+
+    @Column(name = "data_hora", nullable = false)
+    private LocalDateTime dataHora;
+
+    @Column(length = TAMANHO_MAXIMO_DETALHES)
+    private String detalhes;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public EventoEncomenda() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public EventoEncomenda(String idEncomenda, TipoEventoEncomenda tipo, LocalDateTime dataHora, String detalhes) {
+        this.idEncomenda = idEncomenda;
+        this.tipo = tipo;
+        this.dataHora = dataHora;
+        this.detalhes = detalhes;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getIdEncomenda() {
+        return idEncomenda;
+    }
+
+    public TipoEventoEncomenda getTipo() {
+        return tipo;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public String getDetalhes() {
+        return detalhes;
+    }
+
+    public String getCondominio() { return condominio; }
+    public void setCondominio(String condominio) { this.condominio = condominio; }
+}
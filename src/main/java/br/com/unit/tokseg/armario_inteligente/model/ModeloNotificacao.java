@@ -0,0 +1,105 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enum que representa os modelos de texto das notificações.
+ *
+ * A notificação guarda só o modelo e os parâmetros; o texto é montado na leitura. Cada modelo
+ * é compilado uma vez, na carga do enum, em trechos fixos e posições de parâmetro
+ * ({@code {0}}, {@code {1}}, ...), então montar a mensagem é só concatenar.
+ * {@link #LIVRE} guarda o texto inteiro como único parâmetro, para mensagens escritas à mão.
+ */
+public enum ModeloNotificacao {
+    LIVRE("{0}"),
+    NOVA_ENCOMENDA("Nova encomenda registrada para você no armário {0}"),
+    NOVAS_ENCOMENDAS("{0} novas encomendas registradas para você nos armários {1}"),
+    LEMBRETE_RETIRADA("Lembrete: a encomenda \"{0}\" está aguardando retirada no armário"),
+    ESCALONAMENTO_PORTARIA("Encomenda \"{0}\" ({1}) aguarda retirada há mais de {2} horas"),
+    NOVO_USUARIO("Novo usuário registrado: {0}"),
+    NOVO_ARMARIO("Novo armário cadastrado: {0}");
+
+    /** Separa os parâmetros na coluna {@code parametros} (caractere de controle "unit separator"). */
+    private static final char SEPARADOR = '\u001F';
+
+    private final String modelo;
+    private final String[] trechos;
+    private final int[] posicoes;
+
+    ModeloNotificacao(String modelo) {
+        this.modelo = modelo;
+        List<String> partes = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        int inicio = 0;
+        int abre;
+        while ((abre = modelo.indexOf('{', inicio)) >= 0) {
+            int fecha = modelo.indexOf('}', abre);
+            partes.add(modelo.substring(inicio, abre));
+            indices.add(Integer.parseInt(modelo.substring(abre + 1, fecha)));
+            inicio = fecha + 1;
+        }
+        partes.add(modelo.substring(inicio));
+        this.trechos = partes.toArray(String[]::new);
+        this.posicoes = indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return Texto do modelo, com os parâmetros no formato {@code {n}}
+     */
+    public String getModelo() {
+        return modelo;
+    }
+
+    /**
+     * Monta a mensagem a partir dos parâmetros codificados. Parâmetros ausentes ficam vazios.
+     *
+     * @param parametros Parâmetros gerados por {@link #codificar(String...)}
+     * @return Mensagem da notificação
+     */
+    public String renderizar(String parametros) {
+        String[] valores = decodificar(parametros);
+        StringBuilder mensagem = new StringBuilder(modelo.length() + (parametros != null ? parametros.length() : 0));
+        for (int i = 0; i < posicoes.length; i++) {
+            mensagem.append(trechos[i]);
+            if (posicoes[i] < valores.length) {
+                mensagem.append(valores[posicoes[i]]);
+            }
+        }
+        return mensagem.append(trechos[trechos.length - 1]).toString();
+    }
+
+    /**
+     * Junta os parâmetros em um único texto compacto para gravação.
+     *
+     * @param parametros Valores dos parâmetros, na ordem do modelo
+     * @return Parâmetros codificados
+     */
+    public static String codificar(String... parametros) {
+        StringBuilder codificado = new StringBuilder();
+        for (int i = 0; i < parametros.length; i++) {
+            if (i > 0) {
+                codificado.append(SEPARADOR);
+            }
+            if (parametros[i] != null) {
+                codificado.append(parametros[i].replace(SEPARADOR, ' '));
+            }
+        }
+        return codificado.toString();
+    }
+
+    private static String[] decodificar(String parametros) {
+        if (parametros == null) {
+            return new String[0];
+        }
+        List<String> valores = new ArrayList<>();
+        int inicio = 0;
+        int separador;
+        while ((separador = parametros.indexOf(SEPARADOR, inicio)) >= 0) {
+            valores.add(parametros.substring(inicio, separador));
+            inicio = separador + 1;
+        }
+        valores.add(parametros.substring(inicio));
+        return valores.toArray(String[]::new);
+    }
+}
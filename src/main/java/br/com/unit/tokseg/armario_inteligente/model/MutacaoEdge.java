@@ -0,0 +1,70 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import br.com.unit.tokseg.armario_inteligente.annotation.IdUuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidade que representa uma alteração feita num nó edge e ainda não confirmada pelo servidor
+ * central (journal local). É gravada na mesma transação da alteração e excluída quando o central
+ * devolve o resultado; o ID UUID v7 dá a ordem de envio.
+ */
+@Entity
+@Table(name = "mutacao_edge")
+public class MutacaoEdge {
+
+    @Id
+    @IdUuidV7
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoMutacaoEdge tipo;
+
+    @Column(name = "id_registro", nullable = false)
+    private String idRegistro;
+
+    @Column(name = "data_hora", nullable = false)
+    private LocalDateTime dataHora;
+
+    /** Revisão do registro no central que o nó conhecia quando fez a alteração (nula se nenhuma). */
+    @Column(name = "revisao_base")
+    private Long revisaoBase;
+
+    /** Novo status de ocupação, nas mudanças de ocupação. */
+    private Boolean ocupado;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public MutacaoEdge() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public MutacaoEdge(TipoMutacaoEdge tipo, String idRegistro, LocalDateTime dataHora, Long revisaoBase, Boolean ocupado) {
+        this.tipo = tipo;
+        this.idRegistro = idRegistro;
+        this.dataHora = dataHora;
+        this.revisaoBase = revisaoBase;
+        this.ocupado = ocupado;
+    }
+
+    public UUID getId() { return id; }
+    public TipoMutacaoEdge getTipo() { return tipo; }
+    public String getIdRegistro() { return idRegistro; }
+    public LocalDateTime getDataHora() { return dataHora; }
+    public Long getRevisaoBase() { return revisaoBase; }
+    public Boolean getOcupado() { return ocupado; }
+    public String getCondominio() { return condominio; }
+}
@@ -0,0 +1,72 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidade que representa uma alteração do journal de um nó edge rejeitada pelo servidor central
+ * (registro inexistente ou dados incompletos). Sai do journal para não travar o envio das
+ * seguintes, mas fica guardada, com o mesmo ID, para análise e correção manual.
+ */
+@Entity
+@Table(name = "mutacao_edge_rejeitada")
+public class MutacaoEdgeRejeitada {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoMutacaoEdge tipo;
+
+    @Column(name = "id_registro", nullable = false)
+    private String idRegistro;
+
+    @Column(name = "data_hora", nullable = false)
+    private LocalDateTime dataHora;
+
+    @Column(name = "revisao_base")
+    private Long revisaoBase;
+
+    private Boolean ocupado;
+
+    @Column(name = "data_rejeicao", nullable = false)
+    private LocalDateTime dataRejeicao;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public MutacaoEdgeRejeitada() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public MutacaoEdgeRejeitada(MutacaoEdge mutacao, LocalDateTime dataRejeicao) {
+        this.id = mutacao.getId();
+        this.tipo = mutacao.getTipo();
+        this.idRegistro = mutacao.getIdRegistro();
+        this.dataHora = mutacao.getDataHora();
+        this.revisaoBase = mutacao.getRevisaoBase();
+        this.ocupado = mutacao.getOcupado();
+        this.dataRejeicao = dataRejeicao;
+    }
+
+    public UUID getId() { return id; }
+    public TipoMutacaoEdge getTipo() { return tipo; }
+    public String getIdRegistro() { return idRegistro; }
+    public LocalDateTime getDataHora() { return dataHora; }
+    public Long getRevisaoBase() { return revisaoBase; }
+    public Boolean getOcupado() { return ocupado; }
+    public LocalDateTime getDataRejeicao() { return dataRejeicao; }
+    public String getCondominio() { return condominio; }
+}
@@ -1,8 +1,14 @@
 package br.com.unit.tokseg.armario_inteligente.model;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -11,7 +17,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
 
+/**
+ * Notificação enviada a um usuário.
+ * A mensagem não é gravada pronta: a notificação guarda o modelo e os parâmetros, e o texto
+ * é montado em {@link #getMensagem()}.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,32 +32,66 @@ import lombok.NoArgsConstructor;
 @Table(name = "Notificacao")
 public class Notificacao {
     @Id
-    private String idNotificacao;
+    private UUID idNotificacao;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "idUsuario", referencedColumnName = "id")
     private Usuario usuario;
 
-    private String mensagem;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 40, nullable = false)
+    private ModeloNotificacao modelo;
+
+    @Column(length = 1000)
+    private String parametros;
+
     private LocalDateTime dataEnvio;
     private boolean lida;
 
-    public Notificacao(String idNotificacao, Usuario usuario, String mensagem, LocalDateTime dataEnvio) {
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public Notificacao(UUID idNotificacao, Usuario usuario, String mensagem, LocalDateTime dataEnvio) {
+        this(idNotificacao, usuario, ModeloNotificacao.LIVRE, dataEnvio, mensagem);
+    }
+
+    public Notificacao(UUID idNotificacao, Usuario usuario, ModeloNotificacao modelo, LocalDateTime dataEnvio,
+            String... parametros) {
         this.idNotificacao = idNotificacao;
         this.usuario = usuario;
-        this.mensagem = mensagem;
+        this.modelo = modelo;
+        this.parametros = ModeloNotificacao.codificar(parametros);
         this.dataEnvio = dataEnvio;
         this.lida = false;
     }
 
-    public String getIdNotificacao() { return idNotificacao; }
+    public UUID getIdNotificacao() { return idNotificacao; }
     public Usuario getUsuario() { return usuario; }
-    public String getMensagem() { return mensagem; }
     public LocalDateTime getDataEnvio() { return dataEnvio; }
     public boolean isLida() { return lida; }
-    public void setIdNotificacao(String idNotificacao) { this.idNotificacao = idNotificacao; }
+    public void setIdNotificacao(UUID idNotificacao) { this.idNotificacao = idNotificacao; }
     public void setUsuario(Usuario usuario) { this.usuario = usuario; }
-    public void setMensagem(String mensagem) { this.mensagem = mensagem; }
     public void setDataEnvio(LocalDateTime dataEnvio) { this.dataEnvio = dataEnvio; }
     public void setLida(boolean lida) { this.lida = lida; }
-} 
\ No newline at end of file
+
+    @JsonIgnore
+    public String getParametros() { return parametros; }
+
+    /**
+     * @return Mensagem montada a partir do modelo e dos parâmetros
+     */
+    public String getMensagem() {
+        return modelo != null ? modelo.renderizar(parametros) : null;
+    }
+
+    /**
+     * Define uma mensagem de texto livre.
+     * @param mensagem Texto da notificação
+     */
+    public void setMensagem(String mensagem) {
+        this.modelo = ModeloNotificacao.LIVRE;
+        this.parametros = mensagem != null ? ModeloNotificacao.codificar(mensagem) : null;
+    }
+}
@@ -2,19 +2,27 @@ package br.com.unit.tokseg.armario_inteligente.model;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
 
 @Entity
 @Table(name = "registro_auditoria")
 public class RegistroAuditoria {
 
+    /**
+     * Gerado por sequence com blocos de 50 (otimizador pooled), e não por IDENTITY: com IDENTITY o
+     * Hibernate precisa executar cada INSERT na hora para ler o ID e desliga o JDBC batch da entidade.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registro_auditoria_seq")
+    @SequenceGenerator(name = "registro_auditoria_seq", sequenceName = "registro_auditoria_seq", allocationSize = 50)
     private int idRegistro;
 
     @Column(nullable = false)
@@ -26,6 +34,11 @@ public class RegistroAuditoria {
     @Column(name = "data_hora", nullable = false)
     private LocalDateTime dataHora;
 
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
     public RegistroAuditoria() {
         // construtor padrão exigido pelo JPA
     }
@@ -74,4 +87,7 @@ public class RegistroAuditoria {
     public void setDataHora(LocalDateTime dataHora) {
         this.dataHora = dataHora;
     }
+
+    public String getCondominio() { return condominio; }
+    public void setCondominio(String condominio) { this.condominio = condominio; }
 }
@@ -0,0 +1,45 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entidade que guarda, num nó edge, a revisão do servidor central de cada registro recebido pelo
+ * feed de sincronização. A maior revisão é o ponto de onde o nó continua a receber, e a revisão
+ * do registro vai junto das alterações locais para o central detectar conflitos.
+ */
+@Entity
+@Table(name = "replica_edge")
+public class ReplicaEdge {
+
+    /** Tipo e ID do registro, no mesmo formato de {@link RevisaoSync}. */
+    @Id
+    @Column(length = 300)
+    private String chave;
+
+    @Column(nullable = false)
+    private long revisao;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public ReplicaEdge() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public ReplicaEdge(String chave, long revisao) {
+        this.chave = chave;
+        this.revisao = revisao;
+    }
+
+    public String getChave() { return chave; }
+    public long getRevisao() { return revisao; }
+    public void setRevisao(long revisao) { this.revisao = revisao; }
+    public String getCondominio() { return condominio; }
+}
@@ -0,0 +1,72 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entidade que guarda a última revisão de cada armário, compartimento e encomenda, usada pelo
+ * feed de sincronização. Há uma linha por registro, atualizada a cada alteração, então o feed
+ * entrega só o estado mais recente; registros excluídos ficam como marcador ({@code removido}).
+ * As linhas são gravadas pelo {@code RevisaoSyncService}, não pelo Hibernate.
+ */
+@Entity
+@Table(name = "revisao_sync", indexes = @Index(name = "idx_revisao_sync_condominio_revisao",
+        columnList = "condominio, revisao"))
+public class RevisaoSync {
+
+    /** Tipo e ID do registro, por exemplo {@code ARMARIO:0190...}. */
+    @Id
+    @Column(length = 300)
+    private String chave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoRegistroSync tipo;
+
+    @Column(name = "id_registro", nullable = false)
+    private String idRegistro;
+
+    @Column(nullable = false)
+    private long revisao;
+
+    @Column(nullable = false)
+    private boolean removido;
+
+    @Column(name = "data_alteracao", nullable = false)
+    private LocalDateTime dataAlteracao;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public RevisaoSync() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    /**
+     * @param tipo Tipo do registro
+     * @param id ID do registro
+     * @return Chave do registro no feed ({@code TIPO:id})
+     */
+    public static String chave(TipoRegistroSync tipo, Object id) {
+        return tipo.name() + ":" + id;
+    }
+
+    public String getChave() { return chave; }
+    public TipoRegistroSync getTipo() { return tipo; }
+    public String getIdRegistro() { return idRegistro; }
+    public long getRevisao() { return revisao; }
+    public boolean isRemovido() { return removido; }
+    public LocalDateTime getDataAlteracao() { return dataAlteracao; }
+    public String getCondominio() { return condominio; }
+}
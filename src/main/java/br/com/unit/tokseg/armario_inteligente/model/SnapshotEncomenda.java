@@ -0,0 +1,103 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Entidade que guarda o estado consolidado de uma encomenda até um evento do histórico.
+ * O estado atual é este snapshot mais os eventos com ID maior que {@code ultimoEventoId},
+ * então nenhuma consulta precisa reprocessar o histórico inteiro da encomenda.
+ */
+@Entity
+@Table(name = "snapshot_encomenda")
+public class SnapshotEncomenda {
+
+    @Id
+    @Column(name = "id_encomenda")
+    private String idEncomenda;
+
+    @Column(name = "ultimo_evento_id", nullable = false)
+    private long ultimoEventoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private TipoEventoEncomenda situacao;
+
+    @Column(name = "data_recebimento")
+    private LocalDateTime dataRecebimento;
+
+    @Column(name = "data_armazenamento")
+    private LocalDateTime dataArmazenamento;
+
+    @Column(name = "local_armazenamento")
+    private String localArmazenamento;
+
+    @Column(name = "data_ultima_notificacao")
+    private LocalDateTime dataUltimaNotificacao;
+
+    @Column(name = "data_conclusao")
+    private LocalDateTime dataConclusao;
+
+    @Column(name = "total_eventos", nullable = false)
+    private int totalEventos;
+
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
+    public SnapshotEncomenda() {
+        // construtor padrão exigido pelo JPA
+    }
+
+    public SnapshotEncomenda(String idEncomenda) {
+        this.idEncomenda = idEncomenda;
+    }
+
+    /**
+     * Aplica um evento ao estado consolidado.
+     * Eventos já incluídos no snapshot (ID menor ou igual ao último aplicado) são ignorados.
+     *
+     * @param evento Evento do histórico da encomenda
+     */
+    public void aplicar(EventoEncomenda evento) {
+        if (evento.getId() != null && evento.getId() <= ultimoEventoId) {
+            return;
+        }
+        switch (evento.getTipo()) {
+            case RECEBIDA -> dataRecebimento = evento.getDataHora();
+            case ARMAZENADA -> {
+                dataArmazenamento = evento.getDataHora();
+                localArmazenamento = evento.getDetalhes();
+            }
+            case NOTIFICADA -> dataUltimaNotificacao = evento.getDataHora();
+            case RETIRADA, DEVOLVIDA -> dataConclusao = evento.getDataHora();
+        }
+        situacao = evento.getTipo();
+        if (evento.getId() != null) {
+            ultimoEventoId = evento.getId();
+        }
+        totalEventos++;
+    }
+
+    public String getIdEncomenda() { return idEncomenda; }
+    public long getUltimoEventoId() { return ultimoEventoId; }
+    public TipoEventoEncomenda getSituacao() { return situacao; }
+    public LocalDateTime getDataRecebimento() { return dataRecebimento; }
+    public LocalDateTime getDataArmazenamento() { return dataArmazenamento; }
+    public String getLocalArmazenamento() { return localArmazenamento; }
+    public LocalDateTime getDataUltimaNotificacao() { return dataUltimaNotificacao; }
+    public LocalDateTime getDataConclusao() { return dataConclusao; }
+    public int getTotalEventos() { return totalEventos; }
+
+    public String getCondominio() { return condominio; }
+    public void setCondominio(String condominio) { this.condominio = condominio; }
+}
@@ -0,0 +1,11 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+/**
+ * Enum que representa os comandos enviados ao controlador de um armário.
+ */
+public enum TipoComandoArmario {
+    /** Destrava e abre a porta de um compartimento. */
+    ABRIR,
+    /** Trava a porta de um compartimento. */
+    TRAVAR
+}
@@ -0,0 +1,17 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+/**
+ * Enum que representa os eventos do ciclo de vida de uma encomenda.
+ * RETIRADA e DEVOLVIDA encerram o ciclo.
+ */
+public enum TipoEventoEncomenda {
+    RECEBIDA,
+    ARMAZENADA,
+    NOTIFICADA,
+    RETIRADA,
+    DEVOLVIDA;
+
+    public boolean isFinal() {
+        return this == RETIRADA || this == DEVOLVIDA;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+/**
+ * Enum que representa os tipos de alteração gravados no journal de um nó edge e enviados ao
+ * servidor central.
+ */
+public enum TipoMutacaoEdge {
+    /** Mudança do status de ocupação de um compartimento. */
+    OCUPACAO_COMPARTIMENTO,
+    /** Recebimento ou alteração de uma encomenda; o estado enviado é o local no momento do envio. */
+    ENCOMENDA_SALVA,
+    /** Retirada ou devolução de uma encomenda. */
+    ENCOMENDA_RETIRADA
+}
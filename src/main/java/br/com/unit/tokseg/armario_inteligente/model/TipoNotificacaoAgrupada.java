@@ -0,0 +1,42 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Enum que representa os tipos de notificação que podem ser agrupados em um resumo.
+ * Cada tipo indica o modelo da mensagem individual (um item) e o do resumo (vários itens).
+ */
+public enum TipoNotificacaoAgrupada {
+    NOVA_ENCOMENDA(ModeloNotificacao.NOVA_ENCOMENDA, ModeloNotificacao.NOVAS_ENCOMENDAS);
+
+    private final ModeloNotificacao modeloIndividual;
+    private final ModeloNotificacao modeloResumo;
+
+    TipoNotificacaoAgrupada(ModeloNotificacao modeloIndividual, ModeloNotificacao modeloResumo) {
+        this.modeloIndividual = modeloIndividual;
+        this.modeloResumo = modeloResumo;
+    }
+
+    /**
+     * Monta a notificação dos itens agrupados.
+     *
+     * @param idNotificacao ID da notificação
+     * @param usuario Usuário destinatário
+     * @param itens Itens agrupados (ex.: números dos armários), na ordem de chegada
+     * @param dataEnvio Data de envio
+     * @return Notificação individual, para um item, ou de resumo
+     */
+    public Notificacao criarNotificacao(UUID idNotificacao, Usuario usuario, List<String> itens,
+            LocalDateTime dataEnvio) {
+        if (itens.size() == 1) {
+            return new Notificacao(idNotificacao, usuario, modeloIndividual, dataEnvio, itens.get(0));
+        }
+        List<String> distintos = itens.stream().distinct().sorted().toList();
+        String lista = distintos.size() == 1
+                ? distintos.get(0)
+                : String.join(", ", distintos.subList(0, distintos.size() - 1)) + " e " + distintos.get(distintos.size() - 1);
+        return new Notificacao(idNotificacao, usuario, modeloResumo, dataEnvio, String.valueOf(itens.size()), lista);
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+/**
+ * Enum que representa os tipos de registro acompanhados pelo feed de sincronização dos totens.
+ */
+public enum TipoRegistroSync {
+    ARMARIO,
+    COMPARTIMENTO,
+    ENCOMENDA
+}
@@ -1,11 +1,14 @@
 package br.com.unit.tokseg.armario_inteligente.model;
 
+import br.com.unit.tokseg.armario_inteligente.annotation.IdUuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.TenantId;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,7 +26,7 @@ import java.util.UUID;
 public class Usuario implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @IdUuidV7
     private UUID id;
     
     @Column(nullable = false, unique = true)
@@ -53,6 +56,11 @@ public class Usuario implements UserDetails {
     @Column(nullable = false)
     private LocalDateTime dataAtualizacao;
 
+    @TenantId
+    @JsonIgnore
+    @Column(nullable = false, length = 40)
+    private String condominio;
+
     // Getters e Setters manuais
     public UUID getId() {
         return id;
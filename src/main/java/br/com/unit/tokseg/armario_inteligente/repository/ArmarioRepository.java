@@ -1,18 +1,60 @@
 package br.com.unit.tokseg.armario_inteligente.repository;
 
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Armario;
 import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ArmarioRepository extends JpaRepository<Armario, UUID> {
+    /**
+     * Projeção usada nas respostas da API: só as colunas do armário, e a encomenda atual pela
+     * chave estrangeira, sem junção.
+     */
+    String SELECAO_RESPOSTA = "select new br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta("
+            + "a.id, a.numero, a.status, a.localizacao, a.encomendaAtual.idEncomenda) from Armario a ";
+
     boolean existsByNumero(String numero);
-    List<Armario> findByStatus(ArmarioStatus status);
-    List<Armario> findByLocalizacao(String localizacao);
-    List<Armario> findByStatusAndLocalizacao(ArmarioStatus status, String localizacao);
     long countByStatus(ArmarioStatus status);
+
+    @Query(SELECAO_RESPOSTA)
+    List<ArmarioResposta> listarRespostas();
+
+    @Query(SELECAO_RESPOSTA + "where a.id = :id")
+    Optional<ArmarioResposta> buscarRespostaPorId(@Param("id") UUID id);
+
+    @Query(SELECAO_RESPOSTA + "where a.status = :status")
+    List<ArmarioResposta> buscarRespostasPorStatus(@Param("status") ArmarioStatus status);
+
+    @Query(SELECAO_RESPOSTA + "where a.localizacao = :localizacao")
+    List<ArmarioResposta> buscarRespostasPorLocalizacao(@Param("localizacao") String localizacao);
+
+    @Query(SELECAO_RESPOSTA + "where a.status = :status and a.localizacao = :localizacao")
+    List<ArmarioResposta> buscarRespostasPorStatusELocalizacao(@Param("status") ArmarioStatus status,
+            @Param("localizacao") String localizacao);
+
+    @Query(SELECAO_RESPOSTA + "where a.id in :ids")
+    List<ArmarioResposta> buscarRespostasPorIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * ID e condomínio dos armários que guardam as encomendas informadas.
+     */
+    @Query("select a.id, a.condominio from Armario a where a.encomendaAtual.idEncomenda in :ids")
+    List<Object[]> buscarIdsPorEncomendas(@Param("ids") Collection<String> ids);
+
+    /**
+     * Desfaz a referência à encomenda atual para as encomendas informadas.
+     */
+    @Modifying
+    @Query("update Armario x set x.encomendaAtual = null where x.encomendaAtual.idEncomenda in :ids")
+    int liberarEncomendas(@Param("ids") Collection<String> ids);
 }
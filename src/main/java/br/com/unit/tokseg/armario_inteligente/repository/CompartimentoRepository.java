@@ -1,9 +1,49 @@
 package br.com.unit.tokseg.armario_inteligente.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CompartimentoRepository extends JpaRepository<Compartimento, UUID> {
+
+    /**
+     * Projeção usada nas respostas da API: junta só o armário, para o número; a encomenda
+     * atual vem pela chave estrangeira.
+     */
+    String SELECAO_RESPOSTA = "select new br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta("
+            + "c.idCompartimento, a.id, a.numero, c.ocupado, c.encomendaAtual.idEncomenda) "
+            + "from Compartimento c left join c.armario a ";
+
+    @Query(SELECAO_RESPOSTA)
+    List<CompartimentoResposta> listarRespostas();
+
+    @Query(SELECAO_RESPOSTA + "where c.idCompartimento = :id")
+    Optional<CompartimentoResposta> buscarRespostaPorId(@Param("id") UUID id);
+
+    @Query(SELECAO_RESPOSTA + "where c.idCompartimento in :ids")
+    List<CompartimentoResposta> buscarRespostasPorIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("select c.idCompartimento from Compartimento c where c.armario.id = :idArmario")
+    List<UUID> buscarIdsPorArmario(@Param("idArmario") UUID idArmario);
+
+    /**
+     * ID e condomínio dos compartimentos que guardam as encomendas informadas.
+     */
+    @Query("select c.idCompartimento, c.condominio from Compartimento c where c.encomendaAtual.idEncomenda in :ids")
+    List<Object[]> buscarIdsPorEncomendas(@Param("ids") Collection<String> ids);
+
+    /**
+     * Desfaz a referência à encomenda atual para as encomendas informadas.
+     */
+    @Modifying
+    @Query("update Compartimento x set x.encomendaAtual = null where x.encomendaAtual.idEncomenda in :ids")
+    int liberarEncomendas(@Param("ids") Collection<String> ids);
 }
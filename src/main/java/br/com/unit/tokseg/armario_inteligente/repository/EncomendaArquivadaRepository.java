@@ -0,0 +1,48 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada;
+import br.com.unit.tokseg.armario_inteligente.model.EncomendaArquivada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EncomendaArquivadaRepository extends JpaRepository<EncomendaArquivada, String> {
+
+    /**
+     * Copia as encomendas informadas da tabela operacional para o arquivo, num único INSERT ... SELECT.
+     * Mantém o condomínio de cada encomenda (executado em acesso raiz).
+     */
+    @Modifying
+    @Query("insert into EncomendaArquivada "
+            + "(idEncomenda, descricao, remetente, dataRecebimento, dataRetirada, idArmario, idUsuario, dataArquivamento, condominio) "
+            + "select e.idEncomenda, e.descricao, e.remetente, e.dataRecebimento, e.dataRetirada, a.id, u.id, :agora, e.condominio "
+            + "from Encomenda e left join e.armario a left join e.usuario u "
+            + "where e.idEncomenda in :ids and e.dataRetirada is not null")
+    int copiarDaTabelaOperacional(@Param("ids") Collection<String> ids, @Param("agora") LocalDateTime agora);
+
+    /**
+     * Encomendas arquivadas recebidas no período. O filtro por data de recebimento limita a
+     * leitura às partições do período.
+     */
+    @Query("select new br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada("
+            + "a.idEncomenda, a.descricao, a.remetente, a.dataRecebimento, a.dataRetirada, true) "
+            + "from EncomendaArquivada a "
+            + "where a.dataRecebimento >= :inicio and a.dataRecebimento < :fim "
+            + "order by a.dataRecebimento desc")
+    List<EncomendaRetirada> buscarRecebidasNoPeriodo(
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("select new br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada("
+            + "a.idEncomenda, a.descricao, a.remetente, a.dataRecebimento, a.dataRetirada, true) "
+            + "from EncomendaArquivada a "
+            + "where a.idUsuario = :idUsuario and a.dataRecebimento >= :inicio and a.dataRecebimento < :fim "
+            + "order by a.dataRecebimento desc")
+    List<EncomendaRetirada> buscarRecebidasNoPeriodoPorUsuario(@Param("idUsuario") UUID idUsuario,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
@@ -1,8 +1,119 @@
 package br.com.unit.tokseg.armario_inteligente.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaPendente;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada;
 import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface EncomendaRepository extends JpaRepository<Encomenda, String> {
-} 
\ No newline at end of file
+
+    /**
+     * Projeção usada nas respostas da API: junta armário e morador só para o número e o nome.
+     */
+    String SELECAO_RESPOSTA = "select new br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta("
+            + "e.idEncomenda, e.descricao, e.remetente, e.dataRecebimento, e.dataRetirada, a.id, a.numero, u.id, u.nome) "
+            + "from Encomenda e left join e.armario a left join e.usuario u ";
+
+    @Query(SELECAO_RESPOSTA + "where e.dataRetirada is null")
+    List<EncomendaResposta> listarRespostasEmAberto();
+
+    @Query(SELECAO_RESPOSTA + "where e.idEncomenda = :id and e.dataRetirada is null")
+    Optional<EncomendaResposta> buscarRespostaEmAberto(@Param("id") String idEncomenda);
+
+    @Query(SELECAO_RESPOSTA + "where e.idEncomenda = :id")
+    Optional<EncomendaResposta> buscarRespostaPorId(@Param("id") String idEncomenda);
+
+    @Query(SELECAO_RESPOSTA + "where e.idEncomenda in :ids and e.dataRetirada is null")
+    List<EncomendaResposta> listarRespostasEmAbertoPorIds(@Param("ids") Collection<String> ids);
+
+    @Query("select e.idEncomenda from Encomenda e where e.armario.id = :idArmario and e.dataRetirada is null")
+    List<String> buscarIdsEmAbertoPorArmario(@Param("idArmario") UUID idArmario);
+
+    /**
+     * Marca a retirada de uma encomenda em aberto.
+     * @return 1 se a encomenda estava em aberto, 0 caso contrário
+     */
+    @Modifying
+    @Query("update Encomenda e set e.dataRetirada = :data where e.idEncomenda = :id and e.dataRetirada is null")
+    int registrarRetirada(@Param("id") String idEncomenda, @Param("data") LocalDateTime dataRetirada);
+
+    /**
+     * IDs das encomendas retiradas até o instante informado, das mais antigas para as mais novas.
+     */
+    @Query("select e.idEncomenda from Encomenda e where e.dataRetirada < :limite order by e.dataRetirada")
+    List<String> buscarIdsRetiradasAte(@Param("limite") LocalDateTime limite, Pageable lote);
+
+    @Query("select min(e.dataRecebimento), max(e.dataRecebimento) from Encomenda e where e.idEncomenda in :ids")
+    List<Object[]> buscarIntervaloRecebimento(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("delete from Encomenda e where e.idEncomenda in :ids")
+    int excluirPorIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Encomendas já retiradas que ainda não foram arquivadas, recebidas no período.
+     */
+    @Query("select new br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada("
+            + "e.idEncomenda, e.descricao, e.remetente, e.dataRecebimento, e.dataRetirada, false) "
+            + "from Encomenda e "
+            + "where e.dataRetirada is not null and e.dataRecebimento >= :inicio and e.dataRecebimento < :fim")
+    List<EncomendaRetirada> buscarRetiradasNoPeriodo(
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query("select new br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada("
+            + "e.idEncomenda, e.descricao, e.remetente, e.dataRecebimento, e.dataRetirada, false) "
+            + "from Encomenda e where e.usuario.id = :idUsuario "
+            + "and e.dataRetirada is not null and e.dataRecebimento >= :inicio and e.dataRecebimento < :fim")
+    List<EncomendaRetirada> buscarRetiradasNoPeriodoPorUsuario(@Param("idUsuario") UUID idUsuario,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    /**
+     * Lista as encomendas de um usuário, da mais recente para a mais antiga, por keyset.
+     * Usa o índice (id_usuario, data_recebimento, id_encomenda), então o custo não cresce
+     * com o histórico do morador.
+     */
+    Window<EncomendaResumo> findByUsuarioIdAndDataRetiradaIsNullOrderByDataRecebimentoDescIdEncomendaDesc(
+            UUID usuarioId, ScrollPosition posicao, Limit limite);
+
+    /**
+     * Percorre as encomendas em aberto em lotes, por keyset sobre a chave primária.
+     * Usado para reconstruir estruturas em memória sem carregar a tabela inteira de uma vez.
+     */
+    Window<EncomendaResumo> findByDataRetiradaIsNullOrderByIdEncomendaAsc(ScrollPosition posicao, Limit limite);
+
+    /**
+     * Lê todas as encomendas aguardando retirada em uma única consulta, em streaming.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new br.com.unit.tokseg.armario_inteligente.dto.EncomendaPendente("
+            + "e.idEncomenda, u.id, e.descricao, e.dataRecebimento, e.condominio) "
+            + "from Encomenda e left join e.usuario u where e.dataRetirada is null")
+    Stream<EncomendaPendente> streamPendentes();
+
+    /**
+     * Dentre os IDs informados, retorna os das encomendas que ainda aguardam retirada.
+     */
+    @Query("select e.idEncomenda from Encomenda e where e.idEncomenda in :ids and e.dataRetirada is null")
+    List<String> buscarIdsPendentes(@Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,41 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import br.com.unit.tokseg.armario_inteligente.dto.EventoEncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.model.EventoEncomenda;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface EventoEncomendaRepository extends JpaRepository<EventoEncomenda, Long> {
+
+    List<EventoEncomendaResumo> findByIdEncomendaOrderByIdAsc(String idEncomenda);
+
+    List<EventoEncomenda> findByIdEncomendaAndIdGreaterThanOrderByIdAsc(String idEncomenda, long id);
+
+    /**
+     * Eventos das encomendas informadas que ainda não foram consolidados em snapshot.
+     */
+    @Query("select e from EventoEncomenda e where e.idEncomenda in :ids and e.id > "
+            + "coalesce((select s.ultimoEventoId from SnapshotEncomenda s where s.idEncomenda = e.idEncomenda), 0) "
+            + "order by e.id")
+    List<EventoEncomenda> buscarEventosAposSnapshot(@Param("ids") Collection<String> ids);
+
+    /**
+     * Lê os eventos de um período na ordem em que foram gravados, em streaming.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new br.com.unit.tokseg.armario_inteligente.dto.EventoEncomendaResumo("
+            + "e.id, e.idEncomenda, e.tipo, e.dataHora, e.detalhes) "
+            + "from EventoEncomenda e where e.dataHora >= :inicio and e.dataHora < :fim order by e.id")
+    Stream<EventoEncomendaResumo> streamPorPeriodo(
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
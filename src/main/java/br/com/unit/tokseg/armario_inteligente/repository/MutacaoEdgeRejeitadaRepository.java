@@ -0,0 +1,9 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdgeRejeitada;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface MutacaoEdgeRejeitadaRepository extends JpaRepository<MutacaoEdgeRejeitada, UUID> {
+}
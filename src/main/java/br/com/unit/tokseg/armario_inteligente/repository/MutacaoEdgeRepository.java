@@ -0,0 +1,28 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.TipoMutacaoEdge;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MutacaoEdgeRepository extends JpaRepository<MutacaoEdge, UUID> {
+
+    /**
+     * Alterações pendentes na ordem em que foram feitas.
+     */
+    List<MutacaoEdge> findAllByOrderByIdAsc(Limit limite);
+
+    /**
+     * Indica se há alteração pendente de algum dos tipos para o registro.
+     */
+    boolean existsByTipoInAndIdRegistro(Collection<TipoMutacaoEdge> tipos, String idRegistro);
+
+    /**
+     * Indica se há alteração pendente do registro feita depois da informada.
+     */
+    boolean existsByIdRegistroAndIdGreaterThan(String idRegistro, UUID id);
+}
@@ -1,8 +1,71 @@
 package br.com.unit.tokseg.armario_inteligente.repository;
 
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResumo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
 
-public interface NotificacaoRepository extends JpaRepository<Notificacao, String> {
-} 
\ No newline at end of file
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface NotificacaoRepository extends JpaRepository<Notificacao, UUID> {
+
+    /**
+     * Projeção usada nas respostas administrativas: o destinatário vem pela chave estrangeira.
+     */
+    String SELECAO_RESPOSTA = "select new br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResposta("
+            + "n.idNotificacao, n.usuario.id, n.modelo, n.parametros, n.dataEnvio, n.lida) from Notificacao n ";
+
+    @Query(SELECAO_RESPOSTA)
+    List<NotificacaoResposta> listarRespostas();
+
+    @Query(SELECAO_RESPOSTA + "where n.idNotificacao = :id")
+    Optional<NotificacaoResposta> buscarRespostaPorId(@Param("id") UUID idNotificacao);
+
+    long countByUsuarioIdAndLidaFalse(UUID idUsuario);
+
+    /**
+     * Caixa de entrada do usuário, da mais recente para a mais antiga, por keyset.
+     * Usa o índice (id_usuario, data_envio, id_notificacao).
+     */
+    Window<NotificacaoResumo> findByUsuarioIdOrderByDataEnvioDescIdNotificacaoDesc(
+            UUID idUsuario, ScrollPosition posicao, Limit limite);
+
+    /**
+     * Notificações não lidas do usuário, da mais recente para a mais antiga, por keyset.
+     * Usa o índice (id_usuario, lida, data_envio).
+     */
+    Window<NotificacaoResumo> findByUsuarioIdAndLidaFalseOrderByDataEnvioDescIdNotificacaoDesc(
+            UUID idUsuario, ScrollPosition posicao, Limit limite);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notificacao n set n.lida = true where n.usuario.id = :idUsuario and n.lida = false")
+    int marcarTodasComoLidas(@Param("idUsuario") UUID idUsuario);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Notificacao n set n.lida = true "
+            + "where n.usuario.id = :idUsuario and n.lida = false and n.idNotificacao in :ids")
+    int marcarComoLidas(@Param("idUsuario") UUID idUsuario, @Param("ids") Collection<UUID> ids);
+
+    /**
+     * IDs de notificações lidas enviadas antes do limite, para o expurgo em lotes.
+     * Usa o índice parcial de notificações lidas por data de envio.
+     */
+    @Query("select n.idNotificacao from Notificacao n where n.lida = true and n.dataEnvio < :limite")
+    List<UUID> buscarIdsLidasAte(@Param("limite") LocalDateTime limite, Pageable pagina);
+
+    @Modifying
+    @Query("delete from Notificacao n where n.idNotificacao in :ids")
+    int excluirPorIds(@Param("ids") Collection<UUID> ids);
+}
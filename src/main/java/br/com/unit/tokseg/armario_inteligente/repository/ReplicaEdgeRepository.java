@@ -0,0 +1,14 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import br.com.unit.tokseg.armario_inteligente.model.ReplicaEdge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ReplicaEdgeRepository extends JpaRepository<ReplicaEdge, String> {
+
+    /**
+     * Maior revisão do central já recebida, ou 0 se nenhuma.
+     */
+    @Query("select coalesce(max(r.revisao), 0) from ReplicaEdge r")
+    long buscarUltimaRevisao();
+}
@@ -0,0 +1,15 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import br.com.unit.tokseg.armario_inteligente.model.RevisaoSync;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RevisaoSyncRepository extends JpaRepository<RevisaoSync, String> {
+
+    /**
+     * Registros alterados depois da revisão informada, na ordem das revisões.
+     */
+    List<RevisaoSync> findByRevisaoGreaterThanOrderByRevisaoAsc(long revisao, Limit limite);
+}
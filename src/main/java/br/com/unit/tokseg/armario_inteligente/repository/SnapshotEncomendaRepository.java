@@ -0,0 +1,22 @@
+package br.com.unit.tokseg.armario_inteligente.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.unit.tokseg.armario_inteligente.model.SnapshotEncomenda;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SnapshotEncomendaRepository extends JpaRepository<SnapshotEncomenda, String> {
+
+    /**
+     * Snapshots das encomendas informadas, bloqueados até o fim da transação, em ordem de ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SnapshotEncomenda s where s.idEncomenda in :ids order by s.idEncomenda")
+    List<SnapshotEncomenda> bloquear(@Param("ids") Collection<String> ids);
+}
@@ -1,14 +1,46 @@
 package br.com.unit.tokseg.armario_inteligente.repository;
 
+import br.com.unit.tokseg.armario_inteligente.dto.UsuarioResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, UUID> {
+    /**
+     * Projeção usada nas respostas da API, sem a senha.
+     */
+    String SELECAO_RESPOSTA = "select new br.com.unit.tokseg.armario_inteligente.dto.UsuarioResposta("
+            + "u.id, u.nome, u.email, u.telefone, u.tipo, u.ativo, u.dataCriacao, u.dataAtualizacao) from Usuario u ";
+
     Optional<Usuario> findByEmail(String email);
+
+    @Query(SELECAO_RESPOSTA)
+    List<UsuarioResposta> listarRespostas();
+
+    @Query(SELECAO_RESPOSTA + "where u.id = :id")
+    Optional<UsuarioResposta> buscarRespostaPorId(@Param("id") UUID id);
     boolean existsByEmail(String email);
+
+    @Query("select u.id from Usuario u where u.tipo = :tipo and u.ativo = true")
+    List<UUID> buscarIdsAtivosPorTipo(@Param("tipo") TipoUsuarioEnum tipo);
+
+    /**
+     * Usuários ativos com encomendas em aberto nos armários da localização informada.
+     */
+    @Query("select distinct u.id from Encomenda e join e.usuario u join e.armario a "
+            + "where a.localizacao = :localizacao and e.dataRetirada is null and u.ativo = true")
+    List<UUID> buscarIdsAtivosComEncomendaEm(@Param("localizacao") String localizacao);
+
+    @Query("select distinct u.id from Encomenda e join e.usuario u join e.armario a "
+            + "where a.localizacao = :localizacao and e.dataRetirada is null and u.ativo = true and u.tipo = :tipo")
+    List<UUID> buscarIdsAtivosPorTipoComEncomendaEm(@Param("tipo") TipoUsuarioEnum tipo,
+            @Param("localizacao") String localizacao);
 }
@@ -0,0 +1,253 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.TipoNotificacaoAgrupada;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço que agrupa notificações do mesmo tipo para o mesmo usuário em um resumo
+ * (ex.: "3 novas encomendas registradas para você nos armários A12, A14 e B02").
+ *
+ * A primeira notificação de um usuário ocioso sai no próximo descarregamento (no máximo
+ * {@code intervalo-ms} depois do commit). As seguintes que chegarem dentro da janela ficam retidas
+ * e saem juntas, em uma única notificação, quando a janela contada a partir do último envio
+ * termina. Assim nenhuma notificação espera mais que a janela mais um intervalo, e uma rajada de
+ * encomendas gera no máximo duas notificações por janela em vez de uma por encomenda.
+ *
+ * Os grupos ficam em memória, por condomínio; as notificações de cada descarregamento são
+ * gravadas em lote, uma transação por condomínio. Se o lote falhar, as notificações são gravadas
+ * uma a uma e os itens das que falharem voltam ao grupo para o próximo descarregamento, até
+ * {@value #MAXIMO_TENTATIVAS} tentativas.
+ */
+@Service
+public class AgrupamentoNotificacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgrupamentoNotificacaoService.class);
+    private static final int MAXIMO_TENTATIVAS = 5;
+
+    private record Chave(String condominio, UUID idUsuario, TipoNotificacaoAgrupada tipo) {
+    }
+
+    private static final class Grupo {
+        private final List<String> itens = new ArrayList<>();
+        private long ultimoEnvioMs;
+        private int falhas;
+    }
+
+    private record Envio(Chave chave, List<String> itens) {
+    }
+
+    private final NotificacaoService notificacaoService;
+    private final UsuarioRepository usuarioRepository;
+    private final CondominioIdentifierResolver condominioResolver;
+    private final long janelaMs;
+    private final Map<Chave, Grupo> grupos = new ConcurrentHashMap<>();
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param notificacaoService Serviço de notificações
+     * @param usuarioRepository Repositório de usuário
+     * @param condominioResolver Resolve o condomínio das notificações enfileiradas
+     * @param janela Janela de agrupamento contada a partir do último envio ao usuário
+     */
+    public AgrupamentoNotificacaoService(
+            NotificacaoService notificacaoService,
+            UsuarioRepository usuarioRepository,
+            CondominioIdentifierResolver condominioResolver,
+            @Value("${notificacao.agrupamento.janela:30s}") Duration janela) {
+        if (janela.isNegative()) {
+            throw new IllegalArgumentException("Janela de agrupamento não pode ser negativa");
+        }
+        this.notificacaoService = notificacaoService;
+        this.usuarioRepository = usuarioRepository;
+        this.condominioResolver = condominioResolver;
+        this.janelaMs = janela.toMillis();
+    }
+
+    /**
+     * Enfileira uma notificação para agrupamento. Dentro de uma transação, só entra na fila
+     * depois do commit.
+     *
+     * @param idUsuario ID do usuário destinatário
+     * @param tipo Tipo da notificação
+     * @param item Item que identifica o evento no resumo (ex.: número do armário)
+     * @throws IllegalArgumentException se algum parâmetro for nulo
+     */
+    public void enfileirar(UUID idUsuario, TipoNotificacaoAgrupada tipo, String item) {
+        if (idUsuario == null || tipo == null || item == null) {
+            throw new IllegalArgumentException("Usuário, tipo e item da notificação não podem ser nulos");
+        }
+        Chave chave = new Chave(condominioResolver.condominioAtual(), idUsuario, tipo);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adicionar(chave, item);
+                }
+            });
+        } else {
+            adicionar(chave, item);
+        }
+    }
+
+    /**
+     * Envia os grupos cuja janela terminou e descarta os grupos ociosos.
+     */
+    @Scheduled(fixedDelayString = "${notificacao.agrupamento.intervalo-ms:500}")
+    public void descarregar() {
+        descarregar(System.currentTimeMillis(), false);
+    }
+
+    /**
+     * Envia tudo o que estiver retido ao encerrar a aplicação.
+     */
+    @PreDestroy
+    public void descarregarTudo() {
+        descarregar(System.currentTimeMillis(), true);
+    }
+
+    /**
+     * @return Quantidade de notificações retidas aguardando o fim da janela
+     */
+    public int contarRetidas() {
+        int total = 0;
+        for (Grupo grupo : grupos.values()) {
+            synchronized (grupo) {
+                total += grupo.itens.size();
+            }
+        }
+        return total;
+    }
+
+    private void adicionar(Chave chave, String item) {
+        grupos.compute(chave, (k, grupo) -> {
+            Grupo atual = grupo != null ? grupo : new Grupo();
+            synchronized (atual) {
+                atual.itens.add(item);
+            }
+            return atual;
+        });
+    }
+
+    private void descarregar(long agora, boolean tudo) {
+        List<Envio> envios = new ArrayList<>();
+        for (Chave chave : grupos.keySet()) {
+            grupos.computeIfPresent(chave, (k, grupo) -> {
+                synchronized (grupo) {
+                    boolean janelaAberta = grupo.ultimoEnvioMs != 0 && agora - grupo.ultimoEnvioMs < janelaMs;
+                    if (grupo.itens.isEmpty()) {
+                        // Sem novidades desde o último envio: o usuário volta a ficar ocioso
+                        return janelaAberta && !tudo ? grupo : null;
+                    }
+                    if (janelaAberta && !tudo) {
+                        return grupo;
+                    }
+                    envios.add(new Envio(k, List.copyOf(grupo.itens)));
+                    grupo.itens.clear();
+                    grupo.ultimoEnvioMs = agora;
+                    return grupo;
+                }
+            });
+        }
+        if (envios.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime dataEnvio = LocalDateTime.now();
+        envios.stream()
+                .collect(Collectors.groupingBy(envio -> envio.chave().condominio()))
+                .forEach((condominio, doCondominio) ->
+                        ContextoCondominio.executar(condominio, () -> gravar(doCondominio, dataEnvio)));
+    }
+
+    private void gravar(List<Envio> envios, LocalDateTime dataEnvio) {
+        List<Notificacao> notificacoes = new ArrayList<>(envios.size());
+        int agrupadas = 0;
+        for (Envio envio : envios) {
+            notificacoes.add(criarNotificacao(envio, dataEnvio));
+            agrupadas += envio.itens().size();
+        }
+        try {
+            notificacaoService.salvarEmLote(notificacoes);
+            envios.forEach(this::confirmar);
+            logger.debug("Notificações agrupadas: {} eventos em {} notificações", agrupadas, notificacoes.size());
+            return;
+        } catch (RuntimeException e) {
+            logger.error("Erro ao gravar {} notificações agrupadas: {}", notificacoes.size(), e.getMessage(), e);
+        }
+
+        if (envios.size() == 1) {
+            devolver(envios.get(0));
+            return;
+        }
+        // Uma notificação inválida não pode segurar as demais do lote
+        for (Envio envio : envios) {
+            try {
+                notificacaoService.salvarEmLote(List.of(criarNotificacao(envio, dataEnvio)));
+                confirmar(envio);
+            } catch (RuntimeException e) {
+                logger.error("Erro ao gravar a notificação agrupada do usuário {}: {}",
+                        envio.chave().idUsuario(), e.getMessage());
+                devolver(envio);
+            }
+        }
+    }
+
+    private Notificacao criarNotificacao(Envio envio, LocalDateTime dataEnvio) {
+        return envio.chave().tipo().criarNotificacao(
+                UuidV7.gerar(),
+                usuarioRepository.getReferenceById(envio.chave().idUsuario()),
+                envio.itens(),
+                dataEnvio);
+    }
+
+    private void confirmar(Envio envio) {
+        grupos.computeIfPresent(envio.chave(), (k, grupo) -> {
+            synchronized (grupo) {
+                grupo.falhas = 0;
+            }
+            return grupo;
+        });
+    }
+
+    /**
+     * Devolve ao grupo os itens de um envio que falhou, antes dos que chegaram depois, para
+     * saírem no próximo descarregamento.
+     */
+    private void devolver(Envio envio) {
+        grupos.compute(envio.chave(), (k, grupo) -> {
+            Grupo atual = grupo != null ? grupo : new Grupo();
+            synchronized (atual) {
+                if (++atual.falhas >= MAXIMO_TENTATIVAS) {
+                    logger.error("Descartadas {} notificações agrupadas do usuário {} após {} tentativas",
+                            envio.itens().size(), k.idUsuario(), atual.falhas);
+                    atual.falhas = 0;
+                    return atual;
+                }
+                atual.itens.addAll(0, envio.itens());
+                atual.ultimoEnvioMs = 0;
+            }
+            return atual;
+        });
+    }
+}
@@ -1,8 +1,12 @@
 package br.com.unit.tokseg.armario_inteligente.service;
 
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Armario;
 import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
 import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.CompartimentoRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -23,19 +27,42 @@ import br.com.unit.tokseg.armario_inteligente.annotation.Auditavel;
  * - Implementar regras de negócio específicas
  * - Coordenar operações entre diferentes repositórios
  * - Fornecer uma interface limpa para os controllers
+ *
+ * As consultas por ID e por status/localização passam pelo {@link CacheArmarioService}; as
+ * gravações invalidam só as entradas que o armário alterado pode afetar. Todas as leituras passam
+ * pelo {@link LeituraUnicaService}, que junta chamadas idênticas simultâneas numa só consulta e
+ * abre a transação de leitura.
+ * As gravações também entram no feed de sincronização dos totens ({@link RevisaoSyncService}).
  */
 @Service
 public class ArmarioService {
 
     private static final Logger logger = LoggerFactory.getLogger(ArmarioService.class);
     private final ArmarioRepository armarioRepository;
+    private final CacheArmarioService cacheArmarioService;
+    private final LeituraUnicaService leituraUnica;
+    private final RevisaoSyncService revisaoSync;
+    private final CompartimentoRepository compartimentoRepository;
+    private final EncomendaRepository encomendaRepository;
 
     /**
-     * Construtor explícito para inicializar o repositório de armário.
+     * Construtor explícito para inicializar as dependências.
      * @param armarioRepository Repositório de armário a ser injetado
+     * @param cacheArmarioService Cache das consultas de armários
+     * @param leituraUnica Compartilhamento de leituras idênticas simultâneas
+     * @param revisaoSync Feed de sincronização dos totens
+     * @param compartimentoRepository Repositório de compartimento, para os registros que mostram o número do armário
+     * @param encomendaRepository Repositório de encomenda, para os registros que mostram o número do armário
      */
-    public ArmarioService(ArmarioRepository armarioRepository) {
+    public ArmarioService(ArmarioRepository armarioRepository, CacheArmarioService cacheArmarioService,
+            LeituraUnicaService leituraUnica, RevisaoSyncService revisaoSync,
+            CompartimentoRepository compartimentoRepository, EncomendaRepository encomendaRepository) {
         this.armarioRepository = armarioRepository;
+        this.cacheArmarioService = cacheArmarioService;
+        this.leituraUnica = leituraUnica;
+        this.revisaoSync = revisaoSync;
+        this.compartimentoRepository = compartimentoRepository;
+        this.encomendaRepository = encomendaRepository;
     }
 
     /**
@@ -50,7 +77,8 @@ public class ArmarioService {
             throw new IllegalArgumentException("Número do armário não pode ser nulo ou vazio");
         }
         logger.debug("Verificando existência do armário com número: {}", numero);
-        return armarioRepository.existsByNumero(numero);
+        return leituraUnica.executar("armario.existeNumero",
+                () -> armarioRepository.existsByNumero(numero), numero);
     }
 
     /**
@@ -76,8 +104,30 @@ public class ArmarioService {
             throw new IllegalArgumentException("Localização do armário não pode ser nula ou vazia");
         }
 
+        Optional<ArmarioResposta> anterior = armario.getId() != null
+                ? armarioRepository.buscarRespostaPorId(armario.getId())
+                : Optional.empty();
+
         logger.info("Salvando novo armário: {}", armario.getNumero());
-        return armarioRepository.save(armario);
+        Armario salvo = armarioRepository.save(armario);
+        if (anterior.isPresent()) {
+            cacheArmarioService.invalidarArmario(salvo.getId(),
+                    List.of(anterior.get().status(), salvo.getStatus()),
+                    List.of(anterior.get().localizacao(), salvo.getLocalizacao()));
+            // O número do armário aparece na resposta dos compartimentos
+            cacheArmarioService.invalidarCompartimentos();
+            if (!anterior.get().numero().equals(salvo.getNumero())) {
+                // ... e das encomendas em aberto, então os totens precisam recebê-los de novo
+                compartimentoRepository.buscarIdsPorArmario(salvo.getId())
+                        .forEach(id -> revisaoSync.registrar(TipoRegistroSync.COMPARTIMENTO, id));
+                encomendaRepository.buscarIdsEmAbertoPorArmario(salvo.getId())
+                        .forEach(id -> revisaoSync.registrar(TipoRegistroSync.ENCOMENDA, id));
+            }
+        } else {
+            cacheArmarioService.invalidarArmario(salvo.getId(), List.of(salvo.getStatus()), List.of(salvo.getLocalizacao()));
+        }
+        revisaoSync.registrar(TipoRegistroSync.ARMARIO, salvo.getId());
+        return salvo;
     }
 
     /**
@@ -85,9 +135,10 @@ public class ArmarioService {
      * 
      * @return Lista de todos os armários
      */
-    public List<Armario> listarTodos() {
+    public List<ArmarioResposta> listarTodos() {
         logger.debug("Listando todos os armários");
-        return armarioRepository.findAll();
+        return leituraUnica.executar("armario.listarTodos",
+                () -> cacheArmarioService.filtrarArmarios(null, null, armarioRepository::listarRespostas));
     }
 
     /**
@@ -97,12 +148,15 @@ public class ArmarioService {
      * @return Lista de armários com o status especificado
      * @throws IllegalArgumentException se o status for nulo
      */
-    public List<Armario> buscarPorStatus(ArmarioStatus status) {
+    public List<ArmarioResposta> buscarPorStatus(ArmarioStatus status) {
         if (status == null) {
             throw new IllegalArgumentException("Status não pode ser nulo");
         }
         logger.debug("Buscando armários com status: {}", status);
-        return armarioRepository.findByStatus(status);
+        return leituraUnica.executar("armario.buscarPorStatus",
+                () -> cacheArmarioService.filtrarArmarios(status, null,
+                        () -> armarioRepository.buscarRespostasPorStatus(status)),
+                status);
     }
 
     /**
@@ -112,12 +166,15 @@ public class ArmarioService {
      * @return Lista de armários na localização especificada
      * @throws IllegalArgumentException se a localização for nula ou vazia
      */
-    public List<Armario> buscarPorLocalizacao(String localizacao) {
+    public List<ArmarioResposta> buscarPorLocalizacao(String localizacao) {
         if (localizacao == null || localizacao.trim().isEmpty()) {
             throw new IllegalArgumentException("Localização não pode ser nula ou vazia");
         }
         logger.debug("Buscando armários na localização: {}", localizacao);
-        return armarioRepository.findByLocalizacao(localizacao);
+        return leituraUnica.executar("armario.buscarPorLocalizacao",
+                () -> cacheArmarioService.filtrarArmarios(null, localizacao,
+                        () -> armarioRepository.buscarRespostasPorLocalizacao(localizacao)),
+                localizacao);
     }
 
     /**
@@ -128,7 +185,7 @@ public class ArmarioService {
      * @return Lista de armários que atendem aos dois critérios
      * @throws IllegalArgumentException se status ou localização forem inválidos
      */
-    public List<Armario> buscarPorStatusELocalizacao(ArmarioStatus status, String localizacao) {
+    public List<ArmarioResposta> buscarPorStatusELocalizacao(ArmarioStatus status, String localizacao) {
         if (status == null) {
             throw new IllegalArgumentException("Status não pode ser nulo");
         }
@@ -136,7 +193,10 @@ public class ArmarioService {
             throw new IllegalArgumentException("Localização não pode ser nula ou vazia");
         }
         logger.debug("Buscando armários com status {} e localização {}", status, localizacao);
-        return armarioRepository.findByStatusAndLocalizacao(status, localizacao);
+        return leituraUnica.executar("armario.buscarPorStatusELocalizacao",
+                () -> cacheArmarioService.filtrarArmarios(status, localizacao,
+                        () -> armarioRepository.buscarRespostasPorStatusELocalizacao(status, localizacao)),
+                status, localizacao);
     }
 
     /**
@@ -160,7 +220,10 @@ public class ArmarioService {
         logger.info("Atualizando status do armário {} para {}", id, novoStatus);
         return armarioRepository.findById(id)
                 .map(armario -> {
+                    cacheArmarioService.invalidarArmario(id,
+                            List.of(armario.getStatus(), novoStatus), List.of(armario.getLocalizacao()));
                     armario.setStatus(novoStatus);
+                    revisaoSync.registrar(TipoRegistroSync.ARMARIO, id);
                     return armarioRepository.save(armario);
                 });
     }
@@ -172,12 +235,14 @@ public class ArmarioService {
      * @return Optional contendo o armário encontrado, ou vazio se não existir
      * @throws IllegalArgumentException se o ID for nulo
      */
-    public Optional<Armario> buscarPorId(UUID id) {
+    public Optional<ArmarioResposta> buscarPorId(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("ID do armário não pode ser nulo");
         }
         logger.debug("Buscando armário com ID: {}", id);
-        return armarioRepository.findById(id);
+        return leituraUnica.executar("armario.buscarPorId",
+                () -> cacheArmarioService.buscarArmario(id, () -> armarioRepository.buscarRespostaPorId(id)),
+                id);
     }
 
     /**
@@ -192,6 +257,7 @@ public class ArmarioService {
             throw new IllegalArgumentException("Status não pode ser nulo");
         }
         logger.debug("Contando armários com status: {}", status);
-        return armarioRepository.countByStatus(status);
+        return leituraUnica.executar("armario.contarPorStatus",
+                () -> armarioRepository.countByStatus(status), status);
     }
 } 
\ No newline at end of file
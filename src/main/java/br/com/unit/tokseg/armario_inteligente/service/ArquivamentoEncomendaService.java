@@ -0,0 +1,173 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.CompartimentoRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaArquivadaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serviço que move as encomendas retiradas da tabela operacional para o arquivo.
+ *
+ * Executado em segundo plano, em lotes pequenos (uma transação por lote): cada lote é copiado
+ * com um INSERT ... SELECT, as referências de armários e compartimentos são desfeitas e as
+ * linhas saem da tabela {@code encomenda}. Assim a tabela operacional guarda só as encomendas
+ * em aberto e as retiradas dentro do período de carência, e os seus índices continuam pequenos.
+ *
+ * No PostgreSQL o arquivo é particionado por mês de recebimento; as partições dos meses do lote
+ * são criadas antes da cópia.
+ *
+ * Cada destino de condomínios é percorrido em acesso raiz, com todos os condomínios de uma vez.
+ */
+@Service
+public class ArquivamentoEncomendaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivamentoEncomendaService.class);
+
+    private final EncomendaRepository encomendaRepository;
+    private final EncomendaArquivadaRepository encomendaArquivadaRepository;
+    private final ArmarioRepository armarioRepository;
+    private final CompartimentoRepository compartimentoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EstrategiaDestinoCondominio estrategiaDestino;
+    private final CacheArmarioService cacheArmarioService;
+    private final RevisaoSyncService revisaoSync;
+    private final Duration carencia;
+    private final int tamanhoLote;
+    private volatile Boolean particionado;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param encomendaRepository Repositório de encomenda
+     * @param encomendaArquivadaRepository Repositório do arquivo de encomendas
+     * @param armarioRepository Repositório de armário
+     * @param compartimentoRepository Repositório de compartimento
+     * @param jdbcTemplate JdbcTemplate usado na criação das partições
+     * @param transactionManager Gerenciador de transações (uma transação por lote)
+     * @param estrategiaDestino Destinos de condomínios percorridos
+     * @param cacheArmarioService Cache de armários e compartimentos, esvaziado quando o lote libera algum
+     * @param revisaoSync Feed de sincronização dos totens, que recebe os armários e compartimentos liberados
+     * @param carencia Tempo após a retirada em que a encomenda continua na tabela operacional
+     * @param tamanhoLote Quantidade de encomendas movidas por transação
+     */
+    public ArquivamentoEncomendaService(
+            EncomendaRepository encomendaRepository,
+            EncomendaArquivadaRepository encomendaArquivadaRepository,
+            ArmarioRepository armarioRepository,
+            CompartimentoRepository compartimentoRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            EstrategiaDestinoCondominio estrategiaDestino,
+            CacheArmarioService cacheArmarioService,
+            RevisaoSyncService revisaoSync,
+            @Value("${encomenda.arquivo.carencia:1h}") Duration carencia,
+            @Value("${encomenda.arquivo.tamanho-lote:500}") int tamanhoLote) {
+        this.encomendaRepository = encomendaRepository;
+        this.encomendaArquivadaRepository = encomendaArquivadaRepository;
+        this.armarioRepository = armarioRepository;
+        this.compartimentoRepository = compartimentoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.estrategiaDestino = estrategiaDestino;
+        this.cacheArmarioService = cacheArmarioService;
+        this.revisaoSync = revisaoSync;
+        this.carencia = carencia;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Move para o arquivo, em lotes, as encomendas retiradas há mais tempo que a carência.
+     *
+     * @return Quantidade de encomendas arquivadas
+     */
+    @Scheduled(fixedDelayString = "${encomenda.arquivo.intervalo-ms:300000}",
+            initialDelayString = "${encomenda.arquivo.intervalo-ms:300000}")
+    public int arquivarRetiradas() {
+        LocalDateTime limite = LocalDateTime.now().minus(carencia);
+        int total = 0;
+        for (String destino : estrategiaDestino.destinos()) {
+            try {
+                total += ContextoCondominio.executarComoRaiz(destino, () -> arquivarDestino(limite));
+            } catch (RuntimeException e) {
+                logger.error("Erro ao arquivar encomendas retiradas do destino {}: {}", destino, e.getMessage(), e);
+            }
+        }
+        if (total > 0) {
+            logger.info("{} encomendas retiradas movidas para o arquivo", total);
+        }
+        return total;
+    }
+
+    private int arquivarDestino(LocalDateTime limite) {
+        int total = 0;
+        Integer movidas;
+        do {
+            movidas = transactionTemplate.execute(status -> arquivarLote(limite));
+            total += movidas;
+        } while (movidas == tamanhoLote);
+        return total;
+    }
+
+    private int arquivarLote(LocalDateTime limite) {
+        List<String> ids = encomendaRepository.buscarIdsRetiradasAte(limite, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (isParticionado()) {
+            criarParticoes(ids);
+        }
+        encomendaArquivadaRepository.copiarDaTabelaOperacional(ids, LocalDateTime.now());
+        // Em acesso raiz não há condomínio atual: cada registro liberado vai ao feed do seu condomínio
+        // (as encomendas já saíram do feed como removidas na retirada)
+        registrarLiberados(TipoRegistroSync.ARMARIO, armarioRepository.buscarIdsPorEncomendas(ids));
+        registrarLiberados(TipoRegistroSync.COMPARTIMENTO, compartimentoRepository.buscarIdsPorEncomendas(ids));
+        if (armarioRepository.liberarEncomendas(ids) + compartimentoRepository.liberarEncomendas(ids) > 0) {
+            cacheArmarioService.invalidarTudo();
+        }
+        encomendaRepository.excluirPorIds(ids);
+        return ids.size();
+    }
+
+    private void registrarLiberados(TipoRegistroSync tipo, List<Object[]> idsECondominios) {
+        for (Object[] registro : idsECondominios) {
+            revisaoSync.registrar((String) registro[1], tipo, registro[0], false);
+        }
+    }
+
+    private void criarParticoes(List<String> ids) {
+        Object[] intervalo = encomendaRepository.buscarIntervaloRecebimento(ids).get(0);
+        LocalDate mes = ((LocalDateTime) intervalo[0]).toLocalDate().withDayOfMonth(1);
+        LocalDate ultimo = ((LocalDateTime) intervalo[1]).toLocalDate().withDayOfMonth(1);
+        for (; !mes.isAfter(ultimo); mes = mes.plusMonths(1)) {
+            jdbcTemplate.queryForList("SELECT criar_particao_encomenda_arquivo(?)", Date.valueOf(mes));
+        }
+    }
+
+    private boolean isParticionado() {
+        if (particionado == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName());
+            particionado = "PostgreSQL".equalsIgnoreCase(banco);
+        }
+        return particionado;
+    }
+}
@@ -89,7 +89,8 @@ public class AuthenticationService {
         usuario.setTelefone(request.getTelefone());
         usuario.setTipo(request.getTipo() != null ? request.getTipo() : TipoUsuarioEnum.MORADOR);
 
-        usuarioRepository.save(usuario);
+        // saveAndFlush para que o condomínio já esteja preenchido ao gerar o token
+        usuarioRepository.saveAndFlush(usuario);
         logger.info("Usuário registrado com sucesso: {}", usuario.getEmail());
 
         String jwtToken = jwtService.generateToken(usuario);
@@ -0,0 +1,152 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.TransporteInvalidacao;
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import br.com.unit.tokseg.armario_inteligente.util.AposCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Barramento de invalidação de caches entre as instâncias da aplicação.
+ *
+ * Quem altera um dado em cache aplica a invalidação no próprio cache e a publica aqui; depois do
+ * commit ela entra na fila de pendentes, que é enviada pelo {@link TransporteInvalidacao} a cada
+ * intervalo, em lotes. Invalidações repetidas no intervalo viram uma só, e quando a fila passa do
+ * limite de coalescência (uma importação em massa, por exemplo) as invalidações de cada região e
+ * condomínio são trocadas por uma da região inteira, para não inundar o canal. Se o transporte
+ * falhar, o lote e os seguintes voltam para a fila e vão no próximo envio.
+ *
+ * As invalidações recebidas de outras instâncias viram {@link InvalidacaoCacheEvent}s locais; as
+ * enviadas por esta instância são ignoradas na volta.
+ */
+@Service
+public class BarramentoInvalidacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarramentoInvalidacaoService.class);
+
+    private final String origem = UUID.randomUUID().toString();
+    private final TransporteInvalidacao transporte;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanhoLote;
+    private final int limiteCoalescencia;
+    private Set<InvalidacaoCacheEvent> pendentes = new LinkedHashSet<>();
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param transporte Transporte das invalidações entre instâncias
+     * @param eventPublisher Publicador dos eventos das invalidações recebidas
+     * @param tamanhoLote Quantidade máxima de invalidações por mensagem
+     * @param limiteCoalescencia Quantidade de pendentes acima da qual as invalidações são ampliadas
+     *                           para regiões inteiras
+     */
+    public BarramentoInvalidacaoService(
+            TransporteInvalidacao transporte,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.invalidacao.tamanho-lote:100}") int tamanhoLote,
+            @Value("${app.invalidacao.limite-coalescencia:5000}") int limiteCoalescencia) {
+        this.transporte = transporte;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoLote = tamanhoLote;
+        this.limiteCoalescencia = limiteCoalescencia;
+        transporte.assinar(this::receber);
+    }
+
+    /**
+     * Publica invalidações para as outras instâncias depois do commit da transação atual (ou
+     * imediatamente, fora de transação). Não invalida nada nesta instância.
+     *
+     * @param invalidacoes Invalidações a publicar
+     */
+    public void publicar(Collection<InvalidacaoCacheEvent> invalidacoes) {
+        if (invalidacoes.isEmpty()) {
+            return;
+        }
+        List<InvalidacaoCacheEvent> copia = List.copyOf(invalidacoes);
+        AposCommit.executar(() -> {
+            synchronized (this) {
+                pendentes.addAll(copia);
+            }
+        });
+    }
+
+    /**
+     * Envia as invalidações pendentes, em lotes.
+     *
+     * @return Quantidade de lotes enviados
+     */
+    @Scheduled(fixedDelayString = "${app.invalidacao.intervalo-ms:100}")
+    public int enviarPendentes() {
+        Set<InvalidacaoCacheEvent> envio;
+        synchronized (this) {
+            if (pendentes.isEmpty()) {
+                return 0;
+            }
+            envio = pendentes;
+            pendentes = new LinkedHashSet<>();
+        }
+        if (envio.size() > limiteCoalescencia) {
+            envio = ampliar(envio);
+        }
+
+        List<InvalidacaoCacheEvent> lista = new ArrayList<>(envio);
+        int lotes = 0;
+        for (int inicio = 0; inicio < lista.size(); inicio += tamanhoLote) {
+            List<InvalidacaoCacheEvent> lote = lista.subList(inicio, Math.min(inicio + tamanhoLote, lista.size()));
+            try {
+                transporte.enviar(new TransporteInvalidacao.Lote(origem, List.copyOf(lote)));
+                lotes++;
+            } catch (RuntimeException e) {
+                // Com o transporte fora, os lotes seguintes também falhariam: tudo volta para a fila
+                List<InvalidacaoCacheEvent> naoEnviadas = lista.subList(inicio, lista.size());
+                logger.error("Erro ao enviar invalidações de cache, {} voltam para a fila: {}",
+                        naoEnviadas.size(), e.getMessage(), e);
+                devolver(naoEnviadas);
+                break;
+            }
+        }
+        return lotes;
+    }
+
+    /**
+     * Devolve à fila, antes das publicadas durante o envio, invalidações que não puderam ser
+     * enviadas. Se o transporte ficar fora por muito tempo, a fila é contida pela ampliação para
+     * regiões inteiras no próximo envio.
+     */
+    private void devolver(List<InvalidacaoCacheEvent> naoEnviadas) {
+        synchronized (this) {
+            Set<InvalidacaoCacheEvent> fila = new LinkedHashSet<>(naoEnviadas);
+            fila.addAll(pendentes);
+            pendentes = fila;
+        }
+    }
+
+    private void receber(TransporteInvalidacao.Lote lote) {
+        if (origem.equals(lote.origem())) {
+            return;
+        }
+        logger.debug("Aplicando {} invalidações de cache recebidas de {}", lote.invalidacoes().size(), lote.origem());
+        lote.invalidacoes().forEach(eventPublisher::publishEvent);
+    }
+
+    /**
+     * Troca as invalidações de entradas por invalidações das regiões inteiras de cada condomínio.
+     */
+    private static Set<InvalidacaoCacheEvent> ampliar(Set<InvalidacaoCacheEvent> invalidacoes) {
+        Set<InvalidacaoCacheEvent> ampliadas = new LinkedHashSet<>();
+        for (InvalidacaoCacheEvent invalidacao : invalidacoes) {
+            ampliadas.add(new InvalidacaoCacheEvent(invalidacao.regiao(), invalidacao.condominio(), null));
+        }
+        return ampliadas;
+    }
+}
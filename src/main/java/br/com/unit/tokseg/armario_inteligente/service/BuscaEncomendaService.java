@@ -0,0 +1,269 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaRemovidaEvent;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import br.com.unit.tokseg.armario_inteligente.util.NormalizadorTexto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de busca textual sobre as encomendas em aberto.
+ * Mantém em memória um índice invertido (termo -> IDs de encomendas) da descrição e do remetente,
+ * com termos sem acento e em minúsculas, para que a portaria encontre uma encomenda sem consultas
+ * {@code LIKE '%...%'} no banco.
+ *
+ * O índice é reconstruído ao iniciar a aplicação e atualizado a cada encomenda salva ou removida,
+ * sempre depois do commit da transação.
+ *
+ * Cada condomínio tem o seu índice; a busca só enxerga o índice do condomínio atual. A reconstrução
+ * percorre cada destino de condomínios em acesso raiz.
+ */
+@Service
+public class BuscaEncomendaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuscaEncomendaService.class);
+    private static final int TAMANHO_LOTE_RECONSTRUCAO = 1000;
+    private static final int TAMANHO_MINIMO_PREFIXO = 3;
+    private static final int MAXIMO_EXPANSOES_PREFIXO = 50;
+    private static final double PESO_PREFIXO = 0.5;
+
+    private final EncomendaRepository encomendaRepository;
+    private final EstrategiaDestinoCondominio estrategiaDestino;
+    private final CondominioIdentifierResolver condominioResolver;
+
+    private final ConcurrentHashMap<String, Indice> indices = new ConcurrentHashMap<>();
+    private final Set<String> removidosDuranteReconstrucao = ConcurrentHashMap.newKeySet();
+    private volatile boolean reconstruindo;
+
+    private record Documento(EncomendaResumo resumo, Set<String> termos) {
+    }
+
+    /**
+     * Índice de um condomínio.
+     */
+    private static final class Indice {
+        // Termos ordenados permitem buscar por prefixo ("amaz" -> "amazon") com subMap
+        private final ConcurrentSkipListMap<String, Set<String>> invertido = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<String, Documento> documentos = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param encomendaRepository Repositório de encomenda a ser injetado
+     * @param estrategiaDestino Destinos de condomínios percorridos na reconstrução
+     * @param condominioResolver Resolve o condomínio das buscas
+     */
+    public BuscaEncomendaService(EncomendaRepository encomendaRepository,
+            EstrategiaDestinoCondominio estrategiaDestino, CondominioIdentifierResolver condominioResolver) {
+        this.encomendaRepository = encomendaRepository;
+        this.estrategiaDestino = estrategiaDestino;
+        this.condominioResolver = condominioResolver;
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco ao iniciar a aplicação.
+     * As encomendas são lidas em lotes por keyset e cada lote é indexado em paralelo.
+     * Alterações que chegarem durante a reconstrução prevalecem sobre os dados lidos do banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirIndice() {
+        long inicio = System.currentTimeMillis();
+        reconstruindo = true;
+        int total = 0;
+        try {
+            for (String destino : estrategiaDestino.destinos()) {
+                total += ContextoCondominio.executarComoRaiz(destino, this::reconstruirDestino);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Erro ao reconstruir o índice de busca de encomendas: {}", e.getMessage(), e);
+            return;
+        } finally {
+            reconstruindo = false;
+            removidosDuranteReconstrucao.clear();
+        }
+        logger.info("Índice de busca de encomendas reconstruído: {} encomendas de {} condomínios em {} ms",
+                total, indices.size(), System.currentTimeMillis() - inicio);
+    }
+
+    private int reconstruirDestino() {
+        int total = 0;
+        ScrollPosition posicao = ScrollPosition.keyset();
+        Window<EncomendaResumo> janela;
+        do {
+            janela = encomendaRepository.findByDataRetiradaIsNullOrderByIdEncomendaAsc(posicao, Limit.of(TAMANHO_LOTE_RECONSTRUCAO));
+            janela.getContent().parallelStream().forEach(this::indexarSeAusente);
+            total += janela.size();
+            if (!janela.isEmpty()) {
+                String ultimoId = janela.getContent().get(janela.size() - 1).idEncomenda();
+                posicao = ScrollPosition.forward(Map.of("idEncomenda", ultimoId));
+            }
+        } while (janela.hasNext());
+        return total;
+    }
+
+    /**
+     * Busca encomendas em aberto do condomínio atual pela descrição ou remetente.
+     * Cada termo da consulta pontua pelo quão raro ele é entre as encomendas (IDF); termos com
+     * pelo menos três letras também casam por prefixo, com peso menor. Encomendas que casam com
+     * mais termos aparecem primeiro e, no empate, as mais recentes.
+     *
+     * @param consulta Texto digitado pelo usuário
+     * @param limite Quantidade máxima de resultados
+     * @return Encomendas encontradas, da mais relevante para a menos relevante
+     * @throws IllegalArgumentException se a consulta for vazia ou o limite inválido
+     */
+    public List<EncomendaResumo> buscar(String consulta, int limite) {
+        if (consulta == null || consulta.trim().isEmpty()) {
+            throw new IllegalArgumentException("Consulta não pode ser nula ou vazia");
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+
+        Indice indice = indices.get(condominioResolver.condominioAtual());
+        if (indice == null) {
+            return List.of();
+        }
+        Set<String> termosConsulta = NormalizadorTexto.termos(consulta);
+        double totalDocumentos = Math.max(indice.documentos.size(), 1);
+        Map<String, Double> pontuacao = new HashMap<>();
+
+        for (String termo : termosConsulta) {
+            Map<String, Double> pesosDoTermo = new HashMap<>();
+            acumularPesos(pesosDoTermo, indice.invertido.get(termo), totalDocumentos, 1.0);
+            if (termo.length() >= TAMANHO_MINIMO_PREFIXO) {
+                indice.invertido.subMap(termo, false, termo + Character.MAX_VALUE, false)
+                        .values().stream()
+                        .limit(MAXIMO_EXPANSOES_PREFIXO)
+                        .forEach(ids -> acumularPesos(pesosDoTermo, ids, totalDocumentos, PESO_PREFIXO));
+            }
+            pesosDoTermo.forEach((id, peso) -> pontuacao.merge(id, peso, Double::sum));
+        }
+
+        logger.debug("Busca de encomendas por '{}' encontrou {} resultados", consulta, pontuacao.size());
+        return pontuacao.entrySet().stream()
+                .map(entrada -> Map.entry(indice.documentos.get(entrada.getKey()), entrada.getValue()))
+                .filter(entrada -> entrada.getKey() != null)
+                .sorted(Comparator.<Map.Entry<Documento, Double>>comparingDouble(Map.Entry::getValue).reversed()
+                        .thenComparing(entrada -> entrada.getKey().resumo().dataRecebimento(),
+                                Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limite)
+                .map(entrada -> entrada.getKey().resumo())
+                .toList();
+    }
+
+    /**
+     * Atualiza o índice depois que uma encomenda é salva.
+     * @param evento Evento com a encomenda salva
+     */
+    @TransactionalEventListener
+    public void aoSalvarEncomenda(EncomendaSalvaEvent evento) {
+        indexar(EncomendaResumo.de(evento.encomenda()));
+    }
+
+    /**
+     * Retira do índice uma encomenda que deixou de estar em aberto.
+     * @param evento Evento com o ID da encomenda
+     */
+    @TransactionalEventListener
+    public void aoRemoverEncomenda(EncomendaRemovidaEvent evento) {
+        remover(evento.idEncomenda());
+    }
+
+    /**
+     * Indexa (ou reindexa) uma encomenda no índice do seu condomínio.
+     * @param resumo Dados da encomenda
+     */
+    public void indexar(EncomendaResumo resumo) {
+        Indice indice = indiceDe(resumo.condominio());
+        indice.documentos.compute(resumo.idEncomenda(), (id, anterior) -> {
+            if (anterior != null) {
+                desindexarTermos(indice, id, anterior.termos());
+            }
+            return criarDocumento(indice, resumo);
+        });
+    }
+
+    /**
+     * Remove uma encomenda do índice.
+     * @param idEncomenda ID da encomenda
+     */
+    public void remover(String idEncomenda) {
+        if (reconstruindo) {
+            removidosDuranteReconstrucao.add(idEncomenda);
+        }
+        for (Indice indice : indices.values()) {
+            indice.documentos.computeIfPresent(idEncomenda, (id, anterior) -> {
+                desindexarTermos(indice, id, anterior.termos());
+                return null;
+            });
+        }
+    }
+
+    private void indexarSeAusente(EncomendaResumo resumo) {
+        if (removidosDuranteReconstrucao.contains(resumo.idEncomenda())) {
+            return;
+        }
+        Indice indice = indiceDe(resumo.condominio());
+        indice.documentos.computeIfAbsent(resumo.idEncomenda(), id -> criarDocumento(indice, resumo));
+    }
+
+    private Indice indiceDe(String condominio) {
+        return indices.computeIfAbsent(condominio, c -> new Indice());
+    }
+
+    private static Documento criarDocumento(Indice indice, EncomendaResumo resumo) {
+        // Campos ausentes não viram o termo "null"
+        String texto = Stream.of(resumo.descricao(), resumo.remetente())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+        Set<String> termos = NormalizadorTexto.termos(texto);
+        for (String termo : termos) {
+            indice.invertido.computeIfAbsent(termo, t -> ConcurrentHashMap.newKeySet()).add(resumo.idEncomenda());
+        }
+        return new Documento(resumo, termos);
+    }
+
+    private static void desindexarTermos(Indice indice, String idEncomenda, Set<String> termos) {
+        // Conjuntos vazios são mantidos: removê-los aqui poderia descartar uma inclusão concorrente
+        for (String termo : termos) {
+            Set<String> ids = indice.invertido.get(termo);
+            if (ids != null) {
+                ids.remove(idEncomenda);
+            }
+        }
+    }
+
+    private static void acumularPesos(Map<String, Double> pesos, Set<String> ids, double totalDocumentos, double fator) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1 + totalDocumentos / ids.size()) * fator;
+        for (String id : ids) {
+            pesos.merge(id, idf, Math::max);
+        }
+    }
+}
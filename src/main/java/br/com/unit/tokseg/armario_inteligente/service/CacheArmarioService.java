@@ -0,0 +1,247 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CacheConfig;
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.util.AposCommit;
+import br.com.unit.tokseg.armario_inteligente.util.RespostaSerializada;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache local das consultas de armários e compartimentos, sobre as regiões de {@link CacheConfig}.
+ *
+ * As chaves levam o condomínio da thread, então cada condomínio enxerga só o que carregou; no
+ * acesso raiz as consultas vão direto ao banco. As invalidações são precisas (o ID e os filtros
+ * que o registro alterado pode afetar) e acontecem após o commit, para que uma leitura no meio da
+ * transação não recoloque no cache o valor antigo. Uma leitura concorrente que começou antes do
+ * commit ainda pode gravar o valor antigo depois da invalidação; a expiração das regiões limita
+ * quanto tempo ele fica.
+ *
+ * Cada invalidação também é publicada no {@link BarramentoInvalidacaoService}, e as recebidas de
+ * outras instâncias são aplicadas aqui. Ao aplicar, avança também as versões usadas como ETag
+ * ({@link VersaoArmarioService}).
+ */
+@Service
+public class CacheArmarioService {
+
+    private final CondominioIdentifierResolver condominioResolver;
+    private final BarramentoInvalidacaoService barramentoInvalidacao;
+    private final VersaoArmarioService versaoArmario;
+    private final Map<String, Cache> regioes;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param cacheManager Gerenciador com as regiões de cache
+     * @param condominioResolver Resolvedor do condomínio da thread atual
+     * @param barramentoInvalidacao Barramento que leva as invalidações às outras instâncias
+     * @param versaoArmario Versões dos armários usadas como ETag
+     */
+    public CacheArmarioService(CacheManager cacheManager, CondominioIdentifierResolver condominioResolver,
+            BarramentoInvalidacaoService barramentoInvalidacao, VersaoArmarioService versaoArmario) {
+        this.condominioResolver = condominioResolver;
+        this.barramentoInvalidacao = barramentoInvalidacao;
+        this.versaoArmario = versaoArmario;
+        this.regioes = Map.of(
+                CacheConfig.ARMARIOS, regiao(cacheManager, CacheConfig.ARMARIOS),
+                CacheConfig.ARMARIOS_POR_FILTRO, regiao(cacheManager, CacheConfig.ARMARIOS_POR_FILTRO),
+                CacheConfig.COMPARTIMENTOS, regiao(cacheManager, CacheConfig.COMPARTIMENTOS),
+                CacheConfig.RESPOSTAS_ARMARIOS, regiao(cacheManager, CacheConfig.RESPOSTAS_ARMARIOS));
+    }
+
+    /**
+     * @param id ID do armário
+     * @param consulta Consulta ao banco, executada só quando o armário não está no cache
+     * @return Armário do cache ou da consulta
+     */
+    public Optional<ArmarioResposta> buscarArmario(UUID id, Supplier<Optional<ArmarioResposta>> consulta) {
+        return buscar(CacheConfig.ARMARIOS, id.toString(), consulta);
+    }
+
+    /**
+     * @param status Status dos armários, ou nulo para qualquer status
+     * @param localizacao Localização dos armários, ou nula para qualquer localização
+     * @param consulta Consulta ao banco, executada só quando o filtro não está no cache
+     * @return Armários do cache ou da consulta
+     */
+    public List<ArmarioResposta> filtrarArmarios(ArmarioStatus status, String localizacao,
+            Supplier<List<ArmarioResposta>> consulta) {
+        return buscar(CacheConfig.ARMARIOS_POR_FILTRO, chaveFiltro(status, localizacao),
+                () -> List.copyOf(consulta.get()));
+    }
+
+    /**
+     * Corpo serializado das listagens de armários sem filtro de localização (todos, ou por status).
+     * A chave é a mesma do filtro equivalente, então as invalidações de uma valem para a outra.
+     *
+     * @param status Status dos armários, ou nulo para a lista completa
+     * @param serializar Consulta e serialização, executadas só quando o corpo não está no cache
+     * @return Corpo do cache ou recém-serializado
+     */
+    public RespostaSerializada buscarRespostaArmarios(ArmarioStatus status, Supplier<RespostaSerializada> serializar) {
+        return buscar(CacheConfig.RESPOSTAS_ARMARIOS, chaveFiltro(status, null), serializar);
+    }
+
+    /**
+     * @param id ID do compartimento
+     * @param consulta Consulta ao banco, executada só quando o compartimento não está no cache
+     * @return Compartimento do cache ou da consulta
+     */
+    public Optional<CompartimentoResposta> buscarCompartimento(UUID id,
+            Supplier<Optional<CompartimentoResposta>> consulta) {
+        return buscar(CacheConfig.COMPARTIMENTOS, id.toString(), consulta);
+    }
+
+    /**
+     * Invalida, após o commit, o armário e os filtros em que ele aparecia ou passa a aparecer.
+     *
+     * @param id ID do armário
+     * @param status Status do armário antes e depois da alteração
+     * @param localizacoes Localizações do armário antes e depois da alteração
+     */
+    public void invalidarArmario(UUID id, Collection<ArmarioStatus> status, Collection<String> localizacoes) {
+        String condominio = condominioResolver.resolveCurrentTenantIdentifier();
+        if (condominioResolver.isRoot(condominio)) {
+            invalidarTudo();
+            return;
+        }
+        List<InvalidacaoCacheEvent> invalidacoes = new ArrayList<>();
+        invalidacoes.add(new InvalidacaoCacheEvent(CacheConfig.ARMARIOS, condominio, id.toString()));
+        List<String> filtros = new ArrayList<>();
+        filtros.add(chaveFiltro(null, null));
+        for (ArmarioStatus s : status) {
+            filtros.add(chaveFiltro(s, null));
+            for (String localizacao : localizacoes) {
+                filtros.add(chaveFiltro(s, localizacao));
+            }
+        }
+        for (String localizacao : localizacoes) {
+            filtros.add(chaveFiltro(null, localizacao));
+        }
+        filtros.stream().distinct().forEach(filtro -> {
+            invalidacoes.add(new InvalidacaoCacheEvent(CacheConfig.ARMARIOS_POR_FILTRO, condominio, filtro));
+            if (localizacaoDoFiltro(filtro) == null) {
+                invalidacoes.add(new InvalidacaoCacheEvent(CacheConfig.RESPOSTAS_ARMARIOS, condominio, filtro));
+            }
+        });
+        invalidar(invalidacoes);
+    }
+
+    /**
+     * Invalida, após o commit, os compartimentos do condomínio atual. Usado quando muda algo do
+     * armário que aparece na resposta dos compartimentos, como o número.
+     */
+    public void invalidarCompartimentos() {
+        String condominio = condominioResolver.resolveCurrentTenantIdentifier();
+        if (condominioResolver.isRoot(condominio)) {
+            invalidarTudo();
+            return;
+        }
+        invalidar(List.of(new InvalidacaoCacheEvent(CacheConfig.COMPARTIMENTOS, condominio, null)));
+    }
+
+    /**
+     * Invalida, após o commit, um compartimento.
+     *
+     * @param id ID do compartimento
+     */
+    public void invalidarCompartimento(UUID id) {
+        String condominio = condominioResolver.resolveCurrentTenantIdentifier();
+        if (condominioResolver.isRoot(condominio)) {
+            invalidarTudo();
+            return;
+        }
+        invalidar(List.of(new InvalidacaoCacheEvent(CacheConfig.COMPARTIMENTOS, condominio, id.toString())));
+    }
+
+    /**
+     * Esvazia, após o commit, todas as regiões. Usado por alterações em massa, que não sabem
+     * quais armários ou compartimentos mudaram.
+     */
+    public void invalidarTudo() {
+        invalidar(regioes.keySet().stream().map(nome -> new InvalidacaoCacheEvent(nome, null, null)).toList());
+    }
+
+    /**
+     * Aplica uma invalidação recebida de outra instância.
+     *
+     * @param invalidacao Invalidação recebida
+     */
+    @EventListener
+    public void aoReceberInvalidacao(InvalidacaoCacheEvent invalidacao) {
+        aplicar(invalidacao);
+    }
+
+    private void invalidar(List<InvalidacaoCacheEvent> invalidacoes) {
+        AposCommit.executar(() -> invalidacoes.forEach(this::aplicar));
+        barramentoInvalidacao.publicar(invalidacoes);
+    }
+
+    private void aplicar(InvalidacaoCacheEvent invalidacao) {
+        versaoArmario.avancar(invalidacao);
+        regioes.forEach((nome, regiao) -> {
+            if (!invalidacao.alcanca(nome)) {
+                return;
+            }
+            if (invalidacao.chave() == null && invalidacao.condominio() == null) {
+                regiao.clear();
+            } else if (invalidacao.chave() == null) {
+                nativo(regiao).asMap().keySet()
+                        .removeIf(chave -> ((Chave) chave).condominio().equals(invalidacao.condominio()));
+            } else {
+                regiao.evict(new Chave(invalidacao.condominio(), invalidacao.chave()));
+            }
+        });
+    }
+
+    private <T> T buscar(String nomeRegiao, String chave, Supplier<T> consulta) {
+        String condominio = condominioResolver.resolveCurrentTenantIdentifier();
+        if (condominioResolver.isRoot(condominio)) {
+            return consulta.get();
+        }
+        return regioes.get(nomeRegiao).get(new Chave(condominio, chave), consulta::get);
+    }
+
+    /**
+     * Chave textual do filtro, para que possa ser enviada às outras instâncias. O status vem
+     * antes da barra e não a contém, então a localização pode ter qualquer caractere.
+     */
+    private static String chaveFiltro(ArmarioStatus status, String localizacao) {
+        return (status != null ? status.name() : "") + "|" + (localizacao != null ? localizacao : "");
+    }
+
+    /**
+     * @param chave Chave textual de um filtro de armários
+     * @return Localização do filtro, ou nula quando o filtro vale para qualquer localização
+     */
+    static String localizacaoDoFiltro(String chave) {
+        String localizacao = chave.substring(chave.indexOf('|') + 1);
+        return localizacao.isEmpty() ? null : localizacao;
+    }
+
+    private static Cache regiao(CacheManager cacheManager, String nome) {
+        return Objects.requireNonNull(cacheManager.getCache(nome), "Região de cache não configurada: " + nome);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativo(Cache regiao) {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) regiao.getNativeCache();
+    }
+
+    private record Chave(String condominio, String valor) {
+    }
+}
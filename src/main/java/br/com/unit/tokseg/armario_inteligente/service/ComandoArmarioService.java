@@ -0,0 +1,282 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.TransporteComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.dto.ComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoComandoArmario.Situacao;
+import br.com.unit.tokseg.armario_inteligente.model.TipoComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.util.RodaTemporizacao;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envio de comandos às portas dos compartimentos ("abrir o compartimento 7").
+ *
+ * Cada armário tem a sua fila: os comandos de um armário são entregues um de cada vez, na ordem
+ * em que entraram, e o próximo só sai depois do ack (ou da desistência) do anterior. Armários
+ * diferentes andam em paralelo; não há lock global, só o da fila de cada armário. Nenhuma thread
+ * espera o hardware: o envio e o tratamento do ack rodam no {@code comandoArmarioExecutor}.
+ *
+ * O ack de cada tentativa tem prazo numa {@link RodaTemporizacao}; sem ack no prazo (ou com falha
+ * no envio) o comando é reenviado com o mesmo ID, até o limite de tentativas. Uma recusa do
+ * controlador encerra o comando sem nova tentativa. Um ack que chega depois do prazo é ignorado.
+ *
+ * Métricas (Micrometer):
+ * - {@code armario.comandos.latencia}: da entrada na fila ao resultado, por tipo e situação
+ * - {@code armario.comandos.ack}: do envio de uma tentativa ao ack, por tipo
+ * - {@code armario.comandos.retentativas}: reenvios, por tipo
+ * - {@code armario.comandos.pendentes}: comandos na fila ou aguardando ack
+ *
+ * Só existe com um transporte escolhido em {@code app.comandos.transporte}; um valor sem
+ * implementação impede a aplicação de subir.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.comandos", name = "transporte")
+public class ComandoArmarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComandoArmarioService.class);
+
+    private final CompartimentoService compartimentoService;
+    private final TransporteComandoArmario transporte;
+    private final TaskExecutor executor;
+    private final long tempoLimiteAckMs;
+    private final int tentativas;
+    private final int capacidadeFila;
+    private final RodaTemporizacao<Tentativa, Comando> prazosAck;
+    private final Map<UUID, FilaArmario> filas = new ConcurrentHashMap<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final Map<TipoComandoArmario, Map<Situacao, Timer>> latencias = new EnumMap<>(TipoComandoArmario.class);
+    private final Map<TipoComandoArmario, Timer> acks = new EnumMap<>(TipoComandoArmario.class);
+    private final Map<TipoComandoArmario, Counter> retentativas = new EnumMap<>(TipoComandoArmario.class);
+
+    /**
+     * Tentativa de um comando: a chave do prazo do ack.
+     */
+    private record Tentativa(UUID idComando, int numero) {
+    }
+
+    private static final class Comando {
+        private final UUID id = UuidV7.gerar();
+        private final UUID idArmario;
+        private final UUID idCompartimento;
+        private final TipoComandoArmario tipo;
+        private final long enfileiradoNanos = System.nanoTime();
+        private final CompletableFuture<ResultadoComandoArmario> resultado = new CompletableFuture<>();
+        private int tentativa;
+        private long envioNanos;
+
+        private Comando(UUID idArmario, UUID idCompartimento, TipoComandoArmario tipo) {
+            this.idArmario = idArmario;
+            this.idCompartimento = idCompartimento;
+            this.tipo = tipo;
+        }
+    }
+
+    /**
+     * Fila de um armário; {@code emExecucao} é o comando entregue que aguarda ack.
+     */
+    private static final class FilaArmario {
+        private final ArrayDeque<Comando> aguardando = new ArrayDeque<>();
+        private Comando emExecucao;
+    }
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param compartimentoService Serviço de compartimentos, para localizar o armário de cada porta
+     * @param transporte Transporte dos comandos aos controladores dos armários
+     * @param executor Executor dos envios e dos acks
+     * @param registry Registro das métricas
+     * @param tempoLimiteAck Tempo máximo de espera pelo ack de cada tentativa
+     * @param tentativas Quantidade máxima de envios de um comando
+     * @param capacidadeFila Quantidade máxima de comandos aguardando na fila de um armário
+     * @param resolucaoMs Resolução dos prazos de ack e intervalo entre as verificações, em milissegundos
+     */
+    public ComandoArmarioService(
+            CompartimentoService compartimentoService,
+            TransporteComandoArmario transporte,
+            @Qualifier("comandoArmarioExecutor") TaskExecutor executor,
+            MeterRegistry registry,
+            @Value("${app.comandos.tempo-limite-ack:2s}") Duration tempoLimiteAck,
+            @Value("${app.comandos.tentativas:3}") int tentativas,
+            @Value("${app.comandos.capacidade-fila:100}") int capacidadeFila,
+            @Value("${app.comandos.resolucao-ms:50}") long resolucaoMs) {
+        if (tentativas < 1) {
+            throw new IllegalArgumentException("Quantidade de tentativas deve ser pelo menos 1");
+        }
+        this.compartimentoService = compartimentoService;
+        this.transporte = transporte;
+        this.executor = executor;
+        this.tempoLimiteAckMs = tempoLimiteAck.toMillis();
+        this.tentativas = tentativas;
+        this.capacidadeFila = capacidadeFila;
+        this.prazosAck = new RodaTemporizacao<>(resolucaoMs, System.currentTimeMillis());
+        for (TipoComandoArmario tipo : TipoComandoArmario.values()) {
+            Map<Situacao, Timer> porSituacao = new EnumMap<>(Situacao.class);
+            for (Situacao situacao : Situacao.values()) {
+                porSituacao.put(situacao, Timer.builder("armario.comandos.latencia")
+                        .description("Tempo da entrada na fila do armário até o resultado do comando")
+                        .tag("tipo", tipo.name())
+                        .tag("situacao", situacao.name())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(registry));
+            }
+            latencias.put(tipo, porSituacao);
+            acks.put(tipo, Timer.builder("armario.comandos.ack")
+                    .description("Tempo do envio de uma tentativa até o ack do controlador")
+                    .tag("tipo", tipo.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+            retentativas.put(tipo, Counter.builder("armario.comandos.retentativas")
+                    .description("Comandos reenviados por falta de ack")
+                    .tag("tipo", tipo.name())
+                    .register(registry));
+        }
+        registry.gauge("armario.comandos.pendentes", pendentes);
+    }
+
+    /**
+     * Coloca um comando na fila do armário do compartimento.
+     *
+     * @param idCompartimento Compartimento cuja porta recebe o comando
+     * @param tipo Comando
+     * @return Futuro concluído com o resultado do comando (nunca com erro)
+     * @throws IllegalArgumentException se o compartimento ou o tipo forem nulos, ou se o
+     *         compartimento não pertencer a um armário
+     * @throws EntityNotFoundException se o compartimento não existir
+     * @throws IllegalStateException se a fila do armário estiver cheia
+     */
+    public CompletableFuture<ResultadoComandoArmario> enviar(UUID idCompartimento, TipoComandoArmario tipo) {
+        if (idCompartimento == null) {
+            throw new IllegalArgumentException("ID do compartimento não pode ser nulo");
+        }
+        if (tipo == null) {
+            throw new IllegalArgumentException("Tipo do comando não pode ser nulo");
+        }
+        UUID idArmario = compartimentoService.buscarPorId(idCompartimento)
+                .map(CompartimentoResposta::idArmario)
+                .orElseThrow(() -> new EntityNotFoundException("Compartimento não encontrado com ID: " + idCompartimento));
+        if (idArmario == null) {
+            throw new IllegalArgumentException("Compartimento " + idCompartimento + " não pertence a um armário");
+        }
+
+        Comando comando = new Comando(idArmario, idCompartimento, tipo);
+        // As filas ficam no mapa depois de esvaziar: uma por armário que já recebeu comandos
+        FilaArmario fila = filas.computeIfAbsent(idArmario, id -> new FilaArmario());
+        boolean despachar;
+        synchronized (fila) {
+            if (fila.aguardando.size() >= capacidadeFila) {
+                throw new IllegalStateException("Fila de comandos do armário " + idArmario + " está cheia");
+            }
+            pendentes.incrementAndGet();
+            despachar = fila.emExecucao == null;
+            if (despachar) {
+                fila.emExecucao = comando;
+            } else {
+                fila.aguardando.addLast(comando);
+            }
+        }
+        logger.debug("Comando {} ({} do compartimento {}) na fila do armário {}", comando.id, tipo, idCompartimento, idArmario);
+        if (despachar) {
+            executor.execute(() -> enviarTentativa(comando));
+        }
+        return comando.resultado;
+    }
+
+    /**
+     * Avança os prazos de ack e trata as tentativas vencidas.
+     */
+    @Scheduled(fixedDelayString = "${app.comandos.resolucao-ms:50}")
+    public void verificarPrazos() {
+        List<Comando> vencidos = prazosAck.avancar(System.currentTimeMillis());
+        for (Comando comando : vencidos) {
+            logger.warn("Comando {} ({} do compartimento {}) sem ack na tentativa {}",
+                    comando.id, comando.tipo, comando.idCompartimento, comando.tentativa);
+            executor.execute(() -> repetirOuDesistir(comando));
+        }
+    }
+
+    private void enviarTentativa(Comando comando) {
+        comando.tentativa++;
+        comando.envioNanos = System.nanoTime();
+        Tentativa tentativa = new Tentativa(comando.id, comando.tentativa);
+        prazosAck.agendar(tentativa, System.currentTimeMillis() + tempoLimiteAckMs, comando);
+        CompletableFuture<Void> ack;
+        try {
+            ack = transporte.enviar(new ComandoArmario(comando.id, comando.idArmario, comando.idCompartimento,
+                    comando.tipo, comando.tentativa));
+        } catch (RuntimeException e) {
+            // Falha na entrega (sem conexão com o controlador): conta como tentativa sem ack
+            logger.warn("Erro ao enviar o comando {} na tentativa {}: {}", comando.id, comando.tentativa, e.getMessage());
+            if (prazosAck.cancelar(tentativa)) {
+                repetirOuDesistir(comando);
+            }
+            return;
+        }
+        ack.whenCompleteAsync((ok, erro) -> {
+            if (!prazosAck.cancelar(tentativa)) {
+                logger.debug("Ack do comando {} na tentativa {} chegou depois do prazo", comando.id, tentativa.numero());
+                return;
+            }
+            if (erro != null) {
+                logger.warn("Comando {} ({} do compartimento {}) recusado: {}",
+                        comando.id, comando.tipo, comando.idCompartimento, erro.getMessage());
+                concluir(comando, Situacao.RECUSADO);
+            } else {
+                acks.get(comando.tipo).record(System.nanoTime() - comando.envioNanos, TimeUnit.NANOSECONDS);
+                concluir(comando, Situacao.CONFIRMADO);
+            }
+        }, executor);
+    }
+
+    private void repetirOuDesistir(Comando comando) {
+        if (comando.tentativa < tentativas) {
+            retentativas.get(comando.tipo).increment();
+            enviarTentativa(comando);
+        } else {
+            logger.error("Comando {} ({} do compartimento {}) sem confirmação após {} tentativas",
+                    comando.id, comando.tipo, comando.idCompartimento, comando.tentativa);
+            concluir(comando, Situacao.SEM_CONFIRMACAO);
+        }
+    }
+
+    private void concluir(Comando comando, Situacao situacao) {
+        long latenciaNanos = System.nanoTime() - comando.enfileiradoNanos;
+        latencias.get(comando.tipo).get(situacao).record(latenciaNanos, TimeUnit.NANOSECONDS);
+        pendentes.decrementAndGet();
+
+        FilaArmario fila = filas.get(comando.idArmario);
+        Comando proximo;
+        synchronized (fila) {
+            proximo = fila.aguardando.pollFirst();
+            fila.emExecucao = proximo;
+        }
+        if (proximo != null) {
+            executor.execute(() -> enviarTentativa(proximo));
+        }
+        comando.resultado.complete(new ResultadoComandoArmario(comando.id, comando.idArmario, comando.idCompartimento,
+                comando.tipo, situacao, comando.tentativa, TimeUnit.NANOSECONDS.toMillis(latenciaNanos)));
+    }
+}
@@ -1,10 +1,14 @@
 package br.com.unit.tokseg.armario_inteligente.service;
 
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
+import br.com.unit.tokseg.armario_inteligente.event.OcupacaoCompartimentoAlteradaEvent;
 import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
 import br.com.unit.tokseg.armario_inteligente.repository.CompartimentoRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,19 +19,38 @@ import java.util.UUID;
 /**
  * Serviço responsável pela lógica de negócios relacionada aos compartimentos.
  * Implementa as operações de CRUD e regras específicas do domínio.
+ *
+ * A consulta por ID passa pelo {@link CacheArmarioService}; as gravações invalidam o compartimento.
+ * As leituras passam pelo {@link LeituraUnicaService}, que junta chamadas idênticas simultâneas e
+ * abre a transação de leitura.
+ * As gravações e remoções entram no feed de sincronização dos totens ({@link RevisaoSyncService}).
  */
 @Service
 public class CompartimentoService {
 
     private static final Logger logger = LoggerFactory.getLogger(CompartimentoService.class);
     private final CompartimentoRepository compartimentoRepository;
+    private final CacheArmarioService cacheArmarioService;
+    private final LeituraUnicaService leituraUnica;
+    private final RevisaoSyncService revisaoSync;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Construtor explícito para inicializar o repositório de compartimento.
+     * Construtor explícito para inicializar as dependências.
      * @param compartimentoRepository Repositório de compartimento a ser injetado
+     * @param cacheArmarioService Cache das consultas de compartimentos
+     * @param leituraUnica Compartilhamento de leituras idênticas simultâneas
+     * @param revisaoSync Feed de sincronização dos totens
+     * @param eventPublisher Publicador dos eventos de ocupação
      */
-    public CompartimentoService(CompartimentoRepository compartimentoRepository) {
+    public CompartimentoService(CompartimentoRepository compartimentoRepository,
+            CacheArmarioService cacheArmarioService, LeituraUnicaService leituraUnica,
+            RevisaoSyncService revisaoSync, ApplicationEventPublisher eventPublisher) {
         this.compartimentoRepository = compartimentoRepository;
+        this.cacheArmarioService = cacheArmarioService;
+        this.leituraUnica = leituraUnica;
+        this.revisaoSync = revisaoSync;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -35,9 +58,11 @@ public class CompartimentoService {
      * 
      * @return Lista de todos os compartimentos
      */
-    public List<Compartimento> listarTodos() {
+    public List<CompartimentoResposta> listarTodos() {
         logger.debug("Listando todos os compartimentos");
-        return compartimentoRepository.findAll();
+        // Cópia imutável: a mesma lista é entregue a todas as chamadas que compartilharam a consulta
+        return leituraUnica.executar("compartimento.listarTodos",
+                () -> List.copyOf(compartimentoRepository.listarRespostas()));
     }
 
     /**
@@ -47,12 +72,14 @@ public class CompartimentoService {
      * @return Optional contendo o compartimento encontrado, ou vazio se não existir
      * @throws IllegalArgumentException se o ID for nulo
      */
-    public Optional<Compartimento> buscarPorId(UUID id) {
+    public Optional<CompartimentoResposta> buscarPorId(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("ID do compartimento não pode ser nulo");
         }
         logger.debug("Buscando compartimento com ID: {}", id);
-        return compartimentoRepository.findById(id);
+        return leituraUnica.executar("compartimento.buscarPorId",
+                () -> cacheArmarioService.buscarCompartimento(id, () -> compartimentoRepository.buscarRespostaPorId(id)),
+                id);
     }
 
     /**
@@ -72,7 +99,10 @@ public class CompartimentoService {
         }
 
         logger.info("Salvando novo compartimento para o armário: {}", compartimento.getArmario().getId());
-        return compartimentoRepository.save(compartimento);
+        Compartimento salvo = compartimentoRepository.save(compartimento);
+        cacheArmarioService.invalidarCompartimento(salvo.getIdCompartimento());
+        revisaoSync.registrar(TipoRegistroSync.COMPARTIMENTO, salvo.getIdCompartimento());
+        return salvo;
     }
 
     /**
@@ -94,6 +124,8 @@ public class CompartimentoService {
 
         logger.info("Removendo compartimento com ID: {}", id);
         compartimentoRepository.deleteById(id);
+        cacheArmarioService.invalidarCompartimento(id);
+        revisaoSync.registrarRemocao(TipoRegistroSync.COMPARTIMENTO, id);
     }
 
     /**
@@ -114,6 +146,9 @@ public class CompartimentoService {
         return compartimentoRepository.findById(id)
                 .map(compartimento -> {
                     compartimento.setOcupado(ocupado);
+                    cacheArmarioService.invalidarCompartimento(id);
+                    revisaoSync.registrar(TipoRegistroSync.COMPARTIMENTO, id);
+                    eventPublisher.publishEvent(new OcupacaoCompartimentoAlteradaEvent(id, ocupado));
                     return compartimentoRepository.save(compartimento);
                 });
     }
@@ -0,0 +1,130 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import br.com.unit.tokseg.armario_inteligente.repository.NotificacaoRepository;
+import br.com.unit.tokseg.armario_inteligente.util.AposCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador em memória de notificações não lidas por usuário (o "badge" dos aplicativos).
+ *
+ * O contador de um usuário é carregado na primeira consulta com um COUNT sobre o índice
+ * (id_usuario, lida) e depois mantido pelos ajustes feitos ao criar, ler ou remover notificações,
+ * sempre após o commit. O mapa tem tamanho máximo e descarta usuários inativos; cada contador
+ * também é recarregado do banco periodicamente, o que corrige desvios de corridas entre a carga
+ * e os ajustes.
+ *
+ * Os ajustes só valem para esta instância: as demais recebem pelo {@link BarramentoInvalidacaoService}
+ * a invalidação do contador e o recarregam do banco na próxima consulta.
+ */
+@Service
+public class ContadorNaoLidasService {
+
+    /** Região dos contadores no barramento de invalidação; a chave é o ID do usuário. */
+    public static final String REGIAO = "contador-nao-lidas";
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final BarramentoInvalidacaoService barramentoInvalidacao;
+    private final Cache<UUID, AtomicLong> contadores;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param notificacaoRepository Repositório de notificação
+     * @param barramentoInvalidacao Barramento que leva as invalidações às outras instâncias
+     * @param tamanhoMaximo Quantidade máxima de usuários com contador em memória
+     * @param inatividade Tempo sem consultas ou ajustes após o qual o contador é descartado
+     * @param recarga Tempo após o qual o contador é recarregado do banco
+     */
+    public ContadorNaoLidasService(
+            NotificacaoRepository notificacaoRepository,
+            BarramentoInvalidacaoService barramentoInvalidacao,
+            @Value("${notificacao.nao-lidas.tamanho-maximo:100000}") long tamanhoMaximo,
+            @Value("${notificacao.nao-lidas.inatividade:30m}") Duration inatividade,
+            @Value("${notificacao.nao-lidas.recarga:10m}") Duration recarga) {
+        this.notificacaoRepository = notificacaoRepository;
+        this.barramentoInvalidacao = barramentoInvalidacao;
+        this.contadores = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterAccess(inatividade)
+                .expireAfterWrite(recarga)
+                .build();
+    }
+
+    /**
+     * @param idUsuario ID do usuário
+     * @return Quantidade de notificações não lidas do usuário
+     * @throws IllegalArgumentException se o ID for nulo
+     */
+    public long contar(UUID idUsuario) {
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        return contadores.get(idUsuario,
+                id -> new AtomicLong(notificacaoRepository.countByUsuarioIdAndLidaFalse(id))).get();
+    }
+
+    /**
+     * Ajusta o contador de um usuário depois do commit da transação atual (ou imediatamente,
+     * fora de transação). Usuários sem contador em memória são ignorados: a próxima consulta
+     * carrega o valor do banco.
+     *
+     * @param idUsuario ID do usuário
+     * @param delta Variação (positiva para novas não lidas, negativa para lidas ou removidas)
+     */
+    public void ajustar(UUID idUsuario, long delta) {
+        if (idUsuario == null || delta == 0) {
+            return;
+        }
+        AposCommit.executar(() -> aplicar(idUsuario, delta));
+        barramentoInvalidacao.publicar(List.of(new InvalidacaoCacheEvent(REGIAO, null, idUsuario.toString())));
+    }
+
+    /**
+     * Ajusta os contadores de vários usuários depois do commit da transação atual.
+     *
+     * @param deltas Variação por usuário
+     */
+    public void ajustar(Map<UUID, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        AposCommit.executar(() -> deltas.forEach(this::aplicar));
+        barramentoInvalidacao.publicar(deltas.keySet().stream()
+                .map(idUsuario -> new InvalidacaoCacheEvent(REGIAO, null, idUsuario.toString()))
+                .toList());
+    }
+
+    /**
+     * Descarta contadores alterados em outra instância; a próxima consulta recarrega do banco.
+     *
+     * @param invalidacao Invalidação recebida
+     */
+    @EventListener
+    public void aoReceberInvalidacao(InvalidacaoCacheEvent invalidacao) {
+        if (!invalidacao.alcanca(REGIAO)) {
+            return;
+        }
+        if (invalidacao.chave() == null) {
+            contadores.invalidateAll();
+        } else {
+            contadores.invalidate(UUID.fromString(invalidacao.chave()));
+        }
+    }
+
+    private void aplicar(UUID idUsuario, long delta) {
+        AtomicLong contador = contadores.getIfPresent(idUsuario);
+        if (contador != null && contador.addAndGet(delta) < 0) {
+            contadores.invalidate(idUsuario);
+        }
+    }
+}
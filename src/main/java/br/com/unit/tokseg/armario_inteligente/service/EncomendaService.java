@@ -1,15 +1,38 @@
 package br.com.unit.tokseg.armario_inteligente.service;
 
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada;
+import br.com.unit.tokseg.armario_inteligente.dto.PaginaCursor;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaRemovidaEvent;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
 import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.EventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaArquivadaRepository;
 import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.util.CursorPaginacao;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 import br.com.unit.tokseg.armario_inteligente.annotation.Auditavel;
 
@@ -21,14 +44,30 @@ import br.com.unit.tokseg.armario_inteligente.annotation.Auditavel;
 public class EncomendaService {
 
     private static final Logger logger = LoggerFactory.getLogger(EncomendaService.class);
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+    private static final Duration PERIODO_MAXIMO_RETIRADAS = Duration.ofDays(366);
     private final EncomendaRepository encomendaRepository;
+    private final EncomendaArquivadaRepository encomendaArquivadaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HistoricoEncomendaService historicoEncomendaService;
+    private final RevisaoSyncService revisaoSync;
 
     /**
-     * Construtor explícito para inicializar o repositório de encomenda.
+     * Construtor explícito para inicializar as dependências.
      * @param encomendaRepository Repositório de encomenda a ser injetado
+     * @param encomendaArquivadaRepository Repositório do arquivo de encomendas retiradas
+     * @param eventPublisher Publicador dos eventos de alteração de encomendas
+     * @param historicoEncomendaService Serviço do histórico do ciclo de vida das encomendas
+     * @param revisaoSync Feed de sincronização dos totens
      */
-    public EncomendaService(EncomendaRepository encomendaRepository) {
+    public EncomendaService(EncomendaRepository encomendaRepository,
+            EncomendaArquivadaRepository encomendaArquivadaRepository, ApplicationEventPublisher eventPublisher,
+            HistoricoEncomendaService historicoEncomendaService, RevisaoSyncService revisaoSync) {
         this.encomendaRepository = encomendaRepository;
+        this.encomendaArquivadaRepository = encomendaArquivadaRepository;
+        this.eventPublisher = eventPublisher;
+        this.historicoEncomendaService = historicoEncomendaService;
+        this.revisaoSync = revisaoSync;
     }
 
     /**
@@ -36,7 +75,8 @@ public class EncomendaService {
      * 
      * @param encomenda Encomenda a ser salva
      * @return Encomenda salva com ID gerado
-     * @throws IllegalArgumentException se a encomenda for nula ou inválida
+     * @throws IllegalArgumentException se a encomenda for nula ou inválida, ou se o ID for de uma
+     *         encomenda já retirada e movida para o arquivo
      */
     @Auditavel(acao = "CADASTRO_ENCOMENDA", detalhes = "Cadastro de nova encomenda no sistema")
     @Transactional
@@ -54,18 +94,117 @@ public class EncomendaService {
             throw new IllegalArgumentException("Remetente não pode ser nulo ou vazio");
         }
 
+        Optional<Encomenda> existente = encomendaRepository.findById(encomenda.getIdEncomenda());
+        // Sem esta verificação o ID arquivado voltaria como uma nova encomenda em aberto
+        if (existente.isEmpty() && encomendaArquivadaRepository.existsById(encomenda.getIdEncomenda())) {
+            throw new IllegalArgumentException("Encomenda já retirada e arquivada: " + encomenda.getIdEncomenda());
+        }
+        UUID armarioAnterior = existente.map(Encomenda::getArmario).map(Armario::getId).orElse(null);
+        // A retirada só é registrada por remover/devolver, nunca pelo corpo da requisição
+        encomenda.setDataRetirada(existente.map(Encomenda::getDataRetirada).orElse(null));
+
         logger.info("Salvando nova encomenda com ID: {}", encomenda.getIdEncomenda());
-        return encomendaRepository.save(encomenda);
+        Encomenda salva = encomendaRepository.save(encomenda);
+        eventPublisher.publishEvent(new EncomendaSalvaEvent(salva));
+        revisaoSync.registrar(TipoRegistroSync.ENCOMENDA, salva.getIdEncomenda());
+
+        if (existente.isEmpty()) {
+            historicoEncomendaService.registrar(salva.getIdEncomenda(), TipoEventoEncomenda.RECEBIDA, null);
+        }
+        Armario armario = salva.getArmario();
+        if (armario != null && armario.getId() != null && !armario.getId().equals(armarioAnterior)) {
+            String local = armario.getNumero() != null ? "Armário " + armario.getNumero() : "Armário " + armario.getId();
+            historicoEncomendaService.registrar(salva.getIdEncomenda(), TipoEventoEncomenda.ARMAZENADA, local);
+        }
+        // A resposta e a auditoria usam o armário e o morador depois do commit, sem sessão aberta
+        Hibernate.initialize(salva.getArmario());
+        Hibernate.initialize(salva.getUsuario());
+        return salva;
     }
 
     /**
-     * Lista todas as encomendas cadastradas no sistema.
+     * Lista todas as encomendas aguardando retirada.
      * 
-     * @return Lista de todas as encomendas
+     * @return Lista das encomendas em aberto
      */
-    public List<Encomenda> listarTodas() {
+    @Transactional(readOnly = true)
+    public List<EncomendaResposta> listarTodas() {
         logger.debug("Listando todas as encomendas");
-        return encomendaRepository.findAll();
+        return encomendaRepository.listarRespostasEmAberto();
+    }
+
+    /**
+     * Lista as encomendas já retiradas, recebidas no período, da mais recente para a mais antiga.
+     * Junta as retiradas recentes da tabela operacional com as do arquivo; só esta consulta
+     * lê o arquivo, e apenas as partições do período.
+     * 
+     * @param idUsuario ID do usuário dono das encomendas, ou nulo para todos
+     * @param inicio Início do período de recebimento (inclusivo)
+     * @param fim Fim do período de recebimento (exclusivo)
+     * @return Encomendas retiradas no período
+     * @throws IllegalArgumentException se o período for inválido ou maior que um ano
+     */
+    @Transactional(readOnly = true)
+    public List<EncomendaRetirada> listarRetiradas(UUID idUsuario, LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null || !inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Período inválido");
+        }
+        if (inicio.plus(PERIODO_MAXIMO_RETIRADAS).isBefore(fim)) {
+            throw new IllegalArgumentException("Período não pode ser maior que " + PERIODO_MAXIMO_RETIRADAS.toDays() + " dias");
+        }
+
+        logger.debug("Listando encomendas retiradas de {} a {} (usuário {})", inicio, fim, idUsuario);
+        List<EncomendaRetirada> retiradas = new ArrayList<>();
+        if (idUsuario == null) {
+            retiradas.addAll(encomendaRepository.buscarRetiradasNoPeriodo(inicio, fim));
+            retiradas.addAll(encomendaArquivadaRepository.buscarRecebidasNoPeriodo(inicio, fim));
+        } else {
+            retiradas.addAll(encomendaRepository.buscarRetiradasNoPeriodoPorUsuario(idUsuario, inicio, fim));
+            retiradas.addAll(encomendaArquivadaRepository.buscarRecebidasNoPeriodoPorUsuario(idUsuario, inicio, fim));
+        }
+        retiradas.sort(Comparator.comparing(EncomendaRetirada::dataRecebimento).reversed());
+        return retiradas;
+    }
+
+    /**
+     * Lista as encomendas de um usuário, da mais recente para a mais antiga.
+     * A paginação é por cursor (keyset): cada página continua a partir do último item
+     * da anterior, sem OFFSET, então o tempo de resposta não depende do tamanho do histórico.
+     * 
+     * @param idUsuario ID do usuário dono das encomendas
+     * @param cursor Cursor devolvido pela página anterior, ou nulo para a primeira página
+     * @param limite Quantidade máxima de itens na página (1 a 100)
+     * @return Página com os resumos das encomendas e o cursor da próxima página
+     * @throws IllegalArgumentException se o usuário for nulo, o limite inválido ou o cursor malformado
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<EncomendaResumo> listarDoUsuario(UUID idUsuario, String cursor, int limite) {
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+
+        ScrollPosition posicao = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPaginacao.Posicao ultima = CursorPaginacao.decodificar(cursor);
+            posicao = ScrollPosition.forward(Map.of(
+                    "dataRecebimento", ultima.data(),
+                    "idEncomenda", ultima.id()));
+        }
+
+        logger.debug("Listando encomendas do usuário {} (limite {})", idUsuario, limite);
+        Window<EncomendaResumo> janela = encomendaRepository
+                .findByUsuarioIdAndDataRetiradaIsNullOrderByDataRecebimentoDescIdEncomendaDesc(idUsuario, posicao, Limit.of(limite));
+
+        List<EncomendaResumo> itens = janela.getContent();
+        String proximoCursor = null;
+        if (janela.hasNext() && !itens.isEmpty()) {
+            EncomendaResumo ultimo = itens.get(itens.size() - 1);
+            proximoCursor = CursorPaginacao.codificar(ultimo.dataRecebimento(), ultimo.idEncomenda());
+        }
+        return new PaginaCursor<>(itens, proximoCursor, janela.hasNext());
     }
 
     /**
@@ -75,18 +214,20 @@ public class EncomendaService {
      * @return Optional contendo a encomenda encontrada, ou vazio se não existir
      * @throws IllegalArgumentException se o ID for nulo ou vazio
      */
-    public Optional<Encomenda> buscarPorId(String id) {
+    @Transactional(readOnly = true)
+    public Optional<EncomendaResposta> buscarPorId(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("ID da encomenda não pode ser nulo ou vazio");
         }
         logger.debug("Buscando encomenda com ID: {}", id);
-        return encomendaRepository.findById(id);
+        return encomendaRepository.buscarRespostaEmAberto(id);
     }
 
     /**
-     * Remove uma encomenda do sistema.
+     * Registra a retirada de uma encomenda. A encomenda deixa de aparecer entre as em aberto
+     * e é movida para o arquivo pela rotina de arquivamento.
      * 
-     * @param id ID da encomenda a ser removida
+     * @param id ID da encomenda retirada
      * @throws IllegalArgumentException se o ID for nulo ou vazio
      * @throws EntityNotFoundException se a encomenda não for encontrada
      */
@@ -97,11 +238,43 @@ public class EncomendaService {
             throw new IllegalArgumentException("ID da encomenda não pode ser nulo ou vazio");
         }
         
-        if (!encomendaRepository.existsById(id)) {
+        logger.info("Registrando retirada da encomenda com ID: {}", id);
+        if (encomendaRepository.registrarRetirada(id, LocalDateTime.now()) == 0) {
             throw new EntityNotFoundException("Encomenda não encontrada com ID: " + id);
         }
+        eventPublisher.publishEvent(new EncomendaRemovidaEvent(id));
+        // Para os totens a encomenda deixa de existir: só as em aberto aparecem neles
+        revisaoSync.registrarRemocao(TipoRegistroSync.ENCOMENDA, id);
+        historicoEncomendaService.registrar(id, TipoEventoEncomenda.RETIRADA, null);
+    }
 
-        logger.info("Removendo encomenda com ID: {}", id);
-        encomendaRepository.deleteById(id);
+    /**
+     * Registra a devolução de uma encomenda ao remetente e a retira das encomendas em aberto.
+     * Assim como na retirada, a encomenda é movida depois para o arquivo.
+     * 
+     * @param id ID da encomenda devolvida
+     * @param motivo Motivo da devolução (opcional)
+     * @throws IllegalArgumentException se o ID for nulo ou vazio, ou o motivo longo demais
+     * @throws EntityNotFoundException se a encomenda não for encontrada
+     */
+    @Auditavel(acao = "DEVOLUCAO_ENCOMENDA", detalhes = "Devolução de encomenda ao remetente")
+    @Transactional
+    public void devolver(String id, String motivo) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID da encomenda não pode ser nulo ou vazio");
+        }
+        if (motivo != null && motivo.length() > EventoEncomenda.TAMANHO_MAXIMO_DETALHES) {
+            throw new IllegalArgumentException(
+                    "Motivo da devolução deve ter no máximo " + EventoEncomenda.TAMANHO_MAXIMO_DETALHES + " caracteres");
+        }
+
+        logger.info("Devolvendo encomenda com ID: {}", id);
+        if (encomendaRepository.registrarRetirada(id, LocalDateTime.now()) == 0) {
+            throw new EntityNotFoundException("Encomenda não encontrada com ID: " + id);
+        }
+        eventPublisher.publishEvent(new EncomendaRemovidaEvent(id));
+        // Para os totens a encomenda deixa de existir: só as em aberto aparecem neles
+        revisaoSync.registrarRemocao(TipoRegistroSync.ENCOMENDA, id);
+        historicoEncomendaService.registrar(id, TipoEventoEncomenda.DEVOLVIDA, motivo);
     }
 } 
\ No newline at end of file
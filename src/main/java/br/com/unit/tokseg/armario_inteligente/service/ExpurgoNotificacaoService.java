@@ -0,0 +1,105 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.repository.NotificacaoRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serviço que exclui as notificações lidas mais antigas que o prazo de retenção.
+ *
+ * Executado em segundo plano, em lotes pequenos (uma transação por lote), para não segurar
+ * bloqueios nem gerar uma transação enorme. Notificações não lidas nunca são excluídas, então
+ * não alteram o contador de não lidas.
+ *
+ * Cada destino de condomínios é percorrido em acesso raiz, com todos os condomínios de uma vez.
+ */
+@Service
+public class ExpurgoNotificacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpurgoNotificacaoService.class);
+
+    private final NotificacaoRepository notificacaoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EstrategiaDestinoCondominio estrategiaDestino;
+    private final Duration retencao;
+    private final int tamanhoLote;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param notificacaoRepository Repositório de notificação
+     * @param transactionManager Gerenciador de transações (uma transação por lote)
+     * @param estrategiaDestino Destinos de condomínios percorridos
+     * @param retencao Tempo após o envio em que as notificações lidas são mantidas
+     * @param tamanhoLote Quantidade de notificações excluídas por transação
+     */
+    public ExpurgoNotificacaoService(
+            NotificacaoRepository notificacaoRepository,
+            PlatformTransactionManager transactionManager,
+            EstrategiaDestinoCondominio estrategiaDestino,
+            @Value("${notificacao.expurgo.retencao:90d}") Duration retencao,
+            @Value("${notificacao.expurgo.tamanho-lote:1000}") int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser maior que zero");
+        }
+        this.notificacaoRepository = notificacaoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.estrategiaDestino = estrategiaDestino;
+        this.retencao = retencao;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Exclui, em lotes, as notificações lidas enviadas há mais tempo que a retenção.
+     *
+     * @return Quantidade de notificações excluídas
+     */
+    @Scheduled(fixedDelayString = "${notificacao.expurgo.intervalo-ms:3600000}",
+            initialDelayString = "${notificacao.expurgo.intervalo-ms:3600000}")
+    public int expurgarLidas() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencao);
+        int total = 0;
+        for (String destino : estrategiaDestino.destinos()) {
+            try {
+                total += ContextoCondominio.executarComoRaiz(destino, () -> expurgarDestino(limite));
+            } catch (RuntimeException e) {
+                logger.error("Erro ao expurgar notificações lidas do destino {}: {}", destino, e.getMessage(), e);
+            }
+        }
+        if (total > 0) {
+            logger.info("{} notificações lidas anteriores a {} excluídas", total, limite);
+        }
+        return total;
+    }
+
+    private int expurgarDestino(LocalDateTime limite) {
+        int total = 0;
+        Integer excluidas;
+        do {
+            excluidas = transactionTemplate.execute(status -> expurgarLote(limite));
+            total += excluidas;
+        } while (excluidas == tamanhoLote);
+        return total;
+    }
+
+    private int expurgarLote(LocalDateTime limite) {
+        List<UUID> ids = notificacaoRepository.buscarIdsLidasAte(limite, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        notificacaoRepository.excluirPorIds(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,286 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.EstadoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.dto.EventoEncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.RelatorioCicloEncomendas;
+import br.com.unit.tokseg.armario_inteligente.model.EventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.SnapshotEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.repository.EventoEncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.SnapshotEncomendaRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serviço do histórico (journal) do ciclo de vida das encomendas.
+ *
+ * Os eventos são somente de inclusão e são gravados na mesma transação da operação que os gerou:
+ * ficam guardados durante a transação e entram todos de uma vez, em lote, em {@code beforeCommit}.
+ * Assim o evento existe se e somente se a operação foi confirmada, e uma falha ao gravá-lo desfaz a
+ * operação. Fora de transação (ou numa transação só de leitura) o evento é gravado em transação própria.
+ *
+ * A cada {@code intervalo-snapshot} eventos de uma encomenda, ou quando ela é retirada ou devolvida,
+ * o estado consolidado é gravado em {@link SnapshotEncomenda}; assim o estado atual é sempre o
+ * snapshot mais uma cauda curta de eventos. O snapshot de cada encomenda do lote fica bloqueado até o
+ * commit, então transações com eventos da mesma encomenda gravam uma de cada vez e um snapshot nunca
+ * é consolidado enquanto outra transação ainda pode confirmar um evento anterior.
+ *
+ * Os relatórios reproduzem o histórico do período lendo a tabela em sequência, em streaming.
+ */
+@Service
+public class HistoricoEncomendaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricoEncomendaService.class);
+
+    private final EventoEncomendaRepository eventoRepository;
+    private final SnapshotEncomendaRepository snapshotRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate novaTransacao;
+    private final CondominioIdentifierResolver condominioResolver;
+    private final int intervaloSnapshot;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param eventoRepository Repositório dos eventos de encomenda
+     * @param snapshotRepository Repositório dos snapshots de encomenda
+     * @param entityManager EntityManager usado na inclusão dos snapshots novos
+     * @param transactionManager Gerenciador de transações, para gravar eventos registrados fora de transação
+     * @param condominioResolver Resolve o condomínio dos eventos registrados
+     * @param intervaloSnapshot Quantidade de eventos após o último snapshot que dispara um novo
+     */
+    public HistoricoEncomendaService(
+            EventoEncomendaRepository eventoRepository,
+            SnapshotEncomendaRepository snapshotRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            CondominioIdentifierResolver condominioResolver,
+            @Value("${encomenda.historico.intervalo-snapshot:10}") int intervaloSnapshot) {
+        this.eventoRepository = eventoRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.entityManager = entityManager;
+        this.novaTransacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.condominioResolver = condominioResolver;
+        this.intervaloSnapshot = intervaloSnapshot;
+    }
+
+    /**
+     * Registra um evento no histórico da encomenda.
+     * Numa transação de escrita o evento é gravado no commit dela, junto com os demais eventos da
+     * transação; se a transação for desfeita, o evento também é. Detalhes maiores que a coluna
+     * são truncados.
+     *
+     * @param idEncomenda ID da encomenda
+     * @param tipo Tipo do evento
+     * @param detalhes Informação complementar (opcional)
+     * @throws IllegalArgumentException se o ID ou o tipo forem nulos
+     */
+    public void registrar(String idEncomenda, TipoEventoEncomenda tipo, String detalhes) {
+        if (idEncomenda == null || idEncomenda.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID da encomenda não pode ser nulo ou vazio");
+        }
+        if (tipo == null) {
+            throw new IllegalArgumentException("Tipo do evento não pode ser nulo");
+        }
+
+        if (detalhes != null && detalhes.length() > EventoEncomenda.TAMANHO_MAXIMO_DETALHES) {
+            detalhes = detalhes.substring(0, EventoEncomenda.TAMANHO_MAXIMO_DETALHES);
+        }
+        EventoEncomenda evento = new EventoEncomenda(idEncomenda, tipo, LocalDateTime.now(), detalhes);
+        evento.setCondominio(condominioResolver.condominioAtual());
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pendentesDaTransacao().eventos.add(evento);
+        } else {
+            novaTransacao.executeWithoutResult(status -> gravar(List.of(evento)));
+        }
+    }
+
+    /**
+     * Lista o histórico completo de uma encomenda, em ordem cronológica.
+     *
+     * @param idEncomenda ID da encomenda
+     * @return Eventos da encomenda (vazio se não houver)
+     * @throws IllegalArgumentException se o ID for nulo ou vazio
+     */
+    public List<EventoEncomendaResumo> listarHistorico(String idEncomenda) {
+        if (idEncomenda == null || idEncomenda.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID da encomenda não pode ser nulo ou vazio");
+        }
+        return eventoRepository.findByIdEncomendaOrderByIdAsc(idEncomenda);
+    }
+
+    /**
+     * Calcula o estado atual de uma encomenda a partir do último snapshot e dos eventos posteriores.
+     * As duas leituras não precisam da mesma transação: se um snapshot novo for gravado entre elas,
+     * a cauda lida continua cobrindo todos os eventos após o snapshot antigo.
+     *
+     * @param idEncomenda ID da encomenda
+     * @return Estado atual, ou vazio se a encomenda não tiver histórico
+     * @throws IllegalArgumentException se o ID for nulo ou vazio
+     */
+    public Optional<EstadoEncomenda> buscarEstadoAtual(String idEncomenda) {
+        if (idEncomenda == null || idEncomenda.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID da encomenda não pode ser nulo ou vazio");
+        }
+        SnapshotEncomenda estado = snapshotRepository.findById(idEncomenda)
+                .orElseGet(() -> new SnapshotEncomenda(idEncomenda));
+        List<EventoEncomenda> cauda = eventoRepository
+                .findByIdEncomendaAndIdGreaterThanOrderByIdAsc(idEncomenda, estado.getUltimoEventoId());
+        if (estado.getTotalEventos() == 0 && cauda.isEmpty()) {
+            return Optional.empty();
+        }
+        cauda.forEach(estado::aplicar);
+        return Optional.of(EstadoEncomenda.de(estado, cauda.size()));
+    }
+
+    /**
+     * Gera o relatório do ciclo de vida das encomendas reproduzindo os eventos do período.
+     * Os eventos são lidos em streaming, na ordem de gravação, sem carregar o período em memória;
+     * só os recebimentos ainda sem retirada ficam guardados durante a leitura.
+     *
+     * @param inicio Início do período (inclusivo)
+     * @param fim Fim do período (exclusivo)
+     * @return Contagem de eventos por tipo, retiradas e tempo médio até a retirada
+     * @throws IllegalArgumentException se o período for nulo ou inválido
+     */
+    @Transactional(readOnly = true)
+    public RelatorioCicloEncomendas gerarRelatorio(LocalDateTime inicio, LocalDateTime fim) {
+        if (inicio == null || fim == null) {
+            throw new IllegalArgumentException("Início e fim do período são obrigatórios");
+        }
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Início do período deve ser anterior ao fim");
+        }
+
+        Map<TipoEventoEncomenda, Long> eventosPorTipo = new EnumMap<>(TipoEventoEncomenda.class);
+        Map<String, LocalDateTime> recebidasEmAberto = new HashMap<>();
+        long retiradas = 0;
+        long retiradasComRecebimento = 0;
+        long minutosAteRetirada = 0;
+
+        try (Stream<EventoEncomendaResumo> eventos = eventoRepository.streamPorPeriodo(inicio, fim)) {
+            for (EventoEncomendaResumo evento : (Iterable<EventoEncomendaResumo>) eventos::iterator) {
+                eventosPorTipo.merge(evento.tipo(), 1L, Long::sum);
+                switch (evento.tipo()) {
+                    case RECEBIDA -> recebidasEmAberto.put(evento.idEncomenda(), evento.dataHora());
+                    case RETIRADA -> {
+                        retiradas++;
+                        LocalDateTime recebimento = recebidasEmAberto.remove(evento.idEncomenda());
+                        if (recebimento != null) {
+                            retiradasComRecebimento++;
+                            minutosAteRetirada += Duration.between(recebimento, evento.dataHora()).toMinutes();
+                        }
+                    }
+                    case DEVOLVIDA -> recebidasEmAberto.remove(evento.idEncomenda());
+                    default -> {
+                        // ARMAZENADA e NOTIFICADA só entram na contagem
+                    }
+                }
+            }
+        }
+
+        Double horasMedias = retiradasComRecebimento == 0 ? null
+                : minutosAteRetirada / 60.0 / retiradasComRecebimento;
+        logger.debug("Relatório de ciclo de encomendas de {} a {}: {}", inicio, fim, eventosPorTipo);
+        return new RelatorioCicloEncomendas(inicio, fim, eventosPorTipo, retiradas, horasMedias);
+    }
+
+    /**
+     * Grava os eventos e atualiza os snapshots das encomendas afetadas, na transação atual.
+     */
+    private void gravar(List<EventoEncomenda> eventos) {
+        Map<String, SnapshotEncomenda> snapshots = bloquearSnapshots(eventos.stream()
+                .map(EventoEncomenda::getIdEncomenda)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        eventoRepository.saveAll(eventos);
+        atualizarSnapshots(snapshots);
+        logger.debug("{} eventos de encomenda gravados no histórico", eventos.size());
+    }
+
+    /**
+     * Bloqueia até o fim da transação o snapshot de cada encomenda, em ordem de ID, e inclui os que
+     * ainda não existem (a inclusão também fica bloqueada até o commit).
+     */
+    private Map<String, SnapshotEncomenda> bloquearSnapshots(Set<String> ids) {
+        Map<String, SnapshotEncomenda> snapshots = snapshotRepository.bloquear(ids).stream()
+                .collect(Collectors.toMap(SnapshotEncomenda::getIdEncomenda, Function.identity()));
+        for (String id : ids) {
+            if (!snapshots.containsKey(id)) {
+                SnapshotEncomenda snapshot = new SnapshotEncomenda(id);
+                entityManager.persist(snapshot);
+                snapshots.put(id, snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Consolida nos snapshots (já bloqueados) as caudas que chegaram ao intervalo ou a um evento final.
+     * Os snapshots são entidades gerenciadas e vão para o banco no commit.
+     */
+    private void atualizarSnapshots(Map<String, SnapshotEncomenda> snapshots) {
+        Map<String, List<EventoEncomenda>> caudas = eventoRepository.buscarEventosAposSnapshot(snapshots.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(EventoEncomenda::getIdEncomenda));
+        caudas.forEach((id, cauda) -> {
+            if (cauda.size() >= intervaloSnapshot || cauda.stream().anyMatch(evento -> evento.getTipo().isFinal())) {
+                cauda.forEach(snapshots.get(id)::aplicar);
+            }
+        });
+    }
+
+    private Pendentes pendentesDaTransacao() {
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof Pendentes pendentes && pendentes.servico() == this) {
+                return pendentes;
+            }
+        }
+        Pendentes pendentes = new Pendentes();
+        TransactionSynchronizationManager.registerSynchronization(pendentes);
+        return pendentes;
+    }
+
+    /**
+     * Eventos registrados na transação atual, na ordem em que ocorreram.
+     */
+    private final class Pendentes implements TransactionSynchronization {
+
+        private final List<EventoEncomenda> eventos = new ArrayList<>();
+
+        private HistoricoEncomendaService servico() {
+            return HistoricoEncomendaService.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!eventos.isEmpty()) {
+                gravar(eventos);
+            }
+        }
+    }
+}
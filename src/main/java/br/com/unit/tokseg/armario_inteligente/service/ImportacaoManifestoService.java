@@ -0,0 +1,511 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.StatusImportacaoManifesto;
+import br.com.unit.tokseg.armario_inteligente.dto.StatusImportacaoManifesto.Situacao;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serviço de importação dos manifestos diários das transportadoras (CSV).
+ *
+ * O arquivo enviado é gravado em disco e processado em segundo plano, linha a linha, sem ser
+ * carregado inteiro em memória. Os destinatários são localizados por e-mail num mapa carregado
+ * uma vez no início da importação, e as encomendas são incluídas em lotes JDBC, uma transação
+ * por lote. Linhas rejeitadas vão para um arquivo de erros com o número da linha e o motivo;
+ * cada linha é descarregada no disco ao ser escrita, então o download durante a importação
+ * traz todas as rejeições até ali.
+ *
+ * Formato esperado: cabeçalho com as colunas {@code id_encomenda}, {@code descricao},
+ * {@code remetente}, {@code email} e, opcionalmente, {@code data_recebimento}; separador
+ * vírgula ou ponto e vírgula (detectado pelo cabeçalho). Campos entre aspas não podem
+ * conter quebras de linha.
+ *
+ * A importação roda no condomínio de quem enviou o manifesto: os destinatários são buscados só
+ * entre os usuários do condomínio e as encomendas são gravadas com ele, no seu destino.
+ */
+@Service
+public class ImportacaoManifestoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoManifestoService.class);
+    private static final int TAMANHO_LOTE = 500;
+    private static final Duration RETENCAO = Duration.ofHours(24);
+    private static final List<String> COLUNAS_OBRIGATORIAS = List.of("id_encomenda", "descricao", "remetente", "email");
+    private static final DateTimeFormatter DATA_HORA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String SQL_INSERCAO = "INSERT INTO encomenda "
+            + "(id_encomenda, descricao, remetente, data_recebimento, id_usuario, condominio) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HistoricoEncomendaService historicoEncomendaService;
+    private final TaskExecutor importacaoExecutor;
+    private final CondominioIdentifierResolver condominioResolver;
+    private final RevisaoSyncService revisaoSync;
+    private final Map<String, Importacao> importacoes = new ConcurrentHashMap<>();
+
+    private record LinhaManifesto(long numero, String idEncomenda, String descricao, String remetente,
+                                  LocalDateTime dataRecebimento, UUID idUsuario) {
+    }
+
+    /**
+     * Estado de uma importação em andamento ou concluída. Os contadores são atualizados pela
+     * thread da importação e lidos pelas consultas de progresso.
+     */
+    private static final class Importacao {
+        private final String id = UUID.randomUUID().toString();
+        private final String condominio;
+        private final String arquivo;
+        private final Path arquivoTemporario;
+        private final Path arquivoErros;
+        private final long tamanho;
+        private final AtomicLong bytesLidos = new AtomicLong();
+        private final AtomicLong linhasLidas = new AtomicLong();
+        private final AtomicLong importadas = new AtomicLong();
+        private final AtomicLong rejeitadas = new AtomicLong();
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private volatile Situacao situacao = Situacao.AGUARDANDO;
+        private volatile LocalDateTime fim;
+        private volatile String mensagem;
+
+        private Importacao(String condominio, String arquivo, Path arquivoTemporario, Path arquivoErros, long tamanho) {
+            this.condominio = condominio;
+            this.arquivo = arquivo;
+            this.arquivoTemporario = arquivoTemporario;
+            this.arquivoErros = arquivoErros;
+            this.tamanho = tamanho;
+        }
+
+        private StatusImportacaoManifesto status() {
+            int percentual = situacao == Situacao.CONCLUIDA ? 100
+                    : tamanho == 0 ? 0 : (int) Math.min(99, bytesLidos.get() * 100 / tamanho);
+            return new StatusImportacaoManifesto(id, arquivo, situacao, percentual, linhasLidas.get(),
+                    importadas.get(), rejeitadas.get(), rejeitadas.get() > 0, inicio, fim, mensagem);
+        }
+    }
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param jdbcTemplate JdbcTemplate usado nas inclusões em lote
+     * @param transactionManager Gerenciador de transações (uma transação por lote)
+     * @param eventPublisher Publicador dos eventos de encomenda salva
+     * @param historicoEncomendaService Serviço do histórico das encomendas
+     * @param importacaoExecutor Executor das importações em segundo plano
+     * @param condominioResolver Resolve o condomínio de quem envia o manifesto
+     * @param revisaoSync Feed de sincronização dos totens
+     */
+    public ImportacaoManifestoService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            HistoricoEncomendaService historicoEncomendaService,
+            @Qualifier("importacaoExecutor") TaskExecutor importacaoExecutor,
+            CondominioIdentifierResolver condominioResolver,
+            RevisaoSyncService revisaoSync) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.historicoEncomendaService = historicoEncomendaService;
+        this.importacaoExecutor = importacaoExecutor;
+        this.condominioResolver = condominioResolver;
+        this.revisaoSync = revisaoSync;
+    }
+
+    /**
+     * Recebe um manifesto e agenda a sua importação em segundo plano.
+     *
+     * @param arquivo Arquivo CSV enviado
+     * @return Situação inicial da importação, com o ID para acompanhar o progresso
+     * @throws IllegalArgumentException se o arquivo for nulo ou vazio
+     * @throws IllegalStateException se houver importações demais na fila
+     * @throws UncheckedIOException se o arquivo não puder ser gravado em disco
+     */
+    public StatusImportacaoManifesto iniciar(MultipartFile arquivo) {
+        if (arquivo == null || arquivo.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo do manifesto não pode ser nulo ou vazio");
+        }
+        removerExpiradas();
+
+        Importacao importacao;
+        try {
+            Path temporario = Files.createTempFile("manifesto-", ".csv");
+            arquivo.transferTo(temporario);
+            Path erros = Files.createTempFile("manifesto-erros-", ".csv");
+            importacao = new Importacao(condominioResolver.condominioAtual(),
+                    Optional.ofNullable(arquivo.getOriginalFilename()).orElse("manifesto.csv"),
+                    temporario, erros, Files.size(temporario));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar o manifesto enviado", e);
+        }
+
+        importacoes.put(importacao.id, importacao);
+        try {
+            importacaoExecutor.execute(() -> ContextoCondominio.executar(importacao.condominio, () -> processar(importacao)));
+        } catch (RejectedExecutionException e) {
+            importacoes.remove(importacao.id);
+            apagar(importacao);
+            throw new IllegalStateException("Há importações demais em andamento, tente novamente mais tarde");
+        }
+        logger.info("Importação de manifesto {} agendada: {} ({} bytes)", importacao.id, importacao.arquivo, importacao.tamanho);
+        return importacao.status();
+    }
+
+    /**
+     * @param id ID da importação
+     * @return Situação da importação, ou vazio se não existir (ou já tiver expirado) no condomínio atual
+     */
+    public Optional<StatusImportacaoManifesto> buscarStatus(String id) {
+        return buscarDoCondominio(id).map(Importacao::status);
+    }
+
+    /**
+     * @param id ID da importação
+     * @return Arquivo com as linhas rejeitadas, ou vazio se a importação não existir no condomínio atual
+     */
+    public Optional<Path> buscarArquivoErros(String id) {
+        return buscarDoCondominio(id).map(importacao -> importacao.arquivoErros);
+    }
+
+    private Optional<Importacao> buscarDoCondominio(String id) {
+        String condominio = condominioResolver.condominioAtual();
+        return Optional.ofNullable(importacoes.get(id))
+                .filter(importacao -> importacao.condominio.equals(condominio));
+    }
+
+    private void processar(Importacao importacao) {
+        importacao.situacao = Situacao.PROCESSANDO;
+        try (InputStream entrada = new ContadorBytes(Files.newInputStream(importacao.arquivoTemporario), importacao.bytesLidos);
+             BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+             BufferedWriter erros = Files.newBufferedWriter(importacao.arquivoErros, StandardCharsets.UTF_8)) {
+
+            erros.write("linha;erro;conteudo");
+            erros.newLine();
+            erros.flush();
+
+            String cabecalho = leitor.readLine();
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("Manifesto sem cabeçalho");
+            }
+            cabecalho = cabecalho.replace("\uFEFF", "");
+            char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+            Map<String, Integer> colunas = mapearColunas(dividir(cabecalho, separador));
+
+            Map<String, UUID> usuariosPorEmail = carregarUsuariosPorEmail(importacao.condominio);
+            Set<String> idsDoArquivo = new HashSet<>();
+            List<LinhaManifesto> lote = new ArrayList<>(TAMANHO_LOTE);
+            long numero = 1;
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                numero++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                importacao.linhasLidas.incrementAndGet();
+                try {
+                    LinhaManifesto registro = interpretar(numero, dividir(linha, separador), colunas, usuariosPorEmail);
+                    if (!idsDoArquivo.add(registro.idEncomenda())) {
+                        throw new IllegalArgumentException("ID de encomenda repetido no manifesto");
+                    }
+                    lote.add(registro);
+                } catch (IllegalArgumentException e) {
+                    registrarErro(importacao, erros, numero, e.getMessage(), linha);
+                }
+                if (lote.size() == TAMANHO_LOTE) {
+                    gravarLote(importacao, lote, erros);
+                    lote.clear();
+                }
+            }
+            gravarLote(importacao, lote, erros);
+
+            importacao.situacao = Situacao.CONCLUIDA;
+            logger.info("Importação de manifesto {} concluída: {} importadas, {} rejeitadas",
+                    importacao.id, importacao.importadas.get(), importacao.rejeitadas.get());
+        } catch (IOException | RuntimeException e) {
+            importacao.situacao = Situacao.FALHOU;
+            importacao.mensagem = e.getMessage();
+            logger.error("Erro na importação de manifesto {}: {}", importacao.id, e.getMessage(), e);
+        } finally {
+            importacao.fim = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(importacao.arquivoTemporario);
+            } catch (IOException e) {
+                logger.warn("Não foi possível apagar o arquivo temporário {}", importacao.arquivoTemporario);
+            }
+        }
+    }
+
+    private Map<String, UUID> carregarUsuariosPorEmail(String condominio) {
+        Map<String, UUID> usuarios = new HashMap<>();
+        // Dentro da transação o JdbcTemplate usa a conexão da sessão, já no destino do condomínio
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query("SELECT id, email FROM usuarios WHERE condominio = ?", resultado -> {
+                    usuarios.put(resultado.getString("email").trim().toLowerCase(Locale.ROOT),
+                            resultado.getObject("id", UUID.class));
+                }, condominio));
+        return usuarios;
+    }
+
+    private void gravarLote(Importacao importacao, List<LinhaManifesto> lote, BufferedWriter erros) throws IOException {
+        if (lote.isEmpty()) {
+            return;
+        }
+        // Encomendas já arquivadas também contam: o ID não pode voltar como encomenda em aberto
+        Set<String> existentes = new HashSet<>(transactionTemplate.execute(status -> namedJdbcTemplate.queryForList(
+                "SELECT id_encomenda FROM encomenda WHERE id_encomenda IN (:ids) "
+                        + "UNION SELECT id_encomenda FROM encomenda_arquivo WHERE id_encomenda IN (:ids)",
+                Map.of("ids", lote.stream().map(LinhaManifesto::idEncomenda).toList()), String.class)));
+        List<LinhaManifesto> novas = new ArrayList<>(lote.size());
+        for (LinhaManifesto registro : lote) {
+            if (existentes.contains(registro.idEncomenda())) {
+                registrarErro(importacao, erros, registro.numero(), "Encomenda já cadastrada", registro.idEncomenda());
+            } else {
+                novas.add(registro);
+            }
+        }
+
+        try {
+            inserir(importacao, novas);
+        } catch (DataAccessException e) {
+            // Algum registro foi recusado pelo banco: grava um a um para saber qual
+            for (LinhaManifesto registro : novas) {
+                try {
+                    inserir(importacao, List.of(registro));
+                } catch (DataAccessException erro) {
+                    registrarErro(importacao, erros, registro.numero(),
+                            "Recusada pelo banco de dados: " + erro.getMostSpecificCause().getMessage(), registro.idEncomenda());
+                }
+            }
+        }
+    }
+
+    private void inserir(Importacao importacao, List<LinhaManifesto> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(SQL_INSERCAO, registros, registros.size(), (comando, registro) -> {
+                comando.setString(1, registro.idEncomenda());
+                comando.setString(2, registro.descricao());
+                comando.setString(3, registro.remetente());
+                comando.setTimestamp(4, Timestamp.valueOf(registro.dataRecebimento()));
+                comando.setObject(5, registro.idUsuario());
+                comando.setString(6, importacao.condominio);
+            });
+            // Mantém busca, lembretes e histórico em dia: os ouvintes recebem os eventos após o commit
+            for (LinhaManifesto registro : registros) {
+                eventPublisher.publishEvent(new EncomendaSalvaEvent(paraEncomenda(registro, importacao.condominio)));
+                historicoEncomendaService.registrar(registro.idEncomenda(), TipoEventoEncomenda.RECEBIDA,
+                        "Manifesto " + importacao.arquivo);
+                revisaoSync.registrar(importacao.condominio, TipoRegistroSync.ENCOMENDA, registro.idEncomenda(), false);
+            }
+        });
+        importacao.importadas.addAndGet(registros.size());
+    }
+
+    private static Encomenda paraEncomenda(LinhaManifesto registro, String condominio) {
+        Usuario usuario = new Usuario();
+        usuario.setId(registro.idUsuario());
+        return Encomenda.builder()
+                .idEncomenda(registro.idEncomenda())
+                .descricao(registro.descricao())
+                .remetente(registro.remetente())
+                .dataRecebimento(registro.dataRecebimento())
+                .usuario(usuario)
+                .condominio(condominio)
+                .build();
+    }
+
+    private static LinhaManifesto interpretar(long numero, List<String> campos, Map<String, Integer> colunas,
+                                              Map<String, UUID> usuariosPorEmail) {
+        String id = campo(campos, colunas, "id_encomenda");
+        String descricao = campo(campos, colunas, "descricao");
+        String remetente = campo(campos, colunas, "remetente");
+        String email = campo(campos, colunas, "email");
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("ID da encomenda não pode ser vazio");
+        }
+        if (descricao.isEmpty()) {
+            throw new IllegalArgumentException("Descrição da encomenda não pode ser vazia");
+        }
+        if (remetente.isEmpty()) {
+            throw new IllegalArgumentException("Remetente não pode ser vazio");
+        }
+        UUID idUsuario = usuariosPorEmail.get(email.toLowerCase(Locale.ROOT));
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("Nenhum usuário com o e-mail informado");
+        }
+        String data = colunas.containsKey("data_recebimento") ? campo(campos, colunas, "data_recebimento") : "";
+        LocalDateTime dataRecebimento = data.isEmpty() ? LocalDateTime.now() : interpretarData(data);
+        return new LinhaManifesto(numero, id, descricao, remetente, dataRecebimento, idUsuario);
+    }
+
+    private static LocalDateTime interpretarData(String valor) {
+        String normalizado = valor.replace(' ', 'T');
+        try {
+            return normalizado.contains("T") ? LocalDateTime.parse(normalizado) : LocalDate.parse(valor).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            // tenta o formato brasileiro abaixo
+        }
+        try {
+            return valor.contains(":") ? LocalDateTime.parse(valor, DATA_HORA_BR) : LocalDate.parse(valor, DATA_BR).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data de recebimento inválida: " + valor);
+        }
+    }
+
+    private static Map<String, Integer> mapearColunas(List<String> cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : COLUNAS_OBRIGATORIAS) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String nome) {
+        int indice = colunas.get(nome);
+        return indice < campos.size() ? campos.get(indice).trim() : "";
+    }
+
+    /**
+     * Divide uma linha CSV, respeitando campos entre aspas e aspas duplicadas ("").
+     */
+    private static List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private static void registrarErro(Importacao importacao, BufferedWriter erros, long numero, String motivo,
+                                      String conteudo) throws IOException {
+        importacao.rejeitadas.incrementAndGet();
+        erros.write(numero + ";\"" + motivo.replace("\"", "\"\"") + "\";\"" + conteudo.replace("\"", "\"\"") + "\"");
+        erros.newLine();
+        // O arquivo pode ser baixado enquanto a importação continua
+        erros.flush();
+    }
+
+    private void removerExpiradas() {
+        LocalDateTime limite = LocalDateTime.now().minus(RETENCAO);
+        importacoes.values().removeIf(importacao -> {
+            boolean expirada = importacao.fim != null && importacao.fim.isBefore(limite);
+            if (expirada) {
+                apagar(importacao);
+            }
+            return expirada;
+        });
+    }
+
+    private static void apagar(Importacao importacao) {
+        try {
+            Files.deleteIfExists(importacao.arquivoTemporario);
+            Files.deleteIfExists(importacao.arquivoErros);
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar os arquivos da importação {}", importacao.id);
+        }
+    }
+
+    /**
+     * Conta os bytes lidos do arquivo, para o percentual de progresso.
+     */
+    private static final class ContadorBytes extends FilterInputStream {
+        private final AtomicLong contador;
+
+        private ContadorBytes(InputStream entrada, AtomicLong contador) {
+            super(entrada);
+            this.contador = contador;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int lido = super.read();
+            if (lido >= 0) {
+                contador.incrementAndGet();
+            }
+            return lido;
+        }
+
+        @Override
+        public int read(byte[] buffer, int inicio, int tamanho) throws IOException {
+            int lidos = super.read(buffer, inicio, tamanho);
+            if (lidos > 0) {
+                contador.addAndGet(lidos);
+            }
+            return lidos;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaRemovidaEvent;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.event.OcupacaoCompartimentoAlteradaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.ReplicaEdge;
+import br.com.unit.tokseg.armario_inteligente.model.RevisaoSync;
+import br.com.unit.tokseg.armario_inteligente.model.TipoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.ReplicaEdgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal local de um nó edge: grava cada alteração de ocupação e de encomenda na mesma transação
+ * da alteração ({@code @EventListener}, não {@code @TransactionalEventListener}), então nada que
+ * foi confirmado localmente deixa de ser enviado ao central, e nada desfeito chega a ele.
+ *
+ * As alterações recebidas do central pela sincronização são gravadas direto no banco, sem passar
+ * pelos serviços, e por isso não voltam para o journal.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.edge", name = "habilitado", havingValue = "true")
+public class JournalEdgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalEdgeService.class);
+
+    private final MutacaoEdgeRepository mutacaoEdgeRepository;
+    private final ReplicaEdgeRepository replicaEdgeRepository;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param mutacaoEdgeRepository Repositório do journal
+     * @param replicaEdgeRepository Repositório das revisões recebidas do central
+     */
+    public JournalEdgeService(MutacaoEdgeRepository mutacaoEdgeRepository, ReplicaEdgeRepository replicaEdgeRepository) {
+        this.mutacaoEdgeRepository = mutacaoEdgeRepository;
+        this.replicaEdgeRepository = replicaEdgeRepository;
+    }
+
+    @EventListener
+    public void aoAlterarOcupacao(OcupacaoCompartimentoAlteradaEvent evento) {
+        registrar(TipoMutacaoEdge.OCUPACAO_COMPARTIMENTO, TipoRegistroSync.COMPARTIMENTO,
+                evento.idCompartimento().toString(), evento.ocupado());
+    }
+
+    @EventListener
+    public void aoSalvarEncomenda(EncomendaSalvaEvent evento) {
+        registrar(TipoMutacaoEdge.ENCOMENDA_SALVA, TipoRegistroSync.ENCOMENDA,
+                evento.encomenda().getIdEncomenda(), null);
+    }
+
+    @EventListener
+    public void aoRemoverEncomenda(EncomendaRemovidaEvent evento) {
+        registrar(TipoMutacaoEdge.ENCOMENDA_RETIRADA, TipoRegistroSync.ENCOMENDA, evento.idEncomenda(), null);
+    }
+
+    private void registrar(TipoMutacaoEdge tipo, TipoRegistroSync tipoRegistro, String id, Boolean ocupado) {
+        Long revisaoBase = replicaEdgeRepository.findById(RevisaoSync.chave(tipoRegistro, id))
+                .map(ReplicaEdge::getRevisao)
+                .orElse(null);
+        mutacaoEdgeRepository.save(new MutacaoEdge(tipo, id, LocalDateTime.now(), revisaoBase, ocupado));
+        logger.debug("Alteração {} de {} gravada no journal (revisão base {})", tipo, id, revisaoBase);
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.unit.tokseg.armario_inteligente.service;
 
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -33,6 +34,11 @@ public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
+    /**
+     * Claim com o condomínio do usuário, usada para definir o condomínio das requisições autenticadas.
+     */
+    public static final String CLAIM_CONDOMINIO = "condominio";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -65,6 +71,7 @@ public class JwtService {
 
     /**
      * Gera um token JWT para um usuário.
+     * Para usuários do sistema, o token também carrega o condomínio do usuário.
      * 
      * @param userDetails Detalhes do usuário
      * @return Token JWT gerado
@@ -75,6 +82,9 @@ public class JwtService {
         claims.put("authorities", userDetails.getAuthorities().stream()
                 .map(authority -> authority.getAuthority())
                 .collect(Collectors.toList()));
+        if (userDetails instanceof Usuario usuario && usuario.getCondominio() != null) {
+            claims.put(CLAIM_CONDOMINIO, usuario.getCondominio());
+        }
         return generateToken(claims, userDetails);
     }
 
@@ -0,0 +1,73 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.util.ChamadaUnica;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compartilha leituras idênticas simultâneas ({@link ChamadaUnica}) entre as requisições, para que
+ * uma rajada de telas pedindo a mesma lista ao mesmo tempo gere uma consulta ao banco, e não uma
+ * por tela.
+ *
+ * Chamadas são idênticas quando têm a mesma operação, os mesmos argumentos e o mesmo condomínio.
+ * Quem entra numa consulta já em andamento recebe o resultado dela, mesmo que uma gravação tenha
+ * sido confirmada nesse meio tempo; a validade (desligada por padrão) estende essa janela.
+ *
+ * A transação somente leitura é aberta aqui, só por quem executa a consulta: as chamadas que
+ * esperam não seguram conexão do pool, e quem espera além do tempo de espera faz a própria
+ * consulta. Por isso os métodos de leitura que passam por aqui não são {@code @Transactional}.
+ * Leituras feitas dentro de uma transação já aberta não são compartilhadas: ela já segura uma
+ * conexão, e uma transação de escrita precisa enxergar as próprias alterações ainda não confirmadas.
+ */
+@Service
+public class LeituraUnicaService {
+
+    private final CondominioIdentifierResolver condominioResolver;
+    private final ChamadaUnica chamadaUnica;
+    private final TransactionTemplate transacaoLeitura;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param condominioResolver Resolvedor do condomínio da thread atual
+     * @param transactionManager Gerenciador de transações das consultas
+     * @param validade Tempo em que um resultado concluído continua sendo entregue a chamadas idênticas
+     * @param tempoEspera Tempo máximo de espera por uma leitura idêntica antes de fazer a própria
+     */
+    public LeituraUnicaService(CondominioIdentifierResolver condominioResolver,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.leitura-unica.validade:0ms}") Duration validade,
+            @Value("${app.leitura-unica.tempo-espera:2s}") Duration tempoEspera) {
+        this.condominioResolver = condominioResolver;
+        this.chamadaUnica = new ChamadaUnica(validade, tempoEspera);
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+    }
+
+    /**
+     * Executa a leitura numa transação somente leitura, ou espera uma leitura idêntica já em andamento.
+     *
+     * @param operacao Nome da operação (por exemplo, o método do serviço)
+     * @param consulta Leitura a executar
+     * @param argumentos Argumentos que distinguem a leitura
+     * @return Resultado da leitura
+     */
+    public <T> T executar(String operacao, Supplier<T> consulta, Object... argumentos) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return consulta.get();
+        }
+        Chave chave = new Chave(condominioResolver.resolveCurrentTenantIdentifier(), operacao, Arrays.asList(argumentos));
+        return chamadaUnica.executar(chave, () -> transacaoLeitura.execute(status -> consulta.get()));
+    }
+
+    private record Chave(String condominio, String operacao, List<Object> argumentos) {
+    }
+}
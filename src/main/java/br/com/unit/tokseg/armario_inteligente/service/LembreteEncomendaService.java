@@ -0,0 +1,271 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaPendente;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaRemovidaEvent;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.ModeloNotificacao;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import br.com.unit.tokseg.armario_inteligente.util.RodaTemporizacao;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de lembretes para encomendas esquecidas nos armários.
+ *
+ * Cada encomenda em aberto tem um prazo numa {@link RodaTemporizacao} em memória: primeiro o
+ * lembrete ao morador e, se a encomenda continuar no armário, o escalonamento à portaria.
+ * Os prazos são carregados ao iniciar a aplicação com uma única consulta em streaming e mantidos
+ * pelos eventos de encomenda salva/removida, então o avanço da roda não consulta o banco.
+ * As notificações dos prazos vencidos em um avanço são gravadas juntas, em lote.
+ *
+ * Etapas cujo prazo já passou quando a encomenda é carregada não são disparadas de novo.
+ * Se o disparo falhar, os prazos vencidos voltam à roda para o avanço seguinte.
+ *
+ * A carga inicial percorre cada destino de condomínios em acesso raiz; os prazos vencidos são
+ * disparados no condomínio de cada encomenda.
+ */
+@Service
+public class LembreteEncomendaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LembreteEncomendaService.class);
+
+    enum Etapa {
+        LEMBRETE,
+        ESCALONAMENTO
+    }
+
+    private record Prazo(EncomendaPendente encomenda, Etapa etapa) {
+    }
+
+    private final EncomendaRepository encomendaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final NotificacaoService notificacaoService;
+    private final HistoricoEncomendaService historicoEncomendaService;
+    private final EstrategiaDestinoCondominio estrategiaDestino;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate transacaoDisparo;
+    private final Duration prazoLembrete;
+    private final Duration prazoEscalonamento;
+    private final long resolucaoMs;
+    private final RodaTemporizacao<String, Prazo> roda;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param encomendaRepository Repositório de encomenda
+     * @param usuarioRepository Repositório de usuário, para localizar os porteiros
+     * @param notificacaoService Serviço de notificações
+     * @param historicoEncomendaService Serviço do histórico das encomendas
+     * @param estrategiaDestino Destinos de condomínios percorridos na carga inicial
+     * @param transactionManager Gerenciador de transações da carga inicial e dos disparos
+     * @param resolucaoMs Resolução da roda e intervalo entre avanços, em milissegundos
+     * @param prazoLembrete Tempo após o recebimento para lembrar o morador
+     * @param prazoEscalonamento Tempo após o recebimento para avisar a portaria
+     */
+    public LembreteEncomendaService(
+            EncomendaRepository encomendaRepository,
+            UsuarioRepository usuarioRepository,
+            NotificacaoService notificacaoService,
+            HistoricoEncomendaService historicoEncomendaService,
+            EstrategiaDestinoCondominio estrategiaDestino,
+            PlatformTransactionManager transactionManager,
+            @Value("${encomenda.lembrete.resolucao-ms:60000}") long resolucaoMs,
+            @Value("${encomenda.lembrete.prazo:24h}") Duration prazoLembrete,
+            @Value("${encomenda.lembrete.escalonamento:72h}") Duration prazoEscalonamento) {
+        if (prazoEscalonamento.compareTo(prazoLembrete) <= 0) {
+            throw new IllegalArgumentException("Prazo de escalonamento deve ser maior que o prazo do lembrete");
+        }
+        this.encomendaRepository = encomendaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.notificacaoService = notificacaoService;
+        this.historicoEncomendaService = historicoEncomendaService;
+        this.estrategiaDestino = estrategiaDestino;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transacaoDisparo = new TransactionTemplate(transactionManager);
+        this.prazoLembrete = prazoLembrete;
+        this.prazoEscalonamento = prazoEscalonamento;
+        this.resolucaoMs = resolucaoMs;
+        this.roda = new RodaTemporizacao<>(resolucaoMs, System.currentTimeMillis());
+    }
+
+    /**
+     * Carrega os prazos de todas as encomendas em aberto ao iniciar a aplicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarPrazos() {
+        long inicio = System.currentTimeMillis();
+        for (String destino : estrategiaDestino.destinos()) {
+            try {
+                ContextoCondominio.executarComoRaiz(destino, () -> transactionTemplate.execute(status -> {
+                    try (Stream<EncomendaPendente> pendentes = encomendaRepository.streamPendentes()) {
+                        pendentes.forEach(this::agendar);
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                logger.error("Erro ao carregar os prazos das encomendas do destino {}: {}", destino, e.getMessage(), e);
+            }
+        }
+        logger.info("Prazos de encomendas carregados: {} agendados em {} ms",
+                roda.tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Agenda (ou reagenda) o prazo de uma encomenda depois que ela é salva.
+     * @param evento Evento com a encomenda salva
+     */
+    @TransactionalEventListener
+    public void aoSalvarEncomenda(EncomendaSalvaEvent evento) {
+        agendar(EncomendaPendente.de(evento.encomenda()));
+    }
+
+    /**
+     * Cancela o prazo de uma encomenda retirada ou removida.
+     * @param evento Evento com o ID da encomenda
+     */
+    @TransactionalEventListener
+    public void aoRemoverEncomenda(EncomendaRemovidaEvent evento) {
+        roda.cancelar(evento.idEncomenda());
+    }
+
+    /**
+     * Avança a roda até o instante atual e dispara as notificações dos prazos vencidos.
+     * Só consulta o banco quando algum prazo vence.
+     */
+    @Scheduled(fixedDelayString = "${encomenda.lembrete.resolucao-ms:60000}")
+    public void dispararVencidos() {
+        List<Prazo> vencidos = roda.avancar(System.currentTimeMillis());
+        if (vencidos.isEmpty()) {
+            return;
+        }
+        vencidos.stream()
+                .collect(Collectors.groupingBy(prazo -> prazo.encomenda().condominio()))
+                .forEach((condominio, prazos) -> {
+                    try {
+                        ContextoCondominio.executar(condominio, () -> disparar(prazos));
+                    } catch (RuntimeException e) {
+                        logger.error("Erro ao disparar prazos do condomínio {}; nova tentativa no próximo avanço: {}",
+                                condominio, e.getMessage(), e);
+                        reagendar(prazos);
+                    }
+                });
+    }
+
+    private void disparar(List<Prazo> vencidos) {
+        // Confirma em uma consulta que as encomendas continuam no armário (o prazo pode ter sido
+        // carregado enquanto a encomenda era retirada)
+        Set<String> pendentes = new HashSet<>(encomendaRepository.buscarIdsPendentes(
+                vencidos.stream().map(prazo -> prazo.encomenda().idEncomenda()).toList()));
+        List<UUID> porteiros = null;
+        List<Notificacao> notificacoes = new ArrayList<>();
+        List<Prazo> disparados = new ArrayList<>();
+
+        for (Prazo prazo : vencidos) {
+            EncomendaPendente encomenda = prazo.encomenda();
+            if (!pendentes.contains(encomenda.idEncomenda())) {
+                continue;
+            }
+            if (prazo.etapa() == Etapa.LEMBRETE) {
+                if (encomenda.idUsuario() != null) {
+                    notificacoes.add(criarNotificacao(encomenda.idUsuario(),
+                            ModeloNotificacao.LEMBRETE_RETIRADA, encomenda.descricao()));
+                }
+                agendar(encomenda);
+            } else {
+                if (porteiros == null) {
+                    porteiros = usuarioRepository.buscarIdsAtivosPorTipo(TipoUsuarioEnum.PORTEIRO);
+                }
+                for (UUID porteiro : porteiros) {
+                    notificacoes.add(criarNotificacao(porteiro, ModeloNotificacao.ESCALONAMENTO_PORTARIA,
+                            encomenda.descricao(), encomenda.idEncomenda(), String.valueOf(prazoEscalonamento.toHours())));
+                }
+            }
+            disparados.add(prazo);
+        }
+
+        // As notificações e os eventos do histórico são confirmados juntos
+        transacaoDisparo.executeWithoutResult(status -> {
+            if (!notificacoes.isEmpty()) {
+                notificacaoService.salvarEmLote(notificacoes);
+            }
+            for (Prazo prazo : disparados) {
+                historicoEncomendaService.registrar(prazo.encomenda().idEncomenda(), TipoEventoEncomenda.NOTIFICADA,
+                        prazo.etapa() == Etapa.LEMBRETE ? "Lembrete de retirada" : "Escalonada à portaria");
+            }
+        });
+        logger.info("Prazos de encomendas vencidos: {} disparados, {} notificações", disparados.size(), notificacoes.size());
+    }
+
+    /**
+     * Devolve à roda, para o próximo avanço, prazos cujo disparo falhou. Substitui o prazo
+     * seguinte que o disparo tenha agendado antes da falha (lembrete -> escalonamento).
+     */
+    private void reagendar(List<Prazo> prazos) {
+        long proximoAvanco = System.currentTimeMillis() + resolucaoMs;
+        for (Prazo prazo : prazos) {
+            roda.agendar(prazo.encomenda().idEncomenda(), proximoAvanco, prazo);
+        }
+    }
+
+    /**
+     * @return Quantidade de encomendas com prazo agendado
+     */
+    public int contarAgendados() {
+        return roda.tamanho();
+    }
+
+    private void agendar(EncomendaPendente encomenda) {
+        if (encomenda.dataRecebimento() == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime lembrete = encomenda.dataRecebimento().plus(prazoLembrete);
+        LocalDateTime escalonamento = encomenda.dataRecebimento().plus(prazoEscalonamento);
+        if (agora.isBefore(lembrete)) {
+            roda.agendar(encomenda.idEncomenda(), epochMillis(lembrete), new Prazo(encomenda, Etapa.LEMBRETE));
+        } else if (agora.isBefore(escalonamento)) {
+            roda.agendar(encomenda.idEncomenda(), epochMillis(escalonamento), new Prazo(encomenda, Etapa.ESCALONAMENTO));
+        } else {
+            roda.cancelar(encomenda.idEncomenda());
+        }
+    }
+
+    private Notificacao criarNotificacao(UUID idUsuario, ModeloNotificacao modelo, String... parametros) {
+        return new Notificacao(
+                UuidV7.gerar(),
+                usuarioRepository.getReferenceById(idUsuario),
+                modelo,
+                LocalDateTime.now(),
+                parametros);
+    }
+
+    private static long epochMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
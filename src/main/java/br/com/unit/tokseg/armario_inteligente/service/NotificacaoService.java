@@ -1,15 +1,30 @@
 package br.com.unit.tokseg.armario_inteligente.service;
 
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.PaginaCursor;
 import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
 import br.com.unit.tokseg.armario_inteligente.repository.NotificacaoRepository;
+import br.com.unit.tokseg.armario_inteligente.util.CursorPaginacao;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Serviço responsável pela lógica de negócios relacionada às notificações.
@@ -19,14 +34,23 @@ import java.util.Optional;
 public class NotificacaoService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificacaoService.class);
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+    private static final int LIMITE_MAXIMO_MARCACAO = 1000;
     private final NotificacaoRepository notificacaoRepository;
+    private final EntityManager entityManager;
+    private final ContadorNaoLidasService contadorNaoLidasService;
 
     /**
-     * Construtor explícito para inicializar o repositório de notificação.
+     * Construtor explícito para inicializar as dependências.
      * @param notificacaoRepository Repositório de notificação a ser injetado
+     * @param entityManager EntityManager usado nas inclusões em lote
+     * @param contadorNaoLidasService Contador de notificações não lidas por usuário
      */
-    public NotificacaoService(NotificacaoRepository notificacaoRepository) {
+    public NotificacaoService(NotificacaoRepository notificacaoRepository, EntityManager entityManager,
+            ContadorNaoLidasService contadorNaoLidasService) {
         this.notificacaoRepository = notificacaoRepository;
+        this.entityManager = entityManager;
+        this.contadorNaoLidasService = contadorNaoLidasService;
     }
 
     /**
@@ -49,7 +73,58 @@ public class NotificacaoService {
         }
 
         logger.info("Salvando nova notificação para o usuário: {}", notificacao.getUsuario().getId());
-        return notificacaoRepository.save(notificacao);
+        if (notificacao.getIdNotificacao() == null) {
+            notificacao.setIdNotificacao(UuidV7.gerar());
+        }
+        // Se a notificação já existia e estava não lida, o dono anterior perde uma não lida
+        UUID donoNaoLidaAnterior = Optional.ofNullable(notificacao.getIdNotificacao())
+                .flatMap(notificacaoRepository::findById)
+                .filter(existente -> !existente.isLida() && existente.getUsuario() != null)
+                .map(existente -> existente.getUsuario().getId())
+                .orElse(null);
+        Notificacao salva = notificacaoRepository.save(notificacao);
+        if (!salva.isLida()) {
+            contadorNaoLidasService.ajustar(salva.getUsuario().getId(), 1);
+        }
+        contadorNaoLidasService.ajustar(donoNaoLidaAnterior, -1);
+        return salva;
+    }
+
+    /**
+     * Salva várias notificações novas numa única transação.
+     * Usa {@code persist} em vez de {@code save}, que faria um SELECT por notificação (o ID é
+     * atribuído pela aplicação), e assim as inclusões saem em lotes JDBC.
+     * 
+     * @param notificacoes Notificações novas a serem salvas
+     * @throws IllegalArgumentException se alguma notificação for inválida
+     */
+    @Transactional
+    public void salvarEmLote(List<Notificacao> notificacoes) {
+        if (notificacoes == null) {
+            throw new IllegalArgumentException("Lista de notificações não pode ser nula");
+        }
+        for (Notificacao notificacao : notificacoes) {
+            if (notificacao.getIdNotificacao() == null) {
+                throw new IllegalArgumentException("ID da notificação não pode ser nulo");
+            }
+            if (notificacao.getMensagem() == null || notificacao.getMensagem().trim().isEmpty()) {
+                throw new IllegalArgumentException("Mensagem da notificação não pode ser nula ou vazia");
+            }
+            if (notificacao.getUsuario() == null) {
+                throw new IllegalArgumentException("Usuário da notificação não pode ser nulo");
+            }
+        }
+
+        logger.info("Salvando {} notificações em lote", notificacoes.size());
+        notificacoes.forEach(entityManager::persist);
+
+        Map<UUID, Long> naoLidasPorUsuario = new HashMap<>();
+        for (Notificacao notificacao : notificacoes) {
+            if (!notificacao.isLida()) {
+                naoLidasPorUsuario.merge(notificacao.getUsuario().getId(), 1L, Long::sum);
+            }
+        }
+        contadorNaoLidasService.ajustar(naoLidasPorUsuario);
     }
 
     /**
@@ -57,9 +132,56 @@ public class NotificacaoService {
      * 
      * @return Lista de todas as notificações
      */
-    public List<Notificacao> listarTodas() {
+    @Transactional(readOnly = true)
+    public List<NotificacaoResposta> listarTodas() {
         logger.debug("Listando todas as notificações");
-        return notificacaoRepository.findAll();
+        return notificacaoRepository.listarRespostas();
+    }
+
+    /**
+     * Lista as notificações de um usuário, da mais recente para a mais antiga.
+     * A paginação é por cursor (keyset) sobre a data de envio, sem OFFSET.
+     * 
+     * @param idUsuario ID do usuário destinatário
+     * @param cursor Cursor devolvido pela página anterior, ou nulo para a primeira página
+     * @param limite Quantidade máxima de itens na página (1 a 100)
+     * @param somenteNaoLidas Se verdadeiro, lista apenas as não lidas
+     * @return Página com as notificações e o cursor da próxima página
+     * @throws IllegalArgumentException se o usuário for nulo, o limite inválido ou o cursor malformado
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<NotificacaoResumo> listarDoUsuario(UUID idUsuario, String cursor, int limite,
+            boolean somenteNaoLidas) {
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+
+        ScrollPosition posicao = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPaginacao.Posicao ultima = CursorPaginacao.decodificar(cursor);
+            posicao = ScrollPosition.forward(Map.of(
+                    "dataEnvio", ultima.data(),
+                    "idNotificacao", UUID.fromString(ultima.id())));
+        }
+
+        logger.debug("Listando notificações do usuário {} (limite {}, somente não lidas {})",
+                idUsuario, limite, somenteNaoLidas);
+        Window<NotificacaoResumo> janela = somenteNaoLidas
+                ? notificacaoRepository.findByUsuarioIdAndLidaFalseOrderByDataEnvioDescIdNotificacaoDesc(
+                        idUsuario, posicao, Limit.of(limite))
+                : notificacaoRepository.findByUsuarioIdOrderByDataEnvioDescIdNotificacaoDesc(
+                        idUsuario, posicao, Limit.of(limite));
+
+        List<NotificacaoResumo> itens = janela.getContent();
+        String proximoCursor = null;
+        if (janela.hasNext() && !itens.isEmpty()) {
+            NotificacaoResumo ultimo = itens.get(itens.size() - 1);
+            proximoCursor = CursorPaginacao.codificar(ultimo.dataEnvio(), ultimo.idNotificacao().toString());
+        }
+        return new PaginaCursor<>(itens, proximoCursor, janela.hasNext());
     }
 
     /**
@@ -69,12 +191,13 @@ public class NotificacaoService {
      * @return Optional contendo a notificação encontrada, ou vazio se não existir
      * @throws IllegalArgumentException se o ID for nulo
      */
-    public Optional<Notificacao> buscarPorId(String id) {
+    @Transactional(readOnly = true)
+    public Optional<NotificacaoResposta> buscarPorId(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("ID da notificação não pode ser nulo");
         }
         logger.debug("Buscando notificação com ID: {}", id);
-        return notificacaoRepository.findById(id);
+        return notificacaoRepository.buscarRespostaPorId(id);
     }
 
     /**
@@ -85,7 +208,7 @@ public class NotificacaoService {
      * @throws IllegalArgumentException se o ID for nulo
      */
     @Transactional
-    public Optional<Notificacao> marcarComoLida(String id) {
+    public Optional<Notificacao> marcarComoLida(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("ID da notificação não pode ser nulo");
         }
@@ -93,11 +216,65 @@ public class NotificacaoService {
         logger.info("Marcando notificação como lida: {}", id);
         return notificacaoRepository.findById(id)
                 .map(notificacao -> {
+                    if (!notificacao.isLida() && notificacao.getUsuario() != null) {
+                        contadorNaoLidasService.ajustar(notificacao.getUsuario().getId(), -1);
+                    }
                     notificacao.setLida(true);
                     return notificacaoRepository.save(notificacao);
                 });
     }
 
+    /**
+     * Marca como lidas todas as notificações de um usuário com um único UPDATE.
+     * 
+     * @param idUsuario ID do usuário destinatário
+     * @return Quantidade de notificações que passaram a lidas
+     * @throws IllegalArgumentException se o ID for nulo
+     */
+    @Transactional
+    public int marcarTodasComoLidas(UUID idUsuario) {
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+
+        int marcadas = notificacaoRepository.marcarTodasComoLidas(idUsuario);
+        logger.info("Marcadas {} notificações como lidas para o usuário {}", marcadas, idUsuario);
+        contadorNaoLidasService.ajustar(idUsuario, -marcadas);
+        return marcadas;
+    }
+
+    /**
+     * Marca como lidas as notificações informadas com um único UPDATE.
+     * IDs de outros usuários, inexistentes ou já lidos são ignorados.
+     * 
+     * @param idUsuario ID do usuário destinatário
+     * @param ids IDs das notificações (até 1000)
+     * @return Quantidade de notificações que passaram a lidas
+     * @throws IllegalArgumentException se o usuário ou a lista forem nulos, ou a lista exceder o limite
+     */
+    @Transactional
+    public int marcarComoLidas(UUID idUsuario, Collection<UUID> ids) {
+        if (idUsuario == null) {
+            throw new IllegalArgumentException("ID do usuário não pode ser nulo");
+        }
+        if (ids == null) {
+            throw new IllegalArgumentException("Lista de IDs não pode ser nula");
+        }
+        Set<UUID> distintos = new HashSet<>(ids);
+        distintos.remove(null);
+        if (distintos.size() > LIMITE_MAXIMO_MARCACAO) {
+            throw new IllegalArgumentException("No máximo " + LIMITE_MAXIMO_MARCACAO + " notificações por vez");
+        }
+        if (distintos.isEmpty()) {
+            return 0;
+        }
+
+        int marcadas = notificacaoRepository.marcarComoLidas(idUsuario, distintos);
+        logger.info("Marcadas {} de {} notificações como lidas para o usuário {}", marcadas, distintos.size(), idUsuario);
+        contadorNaoLidasService.ajustar(idUsuario, -marcadas);
+        return marcadas;
+    }
+
     /**
      * Remove uma notificação do sistema.
      * 
@@ -106,16 +283,18 @@ public class NotificacaoService {
      * @throws EntityNotFoundException se a notificação não for encontrada
      */
     @Transactional
-    public void remover(String id) {
+    public void remover(UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("ID da notificação não pode ser nulo");
         }
         
-        if (!notificacaoRepository.existsById(id)) {
-            throw new EntityNotFoundException("Notificação não encontrada com ID: " + id);
-        }
+        Notificacao notificacao = notificacaoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Notificação não encontrada com ID: " + id));
 
         logger.info("Removendo notificação com ID: {}", id);
-        notificacaoRepository.deleteById(id);
+        notificacaoRepository.delete(notificacao);
+        if (!notificacao.isLida() && notificacao.getUsuario() != null) {
+            contadorNaoLidasService.ajustar(notificacao.getUsuario().getId(), -1);
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,199 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.MutacaoEdgeRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge.Situacao;
+import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.RevisaoSync;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.CompartimentoRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaArquivadaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.RevisaoSyncRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Aplica no servidor central as alterações enviadas pelos nós edge (journal local de cada prédio).
+ *
+ * Cada alteração roda numa transação própria, pelos mesmos serviços usados pela API, então caches,
+ * histórico e feed de sincronização ficam em dia; uma alteração rejeitada não desfaz as outras do
+ * lote. O reenvio de uma alteração já aplicada não muda nada, pois o nó pode cair depois de o
+ * central aplicar e antes de apagar o journal.
+ *
+ * A ocupação de compartimentos segue o {@link ResolvedorConflitoOcupacao}. Encomendas: a retirada
+ * é aplicada se a encomenda ainda está em aberto; a encomenda salva no nó é criada ou atualizada,
+ * exceto se já foi retirada ou arquivada no central (o central vence) e sem apagar o morador
+ * quando o nó não o conhece.
+ */
+@Service
+public class ReconciliacaoEdgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliacaoEdgeService.class);
+    private static final int LIMITE_LOTE = 1000;
+
+    private final CompartimentoService compartimentoService;
+    private final EncomendaService encomendaService;
+    private final CompartimentoRepository compartimentoRepository;
+    private final EncomendaRepository encomendaRepository;
+    private final EncomendaArquivadaRepository encomendaArquivadaRepository;
+    private final ArmarioRepository armarioRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final RevisaoSyncRepository revisaoSyncRepository;
+    private final TransactionTemplate transacao;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param compartimentoService Serviço de compartimento, que aplica as mudanças de ocupação
+     * @param encomendaService Serviço de encomenda, que aplica recebimentos e retiradas
+     * @param compartimentoRepository Repositório de compartimento
+     * @param encomendaRepository Repositório de encomenda
+     * @param encomendaArquivadaRepository Repositório do arquivo, para retiradas já arquivadas
+     * @param armarioRepository Repositório de armário
+     * @param usuarioRepository Repositório de usuário
+     * @param revisaoSyncRepository Repositório das revisões, para detectar alterações concorrentes
+     * @param transactionManager Gerenciador de transações (uma transação por alteração)
+     */
+    public ReconciliacaoEdgeService(CompartimentoService compartimentoService, EncomendaService encomendaService,
+            CompartimentoRepository compartimentoRepository, EncomendaRepository encomendaRepository,
+            EncomendaArquivadaRepository encomendaArquivadaRepository, ArmarioRepository armarioRepository,
+            UsuarioRepository usuarioRepository, RevisaoSyncRepository revisaoSyncRepository,
+            PlatformTransactionManager transactionManager) {
+        this.compartimentoService = compartimentoService;
+        this.encomendaService = encomendaService;
+        this.compartimentoRepository = compartimentoRepository;
+        this.encomendaRepository = encomendaRepository;
+        this.encomendaArquivadaRepository = encomendaArquivadaRepository;
+        this.armarioRepository = armarioRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.revisaoSyncRepository = revisaoSyncRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Aplica um lote de alterações de um nó, na ordem recebida.
+     *
+     * @param mutacoes Alterações do journal do nó (até 1000)
+     * @return Resultado de cada alteração, na mesma ordem
+     * @throws IllegalArgumentException se o lote for vazio, grande demais ou tiver alteração sem ID ou tipo
+     */
+    public List<ResultadoMutacaoEdge> aplicar(List<MutacaoEdgeRequest> mutacoes) {
+        if (mutacoes == null || mutacoes.isEmpty()) {
+            throw new IllegalArgumentException("Lote de alterações não pode ser vazio");
+        }
+        if (mutacoes.size() > LIMITE_LOTE) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + LIMITE_LOTE + " alterações");
+        }
+        for (MutacaoEdgeRequest mutacao : mutacoes) {
+            if (mutacao == null || mutacao.id() == null || mutacao.tipo() == null) {
+                throw new IllegalArgumentException("Alteração sem ID ou tipo");
+            }
+        }
+
+        List<ResultadoMutacaoEdge> resultados = new ArrayList<>(mutacoes.size());
+        for (MutacaoEdgeRequest mutacao : mutacoes) {
+            ResultadoMutacaoEdge resultado;
+            try {
+                resultado = transacao.execute(status -> aplicar(mutacao));
+            } catch (IllegalArgumentException | EntityNotFoundException | DataIntegrityViolationException e) {
+                logger.warn("Alteração {} ({} de {}) rejeitada: {}", mutacao.id(), mutacao.tipo(),
+                        mutacao.idRegistro(), e.getMessage());
+                resultado = new ResultadoMutacaoEdge(mutacao.id(), Situacao.REJEITADA, null);
+            }
+            if (resultado.situacao() == Situacao.CONFLITO_EDGE_VENCEU
+                    || resultado.situacao() == Situacao.CONFLITO_CENTRAL_VENCEU) {
+                logger.info("Conflito na alteração {} ({} de {}): {}", mutacao.id(), mutacao.tipo(),
+                        mutacao.idRegistro(), resultado.situacao());
+            }
+            resultados.add(resultado);
+        }
+        return resultados;
+    }
+
+    private ResultadoMutacaoEdge aplicar(MutacaoEdgeRequest mutacao) {
+        if (mutacao.idRegistro() == null || mutacao.dataHora() == null) {
+            throw new IllegalArgumentException("ID do registro e data da alteração não podem ser nulos");
+        }
+        return switch (mutacao.tipo()) {
+            case OCUPACAO_COMPARTIMENTO -> aplicarOcupacao(mutacao);
+            case ENCOMENDA_SALVA -> new ResultadoMutacaoEdge(mutacao.id(), aplicarEncomendaSalva(mutacao), null);
+            case ENCOMENDA_RETIRADA -> new ResultadoMutacaoEdge(mutacao.id(), aplicarRetirada(mutacao.idRegistro()), null);
+        };
+    }
+
+    private ResultadoMutacaoEdge aplicarOcupacao(MutacaoEdgeRequest mutacao) {
+        if (mutacao.ocupado() == null) {
+            throw new IllegalArgumentException("Status de ocupação não pode ser nulo");
+        }
+        UUID id = UUID.fromString(mutacao.idRegistro());
+        Compartimento compartimento = compartimentoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Compartimento não encontrado com ID: " + id));
+        Optional<RevisaoSync> revisao = revisaoSyncRepository.findById(RevisaoSync.chave(TipoRegistroSync.COMPARTIMENTO, id));
+
+        Situacao situacao = ResolvedorConflitoOcupacao.resolver(mutacao.ocupado(), mutacao.revisaoBase(),
+                mutacao.dataHora(), compartimento.isOcupado(), revisao.map(RevisaoSync::getRevisao).orElse(null),
+                revisao.map(RevisaoSync::getDataAlteracao).orElse(null));
+        boolean aplicada = situacao == Situacao.APLICADA || situacao == Situacao.CONFLITO_EDGE_VENCEU;
+        if (aplicada) {
+            compartimentoService.atualizarOcupacao(id, mutacao.ocupado());
+        }
+        return new ResultadoMutacaoEdge(mutacao.id(), situacao, aplicada ? mutacao.ocupado() : compartimento.isOcupado());
+    }
+
+    private Situacao aplicarEncomendaSalva(MutacaoEdgeRequest mutacao) {
+        EncomendaResposta dados = mutacao.encomenda();
+        if (dados == null) {
+            throw new IllegalArgumentException("Dados da encomenda não podem ser nulos");
+        }
+        Optional<Encomenda> existente = encomendaRepository.findById(mutacao.idRegistro());
+        if (existente.isPresent() && existente.get().getDataRetirada() != null) {
+            return Situacao.CONFLITO_CENTRAL_VENCEU;
+        }
+        if (existente.isEmpty() && encomendaArquivadaRepository.existsById(mutacao.idRegistro())) {
+            return Situacao.CONFLITO_CENTRAL_VENCEU;
+        }
+
+        Encomenda encomenda = Encomenda.builder()
+                .idEncomenda(mutacao.idRegistro())
+                .descricao(dados.descricao())
+                .remetente(dados.remetente())
+                .dataRecebimento(dados.dataRecebimento())
+                .armario(dados.idArmario() != null ? armarioRepository.getReferenceById(dados.idArmario()) : null)
+                // O nó pode não conhecer o morador: nesse caso o do central é mantido
+                .usuario(dados.idUsuario() != null
+                        ? usuarioRepository.getReferenceById(dados.idUsuario())
+                        : existente.map(Encomenda::getUsuario).orElse(null))
+                .build();
+        encomendaService.salvar(encomenda);
+        return Situacao.APLICADA;
+    }
+
+    private Situacao aplicarRetirada(String id) {
+        Optional<Encomenda> existente = encomendaRepository.findById(id);
+        if (existente.isEmpty()) {
+            if (encomendaArquivadaRepository.existsById(id)) {
+                return Situacao.JA_APLICADA;
+            }
+            throw new EntityNotFoundException("Encomenda não encontrada com ID: " + id);
+        }
+        if (existente.get().getDataRetirada() != null) {
+            return Situacao.JA_APLICADA;
+        }
+        encomendaService.remover(id);
+        return Situacao.APLICADA;
+    }
+}
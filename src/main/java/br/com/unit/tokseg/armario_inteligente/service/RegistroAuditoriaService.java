@@ -43,25 +43,37 @@ public class RegistroAuditoriaService {
      */
     @Transactional
     public RegistroAuditoria salvar(RegistroAuditoria registro) {
-        if (registro == null) {
-            throw new IllegalArgumentException("Registro de auditoria não pode ser nulo");
-        }
-        if (registro.getAcao() == null || registro.getAcao().trim().isEmpty()) {
-            throw new IllegalArgumentException("Ação do registro não pode ser nula ou vazia");
-        }
-        if (registro.getDataHora() == null) {
-            throw new IllegalArgumentException("Data/hora do registro não pode ser nula");
-        }
+        validar(registro);
 
         logger.info("Registrando ação: {}", registro.getAcao());
         return registroAuditoriaRepository.save(registro);
     }
 
+    /**
+     * Registra várias ações na mesma transação. Os IDs vêm da sequence em blocos, então os INSERTs
+     * são enviados em lotes JDBC de {@code hibernate.jdbc.batch_size} no flush.
+     *
+     * @param registros Registros de auditoria a serem salvos
+     * @return Registros salvos com IDs gerados
+     * @throws IllegalArgumentException se a lista ou algum registro for nulo ou inválido
+     */
+    @Transactional
+    public List<RegistroAuditoria> salvarEmLote(List<RegistroAuditoria> registros) {
+        if (registros == null) {
+            throw new IllegalArgumentException("Lista de registros de auditoria não pode ser nula");
+        }
+        registros.forEach(this::validar);
+
+        logger.info("Registrando {} ações em lote", registros.size());
+        return registroAuditoriaRepository.saveAll(registros);
+    }
+
     /**
      * Lista todos os registros de auditoria cadastrados no sistema.
      * 
      * @return Lista de todos os registros
      */
+    @Transactional(readOnly = true)
     public List<RegistroAuditoria> listarTodos() {
         logger.debug("Listando todos os registros de auditoria");
         return registroAuditoriaRepository.findAll();
@@ -74,6 +86,7 @@ public class RegistroAuditoriaService {
      * @return Optional contendo o registro encontrado, ou vazio se não existir
      * @throws IllegalArgumentException se o ID for nulo
      */
+    @Transactional(readOnly = true)
     public Optional<RegistroAuditoria> buscarPorId(Integer id) {
         if (id == null) {
             throw new IllegalArgumentException("ID do registro não pode ser nulo");
@@ -102,4 +115,16 @@ public class RegistroAuditoriaService {
         logger.info("Removendo registro de auditoria com ID: {}", id);
         registroAuditoriaRepository.deleteById(id);
     }
+
+    private void validar(RegistroAuditoria registro) {
+        if (registro == null) {
+            throw new IllegalArgumentException("Registro de auditoria não pode ser nulo");
+        }
+        if (registro.getAcao() == null || registro.getAcao().trim().isEmpty()) {
+            throw new IllegalArgumentException("Ação do registro não pode ser nula ou vazia");
+        }
+        if (registro.getDataHora() == null) {
+            throw new IllegalArgumentException("Data/hora do registro não pode ser nula");
+        }
+    }
 }
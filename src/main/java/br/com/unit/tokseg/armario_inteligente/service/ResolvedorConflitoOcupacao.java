@@ -0,0 +1,48 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge.Situacao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Regras de conflito da ocupação de compartimentos entre um nó edge e o servidor central.
+ *
+ * <ol>
+ *   <li>Se o central já está no status enviado, nada muda ({@code JA_APLICADA}); isso também torna
+ *       o reenvio de uma alteração inofensivo.</li>
+ *   <li>Se o compartimento não mudou no central desde a revisão que o nó conhecia, a alteração do nó
+ *       é aplicada ({@code APLICADA}).</li>
+ *   <li>Senão houve alterações concorrentes, e vence a mais recente: o nó fica no prédio e registra
+ *       o que aconteceu na porta, então uma mudança local posterior à última do central reflete o
+ *       estado físico; uma mudança do central posterior à do nó (por exemplo, a liberação feita
+ *       pela administração depois) é mantida. Empate mantém o central.</li>
+ * </ol>
+ */
+public final class ResolvedorConflitoOcupacao {
+
+    private ResolvedorConflitoOcupacao() {
+    }
+
+    /**
+     * @param ocupadoEdge Status de ocupação enviado pelo nó
+     * @param revisaoBase Revisão do compartimento no central que o nó conhecia (nula se nenhuma)
+     * @param dataEdge Momento da alteração no nó
+     * @param ocupadoCentral Status de ocupação atual no central
+     * @param revisaoCentral Revisão atual do compartimento no central (nula se nunca registrada)
+     * @param dataCentral Momento da última alteração do compartimento no central (nulo se desconhecido)
+     * @return {@code JA_APLICADA}, {@code APLICADA}, {@code CONFLITO_EDGE_VENCEU} ou {@code CONFLITO_CENTRAL_VENCEU}
+     */
+    public static Situacao resolver(boolean ocupadoEdge, Long revisaoBase, LocalDateTime dataEdge,
+            boolean ocupadoCentral, Long revisaoCentral, LocalDateTime dataCentral) {
+        if (ocupadoEdge == ocupadoCentral) {
+            return Situacao.JA_APLICADA;
+        }
+        if (revisaoCentral == null || (revisaoBase != null && revisaoCentral <= revisaoBase)) {
+            return Situacao.APLICADA;
+        }
+        if (dataCentral == null || dataEdge.isAfter(dataCentral)) {
+            return Situacao.CONFLITO_EDGE_VENCEU;
+        }
+        return Situacao.CONFLITO_CENTRAL_VENCEU;
+    }
+}
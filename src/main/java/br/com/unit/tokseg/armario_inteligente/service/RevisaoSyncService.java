@@ -0,0 +1,307 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracaoSync;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracoesSync;
+import br.com.unit.tokseg.armario_inteligente.model.RevisaoSync;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.CompartimentoRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.RevisaoSyncRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Feed de sincronização dos totens: cada alteração de armário, compartimento ou encomenda recebe
+ * uma revisão crescente do condomínio, e o totem pede só o que mudou depois da última revisão
+ * que recebeu, em vez de baixar as listas inteiras.
+ *
+ * Os serviços registram as alterações durante a transação; as revisões são reservadas e gravadas
+ * em {@code beforeCommit}, todas de uma vez. A reserva incrementa a linha do condomínio em
+ * {@code contador_revisao}, que fica bloqueada até o commit: transações do mesmo condomínio
+ * recebem revisões na ordem em que são confirmadas, então um totem nunca vê a revisão N+1 antes da
+ * N e pode continuar sempre da maior revisão recebida. Transações desfeitas não gastam revisões.
+ *
+ * Há uma linha por registro em {@code revisao_sync}, com a revisão da última alteração; registros
+ * excluídos ficam como marcador de remoção. Encomendas retiradas ou devolvidas também saem como
+ * removidas, pois o totem só mostra as em aberto.
+ */
+@Service
+public class RevisaoSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisaoSyncService.class);
+    private static final int LIMITE_MAXIMO = 1000;
+    private static final String SQL_RESERVA = "UPDATE contador_revisao SET valor = valor + ? WHERE condominio = ?";
+
+    private final RevisaoSyncRepository revisaoSyncRepository;
+    private final ArmarioRepository armarioRepository;
+    private final CompartimentoRepository compartimentoRepository;
+    private final EncomendaRepository encomendaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CondominioIdentifierResolver condominioResolver;
+    private final TransactionTemplate transacao;
+    private final TransactionTemplate novaTransacao;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param revisaoSyncRepository Repositório das revisões
+     * @param armarioRepository Repositório de armário, para o estado atual dos armários alterados
+     * @param compartimentoRepository Repositório de compartimento, para o estado atual dos compartimentos alterados
+     * @param encomendaRepository Repositório de encomenda, para o estado atual das encomendas alteradas
+     * @param jdbcTemplate JdbcTemplate usado na reserva e na gravação das revisões
+     * @param condominioResolver Resolvedor do condomínio da thread atual
+     * @param transactionManager Gerenciador de transações, para gravar fora de transação e criar contadores
+     */
+    public RevisaoSyncService(RevisaoSyncRepository revisaoSyncRepository, ArmarioRepository armarioRepository,
+            CompartimentoRepository compartimentoRepository, EncomendaRepository encomendaRepository,
+            JdbcTemplate jdbcTemplate, CondominioIdentifierResolver condominioResolver,
+            PlatformTransactionManager transactionManager) {
+        this.revisaoSyncRepository = revisaoSyncRepository;
+        this.armarioRepository = armarioRepository;
+        this.compartimentoRepository = compartimentoRepository;
+        this.encomendaRepository = encomendaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.condominioResolver = condominioResolver;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Registra a inclusão ou alteração de um registro do condomínio atual.
+     *
+     * @param tipo Tipo do registro
+     * @param id ID do registro
+     * @throws IllegalStateException se a thread estiver em acesso raiz
+     */
+    public void registrar(TipoRegistroSync tipo, Object id) {
+        registrar(condominioResolver.condominioAtual(), tipo, id, false);
+    }
+
+    /**
+     * Registra a exclusão de um registro do condomínio atual.
+     *
+     * @param tipo Tipo do registro
+     * @param id ID do registro
+     * @throws IllegalStateException se a thread estiver em acesso raiz
+     */
+    public void registrarRemocao(TipoRegistroSync tipo, Object id) {
+        registrar(condominioResolver.condominioAtual(), tipo, id, true);
+    }
+
+    /**
+     * Registra a alteração de um registro de um condomínio informado, para rotinas que rodam em
+     * acesso raiz. Dentro de uma transação a revisão é gravada no commit; fora, imediatamente.
+     *
+     * @param condominio Condomínio do registro
+     * @param tipo Tipo do registro
+     * @param id ID do registro
+     * @param removido Se o registro foi excluído
+     * @throws IllegalArgumentException se algum parâmetro for nulo
+     */
+    public void registrar(String condominio, TipoRegistroSync tipo, Object id, boolean removido) {
+        if (condominio == null || tipo == null || id == null) {
+            throw new IllegalArgumentException("Condomínio, tipo e ID do registro não podem ser nulos");
+        }
+        Alteracao alteracao = new Alteracao(condominio, tipo, id.toString(), removido);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendentesDaTransacao().adicionar(alteracao);
+        } else {
+            transacao.executeWithoutResult(status -> gravar(List.of(alteracao)));
+        }
+    }
+
+    /**
+     * Lista as alterações posteriores a uma revisão, com o estado atual de cada registro.
+     *
+     * @param desde Maior revisão já recebida pelo totem (0 na primeira sincronização)
+     * @param limite Quantidade máxima de alterações (1 a 1000)
+     * @return Alterações em ordem de revisão e a revisão a informar no próximo pedido
+     * @throws IllegalArgumentException se a revisão for negativa ou o limite inválido
+     */
+    @Transactional(readOnly = true)
+    public AlteracoesSync listarDesde(long desde, int limite) {
+        if (desde < 0) {
+            throw new IllegalArgumentException("Revisão não pode ser negativa");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+
+        List<RevisaoSync> revisoes = revisaoSyncRepository.findByRevisaoGreaterThanOrderByRevisaoAsc(desde, Limit.of(limite + 1));
+        boolean temMais = revisoes.size() > limite;
+        if (temMais) {
+            revisoes = revisoes.subList(0, limite);
+        }
+        Map<String, Object> dados = carregarDados(revisoes);
+        List<AlteracaoSync> alteracoes = new ArrayList<>(revisoes.size());
+        for (RevisaoSync revisao : revisoes) {
+            // Sem estado atual: excluído, ou encomenda que deixou de estar em aberto
+            Object atual = revisao.isRemovido() ? null : dados.get(revisao.getChave());
+            alteracoes.add(new AlteracaoSync(revisao.getRevisao(), revisao.getTipo(), revisao.getIdRegistro(),
+                    atual == null, atual));
+        }
+        long ultima = revisoes.isEmpty() ? desde : revisoes.get(revisoes.size() - 1).getRevisao();
+        return new AlteracoesSync(ultima, temMais, alteracoes);
+    }
+
+    private Map<String, Object> carregarDados(List<RevisaoSync> revisoes) {
+        List<UUID> armarios = new ArrayList<>();
+        List<UUID> compartimentos = new ArrayList<>();
+        List<String> encomendas = new ArrayList<>();
+        for (RevisaoSync revisao : revisoes) {
+            if (revisao.isRemovido()) {
+                continue;
+            }
+            switch (revisao.getTipo()) {
+                case ARMARIO -> armarios.add(UUID.fromString(revisao.getIdRegistro()));
+                case COMPARTIMENTO -> compartimentos.add(UUID.fromString(revisao.getIdRegistro()));
+                case ENCOMENDA -> encomendas.add(revisao.getIdRegistro());
+            }
+        }
+        Map<String, Object> dados = new HashMap<>();
+        if (!armarios.isEmpty()) {
+            armarioRepository.buscarRespostasPorIds(armarios)
+                    .forEach(a -> dados.put(RevisaoSync.chave(TipoRegistroSync.ARMARIO, a.id()), a));
+        }
+        if (!compartimentos.isEmpty()) {
+            compartimentoRepository.buscarRespostasPorIds(compartimentos)
+                    .forEach(c -> dados.put(RevisaoSync.chave(TipoRegistroSync.COMPARTIMENTO, c.idCompartimento()), c));
+        }
+        if (!encomendas.isEmpty()) {
+            encomendaRepository.listarRespostasEmAbertoPorIds(encomendas)
+                    .forEach(e -> dados.put(RevisaoSync.chave(TipoRegistroSync.ENCOMENDA, e.idEncomenda()), e));
+        }
+        return dados;
+    }
+
+    /**
+     * Reserva as revisões e grava as alterações, condomínio a condomínio em ordem fixa (para que
+     * duas transações que alteram os mesmos condomínios não esperem uma pela outra em ordem inversa).
+     */
+    private void gravar(Collection<Alteracao> alteracoes) {
+        Map<String, List<Alteracao>> porCondominio = new TreeMap<>();
+        for (Alteracao alteracao : alteracoes) {
+            porCondominio.computeIfAbsent(alteracao.condominio(), c -> new ArrayList<>()).add(alteracao);
+        }
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        porCondominio.forEach((condominio, lista) -> {
+            long revisao = reservar(condominio, lista.size()) - lista.size();
+            List<Object[]> atualizacoes = new ArrayList<>(lista.size());
+            for (Alteracao alteracao : lista) {
+                atualizacoes.add(new Object[] {++revisao, alteracao.removido(), agora, alteracao.chave()});
+            }
+            int[] atualizadas = jdbcTemplate.batchUpdate(
+                    "UPDATE revisao_sync SET revisao = ?, removido = ?, data_alteracao = ? WHERE chave = ?", atualizacoes);
+            // Como o contador está bloqueado, nenhuma outra transação inclui o mesmo registro ao mesmo tempo
+            List<Object[]> inclusoes = new ArrayList<>();
+            for (int i = 0; i < lista.size(); i++) {
+                if (atualizadas[i] == 0) {
+                    Alteracao alteracao = lista.get(i);
+                    Object[] atualizacao = atualizacoes.get(i);
+                    inclusoes.add(new Object[] {alteracao.chave(), alteracao.tipo().name(), alteracao.id(),
+                            atualizacao[0], alteracao.removido(), agora, condominio});
+                }
+            }
+            if (!inclusoes.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO revisao_sync "
+                        + "(chave, tipo, id_registro, revisao, removido, data_alteracao, condominio) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", inclusoes);
+            }
+            logger.debug("{} alterações registradas no feed do condomínio {} (até a revisão {})",
+                    lista.size(), condominio, revisao);
+        });
+    }
+
+    /**
+     * Incrementa o contador do condomínio, que fica bloqueado até o fim da transação.
+     *
+     * @return Última revisão reservada
+     */
+    private long reservar(String condominio, int quantidade) {
+        if (jdbcTemplate.update(SQL_RESERVA, quantidade, condominio) == 0) {
+            criarContador(condominio);
+            jdbcTemplate.update(SQL_RESERVA, quantidade, condominio);
+        }
+        return jdbcTemplate.queryForObject("SELECT valor FROM contador_revisao WHERE condominio = ?", Long.class, condominio);
+    }
+
+    /**
+     * Cria o contador do condomínio numa transação própria, para que já exista (e possa ser
+     * bloqueado) quando a transação atual o incrementar.
+     */
+    private void criarContador(String condominio) {
+        novaTransacao.executeWithoutResult(status -> {
+            try {
+                jdbcTemplate.update("INSERT INTO contador_revisao (condominio, valor) VALUES (?, 0)", condominio);
+            } catch (DuplicateKeyException e) {
+                // Criado por outra transação ao mesmo tempo
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private Pendentes pendentesDaTransacao() {
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof Pendentes pendentes && pendentes.servico() == this) {
+                return pendentes;
+            }
+        }
+        Pendentes pendentes = new Pendentes();
+        TransactionSynchronizationManager.registerSynchronization(pendentes);
+        return pendentes;
+    }
+
+    private record Alteracao(String condominio, TipoRegistroSync tipo, String id, boolean removido) {
+
+        private String chave() {
+            return RevisaoSync.chave(tipo, id);
+        }
+    }
+
+    /**
+     * Alterações registradas na transação atual; cada registro entra uma vez, com o último estado.
+     */
+    private final class Pendentes implements TransactionSynchronization {
+
+        private final Map<String, Alteracao> alteracoes = new LinkedHashMap<>();
+
+        private RevisaoSyncService servico() {
+            return RevisaoSyncService.this;
+        }
+
+        private void adicionar(Alteracao alteracao) {
+            alteracoes.remove(alteracao.chave());
+            alteracoes.put(alteracao.chave(), alteracao);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!alteracoes.isEmpty()) {
+                gravar(alteracoes.values());
+            }
+        }
+    }
+}
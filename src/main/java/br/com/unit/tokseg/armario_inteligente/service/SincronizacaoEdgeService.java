@@ -0,0 +1,299 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.ClienteCentralEdge;
+import br.com.unit.tokseg.armario_inteligente.config.EdgeProperties;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracaoSync;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracoesSync;
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.MutacaoEdgeRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge.Situacao;
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdgeRejeitada;
+import br.com.unit.tokseg.armario_inteligente.model.ReplicaEdge;
+import br.com.unit.tokseg.armario_inteligente.model.RevisaoSync;
+import br.com.unit.tokseg.armario_inteligente.model.TipoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRejeitadaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.ReplicaEdgeRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reconciliação de um nó edge com o servidor central, executada periodicamente.
+ *
+ * <ol>
+ *   <li>Envio: o journal local vai ao central em lotes, na ordem das alterações. Cada alteração
+ *       com resultado é apagada; quando o central vence um conflito de ocupação, o estado dele é
+ *       gravado localmente (se não houver alteração local mais nova do mesmo compartimento), e as
+ *       rejeitadas vão para {@code mutacao_edge_rejeitada}. Alterações sem resultado ficam no
+ *       journal; se um lote inteiro volta sem resultado, o envio para até o próximo ciclo.</li>
+ *   <li>Recebimento: o nó lê o feed de sincronização do central ({@code /api/sync}) a partir da
+ *       maior revisão já recebida e grava armários, compartimentos e encomendas em aberto no banco
+ *       local. O recebimento para no primeiro registro com alteração local ainda não enviada, para
+ *       não sobrescrevê-la; ele é recebido no ciclo seguinte, depois do envio.</li>
+ * </ol>
+ *
+ * Sem link, o ciclo falha no primeiro acesso ao central, o journal continua guardando as
+ * alterações e o próximo ciclo tenta de novo. Os dados recebidos são gravados com {@code MERGE}
+ * do H2 (o banco do nó); referências a registros ainda não recebidos, como o morador da
+ * encomenda, ficam vazias.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.edge", name = "habilitado", havingValue = "true")
+public class SincronizacaoEdgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SincronizacaoEdgeService.class);
+
+    private static final String SQL_ARMARIO = "MERGE INTO armario "
+            + "(id, numero, status, localizacao, id_encomenda_atual, condominio) KEY (id) "
+            + "VALUES (?, ?, ?, ?, (SELECT id_encomenda FROM encomenda WHERE id_encomenda = ?), ?)";
+    private static final String SQL_COMPARTIMENTO = "MERGE INTO compartimento "
+            + "(id_compartimento, armario_id, ocupado, id_encomenda_atual, condominio) KEY (id_compartimento) "
+            + "VALUES (?, (SELECT id FROM armario WHERE id = ?), ?, "
+            + "(SELECT id_encomenda FROM encomenda WHERE id_encomenda = ?), ?)";
+    private static final String SQL_ENCOMENDA = "MERGE INTO encomenda "
+            + "(id_encomenda, descricao, remetente, data_recebimento, data_retirada, armario_id, id_usuario, condominio) "
+            + "KEY (id_encomenda) VALUES (?, ?, ?, ?, ?, (SELECT id FROM armario WHERE id = ?), "
+            + "(SELECT id FROM usuarios WHERE id = ?), ?)";
+
+    private static final Set<TipoMutacaoEdge> MUTACOES_COMPARTIMENTO = Set.of(TipoMutacaoEdge.OCUPACAO_COMPARTIMENTO);
+    private static final Set<TipoMutacaoEdge> MUTACOES_ENCOMENDA =
+            Set.of(TipoMutacaoEdge.ENCOMENDA_SALVA, TipoMutacaoEdge.ENCOMENDA_RETIRADA);
+
+    private final ClienteCentralEdge cliente;
+    private final MutacaoEdgeRepository mutacaoEdgeRepository;
+    private final MutacaoEdgeRejeitadaRepository mutacaoEdgeRejeitadaRepository;
+    private final ReplicaEdgeRepository replicaEdgeRepository;
+    private final EncomendaRepository encomendaRepository;
+    private final CacheArmarioService cacheArmarioService;
+    private final RevisaoSyncService revisaoSync;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacao;
+    private final String condominio;
+    private final int tamanhoLote;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param cliente Cliente HTTP do servidor central
+     * @param mutacaoEdgeRepository Repositório do journal
+     * @param mutacaoEdgeRejeitadaRepository Repositório das alterações rejeitadas pelo central
+     * @param replicaEdgeRepository Repositório das revisões recebidas do central
+     * @param encomendaRepository Repositório de encomenda, para o estado local enviado ao central
+     * @param cacheArmarioService Cache de armários e compartimentos, esvaziado quando chegam dados do central
+     * @param revisaoSync Feed de sincronização local, para os totens ligados ao nó
+     * @param jdbcTemplate JdbcTemplate usado na gravação dos dados recebidos
+     * @param objectMapper ObjectMapper que converte os dados do feed
+     * @param transactionManager Gerenciador de transações (uma transação por lote)
+     * @param edge Configuração do modo edge
+     */
+    public SincronizacaoEdgeService(ClienteCentralEdge cliente, MutacaoEdgeRepository mutacaoEdgeRepository,
+            MutacaoEdgeRejeitadaRepository mutacaoEdgeRejeitadaRepository, ReplicaEdgeRepository replicaEdgeRepository, EncomendaRepository encomendaRepository,
+            CacheArmarioService cacheArmarioService, RevisaoSyncService revisaoSync, JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager, EdgeProperties edge) {
+        this.cliente = cliente;
+        this.mutacaoEdgeRepository = mutacaoEdgeRepository;
+        this.mutacaoEdgeRejeitadaRepository = mutacaoEdgeRejeitadaRepository;
+        this.replicaEdgeRepository = replicaEdgeRepository;
+        this.encomendaRepository = encomendaRepository;
+        this.cacheArmarioService = cacheArmarioService;
+        this.revisaoSync = revisaoSync;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.condominio = ContextoCondominio.validar(edge.getCondominio());
+        this.tamanhoLote = edge.getTamanhoLote();
+    }
+
+    /**
+     * Envia o journal e recebe as alterações do central.
+     *
+     * @return true se o ciclo foi concluído; false se o central estava inacessível
+     */
+    @Scheduled(fixedDelayString = "${app.edge.intervalo-ms:5000}", initialDelayString = "${app.edge.intervalo-ms:5000}")
+    public synchronized boolean sincronizar() {
+        return ContextoCondominio.executar(condominio, () -> {
+            try {
+                int enviadas = enviar();
+                int recebidas = receber();
+                if (enviadas + recebidas > 0) {
+                    logger.info("Sincronização com o central: {} alterações enviadas, {} recebidas", enviadas, recebidas);
+                }
+                return true;
+            } catch (RestClientException e) {
+                logger.warn("Servidor central inacessível; {} alterações aguardam no journal: {}",
+                        mutacaoEdgeRepository.count(), e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    private int enviar() {
+        int total = 0;
+        List<MutacaoEdge> lote;
+        do {
+            lote = mutacaoEdgeRepository.findAllByOrderByIdAsc(Limit.of(tamanhoLote));
+            if (lote.isEmpty()) {
+                break;
+            }
+            List<MutacaoEdge> pendentes = lote;
+            List<MutacaoEdgeRequest> requisicoes = transacao.execute(status ->
+                    pendentes.stream().map(this::paraRequisicao).toList());
+            List<ResultadoMutacaoEdge> resultados = cliente.enviar(requisicoes);
+            int concluidas = transacao.execute(status -> aplicarResultados(pendentes, resultados));
+            total += concluidas;
+            if (concluidas == 0) {
+                // O mesmo lote voltaria do journal: tenta de novo no próximo ciclo
+                logger.warn("Central não devolveu resultado para nenhuma das {} alterações enviadas; "
+                        + "nova tentativa no próximo ciclo", lote.size());
+                break;
+            }
+        } while (lote.size() == tamanhoLote);
+        return total;
+    }
+
+    private MutacaoEdgeRequest paraRequisicao(MutacaoEdge mutacao) {
+        // A encomenda vai no estado local atual, então várias gravações seguidas chegam iguais
+        EncomendaResposta encomenda = mutacao.getTipo() == TipoMutacaoEdge.ENCOMENDA_SALVA
+                ? encomendaRepository.buscarRespostaPorId(mutacao.getIdRegistro()).orElse(null)
+                : null;
+        return new MutacaoEdgeRequest(mutacao.getId(), mutacao.getTipo(), mutacao.getIdRegistro(),
+                mutacao.getDataHora(), mutacao.getRevisaoBase(), mutacao.getOcupado(), encomenda);
+    }
+
+    /**
+     * @return Quantidade de alterações com resultado, que saíram do journal
+     */
+    private int aplicarResultados(List<MutacaoEdge> lote, List<ResultadoMutacaoEdge> resultados) {
+        Map<UUID, ResultadoMutacaoEdge> porId = new HashMap<>();
+        resultados.forEach(resultado -> porId.put(resultado.id(), resultado));
+        boolean alterouCompartimento = false;
+        int concluidas = 0;
+        for (MutacaoEdge mutacao : lote) {
+            ResultadoMutacaoEdge resultado = porId.get(mutacao.getId());
+            if (resultado == null) {
+                continue;
+            }
+            if (resultado.situacao() == Situacao.REJEITADA) {
+                logger.warn("Central rejeitou a alteração {} ({} de {}); movida para as rejeitadas",
+                        mutacao.getId(), mutacao.getTipo(), mutacao.getIdRegistro());
+                mutacaoEdgeRejeitadaRepository.save(new MutacaoEdgeRejeitada(mutacao, LocalDateTime.now()));
+            } else if (resultado.situacao() == Situacao.CONFLITO_CENTRAL_VENCEU && resultado.ocupado() != null
+                    && !mutacaoEdgeRepository.existsByIdRegistroAndIdGreaterThan(mutacao.getIdRegistro(), mutacao.getId())) {
+                logger.info("Conflito de ocupação do compartimento {}: mantido o estado do central ({})",
+                        mutacao.getIdRegistro(), resultado.ocupado());
+                jdbcTemplate.update("UPDATE compartimento SET ocupado = ? WHERE id_compartimento = ?",
+                        resultado.ocupado(), UUID.fromString(mutacao.getIdRegistro()));
+                revisaoSync.registrar(condominio, TipoRegistroSync.COMPARTIMENTO, mutacao.getIdRegistro(), false);
+                alterouCompartimento = true;
+            }
+            mutacaoEdgeRepository.delete(mutacao);
+            concluidas++;
+        }
+        if (alterouCompartimento) {
+            cacheArmarioService.invalidarTudo();
+        }
+        return concluidas;
+    }
+
+    private int receber() {
+        int total = 0;
+        boolean continuar = true;
+        while (continuar) {
+            AlteracoesSync pagina = cliente.receber(replicaEdgeRepository.buscarUltimaRevisao(), tamanhoLote);
+            int aplicadas = transacao.execute(status -> aplicar(pagina.alteracoes()));
+            total += aplicadas;
+            continuar = pagina.temMais() && aplicadas == pagina.alteracoes().size();
+        }
+        return total;
+    }
+
+    private int aplicar(List<AlteracaoSync> alteracoes) {
+        int aplicadas = 0;
+        for (AlteracaoSync alteracao : alteracoes) {
+            if (temAlteracaoLocal(alteracao)) {
+                break;
+            }
+            if (alteracao.removido()) {
+                remover(alteracao);
+            } else {
+                gravar(alteracao);
+            }
+            String chave = RevisaoSync.chave(alteracao.tipo(), alteracao.id());
+            ReplicaEdge replica = replicaEdgeRepository.findById(chave).orElseGet(() -> new ReplicaEdge(chave, 0));
+            replica.setRevisao(alteracao.revisao());
+            replicaEdgeRepository.save(replica);
+            revisaoSync.registrar(condominio, alteracao.tipo(), alteracao.id(), alteracao.removido());
+            aplicadas++;
+        }
+        if (aplicadas > 0) {
+            cacheArmarioService.invalidarTudo();
+        }
+        return aplicadas;
+    }
+
+    private boolean temAlteracaoLocal(AlteracaoSync alteracao) {
+        return switch (alteracao.tipo()) {
+            case ARMARIO -> false;
+            case COMPARTIMENTO -> mutacaoEdgeRepository.existsByTipoInAndIdRegistro(MUTACOES_COMPARTIMENTO, alteracao.id());
+            case ENCOMENDA -> mutacaoEdgeRepository.existsByTipoInAndIdRegistro(MUTACOES_ENCOMENDA, alteracao.id());
+        };
+    }
+
+    private void gravar(AlteracaoSync alteracao) {
+        switch (alteracao.tipo()) {
+            case ARMARIO -> {
+                ArmarioResposta armario = objectMapper.convertValue(alteracao.dados(), ArmarioResposta.class);
+                jdbcTemplate.update(SQL_ARMARIO, armario.id(), armario.numero(), armario.status().name(),
+                        armario.localizacao(), armario.idEncomendaAtual(), condominio);
+            }
+            case COMPARTIMENTO -> {
+                CompartimentoResposta compartimento = objectMapper.convertValue(alteracao.dados(), CompartimentoResposta.class);
+                jdbcTemplate.update(SQL_COMPARTIMENTO, compartimento.idCompartimento(), compartimento.idArmario(),
+                        compartimento.ocupado(), compartimento.idEncomendaAtual(), condominio);
+            }
+            case ENCOMENDA -> {
+                EncomendaResposta encomenda = objectMapper.convertValue(alteracao.dados(), EncomendaResposta.class);
+                jdbcTemplate.update(SQL_ENCOMENDA, encomenda.idEncomenda(), encomenda.descricao(), encomenda.remetente(),
+                        Timestamp.valueOf(encomenda.dataRecebimento()),
+                        encomenda.dataRetirada() != null ? Timestamp.valueOf(encomenda.dataRetirada()) : null,
+                        encomenda.idArmario(), encomenda.idUsuario(), condominio);
+            }
+        }
+    }
+
+    private void remover(AlteracaoSync alteracao) {
+        switch (alteracao.tipo()) {
+            case ARMARIO -> jdbcTemplate.update("DELETE FROM armario WHERE id = ?", UUID.fromString(alteracao.id()));
+            case COMPARTIMENTO -> jdbcTemplate.update("DELETE FROM compartimento WHERE id_compartimento = ?",
+                    UUID.fromString(alteracao.id()));
+            // Deixou de estar em aberto no central: fica como retirada e sai com o arquivamento local
+            case ENCOMENDA -> jdbcTemplate.update(
+                    "UPDATE encomenda SET data_retirada = ? WHERE id_encomenda = ? AND data_retirada IS NULL",
+                    Timestamp.valueOf(LocalDateTime.now()), alteracao.id());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.TransmissaoRequest;
+import br.com.unit.tokseg.armario_inteligente.model.ModeloNotificacao;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.util.AposCommit;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serviço de envio de uma mesma mensagem a um grupo de usuários (por tipo e/ou pela
+ * localização dos armários onde têm encomendas).
+ *
+ * Os destinatários são resolvidos com uma única consulta e as notificações são incluídas em
+ * lotes JDBC, numa única transação, fora da thread da requisição, no condomínio de quem
+ * solicitou o envio.
+ *
+ * Pedido dentro de uma transação (como os avisos da auditoria), o envio só é agendado depois do
+ * commit: uma operação desfeita não gera mensagem, e o envio enxerga o que ela gravou.
+ */
+@Service
+public class TransmissaoNotificacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransmissaoNotificacaoService.class);
+    private static final int TAMANHO_LOTE = 1000;
+    private static final String SQL_INSERCAO = "INSERT INTO notificacao "
+            + "(id_notificacao, id_usuario, modelo, parametros, data_envio, lida, condominio) VALUES (?, ?, ?, ?, ?, false, ?)";
+
+    private final UsuarioRepository usuarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor transmissaoExecutor;
+    private final ContadorNaoLidasService contadorNaoLidasService;
+    private final CondominioIdentifierResolver condominioResolver;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param usuarioRepository Repositório de usuário, para resolver os destinatários
+     * @param jdbcTemplate JdbcTemplate usado nas inclusões em lote
+     * @param transactionManager Gerenciador de transações
+     * @param transmissaoExecutor Executor dos envios em segundo plano
+     * @param contadorNaoLidasService Contador de notificações não lidas por usuário
+     * @param condominioResolver Resolve o condomínio de quem solicita o envio
+     */
+    public TransmissaoNotificacaoService(
+            UsuarioRepository usuarioRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("transmissaoExecutor") TaskExecutor transmissaoExecutor,
+            ContadorNaoLidasService contadorNaoLidasService,
+            CondominioIdentifierResolver condominioResolver) {
+        this.usuarioRepository = usuarioRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transmissaoExecutor = transmissaoExecutor;
+        this.contadorNaoLidasService = contadorNaoLidasService;
+        this.condominioResolver = condominioResolver;
+    }
+
+    /**
+     * Agenda o envio de uma mensagem ao grupo de usuários descrito na requisição.
+     * A validação é feita antes de agendar; o envio em si roda em segundo plano.
+     *
+     * @param requisicao Mensagem e filtros dos destinatários
+     * @throws IllegalArgumentException se a mensagem for vazia ou nenhum filtro for informado
+     * @throws IllegalStateException se houver envios demais na fila
+     */
+    public void transmitir(TransmissaoRequest requisicao) {
+        if (requisicao == null || requisicao.getMensagem() == null || requisicao.getMensagem().trim().isEmpty()) {
+            throw new IllegalArgumentException("Mensagem não pode ser nula ou vazia");
+        }
+        String localizacao = requisicao.getLocalizacaoArmario();
+        if (localizacao != null && localizacao.isBlank()) {
+            localizacao = null;
+        }
+        if (requisicao.getTipoUsuario() == null && localizacao == null) {
+            throw new IllegalArgumentException("Informe o tipo de usuário ou a localização dos armários");
+        }
+
+        agendar(ModeloNotificacao.LIVRE, ModeloNotificacao.codificar(requisicao.getMensagem().trim()),
+                requisicao.getTipoUsuario(), localizacao);
+    }
+
+    /**
+     * Agenda o envio de uma notificação a todos os usuários ativos de um tipo.
+     *
+     * @param tipo Tipo dos usuários destinatários
+     * @param modelo Modelo da mensagem
+     * @param parametros Parâmetros do modelo
+     * @throws IllegalArgumentException se o tipo ou o modelo forem nulos
+     * @throws IllegalStateException se, fora de transação, houver envios demais na fila
+     */
+    public void transmitirParaTipo(TipoUsuarioEnum tipo, ModeloNotificacao modelo, String... parametros) {
+        if (tipo == null || modelo == null) {
+            throw new IllegalArgumentException("Tipo de usuário e modelo da mensagem não podem ser nulos");
+        }
+        agendar(modelo, ModeloNotificacao.codificar(parametros), tipo, null);
+    }
+
+    private void agendar(ModeloNotificacao modelo, String parametros, TipoUsuarioEnum tipo, String localizacao) {
+        String condominio = condominioResolver.condominioAtual();
+        Runnable envio = () -> ContextoCondominio.executar(condominio,
+                () -> enviar(condominio, modelo, parametros, tipo, localizacao));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submeter(envio);
+            return;
+        }
+        // Depois do commit não há a quem devolver o erro
+        AposCommit.executar(() -> {
+            try {
+                submeter(envio);
+            } catch (IllegalStateException e) {
+                logger.error("Mensagem descartada (tipo {}, localização {}): {}", tipo, localizacao, e.getMessage());
+            }
+        });
+    }
+
+    private void submeter(Runnable envio) {
+        try {
+            transmissaoExecutor.execute(envio);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Há envios demais na fila, tente novamente mais tarde");
+        }
+    }
+
+    private void enviar(String condominio, ModeloNotificacao modelo, String parametros, TipoUsuarioEnum tipo,
+            String localizacao) {
+        long inicio = System.currentTimeMillis();
+        try {
+            List<UUID> destinatarios;
+            if (localizacao == null) {
+                destinatarios = usuarioRepository.buscarIdsAtivosPorTipo(tipo);
+            } else if (tipo == null) {
+                destinatarios = usuarioRepository.buscarIdsAtivosComEncomendaEm(localizacao);
+            } else {
+                destinatarios = usuarioRepository.buscarIdsAtivosPorTipoComEncomendaEm(tipo, localizacao);
+            }
+            if (destinatarios.isEmpty()) {
+                logger.info("Nenhum destinatário para a mensagem (tipo {}, localização {})", tipo, localizacao);
+                return;
+            }
+
+            Timestamp dataEnvio = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(SQL_INSERCAO, destinatarios, TAMANHO_LOTE, (comando, idUsuario) -> {
+                    comando.setObject(1, UuidV7.gerar());
+                    comando.setObject(2, idUsuario);
+                    comando.setString(3, modelo.name());
+                    comando.setString(4, parametros);
+                    comando.setTimestamp(5, dataEnvio);
+                    comando.setString(6, condominio);
+                });
+                Map<UUID, Long> naoLidas = new HashMap<>();
+                destinatarios.forEach(idUsuario -> naoLidas.merge(idUsuario, 1L, Long::sum));
+                contadorNaoLidasService.ajustar(naoLidas);
+            });
+            logger.info("Mensagem enviada a {} usuários (tipo {}, localização {}) em {} ms",
+                    destinatarios.size(), tipo, localizacao, System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao enviar mensagem (tipo {}, localização {}): {}", tipo, localizacao, e.getMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.unit.tokseg.armario_inteligente.service;
 
+import br.com.unit.tokseg.armario_inteligente.dto.UsuarioResposta;
 import br.com.unit.tokseg.armario_inteligente.model.Usuario;
 import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -61,8 +62,9 @@ public class UsuarioService {
      * 
      * @return Lista de todos os usuários
      */
-    public List<Usuario> listarTodos() {
-        return usuarioRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<UsuarioResposta> listarTodos() {
+        return usuarioRepository.listarRespostas();
     }
 
     /**
@@ -71,8 +73,9 @@ public class UsuarioService {
      * @param id ID do usuário a ser buscado
      * @return Optional contendo o usuário encontrado, ou vazio se não existir
      */
-    public Optional<Usuario> buscarPorId(UUID id) {
-        return usuarioRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<UsuarioResposta> buscarPorId(UUID id) {
+        return usuarioRepository.buscarRespostaPorId(id);
     }
 
     /**
@@ -0,0 +1,132 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CacheConfig;
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões dos agregados de armários de cada condomínio (o conjunto, cada localização e cada
+ * armário), usadas como ETag forte nas respostas da API: com {@code If-None-Match} igual à versão
+ * atual, o controller responde {@code 304} sem consultar o banco nem serializar nada.
+ *
+ * As versões avançam junto com as invalidações do {@link CacheArmarioService} (locais, após o
+ * commit, e as recebidas de outras instâncias) e vêm de um relógio crescente, então nunca voltam a
+ * um valor já entregue. Invalidações de uma região inteira avançam uma base que vale para todos os
+ * agregados do condomínio (ou de todos os condomínios). Quem responde lê a versão antes dos dados:
+ * se uma gravação for confirmada no meio, a resposta sai com a versão anterior e o próximo pedido
+ * condicional recebe os dados novos.
+ *
+ * O ETag leva um identificador desta instância, pois as versões de instâncias diferentes não são
+ * comparáveis; atrás de um balanceador sem afinidade, um ETag de outra instância só faz a resposta
+ * vir completa.
+ */
+@Service
+public class VersaoArmarioService {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private final CondominioIdentifierResolver condominioResolver;
+    private final String instancia = Long.toString(ALEATORIO.nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong relogio = new AtomicLong();
+    private final Map<Agregado, Long> versoes = new ConcurrentHashMap<>();
+    private final Map<String, Long> basesPorCondominio = new ConcurrentHashMap<>();
+    private volatile long baseGlobal;
+
+    /**
+     * Construtor explícito para inicializar as dependências.
+     * @param condominioResolver Resolvedor do condomínio da thread atual
+     */
+    public VersaoArmarioService(CondominioIdentifierResolver condominioResolver) {
+        this.condominioResolver = condominioResolver;
+        this.baseGlobal = proxima();
+    }
+
+    /**
+     * @return ETag das respostas que dependem de todos os armários do condomínio atual, ou nulo no
+     *         acesso raiz
+     */
+    public String etagConjunto() {
+        return etag(TipoAgregado.CONJUNTO, "");
+    }
+
+    /**
+     * @param localizacao Localização dos armários
+     * @return ETag das respostas que dependem só dos armários da localização, ou nulo no acesso raiz
+     */
+    public String etagLocalizacao(String localizacao) {
+        return etag(TipoAgregado.LOCALIZACAO, localizacao);
+    }
+
+    /**
+     * @param id ID do armário
+     * @return ETag da resposta do armário, ou nulo no acesso raiz
+     */
+    public String etagArmario(UUID id) {
+        return etag(TipoAgregado.ARMARIO, id.toString());
+    }
+
+    /**
+     * Avança as versões dos agregados alcançados por uma invalidação de cache de armários.
+     *
+     * @param invalidacao Invalidação aplicada ao cache
+     */
+    void avancar(InvalidacaoCacheEvent invalidacao) {
+        if (!invalidacao.alcanca(CacheConfig.ARMARIOS) && !invalidacao.alcanca(CacheConfig.ARMARIOS_POR_FILTRO)) {
+            return;
+        }
+        String condominio = invalidacao.condominio();
+        if (invalidacao.chave() == null || invalidacao.regiao() == null) {
+            if (condominio == null) {
+                baseGlobal = proxima();
+                versoes.clear();
+            } else {
+                basesPorCondominio.put(condominio, proxima());
+                versoes.keySet().removeIf(agregado -> agregado.condominio().equals(condominio));
+            }
+            return;
+        }
+        if (CacheConfig.ARMARIOS.equals(invalidacao.regiao())) {
+            versoes.put(new Agregado(condominio, TipoAgregado.ARMARIO, invalidacao.chave()), proxima());
+            return;
+        }
+        String localizacao = CacheArmarioService.localizacaoDoFiltro(invalidacao.chave());
+        if (localizacao == null) {
+            versoes.put(new Agregado(condominio, TipoAgregado.CONJUNTO, ""), proxima());
+        } else {
+            versoes.put(new Agregado(condominio, TipoAgregado.LOCALIZACAO, localizacao), proxima());
+        }
+    }
+
+    private String etag(TipoAgregado tipo, String valor) {
+        String condominio = condominioResolver.resolveCurrentTenantIdentifier();
+        if (condominioResolver.isRoot(condominio)) {
+            return null;
+        }
+        long versao = Math.max(baseGlobal, Math.max(basesPorCondominio.getOrDefault(condominio, 0L),
+                versoes.getOrDefault(new Agregado(condominio, tipo, valor), 0L)));
+        return "\"" + instancia + "-" + condominio + "-" + Long.toString(versao, 36) + "\"";
+    }
+
+    /**
+     * Próximo valor do relógio: o instante em milissegundos nos bits altos e um contador nos
+     * 12 bits baixos, sempre maior que o anterior.
+     */
+    private long proxima() {
+        long agora = System.currentTimeMillis() << 12;
+        return relogio.updateAndGet(ultimo -> Math.max(ultimo + 1, agora));
+    }
+
+    private enum TipoAgregado {
+        CONJUNTO, LOCALIZACAO, ARMARIO
+    }
+
+    private record Agregado(String condominio, TipoAgregado tipo, String valor) {
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia ações em memória (caches, contadores, mensagens a outras instâncias) para depois do commit
+ * da transação atual, para que não reflitam gravações que ainda podem ser desfeitas.
+ */
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    /**
+     * Executa a ação depois do commit da transação atual, ou imediatamente fora de transação.
+     * Se a transação for desfeita, a ação não é executada.
+     *
+     * @param acao Ação a executar
+     */
+    public static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
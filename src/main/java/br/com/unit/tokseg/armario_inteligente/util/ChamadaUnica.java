@@ -0,0 +1,110 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Execução única de chamadas idênticas simultâneas ("single flight"): a primeira chamada com uma
+ * chave executa a consulta, e as que chegam com a mesma chave enquanto ela está em andamento
+ * esperam e recebem o mesmo resultado (ou a mesma exceção).
+ *
+ * Com validade maior que zero, o resultado concluído continua sendo entregue às chamadas com a
+ * mesma chave durante esse tempo, o que absorve rajadas que chegam logo depois da consulta.
+ *
+ * A espera é limitada: se a consulta em andamento não terminar dentro do tempo de espera, quem
+ * esperava desiste dela e executa a própria consulta, para que uma consulta travada não segure
+ * todas as chamadas idênticas.
+ */
+public class ChamadaUnica {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final long validadeMs;
+    private final long tempoEsperaMs;
+
+    /**
+     * @param validade Tempo em que o resultado concluído continua valendo; zero para só compartilhar
+     *                 a consulta em andamento
+     * @param tempoEspera Tempo máximo de espera pela consulta em andamento antes de executar a própria
+     * @throws IllegalArgumentException se a validade for negativa ou o tempo de espera não for positivo
+     */
+    public ChamadaUnica(Duration validade, Duration tempoEspera) {
+        if (validade == null || validade.isNegative()) {
+            throw new IllegalArgumentException("Validade não pode ser nula ou negativa");
+        }
+        if (tempoEspera == null || tempoEspera.isNegative() || tempoEspera.isZero()) {
+            throw new IllegalArgumentException("Tempo de espera deve ser maior que zero");
+        }
+        this.validadeMs = validade.toMillis();
+        this.tempoEsperaMs = tempoEspera.toMillis();
+    }
+
+    /**
+     * Executa a consulta, ou espera a que já está em andamento com a mesma chave.
+     *
+     * @param chave Chave que identifica chamadas idênticas
+     * @param consulta Consulta a executar
+     * @return Resultado da consulta
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(Object chave, Supplier<T> consulta) {
+        CompletableFuture<Object> novo = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, novo);
+        if (existente != null) {
+            try {
+                return (T) aguardar(existente);
+            } catch (TimeoutException e) {
+                return consulta.get();
+            }
+        }
+
+        try {
+            T resultado = consulta.get();
+            novo.complete(resultado);
+            liberar(chave, novo);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            novo.completeExceptionally(e);
+            emAndamento.remove(chave, novo);
+            throw e;
+        }
+    }
+
+    /**
+     * @return Quantidade de chaves em andamento ou dentro da validade
+     */
+    public int tamanho() {
+        return emAndamento.size();
+    }
+
+    private void liberar(Object chave, CompletableFuture<Object> futuro) {
+        if (validadeMs == 0) {
+            emAndamento.remove(chave, futuro);
+        } else {
+            CompletableFuture.delayedExecutor(validadeMs, TimeUnit.MILLISECONDS)
+                    .execute(() -> emAndamento.remove(chave, futuro));
+        }
+    }
+
+    private Object aguardar(CompletableFuture<Object> futuro) throws TimeoutException {
+        try {
+            return futuro.get(tempoEsperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a consulta em andamento", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Condomínio (tenant) da thread atual.
+ *
+ * Nas requisições o condomínio vem do token JWT (ou do cabeçalho {@code X-Condominio}, antes do
+ * login) e é definido pelo filtro de autenticação. Tarefas em segundo plano definem o condomínio
+ * com {@link #executar(String, Supplier)} antes de abrir a transação, pois a sessão do Hibernate
+ * fixa o condomínio ao ser aberta.
+ *
+ * Rotinas de manutenção que varrem todos os condomínios de um destino (banco ou schema) usam
+ * {@link #executarComoRaiz(String, Supplier)}: sem filtro por condomínio, no destino informado.
+ */
+public final class ContextoCondominio {
+
+    /** Prefixo do identificador de acesso raiz; códigos de condomínio não podem começar com ele. */
+    public static final String PREFIXO_RAIZ = "*";
+
+    private static final Pattern CODIGO_VALIDO = Pattern.compile("[a-z0-9][a-z0-9_-]{0,39}");
+    private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+    private ContextoCondominio() {
+    }
+
+    /**
+     * @return Condomínio (ou identificador raiz) da thread atual, ou nulo se não definido
+     */
+    public static String atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Define o condomínio da thread atual. Quem define deve chamar {@link #limpar()} ao final.
+     *
+     * @param condominio Código do condomínio
+     * @throws IllegalArgumentException se o código for inválido
+     */
+    public static void definir(String condominio) {
+        ATUAL.set(validar(condominio));
+    }
+
+    /**
+     * Remove o condomínio da thread atual.
+     */
+    public static void limpar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Executa a ação no condomínio informado e restaura o condomínio anterior ao final.
+     *
+     * @param condominio Código do condomínio
+     * @param acao Ação a executar
+     * @return Resultado da ação
+     * @throws IllegalArgumentException se o código for inválido
+     */
+    public static <T> T executar(String condominio, Supplier<T> acao) {
+        return executarComIdentificador(validar(condominio), acao);
+    }
+
+    /**
+     * Executa a ação no condomínio informado e restaura o condomínio anterior ao final.
+     *
+     * @param condominio Código do condomínio
+     * @param acao Ação a executar
+     */
+    public static void executar(String condominio, Runnable acao) {
+        executar(condominio, () -> {
+            acao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executa a ação sem filtro por condomínio, no destino informado.
+     *
+     * @param destino Nome do destino (banco ou schema) configurado
+     * @param acao Ação a executar
+     * @return Resultado da ação
+     */
+    public static <T> T executarComoRaiz(String destino, Supplier<T> acao) {
+        return executarComIdentificador(PREFIXO_RAIZ + destino, acao);
+    }
+
+    /**
+     * @param identificador Identificador de condomínio resolvido
+     * @return true se o identificador é de acesso raiz
+     */
+    public static boolean isRaiz(String identificador) {
+        return identificador != null && identificador.startsWith(PREFIXO_RAIZ);
+    }
+
+    /**
+     * @param identificador Identificador de acesso raiz
+     * @return Destino do acesso raiz
+     */
+    public static String destinoRaiz(String identificador) {
+        return identificador.substring(PREFIXO_RAIZ.length());
+    }
+
+    /**
+     * Valida o código de um condomínio: letras minúsculas, dígitos, "-" e "_", até 40 caracteres.
+     *
+     * @param condominio Código do condomínio
+     * @return O próprio código
+     * @throws IllegalArgumentException se o código for inválido
+     */
+    public static String validar(String condominio) {
+        if (condominio == null || !CODIGO_VALIDO.matcher(condominio).matches()) {
+            throw new IllegalArgumentException("Código de condomínio inválido: " + condominio);
+        }
+        return condominio;
+    }
+
+    private static <T> T executarComIdentificador(String identificador, Supplier<T> acao) {
+        String anterior = ATUAL.get();
+        ATUAL.set(identificador);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior != null) {
+                ATUAL.set(anterior);
+            } else {
+                ATUAL.remove();
+            }
+        }
+    }
+}
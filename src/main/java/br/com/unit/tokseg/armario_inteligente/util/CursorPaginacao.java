@@ -0,0 +1,63 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica cursores de paginação keyset.
+ * O cursor guarda a data e o ID do último item lido, em Base64 URL-safe,
+ * para que o cliente o trate como um valor opaco.
+ */
+public final class CursorPaginacao {
+
+    private static final String SEPARADOR = "|";
+
+    private CursorPaginacao() {
+    }
+
+    /**
+     * Posição decodificada de um cursor.
+     *
+     * @param data Data do último item lido
+     * @param id ID do último item lido (desempate entre itens com a mesma data)
+     */
+    public record Posicao(LocalDateTime data, String id) {
+    }
+
+    /**
+     * Gera o cursor que aponta para o item informado.
+     *
+     * @param data Data do último item lido
+     * @param id ID do último item lido
+     * @return Cursor opaco
+     */
+    public static String codificar(LocalDateTime data, String id) {
+        String valor = data + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lê um cursor gerado por {@link #codificar(LocalDateTime, String)}.
+     *
+     * @param cursor Cursor recebido do cliente
+     * @return Posição representada pelo cursor
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static Posicao decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new Posicao(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    valor.substring(separador + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Gerador do Hibernate ligado à anotação
+ * {@link br.com.unit.tokseg.armario_inteligente.annotation.IdUuidV7}: atribui um
+ * {@link UuidV7} ao ID antes da inclusão.
+ */
+public class GeradorUuidV7 implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return UuidV7.gerar();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
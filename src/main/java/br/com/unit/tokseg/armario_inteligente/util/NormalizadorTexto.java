@@ -0,0 +1,60 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza e quebra textos em termos de busca.
+ * Remove acentos ("Caixa Eletrônico" e "caixa eletronico" geram os mesmos termos),
+ * converte para minúsculas e descarta palavras muito comuns em português.
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> PALAVRAS_IGNORADAS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+            "um", "uma", "para", "pra", "por", "com", "sem", "ao", "aos", "que", "se");
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Remove acentos e converte o texto para minúsculas.
+     *
+     * @param texto Texto original
+     * @return Texto normalizado, ou string vazia se o texto for nulo
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(decomposto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Quebra o texto em termos normalizados, sem repetição e na ordem em que aparecem.
+     * Termos de uma letra só são mantidos quando são números (ex.: bloco "2").
+     *
+     * @param texto Texto original
+     * @return Conjunto de termos
+     */
+    public static Set<String> termos(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (termo.isEmpty() || PALAVRAS_IGNORADAS.contains(termo)) {
+                continue;
+            }
+            if (termo.length() == 1 && !Character.isDigit(termo.charAt(0))) {
+                continue;
+            }
+            termos.add(termo);
+        }
+        return termos;
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Corpo JSON já serializado de uma resposta, guardado em cache para ser escrito direto no
+ * {@code OutputStream} da resposta, sem passar de novo pelo Jackson. Corpos a partir de um tamanho
+ * mínimo também guardam a versão compactada com gzip, entregue a quem aceita {@code gzip}.
+ *
+ * Os arrays nunca saem desta classe, então a mesma instância pode ser escrita por várias
+ * requisições ao mesmo tempo.
+ */
+public final class RespostaSerializada {
+
+    /** Estimativa do que cada entrada ocupa além dos próprios bytes (objetos, chave, nó do cache). */
+    private static final int SOBRECARGA_BYTES = 128;
+
+    private final byte[] json;
+    private final byte[] gzip;
+
+    private RespostaSerializada(byte[] json, byte[] gzip) {
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param json Corpo JSON serializado (não é copiado; não deve ser alterado depois)
+     * @param tamanhoMinimoGzip Tamanho a partir do qual o corpo também é compactado
+     * @return Resposta serializada
+     */
+    public static RespostaSerializada de(byte[] json, long tamanhoMinimoGzip) {
+        return new RespostaSerializada(json, json.length >= tamanhoMinimoGzip ? compactar(json) : null);
+    }
+
+    /**
+     * @return Memória aproximada da entrada, usada como peso no cache
+     */
+    public int tamanhoEmMemoria() {
+        return json.length + (gzip != null ? gzip.length : 0) + SOBRECARGA_BYTES;
+    }
+
+    /**
+     * Escreve o corpo na resposta, compactado quando o cliente aceita gzip e a versão compactada
+     * existe. Cabeçalhos como ETag devem ser definidos antes.
+     *
+     * @param requisicao Requisição, para ler o {@code Accept-Encoding}
+     * @param resposta Resposta a escrever
+     * @throws IOException se a escrita falhar (por exemplo, cliente desconectado)
+     */
+    public void escrever(HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        byte[] corpo = json;
+        if (gzip != null) {
+            resposta.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (aceitaGzip(requisicao.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                resposta.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                corpo = gzip;
+            }
+        }
+        resposta.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        resposta.setContentLength(corpo.length);
+        resposta.getOutputStream().write(corpo);
+    }
+
+    /**
+     * Interpreta o {@code Accept-Encoding}: aceita gzip se ele aparece sem {@code q=0}, ou se não
+     * aparece e {@code *} aparece sem {@code q=0}.
+     */
+    static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        boolean qualquer = false;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.split(";");
+            String codificacao = partes[0].trim();
+            boolean aceito = true;
+            for (int i = 1; i < partes.length; i++) {
+                if (partes[i].replace(" ", "").matches("[qQ]=0(\\.0{0,3})?")) {
+                    aceito = false;
+                }
+            }
+            if (codificacao.equalsIgnoreCase("gzip")) {
+                gzip = aceito;
+            } else if (codificacao.equals("*")) {
+                qualquer = aceito;
+            }
+        }
+        return gzip != null ? gzip : qualquer;
+    }
+
+    private static byte[] compactar(byte[] json) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
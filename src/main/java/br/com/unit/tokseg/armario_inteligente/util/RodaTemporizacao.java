@@ -0,0 +1,204 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roda de temporização hierárquica (hierarchical timing wheel) para prazos em memória.
+ *
+ * O tempo é dividido em ticks de {@code resolucaoMs}. Cada nível tem 64 posições, e cada posição
+ * do nível {@code n} cobre 64^n ticks; os prazos distantes ficam nos níveis altos e descem
+ * (cascata) para os níveis baixos à medida que o tempo avança. Cada posição é uma lista
+ * duplamente encadeada e há um mapa chave -> nó, então agendar e cancelar custam O(1).
+ *
+ * A roda não tem thread própria: quem a usa chama {@link #avancar(long)} periodicamente.
+ * Os métodos são sincronizados; os itens vencidos são devolvidos para processamento fora do lock.
+ *
+ * @param <K> Tipo da chave que identifica o prazo (um prazo por chave)
+ * @param <T> Tipo do item associado ao prazo
+ */
+public class RodaTemporizacao<K, T> {
+
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int POSICOES_POR_NIVEL = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = POSICOES_POR_NIVEL - 1;
+    private static final int NIVEIS = 5;
+
+    private final long resolucaoMs;
+    private final No<K, T>[][] niveis;
+    private final Map<K, No<K, T>> nos = new HashMap<>();
+    private long tickAtual;
+
+    private static final class No<K, T> {
+        private final K chave;
+        private final T item;
+        private final long tickVencimento;
+        private No<K, T> anterior;
+        private No<K, T> proximo;
+        private No<K, T>[] lista;
+        private int posicao;
+
+        private No(K chave, T item, long tickVencimento) {
+            this.chave = chave;
+            this.item = item;
+            this.tickVencimento = tickVencimento;
+        }
+    }
+
+    /**
+     * Cria uma roda vazia posicionada no instante informado.
+     *
+     * @param resolucaoMs Duração de um tick em milissegundos
+     * @param instanteInicialMs Instante atual em milissegundos (epoch)
+     * @throws IllegalArgumentException se a resolução não for positiva
+     */
+    @SuppressWarnings("unchecked")
+    public RodaTemporizacao(long resolucaoMs, long instanteInicialMs) {
+        if (resolucaoMs <= 0) {
+            throw new IllegalArgumentException("Resolução deve ser maior que zero");
+        }
+        this.resolucaoMs = resolucaoMs;
+        this.tickAtual = instanteInicialMs / resolucaoMs;
+        this.niveis = new No[NIVEIS][POSICOES_POR_NIVEL];
+    }
+
+    /**
+     * Agenda (ou reagenda) o prazo de uma chave. Um prazo anterior da mesma chave é substituído.
+     * Prazos já vencidos são entregues no próximo avanço.
+     *
+     * @param chave Chave do prazo
+     * @param vencimentoMs Instante do vencimento em milissegundos (epoch)
+     * @param item Item devolvido quando o prazo vencer
+     */
+    public synchronized void agendar(K chave, long vencimentoMs, T item) {
+        cancelar(chave);
+        No<K, T> no = new No<>(chave, item, Math.max(vencimentoMs / resolucaoMs, tickAtual + 1));
+        nos.put(chave, no);
+        inserir(no);
+    }
+
+    /**
+     * Cancela o prazo de uma chave, se existir.
+     *
+     * @param chave Chave do prazo
+     * @return true se havia um prazo agendado
+     */
+    public synchronized boolean cancelar(K chave) {
+        No<K, T> no = nos.remove(chave);
+        if (no == null) {
+            return false;
+        }
+        desencadear(no);
+        return true;
+    }
+
+    /**
+     * @param chave Chave do prazo
+     * @return true se a chave tem um prazo agendado
+     */
+    public synchronized boolean contem(K chave) {
+        return nos.containsKey(chave);
+    }
+
+    /**
+     * @return Quantidade de prazos agendados
+     */
+    public synchronized int tamanho() {
+        return nos.size();
+    }
+
+    /**
+     * Avança a roda até o instante informado e devolve os itens vencidos, em ordem de vencimento.
+     *
+     * @param instanteMs Instante atual em milissegundos (epoch)
+     * @return Itens cujos prazos venceram (a chave deixa de estar agendada)
+     */
+    public synchronized List<T> avancar(long instanteMs) {
+        long tickAlvo = instanteMs / resolucaoMs;
+        List<T> vencidos = new ArrayList<>();
+        while (tickAtual < tickAlvo) {
+            if (nos.isEmpty()) {
+                tickAtual = tickAlvo;
+                break;
+            }
+            tickAtual++;
+            cascatear();
+            int posicao = (int) (tickAtual & MASCARA);
+            No<K, T> no = niveis[0][posicao];
+            niveis[0][posicao] = null;
+            while (no != null) {
+                No<K, T> proximo = no.proximo;
+                no.lista = null;
+                no.anterior = null;
+                no.proximo = null;
+                nos.remove(no.chave);
+                vencidos.add(no.item);
+                no = proximo;
+            }
+        }
+        return vencidos;
+    }
+
+    /**
+     * Ao completar uma volta de um nível, redistribui a próxima posição do nível de cima.
+     * Os níveis mais altos são tratados primeiro para que os nós desçam até o nível certo.
+     */
+    private void cascatear() {
+        int nivelMaisAlto = 0;
+        while (nivelMaisAlto + 1 < NIVEIS
+                && (tickAtual & ((1L << (BITS_POR_NIVEL * (nivelMaisAlto + 1))) - 1)) == 0) {
+            nivelMaisAlto++;
+        }
+        for (int nivel = nivelMaisAlto; nivel >= 1; nivel--) {
+            int posicao = (int) ((tickAtual >> (BITS_POR_NIVEL * nivel)) & MASCARA);
+            No<K, T> no = niveis[nivel][posicao];
+            niveis[nivel][posicao] = null;
+            while (no != null) {
+                No<K, T> proximo = no.proximo;
+                no.lista = null;
+                no.anterior = null;
+                no.proximo = null;
+                inserir(no);
+                no = proximo;
+            }
+        }
+    }
+
+    private void inserir(No<K, T> no) {
+        long distancia = no.tickVencimento - tickAtual;
+        int nivel = 0;
+        while (nivel + 1 < NIVEIS && distancia >= (1L << (BITS_POR_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        // Prazos além do alcance do último nível ficam na posição mais distante e voltam a descer depois
+        long tick = Math.min(no.tickVencimento, tickAtual + (1L << (BITS_POR_NIVEL * NIVEIS)) - 1);
+        int posicao = (int) ((tick >> (BITS_POR_NIVEL * nivel)) & MASCARA);
+        No<K, T>[] lista = niveis[nivel];
+        no.lista = lista;
+        no.posicao = posicao;
+        no.proximo = lista[posicao];
+        if (lista[posicao] != null) {
+            lista[posicao].anterior = no;
+        }
+        lista[posicao] = no;
+    }
+
+    private void desencadear(No<K, T> no) {
+        if (no.lista == null) {
+            return;
+        }
+        if (no.anterior != null) {
+            no.anterior.proximo = no.proximo;
+        } else {
+            no.lista[no.posicao] = no.proximo;
+        }
+        if (no.proximo != null) {
+            no.proximo.anterior = no.anterior;
+        }
+        no.lista = null;
+        no.anterior = null;
+        no.proximo = null;
+    }
+}
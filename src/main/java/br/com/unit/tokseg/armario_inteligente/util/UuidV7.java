@@ -0,0 +1,48 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera UUIDs versão 7 (RFC 9562): os 48 bits mais altos são o instante em milissegundos, então
+ * IDs gerados em sequência ficam ordenados e as inclusões caem no fim do índice da chave
+ * primária, em vez de espalhadas pela árvore como com o UUID aleatório (versão 4).
+ *
+ * Os 12 bits seguintes são um contador dentro do mesmo milissegundo, o que mantém a ordem
+ * também entre IDs gerados no mesmo instante; os 62 bits finais são aleatórios.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    /**
+     * Último valor emitido: instante em milissegundos nos bits altos e contador nos 12 bits baixos.
+     */
+    private static final AtomicLong ULTIMO = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    /**
+     * @return Novo UUID versão 7, maior que todos os gerados antes por esta JVM
+     */
+    public static UUID gerar() {
+        return gerar(System.currentTimeMillis());
+    }
+
+    /**
+     * Gera o UUID como se o relógio marcasse o instante informado (usado nos testes).
+     */
+    static UUID gerar(long instanteMs) {
+        long agora = instanteMs << 12;
+        // Se o contador estourar no mesmo milissegundo, o instante avança um milissegundo
+        long atual = ULTIMO.updateAndGet(ultimo -> Math.max(ultimo + 1, agora));
+        long instante = atual >>> 12;
+        long contador = atual & 0xFFFL;
+
+        long maisSignificativos = (instante << 16) | 0x7000L | contador;
+        long menosSignificativos = (ALEATORIO.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+}
@@ -0,0 +1,4 @@
+-- Índice composto para a listagem "minhas encomendas" (keyset por data de recebimento)
+-- A ordem das colunas segue o ORDER BY da consulta, então a página é lida direto do índice
+CREATE INDEX IF NOT EXISTS idx_encomenda_usuario_data_recebimento
+    ON encomenda (id_usuario, data_recebimento DESC, id_encomenda DESC);
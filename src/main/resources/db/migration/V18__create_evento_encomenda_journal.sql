@@ -0,0 +1,40 @@
+-- Histórico (journal) do ciclo de vida das encomendas: somente inclusão, sem FK para encomenda,
+-- para que os eventos sobrevivam à retirada da encomenda
+CREATE SEQUENCE IF NOT EXISTS evento_encomenda_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS evento_encomenda (
+    id BIGINT PRIMARY KEY,
+    id_encomenda VARCHAR(255) NOT NULL,
+    tipo VARCHAR(255) NOT NULL,
+    data_hora TIMESTAMP NOT NULL,
+    detalhes VARCHAR(255),
+    CONSTRAINT ck_evento_encomenda_tipo
+        CHECK (tipo IN ('RECEBIDA', 'ARMAZENADA', 'NOTIFICADA', 'RETIRADA', 'DEVOLVIDA'))
+);
+
+-- Cauda de eventos de uma encomenda após o snapshot
+CREATE INDEX IF NOT EXISTS idx_evento_encomenda_encomenda_id ON evento_encomenda (id_encomenda, id);
+
+-- Os eventos chegam em ordem de data, então um índice BRIN basta para os relatórios por período
+CREATE INDEX IF NOT EXISTS idx_evento_encomenda_data_hora ON evento_encomenda USING BRIN (data_hora);
+
+-- Estado consolidado de cada encomenda até o último evento aplicado
+CREATE TABLE IF NOT EXISTS snapshot_encomenda (
+    id_encomenda VARCHAR(255) PRIMARY KEY,
+    ultimo_evento_id BIGINT NOT NULL,
+    situacao VARCHAR(255),
+    data_recebimento TIMESTAMP,
+    data_armazenamento TIMESTAMP,
+    local_armazenamento VARCHAR(255),
+    data_ultima_notificacao TIMESTAMP,
+    data_conclusao TIMESTAMP,
+    total_eventos INTEGER NOT NULL
+);
+
+-- Encomendas já existentes entram no histórico com o evento de recebimento
+INSERT INTO evento_encomenda (id, id_encomenda, tipo, data_hora)
+SELECT ROW_NUMBER() OVER (ORDER BY data_recebimento, id_encomenda), id_encomenda, 'RECEBIDA', data_recebimento
+FROM encomenda;
+
+-- Posiciona a sequence após os IDs usados acima (o Hibernate reserva blocos de 50 a partir do valor lido)
+SELECT setval('evento_encomenda_seq', (SELECT COALESCE(MAX(id), 0) FROM evento_encomenda) + 50);
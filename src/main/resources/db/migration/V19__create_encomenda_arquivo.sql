@@ -0,0 +1,37 @@
+-- Data da retirada: a encomenda deixa de estar em aberto, mas fica na tabela até ser arquivada
+ALTER TABLE encomenda ADD COLUMN IF NOT EXISTS data_retirada TIMESTAMP;
+
+-- Apenas as retiradas entram no índice usado pela rotina de arquivamento
+CREATE INDEX IF NOT EXISTS idx_encomenda_data_retirada
+    ON encomenda (data_retirada) WHERE data_retirada IS NOT NULL;
+
+-- Arquivo das encomendas retiradas, particionado por mês de recebimento.
+-- A chave primária precisa incluir a coluna de particionamento.
+CREATE TABLE IF NOT EXISTS encomenda_arquivo (
+    id_encomenda VARCHAR(255) NOT NULL,
+    descricao VARCHAR(255) NOT NULL,
+    remetente VARCHAR(255) NOT NULL,
+    data_recebimento TIMESTAMP NOT NULL,
+    data_retirada TIMESTAMP NOT NULL,
+    id_armario UUID,
+    id_usuario UUID,
+    data_arquivamento TIMESTAMP NOT NULL,
+    PRIMARY KEY (id_encomenda, data_recebimento)
+) PARTITION BY RANGE (data_recebimento);
+
+-- Partição padrão, para que nenhuma cópia falhe por falta de partição
+CREATE TABLE IF NOT EXISTS encomenda_arquivo_padrao PARTITION OF encomenda_arquivo DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_encomenda_arquivo_usuario_data_recebimento
+    ON encomenda_arquivo (id_usuario, data_recebimento DESC);
+
+-- Cria (se não existir) a partição do mês informado; chamada pela rotina de arquivamento
+CREATE OR REPLACE FUNCTION criar_particao_encomenda_arquivo(mes DATE) RETURNS VOID AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes)::DATE;
+    nome TEXT := 'encomenda_arquivo_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF encomenda_arquivo FOR VALUES FROM (%L) TO (%L)',
+                   nome, inicio, (inicio + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
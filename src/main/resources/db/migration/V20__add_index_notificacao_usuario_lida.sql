@@ -0,0 +1,4 @@
+-- Não lidas do usuário: contagem, listagem paginada por keyset (data de envio, com o ID como
+-- desempate) e marcação em massa
+CREATE INDEX IF NOT EXISTS idx_notificacao_usuario_lida
+    ON notificacao (id_usuario, lida, data_envio DESC, id_notificacao DESC);
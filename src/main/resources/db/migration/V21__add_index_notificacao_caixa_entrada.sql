@@ -0,0 +1,3 @@
+-- Caixa de entrada paginada por keyset (data de envio, com o ID como desempate)
+CREATE INDEX IF NOT EXISTS idx_notificacao_usuario_data_envio
+    ON notificacao (id_usuario, data_envio DESC, id_notificacao DESC);
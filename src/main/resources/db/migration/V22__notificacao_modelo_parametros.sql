@@ -0,0 +1,13 @@
+-- Notificações passam a guardar o modelo da mensagem e os parâmetros, em vez do texto pronto
+ALTER TABLE notificacao ADD COLUMN IF NOT EXISTS modelo VARCHAR(40);
+ALTER TABLE notificacao ADD COLUMN IF NOT EXISTS parametros VARCHAR(1000);
+
+-- Mensagens existentes viram texto livre (o texto inteiro é o único parâmetro)
+UPDATE notificacao SET modelo = 'LIVRE', parametros = LEFT(mensagem, 1000) WHERE modelo IS NULL;
+
+ALTER TABLE notificacao ALTER COLUMN modelo SET NOT NULL;
+ALTER TABLE notificacao DROP COLUMN IF EXISTS mensagem;
+
+-- Expurgo das notificações lidas antigas
+CREATE INDEX IF NOT EXISTS idx_notificacao_lidas_data_envio
+    ON notificacao (data_envio) WHERE lida = true;
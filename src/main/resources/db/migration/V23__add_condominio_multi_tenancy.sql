@@ -0,0 +1,21 @@
+-- Multi-condomínio: todas as tabelas passam a ter o condomínio dono de cada registro.
+-- Os dados existentes ficam no condomínio padrão (app.condominios.padrao); a separação dos
+-- registros por condomínio (ex.: por localização dos armários) é feita pela operação.
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE armario ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE compartimento ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE encomenda ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE encomenda_arquivo ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE evento_encomenda ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE snapshot_encomenda ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE notificacao ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+ALTER TABLE registro_auditoria ADD COLUMN IF NOT EXISTS condominio VARCHAR(40) NOT NULL DEFAULT 'padrao';
+
+-- O número do armário passa a ser único dentro do condomínio
+ALTER TABLE armario DROP CONSTRAINT IF EXISTS UK_armario_numero;
+ALTER TABLE armario ADD CONSTRAINT uk_armario_condominio_numero UNIQUE (condominio, numero);
+
+-- Listagens e buscas filtradas por condomínio
+CREATE INDEX IF NOT EXISTS idx_usuarios_condominio_tipo ON usuarios (condominio, tipo);
+CREATE INDEX IF NOT EXISTS idx_encomenda_condominio_data_recebimento ON encomenda (condominio, data_recebimento);
+CREATE INDEX IF NOT EXISTS idx_registro_auditoria_condominio_data_hora ON registro_auditoria (condominio, data_hora);
@@ -0,0 +1,10 @@
+-- ID da notificação passa de texto para uuid nativo (16 bytes, em vez de 36 caracteres).
+-- IDs que já eram UUIDs são mantidos; os legados da carga inicial ('N001', 'N002') ganham um novo.
+-- Os índices que incluem id_notificacao são reconstruídos pelo próprio ALTER.
+ALTER TABLE notificacao ALTER COLUMN id_notificacao TYPE UUID USING (
+    CASE
+        WHEN id_notificacao ~* '^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$'
+            THEN id_notificacao::uuid
+        ELSE gen_random_uuid()
+    END
+);
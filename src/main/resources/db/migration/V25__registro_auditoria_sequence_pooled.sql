@@ -0,0 +1,9 @@
+-- ID do registro de auditoria deixa de vir do DEFAULT nextval (equivalente a IDENTITY) e passa a ser
+-- atribuído pelo Hibernate a partir de uma sequence com incremento 50, o que permite JDBC batch
+ALTER TABLE registro_auditoria ALTER COLUMN id_registro DROP DEFAULT;
+DROP SEQUENCE IF EXISTS registro_auditoria_id_registro_seq;
+
+CREATE SEQUENCE IF NOT EXISTS registro_auditoria_seq INCREMENT BY 50;
+
+-- Posiciona a sequence após os IDs existentes (o Hibernate reserva blocos de 50 a partir do valor lido)
+SELECT setval('registro_auditoria_seq', (SELECT COALESCE(MAX(id_registro), 0) FROM registro_auditoria) + 50);
@@ -0,0 +1,40 @@
+-- Feed de sincronização dos totens: última revisão de cada armário, compartimento e encomenda,
+-- e o contador de revisões de cada condomínio (a linha do contador serializa as transações que
+-- registram alterações, para que as revisões fiquem visíveis em ordem)
+CREATE TABLE IF NOT EXISTS revisao_sync (
+    chave VARCHAR(300) PRIMARY KEY,
+    tipo VARCHAR(20) NOT NULL,
+    id_registro VARCHAR(255) NOT NULL,
+    revisao BIGINT NOT NULL,
+    removido BOOLEAN NOT NULL,
+    data_alteracao TIMESTAMP NOT NULL,
+    condominio VARCHAR(40) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revisao_sync_condominio_revisao ON revisao_sync (condominio, revisao);
+
+CREATE TABLE IF NOT EXISTS contador_revisao (
+    condominio VARCHAR(40) PRIMARY KEY,
+    valor BIGINT NOT NULL
+);
+
+-- Carga inicial: os registros que já existem entram no feed com revisões sequenciais por
+-- condomínio (armários, depois compartimentos, depois encomendas em aberto), para que um totem
+-- sincronizando da revisão 0 receba tudo, e o contador continua da maior revisão
+INSERT INTO revisao_sync (chave, tipo, id_registro, revisao, removido, data_alteracao, condominio)
+SELECT r.tipo || ':' || r.id_registro, r.tipo, r.id_registro,
+       ROW_NUMBER() OVER (PARTITION BY r.condominio ORDER BY r.ordem, r.id_registro),
+       FALSE, CURRENT_TIMESTAMP, r.condominio
+FROM (
+    SELECT 1 AS ordem, 'ARMARIO' AS tipo, CAST(id AS VARCHAR(255)) AS id_registro, condominio FROM armario
+    UNION ALL
+    SELECT 2, 'COMPARTIMENTO', CAST(id_compartimento AS VARCHAR(255)), condominio FROM compartimento
+    UNION ALL
+    SELECT 3, 'ENCOMENDA', id_encomenda, condominio FROM encomenda WHERE data_retirada IS NULL
+) r
+WHERE NOT EXISTS (SELECT 1 FROM revisao_sync);
+
+INSERT INTO contador_revisao (condominio, valor)
+SELECT condominio, MAX(revisao) FROM revisao_sync
+WHERE NOT EXISTS (SELECT 1 FROM contador_revisao)
+GROUP BY condominio;
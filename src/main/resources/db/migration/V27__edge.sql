@@ -0,0 +1,20 @@
+-- Modo edge: journal das alterações feitas no nó enquanto não chegam ao central e a revisão do
+-- central de cada registro recebido (a maior delas é o ponto de partida do próximo recebimento).
+-- As tabelas só são usadas pelo nó edge, mas ficam no esquema comum.
+CREATE TABLE IF NOT EXISTS mutacao_edge (
+    id UUID PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    id_registro VARCHAR(255) NOT NULL,
+    data_hora TIMESTAMP NOT NULL,
+    revisao_base BIGINT,
+    ocupado BOOLEAN,
+    condominio VARCHAR(40) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_mutacao_edge_id_registro ON mutacao_edge (id_registro);
+
+CREATE TABLE IF NOT EXISTS replica_edge (
+    chave VARCHAR(300) PRIMARY KEY,
+    revisao BIGINT NOT NULL,
+    condominio VARCHAR(40) NOT NULL
+);
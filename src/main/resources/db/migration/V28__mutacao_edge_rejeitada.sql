@@ -0,0 +1,14 @@
+-- Modo edge: alterações do journal que o central rejeitou, guardadas para análise em vez de
+-- descartadas (mesmos campos do journal e o momento da rejeição)
+CREATE TABLE IF NOT EXISTS mutacao_edge_rejeitada (
+    id UUID PRIMARY KEY,
+    tipo VARCHAR(30) NOT NULL,
+    id_registro VARCHAR(255) NOT NULL,
+    data_hora TIMESTAMP NOT NULL,
+    revisao_base BIGINT,
+    ocupado BOOLEAN,
+    data_rejeicao TIMESTAMP NOT NULL,
+    condominio VARCHAR(40) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_mutacao_edge_rejeitada_id_registro ON mutacao_edge_rejeitada (id_registro);
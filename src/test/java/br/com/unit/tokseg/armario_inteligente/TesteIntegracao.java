@@ -0,0 +1,70 @@
+package br.com.unit.tokseg.armario_inteligente;
+
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Base dos testes de integração. Todas as subclasses têm a mesma configuração, então o Spring
+ * sobe um único contexto (e um único banco H2) para elas: cada teste cria os próprios registros,
+ * com IDs e e-mails que não se repetem, e não depende de tabelas vazias.
+ * Uma subclasse que precise de propriedades próprias declara o próprio {@code @SpringBootTest},
+ * com um banco só dela.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+public abstract class TesteIntegracao {
+
+	protected static final String CONDOMINIO = "alfa";
+
+	@Autowired
+	protected UsuarioRepository usuarioRepository;
+
+	/**
+	 * Executa a ação no condomínio dos testes.
+	 */
+	protected static <T> T no(Supplier<T> acao) {
+		return ContextoCondominio.executar(CONDOMINIO, acao);
+	}
+
+	/**
+	 * Executa a ação no condomínio dos testes.
+	 */
+	protected static void no(Runnable acao) {
+		ContextoCondominio.executar(CONDOMINIO, acao);
+	}
+
+	/**
+	 * Cadastra um morador novo no condomínio dos testes.
+	 */
+	protected Usuario usuario() {
+		return usuario(TipoUsuarioEnum.MORADOR, CONDOMINIO);
+	}
+
+	/**
+	 * Cadastra um usuário novo, do tipo informado, no condomínio informado.
+	 */
+	protected Usuario usuario(TipoUsuarioEnum tipo, String condominio) {
+		return ContextoCondominio.executar(condominio, () -> {
+			Usuario usuario = new Usuario();
+			usuario.setNome("Morador");
+			usuario.setEmail(UUID.randomUUID() + "@teste.com");
+			usuario.setSenha("senha");
+			usuario.setTelefone("79999990000");
+			usuario.setTipo(tipo);
+			return usuarioRepository.save(usuario);
+		});
+	}
+}
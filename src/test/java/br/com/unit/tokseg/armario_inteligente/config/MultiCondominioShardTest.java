@@ -0,0 +1,132 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testa o isolamento entre condomínios com três bancos H2 em memória: o principal (condomínios
+ * alfa e delta, não mapeados) e dois destinos adicionais (beta em shard-b, gama em shard-c).
+ * O esquema dos destinos é copiado do banco principal, criado pelo Hibernate.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:condominios;DB_CLOSE_DELAY=-1",
+		"app.condominios.destinos.shard-b.url=jdbc:h2:mem:condominios_b;DB_CLOSE_DELAY=-1",
+		"app.condominios.destinos.shard-c.url=jdbc:h2:mem:condominios_c;DB_CLOSE_DELAY=-1",
+		"app.condominios.mapeamento.beta=shard-b",
+		"app.condominios.mapeamento.gama=shard-c"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class MultiCondominioShardTest {
+
+	@Autowired
+	private ArmarioRepository armarioRepository;
+
+	@Autowired
+	private ConexaoPorCondominioProvider conexaoPorCondominioProvider;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void prepararDestinos() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		List<String> ddl = new JdbcTemplate(dataSource).queryForList("SCRIPT NODATA", String.class).stream()
+				.filter(comando -> comando.startsWith("CREATE MEMORY TABLE") || comando.startsWith("CREATE CACHED TABLE")
+						|| comando.startsWith("CREATE SEQUENCE") || comando.startsWith("CREATE INDEX")
+						|| comando.startsWith("CREATE UNIQUE INDEX") || comando.startsWith("ALTER TABLE"))
+				.toList();
+		for (String destino : List.of("shard-b", "shard-c")) {
+			JdbcTemplate jdbc = jdbcDoDestino(destino);
+			jdbc.execute("DROP ALL OBJECTS");
+			ddl.forEach(jdbc::execute);
+		}
+		new JdbcTemplate(dataSource).update("DELETE FROM armario");
+	}
+
+	@Test
+	void cadaCondominioEnxergaApenasOsSeusRegistros() {
+		for (String condominio : List.of("alfa", "beta", "gama", "delta")) {
+			criarArmario(condominio, "A1");
+		}
+		criarArmario("beta", "B2");
+
+		assertEquals(List.of("A1"), listarNumeros("alfa"));
+		assertEquals(List.of("A1", "B2"), listarNumeros("beta"));
+		assertEquals(List.of("A1"), listarNumeros("gama"));
+		assertEquals(List.of("A1"), listarNumeros("delta"));
+	}
+
+	@Test
+	void registrosFicamNoDestinoDoCondominio() {
+		for (String condominio : List.of("alfa", "beta", "gama", "delta")) {
+			criarArmario(condominio, "A1");
+		}
+
+		assertEquals(List.of("alfa", "delta"), condominiosGravados(new JdbcTemplate(dataSource)));
+		assertEquals(List.of("beta"), condominiosGravados(jdbcDoDestino("shard-b")));
+		assertEquals(List.of("gama"), condominiosGravados(jdbcDoDestino("shard-c")));
+	}
+
+	@Test
+	void acessoRaizVarreTodosOsCondominiosDoDestino() {
+		for (String condominio : List.of("alfa", "beta", "gama", "delta")) {
+			criarArmario(condominio, "A1");
+		}
+
+		assertEquals(2, contarComoRaiz(MultiCondominioProperties.DESTINO_PADRAO));
+		assertEquals(1, contarComoRaiz("shard-b"));
+		assertEquals(1, contarComoRaiz("shard-c"));
+	}
+
+	private void criarArmario(String condominio, String numero) {
+		ContextoCondominio.executar(condominio, () -> transactionTemplate.executeWithoutResult(status ->
+				armarioRepository.save(Armario.builder()
+						.numero(numero)
+						.status(ArmarioStatus.DISPONIVEL)
+						.localizacao("Bloco A")
+						.build())));
+	}
+
+	private List<String> listarNumeros(String condominio) {
+		return ContextoCondominio.executar(condominio, () -> armarioRepository.findAll().stream()
+				.map(Armario::getNumero)
+				.sorted()
+				.toList());
+	}
+
+	private long contarComoRaiz(String destino) {
+		return ContextoCondominio.executarComoRaiz(destino, armarioRepository::count);
+	}
+
+	private JdbcTemplate jdbcDoDestino(String destino) {
+		return new JdbcTemplate(conexaoPorCondominioProvider.destino(destino).dataSource());
+	}
+
+	private static List<String> condominiosGravados(JdbcTemplate jdbc) {
+		return jdbc.queryForList("SELECT condominio FROM armario ORDER BY condominio", String.class);
+	}
+}
@@ -0,0 +1,97 @@
+package br.com.unit.tokseg.armario_inteligente.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testa o roteamento de leituras com dois bancos H2 em memória: um faz o papel do primário e o
+ * outro da réplica. Cada banco tem uma tabela {@code origem} com o próprio nome, então a consulta
+ * mostra de qual banco a conexão veio.
+ */
+class RoteamentoDataSourceTest {
+
+	private DataSource primario;
+	private JdbcDataSource replica;
+
+	@BeforeEach
+	void criarBancos() {
+		primario = criarBanco("primario");
+		replica = criarBanco("replica");
+	}
+
+	@Test
+	void transacaoSomenteLeituraUsaReplicaEDemaisUsamPrimario() {
+		RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, Map.of("replica-1", replica), null, null);
+
+		assertEquals("replica", consultarOrigem(roteamento, true));
+		assertEquals("primario", consultarOrigem(roteamento, false));
+	}
+
+	@Test
+	void replicaIndisponivelFazLeituraVoltarAoPrimario() {
+		replica.setURL("jdbc:h2:mem:inexistente;IFEXISTS=TRUE");
+		RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, Map.of("replica-1", replica), null, null);
+
+		assertEquals("primario", consultarOrigem(roteamento, true));
+		assertEquals(List.of(), roteamento.replicasDisponiveis());
+	}
+
+	@Test
+	void verificacaoDevolveReplicaAoRodizioQuandoElaVolta() {
+		String url = replica.getURL();
+		replica.setURL("jdbc:h2:mem:inexistente;IFEXISTS=TRUE");
+		RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, Map.of("replica-1", replica), null, null);
+		roteamento.verificarReplicas();
+		assertEquals("primario", consultarOrigem(roteamento, true));
+
+		replica.setURL(url);
+		roteamento.verificarReplicas();
+		assertEquals(List.of("replica-1"), roteamento.replicasDisponiveis());
+		assertEquals("replica", consultarOrigem(roteamento, true));
+	}
+
+	@Test
+	void replicaAtrasadaSaiDoRodizio() {
+		RoteamentoDataSource atrasada = new RoteamentoDataSource(primario, Map.of("replica-1", replica),
+				"SELECT 120", Duration.ofSeconds(30));
+		atrasada.verificarReplicas();
+		assertEquals("primario", consultarOrigem(atrasada, true));
+
+		RoteamentoDataSource emDia = new RoteamentoDataSource(primario, Map.of("replica-1", replica),
+				"SELECT 5", Duration.ofSeconds(30));
+		emDia.verificarReplicas();
+		assertEquals("replica", consultarOrigem(emDia, true));
+	}
+
+	private static String consultarOrigem(RoteamentoDataSource roteamento, boolean somenteLeitura) {
+		// Mesma montagem da aplicação: a conexão real só é obtida depois que a transação foi marcada
+		DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+		TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transacao.setReadOnly(somenteLeitura);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		return transacao.execute(status -> jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class));
+	}
+
+	private static JdbcDataSource criarBanco(String nome) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + nome + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE origem (nome VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO origem (nome) VALUES (?)", nome);
+		return dataSource;
+	}
+}
@@ -0,0 +1,138 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.config.CacheConfig;
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.service.ArmarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Testa as consultas condicionais de armários: com o ETag atual a resposta é 304 sem passar pelo
+ * serviço, e só as gravações que afetam o agregado consultado mudam o ETag.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etag_armario;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class ArmarioEtagTest {
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void preparar() {
+		new JdbcTemplate(dataSource).update("DELETE FROM armario");
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+		mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"admin@teste.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+	}
+
+	@AfterEach
+	void limparAutenticacao() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void etagAtualRespondeNaoModificadoSemConsultar() throws Exception {
+		armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		String etag = consultar("/api/armarios", null).getHeader("ETag");
+		assertNotNull(etag);
+		double consultas = consultasAoCache();
+
+		MockHttpServletResponse resposta = consultar("/api/armarios", etag);
+
+		assertEquals(304, resposta.getStatus());
+		assertEquals("", resposta.getContentAsString());
+		assertEquals(consultas, consultasAoCache());
+	}
+
+	@Test
+	void gravacaoMudaOEtagDoConjuntoEDaLocalizacaoAfetada() throws Exception {
+		Armario armario = armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		armarioService.salvar(armario("B1", ArmarioStatus.DISPONIVEL, "Bloco 2"));
+		String conjunto = consultar("/api/armarios/status/DISPONIVEL", null).getHeader("ETag");
+		String bloco1 = consultar("/api/armarios/localizacao/Bloco 1", null).getHeader("ETag");
+		String bloco2 = consultar("/api/armarios/localizacao/Bloco 2", null).getHeader("ETag");
+
+		armarioService.atualizarStatus(armario.getId(), ArmarioStatus.OCUPADO);
+
+		MockHttpServletResponse resposta = consultar("/api/armarios/status/DISPONIVEL", conjunto);
+		assertEquals(200, resposta.getStatus());
+		assertNotEquals(conjunto, resposta.getHeader("ETag"));
+		assertTrue(resposta.getContentAsString().contains("B1"));
+		assertEquals(200, consultar("/api/armarios/localizacao/Bloco 1", bloco1).getStatus());
+		assertEquals(304, consultar("/api/armarios/localizacao/Bloco 2", bloco2).getStatus());
+	}
+
+	@Test
+	void etagDoArmarioSoMudaComAsGravacoesDele() throws Exception {
+		Armario alterado = armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		Armario outro = armarioService.salvar(armario("A2", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		String etagAlterado = consultar("/api/armarios/" + alterado.getId(), null).getHeader("ETag");
+		String etagOutro = consultar("/api/armarios/" + outro.getId(), null).getHeader("ETag");
+
+		armarioService.atualizarStatus(alterado.getId(), ArmarioStatus.MANUTENCAO);
+
+		assertEquals(200, consultar("/api/armarios/" + alterado.getId(), etagAlterado).getStatus());
+		assertEquals(304, consultar("/api/armarios/" + outro.getId(), etagOutro).getStatus());
+	}
+
+	private MockHttpServletResponse consultar(String url, String etag) throws Exception {
+		var requisicao = get(url);
+		if (etag != null) {
+			requisicao.header("If-None-Match", etag);
+		}
+		return mockMvc.perform(requisicao).andReturn().getResponse();
+	}
+
+	private double consultasAoCache() {
+		return meterRegistry.find("cache.gets").tag("cache", CacheConfig.ARMARIOS_POR_FILTRO).functionCounters()
+				.stream().mapToDouble(contador -> contador.count()).sum();
+	}
+
+	private Armario armario(String numero, ArmarioStatus status, String localizacao) {
+		return Armario.builder().numero(numero).status(status).localizacao(localizacao).build();
+	}
+}
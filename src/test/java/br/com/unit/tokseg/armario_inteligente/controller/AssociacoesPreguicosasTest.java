@@ -0,0 +1,156 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.dto.EventoEncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResumo;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.service.ArmarioService;
+import br.com.unit.tokseg.armario_inteligente.service.EncomendaService;
+import br.com.unit.tokseg.armario_inteligente.service.HistoricoEncomendaService;
+import br.com.unit.tokseg.armario_inteligente.service.LembreteEncomendaService;
+import br.com.unit.tokseg.armario_inteligente.service.NotificacaoService;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Testa, sem open-in-view, os caminhos que leem o armário e o morador de uma encomenda depois do
+ * commit: a resposta do cadastro, a auditoria que envia o resumo ao morador e o lembrete de
+ * retirada. Uma associação não carregada nesses pontos lança LazyInitializationException.
+ */
+class AssociacoesPreguicosasTest extends TesteIntegracao {
+
+	private static final Duration PRAZO_LEMBRETE = Duration.ofMillis(500);
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Autowired
+	private NotificacaoService notificacaoService;
+
+	@Autowired
+	private HistoricoEncomendaService historicoEncomendaService;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private EstrategiaDestinoCondominio estrategiaDestino;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void preparar() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+		// Como faz o filtro de autenticação em cada requisição
+		ContextoCondominio.definir(CONDOMINIO);
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"porteiro@teste.com", null, List.of(new SimpleGrantedAuthority("ROLE_PORTEIRO"))));
+	}
+
+	@AfterEach
+	void limpar() {
+		SecurityContextHolder.clearContext();
+		ContextoCondominio.limpar();
+	}
+
+	@Test
+	void cadastroRespondeEAvisaOMoradorComArmarioEMorador() throws Exception {
+		Armario armario = armarioService.salvar(Armario.builder()
+				.numero("P1").status(ArmarioStatus.DISPONIVEL).localizacao("Bloco 1").build());
+		Usuario morador = usuario();
+
+		// O corpo traz só os IDs: armário e morador viram referências não carregadas
+		MockHttpServletResponse resposta = mockMvc.perform(post("/api/encomendas")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"idEncomenda": "LZ-1", "descricao": "Caixa", "remetente": "Loja",
+						 "dataRecebimento": "%s", "armario": {"id": "%s"}, "usuario": {"id": "%s"}}
+						""".formatted(LocalDateTime.now(), armario.getId(), morador.getId())))
+				.andReturn().getResponse();
+
+		assertEquals(200, resposta.getStatus());
+		assertTrue(resposta.getContentAsString().contains("\"numeroArmario\":\"P1\""), resposta.getContentAsString());
+		assertTrue(resposta.getContentAsString().contains("\"nomeUsuario\":\"Morador\""), resposta.getContentAsString());
+		// A auditoria enfileira o resumo com o número do armário; o morador ocioso o recebe na próxima descarga
+		assertEquals("Nova encomenda registrada para você no armário P1", aguardarMensagem(morador.getId()));
+		assertTrue(historicoEncomendaService.listarHistorico("LZ-1").stream()
+				.map(EventoEncomendaResumo::tipo)
+				.anyMatch(TipoEventoEncomenda.NOTIFICADA::equals));
+	}
+
+	@Test
+	void lembreteDeEncomendaCadastradaChegaAoMorador() throws Exception {
+		Usuario morador = usuario();
+		Usuario referencia = new Usuario();
+		referencia.setId(morador.getId());
+		Encomenda salva = encomendaService.salvar(Encomenda.builder()
+				.idEncomenda("LZ-2")
+				.descricao("Envelope")
+				.remetente("Banco")
+				.dataRecebimento(LocalDateTime.now())
+				.usuario(referencia)
+				.build());
+		LembreteEncomendaService lembretes = new LembreteEncomendaService(encomendaRepository, usuarioRepository,
+				notificacaoService, historicoEncomendaService, estrategiaDestino, transactionManager,
+				10, PRAZO_LEMBRETE, Duration.ofHours(1));
+
+		// Como o ouvinte do evento, depois do commit e sem sessão aberta
+		lembretes.aoSalvarEncomenda(new EncomendaSalvaEvent(salva));
+		Thread.sleep(PRAZO_LEMBRETE.toMillis() + 50);
+		lembretes.dispararVencidos();
+
+		assertEquals("Lembrete: a encomenda \"Envelope\" está aguardando retirada no armário",
+				aguardarMensagem(morador.getId()));
+		assertTrue(historicoEncomendaService.listarHistorico("LZ-2").stream()
+				.anyMatch(evento -> "Lembrete de retirada".equals(evento.detalhes())));
+	}
+
+
+	private String aguardarMensagem(UUID morador) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 10_000;
+		List<NotificacaoResumo> itens;
+		while ((itens = notificacaoService.listarDoUsuario(morador, null, 20, false).itens()).isEmpty()
+				&& System.currentTimeMillis() < limite) {
+			Thread.sleep(20);
+		}
+		assertEquals(1, itens.size());
+		return itens.get(0).mensagem();
+	}
+}
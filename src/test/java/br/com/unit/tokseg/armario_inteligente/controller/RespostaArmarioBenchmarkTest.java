@@ -0,0 +1,154 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.config.CacheConfig;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.service.JwtService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede requisições por segundo de {@code GET /api/armarios} e {@code /api/armarios/status/{status}}
+ * num servidor real, com os armários já no cache de objetos: com o corpo serializado em cache
+ * (escrito direto na resposta) contra a serialização a cada requisição (a região de corpos é
+ * esvaziada antes de cada uma, como era antes do cache de respostas).
+ * Fica fora da suíte padrão; rode com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:benchmark_resposta_armario;DB_CLOSE_DELAY=-1",
+		"spring.jpa.open-in-view=false",
+		"logging.level.org.hibernate.SQL=INFO",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+		"logging.level.br.com.unit.tokseg=INFO"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RespostaArmarioBenchmarkTest {
+
+	private static final int ARMARIOS = 500;
+	private static final int THREADS = 4;
+	private static final int AQUECIMENTO_POR_THREAD = 500;
+	private static final int REQUISICOES_POR_THREAD = 2_500;
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private ArmarioRepository armarioRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	private String token;
+
+	@BeforeAll
+	void popular() {
+		List<Armario> armarios = new ArrayList<>();
+		for (int i = 0; i < ARMARIOS; i++) {
+			armarios.add(Armario.builder()
+					.numero("A" + i)
+					.status(i % 3 == 0 ? ArmarioStatus.OCUPADO : ArmarioStatus.DISPONIVEL)
+					.localizacao("Bloco " + (i % 10))
+					.build());
+		}
+		armarioRepository.saveAll(armarios);
+
+		Usuario admin = new Usuario();
+		admin.setNome("Administrador");
+		admin.setEmail("admin@exemplo.com");
+		admin.setSenha("$2a$10$abcdefghijklmnopqrstuvABCDEFGHIJKLMNOPQRSTUVWXYZ01234");
+		admin.setTelefone("79999990000");
+		admin.setTipo(TipoUsuarioEnum.ADMIN);
+		token = jwtService.generateToken(usuarioRepository.save(admin));
+	}
+
+	@Test
+	void listaCompleta() throws Exception {
+		comparar("/api/armarios");
+	}
+
+	@Test
+	void listaPorStatus() throws Exception {
+		comparar("/api/armarios/status/DISPONIVEL");
+	}
+
+	private void comparar(String url) throws Exception {
+		Cache respostas = cacheManager.getCache(CacheConfig.RESPOSTAS_ARMARIOS);
+		double serializando = medir(url + " serializando", url, respostas::clear);
+		double emCache = medir(url + " corpo em cache", url, () -> { });
+
+		assertTrue(emCache > serializando);
+	}
+
+	/**
+	 * Dispara as requisições em paralelo (depois do aquecimento) e imprime requisições por segundo.
+	 */
+	private double medir(String nome, String url, Runnable antesDeCada) throws Exception {
+		carga(url, AQUECIMENTO_POR_THREAD, antesDeCada);
+		long inicio = System.nanoTime();
+		carga(url, REQUISICOES_POR_THREAD, antesDeCada);
+		double porSegundo = THREADS * REQUISICOES_POR_THREAD / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+		System.out.printf("BENCHMARK %-50s %,10.0f req/s%n", nome, porSegundo);
+		return porSegundo;
+	}
+
+	private void carga(String url, int requisicoesPorThread, Runnable antesDeCada) throws Exception {
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + url))
+				.header("Authorization", "Bearer " + token)
+				.build();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				tarefas.add(executor.submit(() -> {
+					for (int i = 0; i < requisicoesPorThread; i++) {
+						antesDeCada.run();
+						assertEquals(200, cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode());
+					}
+					return null;
+				}));
+			}
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.config.CacheConfig;
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.service.ArmarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Testa o cache de corpos serializados das listagens de armários: a segunda requisição recebe os
+ * mesmos bytes sem consultar nem serializar, as gravações de armários descartam o corpo afetado e
+ * corpos grandes saem compactados para quem aceita gzip.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:resposta_armario;DB_CLOSE_DELAY=-1",
+		"cache.respostas-armarios.gzip-minimo=512B"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class RespostaArmarioCacheTest {
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private JdbcTemplate jdbc;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void preparar() {
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("DELETE FROM armario");
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+		mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"admin@teste.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+	}
+
+	@AfterEach
+	void limparAutenticacao() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void segundaRequisicaoRecebeOCorpoDoCacheAteAGravacao() throws Exception {
+		Armario armario = armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		String primeira = consultar("/api/armarios/status/DISPONIVEL", null).getContentAsString();
+		jdbc.update("UPDATE armario SET numero = 'ALTERADO-POR-FORA' WHERE id = ?", armario.getId());
+		double acertos = acertos();
+
+		assertEquals(primeira, consultar("/api/armarios/status/DISPONIVEL", null).getContentAsString());
+		assertEquals(acertos + 1, acertos());
+
+		armarioService.atualizarStatus(armario.getId(), ArmarioStatus.OCUPADO);
+
+		assertEquals("[]", consultar("/api/armarios/status/DISPONIVEL", null).getContentAsString());
+		assertTrue(consultar("/api/armarios", null).getContentAsString().contains("ALTERADO-POR-FORA"));
+	}
+
+	@Test
+	void corpoGrandeSaiCompactadoParaQuemAceitaGzip() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			armarioService.salvar(armario("A" + i, ArmarioStatus.DISPONIVEL, "Bloco " + i));
+		}
+		MockHttpServletResponse simples = consultar("/api/armarios", null);
+		MockHttpServletResponse compactada = consultar("/api/armarios", "gzip, deflate");
+		MockHttpServletResponse recusada = consultar("/api/armarios", "gzip;q=0, *");
+
+		assertNull(simples.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", simples.getHeader("Vary"));
+		assertEquals("gzip", compactada.getHeader("Content-Encoding"));
+		assertTrue(compactada.getContentAsByteArray().length < simples.getContentAsByteArray().length);
+		assertEquals(simples.getContentAsString(), descompactar(compactada.getContentAsByteArray()));
+		assertNull(recusada.getHeader("Content-Encoding"));
+		assertFalse(simples.getContentAsString().isEmpty());
+	}
+
+	private MockHttpServletResponse consultar(String url, String acceptEncoding) throws Exception {
+		var requisicao = get(url);
+		if (acceptEncoding != null) {
+			requisicao.header("Accept-Encoding", acceptEncoding);
+		}
+		MockHttpServletResponse resposta = mockMvc.perform(requisicao).andReturn().getResponse();
+		assertEquals(200, resposta.getStatus());
+		resposta.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		return resposta;
+	}
+
+	private double acertos() {
+		return meterRegistry.get("cache.gets").tag("cache", CacheConfig.RESPOSTAS_ARMARIOS).tag("result", "hit")
+				.functionCounter().count();
+	}
+
+	private static String descompactar(byte[] gzip) throws Exception {
+		try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private Armario armario(String numero, ArmarioStatus status, String localizacao) {
+		return Armario.builder().numero(numero).status(status).localizacao(localizacao).build();
+	}
+}
@@ -0,0 +1,218 @@
+package br.com.unit.tokseg.armario_inteligente.controller;
+
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.service.JwtService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Teste de carga que mede quanto tempo cada requisição segura uma conexão do pool Hikari,
+ * com e sem open-in-view. O "com" registra o {@link OpenEntityManagerInViewFilter} depois da
+ * segurança, como o Spring Boot fazia com {@code spring.jpa.open-in-view=true}. O tempo vem do
+ * timer {@code hikaricp.connections.usage} que o Actuator registra para o pool.
+ * Fica fora da suíte padrão; rode com {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:benchmark_conexao;DB_CLOSE_DELAY=-1",
+		"spring.jpa.open-in-view=false",
+		"logging.level.org.hibernate.SQL=INFO",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+		"logging.level.br.com.unit.tokseg=INFO"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RetencaoConexaoBenchmarkTest {
+
+	private static final int ARMARIOS = 100;
+	private static final int ENCOMENDAS = 500;
+	private static final int THREADS = 8;
+	private static final int REQUISICOES_POR_THREAD = 100;
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Autowired
+	private HikariDataSource dataSourcePrimario;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter filtroSeguranca;
+
+	@Autowired
+	private ArmarioRepository armarioRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final AtomicInteger sequencia = new AtomicInteger();
+
+	private Timer usoConexoes;
+	private String token;
+	private List<Armario> armarios;
+	private Usuario morador;
+
+	@BeforeAll
+	void preparar() {
+		usoConexoes = meterRegistry.get("hikaricp.connections.usage")
+				.tag("pool", dataSourcePrimario.getPoolName())
+				.timer();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Usuario admin = usuarioRepository.save(usuario("admin@exemplo.com", TipoUsuarioEnum.ADMIN));
+			morador = usuarioRepository.save(usuario("morador@exemplo.com", TipoUsuarioEnum.MORADOR));
+			armarios = new ArrayList<>();
+			for (int i = 0; i < ARMARIOS; i++) {
+				armarios.add(armarioRepository.save(Armario.builder()
+						.numero("A" + i)
+						.status(ArmarioStatus.OCUPADO)
+						.localizacao("Bloco " + (i % 10))
+						.build()));
+			}
+			for (int i = 0; i < ENCOMENDAS; i++) {
+				Encomenda encomenda = encomendaRepository.save(Encomenda.builder()
+						.idEncomenda("CARGA-" + i)
+						.descricao("Caixa " + i)
+						.remetente("Loja " + (i % 20))
+						.dataRecebimento(LocalDateTime.now().minusMinutes(i))
+						.armario(armarios.get(i % ARMARIOS))
+						.usuario(morador)
+						.build());
+				armarios.get(i % ARMARIOS).setEncomendaAtual(encomenda);
+			}
+			token = jwtService.generateToken(admin);
+		});
+	}
+
+	@Test
+	void openInViewDesligadoSeguraConexaoPorMenosTempo() throws Exception {
+		OpenEntityManagerInViewFilter openInView = new OpenEntityManagerInViewFilter();
+		openInView.setServletContext(contexto.getServletContext());
+		MockMvc comOpenInView = MockMvcBuilders.webAppContextSetup(contexto)
+				.addFilters(filtroSeguranca, openInView)
+				.build();
+		MockMvc semOpenInView = MockMvcBuilders.webAppContextSetup(contexto)
+				.addFilters(filtroSeguranca)
+				.build();
+
+		executarCarga(semOpenInView);
+		executarCarga(comOpenInView);
+
+		double com = executarCarga(comOpenInView);
+		double sem = executarCarga(semOpenInView);
+		System.out.printf("BENCHMARK conexao/com-open-in-view %8.3f ms por requisição%n", com);
+		System.out.printf("BENCHMARK conexao/sem-open-in-view %8.3f ms por requisição%n", sem);
+
+		assertTrue(sem < com);
+	}
+
+	/**
+	 * Dispara a mistura de requisições em paralelo e devolve o tempo médio, por requisição, em
+	 * que as conexões ficaram fora do pool.
+	 */
+	private double executarCarga(MockMvc mvc) throws Exception {
+		double usoAntesMs = usoConexoes.totalTime(TimeUnit.MILLISECONDS);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> tarefas = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				tarefas.add(executor.submit(() -> {
+					for (int i = 0; i < REQUISICOES_POR_THREAD; i++) {
+						assertEquals(200, requisitar(mvc, i));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> tarefa : tarefas) {
+				tarefa.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		return (usoConexoes.totalTime(TimeUnit.MILLISECONDS) - usoAntesMs) / (THREADS * REQUISICOES_POR_THREAD);
+	}
+
+	private int requisitar(MockMvc mvc, int i) throws Exception {
+		String autorizacao = "Bearer " + token;
+		return switch (i % 5) {
+			case 0 -> mvc.perform(get("/api/encomendas").header("Authorization", autorizacao))
+					.andReturn().getResponse().getStatus();
+			case 1 -> mvc.perform(get("/api/armarios").header("Authorization", autorizacao))
+					.andReturn().getResponse().getStatus();
+			case 2 -> mvc.perform(get("/api/encomendas/CARGA-" + (i % ENCOMENDAS)).header("Authorization", autorizacao))
+					.andReturn().getResponse().getStatus();
+			case 3 -> mvc.perform(get("/api/armarios/" + armarios.get(i % ARMARIOS).getId()).header("Authorization", autorizacao))
+					.andReturn().getResponse().getStatus();
+			default -> mvc.perform(post("/api/encomendas").header("Authorization", autorizacao)
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("""
+									{"idEncomenda":"NOVA-%d","descricao":"Envelope","remetente":"Correios",
+									"dataRecebimento":"2024-01-01T10:00:00",
+									"armario":{"id":"%s"},"usuario":{"id":"%s"}}
+									""".formatted(sequencia.incrementAndGet(), armarios.get(i % ARMARIOS).getId(), morador.getId())))
+					.andReturn().getResponse().getStatus();
+		};
+	}
+
+	private static Usuario usuario(String email, TipoUsuarioEnum tipo) {
+		Usuario usuario = new Usuario();
+		usuario.setNome(email);
+		usuario.setEmail(email);
+		usuario.setSenha("$2a$10$abcdefghijklmnopqrstuvABCDEFGHIJKLMNOPQRSTUVWXYZ01234");
+		usuario.setTelefone("79999990000");
+		usuario.setTipo(tipo);
+		return usuario;
+	}
+}
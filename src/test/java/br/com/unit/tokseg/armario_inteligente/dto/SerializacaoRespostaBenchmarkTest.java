@@ -0,0 +1,177 @@
+package br.com.unit.tokseg.armario_inteligente.dto;
+
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.service.EncomendaService;
+import br.com.unit.tokseg.armario_inteligente.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara o tamanho do JSON e o tempo de consulta + serialização das listagens de encomendas e
+ * usuários: entidades JPA (como os controllers respondiam antes) contra as respostas projetadas.
+ * Fica fora da suíte padrão; rode com {@code mvn test -Pbenchmark}.
+ *
+ * A encomenda atual dos armários não é preenchida: com ela, o grafo de entidades é cíclico e
+ * a serialização não termina. As associações preguiçosas são carregadas pela própria
+ * serialização, como acontecia com open-in-view.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:benchmark_resposta;DB_CLOSE_DELAY=-1",
+		"logging.level.org.hibernate.SQL=INFO",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+		"logging.level.br.com.unit.tokseg=INFO"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SerializacaoRespostaBenchmarkTest {
+
+	private static final int ARMARIOS = 200;
+	private static final int USUARIOS = 500;
+	private static final int ENCOMENDAS = 2_000;
+	private static final int AQUECIMENTO = 5;
+	private static final int RODADAS = 20;
+
+	@Autowired
+	private ArmarioRepository armarioRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate leitura;
+
+	private ObjectMapper mapeadorEntidades;
+
+	@BeforeAll
+	void popular() {
+		mapeadorEntidades = objectMapper.copy().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			List<Armario> armarios = new ArrayList<>();
+			for (int i = 0; i < ARMARIOS; i++) {
+				armarios.add(armarioRepository.save(Armario.builder()
+						.numero("A" + i)
+						.status(ArmarioStatus.OCUPADO)
+						.localizacao("Bloco " + (i % 10))
+						.build()));
+			}
+			List<Usuario> usuarios = new ArrayList<>();
+			for (int i = 0; i < USUARIOS; i++) {
+				Usuario usuario = new Usuario();
+				usuario.setNome("Morador " + i);
+				usuario.setEmail("morador" + i + "@exemplo.com");
+				usuario.setSenha("$2a$10$abcdefghijklmnopqrstuvABCDEFGHIJKLMNOPQRSTUVWXYZ01234");
+				usuario.setTelefone("7999999" + String.format("%04d", i));
+				usuario.setTipo(TipoUsuarioEnum.MORADOR);
+				usuarios.add(usuarioRepository.save(usuario));
+			}
+			for (int i = 0; i < ENCOMENDAS; i++) {
+				encomendaRepository.save(Encomenda.builder()
+						.idEncomenda("BENCH-" + i)
+						.descricao("Caixa média " + i)
+						.remetente("Loja " + (i % 20))
+						.dataRecebimento(LocalDateTime.now().minusMinutes(i))
+						.armario(armarios.get(i % ARMARIOS))
+						.usuario(usuarios.get(i % USUARIOS))
+						.build());
+			}
+		});
+	}
+
+	@Test
+	void listagemDeEncomendas() {
+		Medicao entidades = medir("encomendas/entidades",
+				() -> encomendaRepository.findAll().stream().filter(e -> e.getDataRetirada() == null).toList());
+		Medicao respostas = medir("encomendas/respostas", encomendaService::listarTodas);
+
+		assertTrue(respostas.bytes() < entidades.bytes());
+		assertFalse(respostas.json().contains("senha"));
+	}
+
+	@Test
+	void listagemDeUsuarios() {
+		Medicao entidades = medir("usuarios/entidades", usuarioRepository::findAll);
+		Medicao respostas = medir("usuarios/respostas", usuarioService::listarTodos);
+
+		assertTrue(respostas.bytes() < entidades.bytes());
+		assertTrue(entidades.json().contains("senha"));
+		assertFalse(respostas.json().contains("senha"));
+	}
+
+	/**
+	 * Executa consulta e serialização dentro de uma transação de leitura, como faria a requisição,
+	 * e imprime o tamanho do JSON e o tempo médio por rodada.
+	 */
+	private Medicao medir(String nome, Supplier<?> consulta) {
+		for (int i = 0; i < AQUECIMENTO; i++) {
+			serializar(consulta);
+		}
+		byte[] json = null;
+		long inicio = System.nanoTime();
+		for (int i = 0; i < RODADAS; i++) {
+			json = serializar(consulta);
+		}
+		double mediaMs = (System.nanoTime() - inicio) / 1_000_000.0 / RODADAS;
+		System.out.printf("BENCHMARK %-22s %,12d bytes %10.2f ms%n", nome, json.length, mediaMs);
+		return new Medicao(new String(json), json.length, mediaMs);
+	}
+
+	private byte[] serializar(Supplier<?> consulta) {
+		return leitura.execute(status -> {
+			try {
+				return mapeadorEntidades.writeValueAsBytes(consulta.get());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	private record Medicao(String json, long bytes, double mediaMs) {
+	}
+}
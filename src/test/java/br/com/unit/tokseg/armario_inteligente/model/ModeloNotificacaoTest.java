@@ -0,0 +1,59 @@
+package br.com.unit.tokseg.armario_inteligente.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ModeloNotificacaoTest {
+
+	@Test
+	void modeloMontaAMensagemComOsParametrosNaOrdem() {
+		assertEquals("Nova encomenda registrada para você no armário A12",
+				ModeloNotificacao.NOVA_ENCOMENDA.renderizar(ModeloNotificacao.codificar("A12")));
+		assertEquals("Encomenda \"Caixa\" (ENC-1) aguarda retirada há mais de 48 horas",
+				ModeloNotificacao.ESCALONAMENTO_PORTARIA.renderizar(ModeloNotificacao.codificar("Caixa", "ENC-1", "48")));
+		assertEquals("Texto livre, com {chaves} e \"aspas\"",
+				ModeloNotificacao.LIVRE.renderizar(ModeloNotificacao.codificar("Texto livre, com {chaves} e \"aspas\"")));
+	}
+
+	@Test
+	void parametrosAusentesOuVaziosFicamEmBranco() {
+		assertEquals("Novo usuário registrado: ", ModeloNotificacao.NOVO_USUARIO.renderizar(null));
+		assertEquals(" novas encomendas registradas para você nos armários ",
+				ModeloNotificacao.NOVAS_ENCOMENDAS.renderizar(""));
+		assertEquals("3 novas encomendas registradas para você nos armários ",
+				ModeloNotificacao.NOVAS_ENCOMENDAS.renderizar(ModeloNotificacao.codificar("3")));
+		assertEquals("Novo armário cadastrado: ",
+				ModeloNotificacao.NOVO_ARMARIO.renderizar(ModeloNotificacao.codificar((String) null)));
+	}
+
+	@Test
+	void separadorDentroDoParametroNaoDeslocaOsDemais() {
+		String parametros = ModeloNotificacao.codificar("Caixa\u001Fgrande", "ENC-2", "24");
+
+		assertEquals("Encomenda \"Caixa grande\" (ENC-2) aguarda retirada há mais de 24 horas",
+				ModeloNotificacao.ESCALONAMENTO_PORTARIA.renderizar(parametros));
+	}
+
+	@Test
+	void notificacaoGuardaModeloEParametrosEMontaAMensagemNaLeitura() {
+		Notificacao notificacao = new Notificacao(UUID.randomUUID(), null, ModeloNotificacao.LEMBRETE_RETIRADA,
+				LocalDateTime.now(), "Livro");
+		assertEquals("Lembrete: a encomenda \"Livro\" está aguardando retirada no armário", notificacao.getMensagem());
+
+		notificacao.setMensagem("Portaria fechada amanhã");
+		assertEquals(ModeloNotificacao.LIVRE, notificacao.getModelo());
+		assertEquals("Portaria fechada amanhã", notificacao.getMensagem());
+
+		Notificacao resumo = TipoNotificacaoAgrupada.NOVA_ENCOMENDA.criarNotificacao(UUID.randomUUID(), null,
+				List.of("B02", "A12", "B02"), LocalDateTime.now());
+		assertEquals("3 novas encomendas registradas para você nos armários A12 e B02", resumo.getMensagem());
+
+		assertNull(new Notificacao().getMensagem());
+	}
+}
@@ -0,0 +1,123 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.TipoNotificacaoAgrupada;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o agrupamento de notificações de encomenda: a primeira sai sozinha, as seguintes da janela
+ * saem em um resumo, e uma gravação que falha devolve os itens ao grupo em vez de perdê-los.
+ */
+class AgrupamentoNotificacaoTest extends TesteIntegracao {
+
+	@Autowired
+	private CondominioIdentifierResolver condominioResolver;
+
+	private final List<Notificacao> gravadas = new CopyOnWriteArrayList<>();
+	private final Set<UUID> falhando = ConcurrentHashMap.newKeySet();
+
+	@Test
+	void primeiraSaiSozinhaEAsSeguintesDaJanelaSaemEmResumo() {
+		AgrupamentoNotificacaoService agrupamento = agrupamento();
+		UUID morador = UUID.randomUUID();
+		UUID vizinho = UUID.randomUUID();
+
+		no(() -> agrupamento.enfileirar(morador, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "A12"));
+		agrupamento.descarregar();
+		assertEquals(List.of("Nova encomenda registrada para você no armário A12"), mensagens());
+
+		no(() -> {
+			agrupamento.enfileirar(morador, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "B02");
+			agrupamento.enfileirar(morador, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "A14");
+			agrupamento.enfileirar(morador, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "B02");
+			agrupamento.enfileirar(vizinho, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "C01");
+		});
+		agrupamento.descarregar();
+		// O vizinho estava ocioso; o morador espera o fim da janela
+		assertEquals(2, gravadas.size());
+		assertEquals(vizinho, gravadas.get(1).getUsuario().getId());
+		assertEquals(3, agrupamento.contarRetidas());
+
+		agrupamento.descarregarTudo();
+		assertEquals(0, agrupamento.contarRetidas());
+		assertEquals("3 novas encomendas registradas para você nos armários A14 e B02", mensagens().get(2));
+		assertThrows(IllegalArgumentException.class,
+				() -> no(() -> agrupamento.enfileirar(null, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "A1")));
+	}
+
+	@Test
+	void falhaNaGravacaoDevolveOsItensAoGrupo() {
+		AgrupamentoNotificacaoService agrupamento = agrupamento();
+		UUID morador = UUID.randomUUID();
+		UUID problema = UUID.randomUUID();
+		falhando.add(problema);
+
+		no(() -> {
+			agrupamento.enfileirar(morador, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "A1");
+			agrupamento.enfileirar(problema, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "B1");
+		});
+		agrupamento.descarregar();
+		// O lote falhou; gravadas uma a uma, só a do usuário com problema ficou para depois
+		assertEquals(List.of(morador), destinatarios());
+		assertEquals(1, agrupamento.contarRetidas());
+
+		no(() -> agrupamento.enfileirar(problema, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "B2"));
+		falhando.clear();
+		agrupamento.descarregar();
+		assertEquals(List.of(morador, problema), destinatarios());
+		assertEquals("2 novas encomendas registradas para você nos armários B1 e B2", mensagens().get(1));
+		assertEquals(0, agrupamento.contarRetidas());
+	}
+
+	@Test
+	void itensSaoDescartadosDepoisDoLimiteDeTentativas() {
+		AgrupamentoNotificacaoService agrupamento = agrupamento();
+		UUID problema = UUID.randomUUID();
+		falhando.add(problema);
+
+		no(() -> agrupamento.enfileirar(problema, TipoNotificacaoAgrupada.NOVA_ENCOMENDA, "B1"));
+		for (int tentativa = 1; tentativa < 5; tentativa++) {
+			agrupamento.descarregar();
+			assertEquals(1, agrupamento.contarRetidas());
+		}
+		agrupamento.descarregar();
+
+		assertEquals(0, agrupamento.contarRetidas());
+		assertTrue(gravadas.isEmpty());
+	}
+
+	private AgrupamentoNotificacaoService agrupamento() {
+		NotificacaoService notificacoes = new NotificacaoService(null, null, null) {
+			@Override
+			public void salvarEmLote(List<Notificacao> lote) {
+				if (lote.stream().anyMatch(notificacao -> falhando.contains(notificacao.getUsuario().getId()))) {
+					throw new IllegalStateException("Falha ao gravar");
+				}
+				gravadas.addAll(lote);
+			}
+		};
+		return new AgrupamentoNotificacaoService(notificacoes, usuarioRepository, condominioResolver, Duration.ofHours(1));
+	}
+
+	private List<String> mensagens() {
+		return gravadas.stream().map(Notificacao::getMensagem).toList();
+	}
+
+	private List<UUID> destinatarios() {
+		return gravadas.stream().map(notificacao -> notificacao.getUsuario().getId()).toList();
+	}
+}
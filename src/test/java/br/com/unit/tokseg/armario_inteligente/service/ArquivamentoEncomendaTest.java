@@ -0,0 +1,117 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaRetirada;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.CompartimentoRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaArquivadaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o arquivamento das encomendas retiradas: só as retiradas saem da tabela operacional, em
+ * lotes, continuam nas consultas de retiradas, e o ID arquivado não volta como encomenda em aberto.
+ * O arquivamento usa carência zero para não esperar.
+ */
+class ArquivamentoEncomendaTest extends TesteIntegracao {
+
+	private static final LocalDateTime RECEBIMENTO = LocalDateTime.of(2026, 9, 30, 10, 0);
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private EncomendaArquivadaRepository encomendaArquivadaRepository;
+
+	@Autowired
+	private ArmarioRepository armarioRepository;
+
+	@Autowired
+	private CompartimentoRepository compartimentoRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EstrategiaDestinoCondominio estrategiaDestino;
+
+	@Autowired
+	private CacheArmarioService cacheArmarioService;
+
+	@Autowired
+	private RevisaoSyncService revisaoSync;
+
+	@Test
+	void retiradasVaoParaOArquivoEmLotes() throws InterruptedException {
+		// Arquiva antes as retiradas deixadas pelos outros testes do contexto
+		arquivamento().arquivarRetiradas();
+		for (int i = 1; i <= 3; i++) {
+			salvar("A-" + i, RECEBIMENTO.plusDays(i));
+			String id = "A-" + i;
+			no(() -> encomendaService.remover(id));
+		}
+		salvar("A-ABERTA", RECEBIMENTO);
+		Thread.sleep(5);
+
+		int arquivadas = arquivamento().arquivarRetiradas();
+
+		assertEquals(3, arquivadas);
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM encomenda WHERE id_encomenda LIKE 'A-_'", Integer.class));
+		assertTrue(no(() -> encomendaArquivadaRepository.existsById("A-2")));
+		assertTrue(no(() -> encomendaRepository.findById("A-ABERTA")).isPresent());
+		List<EncomendaRetirada> retiradas = no(() -> encomendaService.listarRetiradas(
+				null, RECEBIMENTO, RECEBIMENTO.plusDays(10)));
+		assertEquals(List.of("A-3", "A-2", "A-1"), retiradas.stream().map(EncomendaRetirada::idEncomenda).toList());
+		assertTrue(retiradas.stream().allMatch(EncomendaRetirada::arquivada));
+		assertEquals(0, arquivamento().arquivarRetiradas());
+	}
+
+	@Test
+	void salvarIdArquivadoERecusado() throws InterruptedException {
+		salvar("B-1", RECEBIMENTO);
+		no(() -> encomendaService.remover("B-1"));
+		Thread.sleep(5);
+		arquivamento().arquivarRetiradas();
+
+		assertThrows(IllegalArgumentException.class, () -> salvar("B-1", LocalDateTime.now()));
+		assertFalse(no(() -> encomendaRepository.findById("B-1")).isPresent());
+		assertEquals(1, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM encomenda_arquivo WHERE id_encomenda = 'B-1'", Integer.class));
+	}
+
+	private ArquivamentoEncomendaService arquivamento() {
+		return new ArquivamentoEncomendaService(encomendaRepository, encomendaArquivadaRepository, armarioRepository,
+				compartimentoRepository, jdbcTemplate, transactionManager, estrategiaDestino, cacheArmarioService,
+				revisaoSync, Duration.ZERO, 2);
+	}
+
+	private void salvar(String id, LocalDateTime recebimento) {
+		no(() -> encomendaService.salvar(Encomenda.builder()
+				.idEncomenda(id)
+				.descricao("Caixa " + id)
+				.remetente("Loja")
+				.dataRecebimento(recebimento)
+				.build()));
+	}
+}
@@ -0,0 +1,121 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.TransporteInvalidacao;
+import br.com.unit.tokseg.armario_inteligente.config.TransporteInvalidacaoLoopback;
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o barramento com duas "instâncias" compartilhando um transporte em memória.
+ */
+class BarramentoInvalidacaoServiceTest {
+
+	private final List<TransporteInvalidacao.Lote> lotesEnviados = new ArrayList<>();
+	private final List<Object> recebidosA = new ArrayList<>();
+	private final List<Object> recebidosB = new ArrayList<>();
+	private boolean transporteForaDoAr;
+
+	private BarramentoInvalidacaoService instanciaA;
+	private BarramentoInvalidacaoService instanciaB;
+
+	@BeforeEach
+	void criarInstancias() {
+		TransporteInvalidacao transporte = new TransporteInvalidacaoLoopback() {
+			@Override
+			public void enviar(Lote lote) {
+				if (transporteForaDoAr) {
+					throw new IllegalStateException("Transporte indisponível");
+				}
+				lotesEnviados.add(lote);
+				super.enviar(lote);
+			}
+		};
+		instanciaA = new BarramentoInvalidacaoService(transporte, recebidosA::add, 3, 10);
+		instanciaB = new BarramentoInvalidacaoService(transporte, recebidosB::add, 3, 10);
+	}
+
+	@Test
+	void invalidacaoChegaSoNasOutrasInstancias() {
+		InvalidacaoCacheEvent invalidacao = new InvalidacaoCacheEvent("armarios", "alfa", "1");
+
+		instanciaA.publicar(List.of(invalidacao));
+		instanciaA.enviarPendentes();
+
+		assertEquals(List.of(invalidacao), recebidosB);
+		assertTrue(recebidosA.isEmpty());
+	}
+
+	@Test
+	void repetidasNoIntervaloViramUmaSoEVaoEmLotes() {
+		for (int vez = 0; vez < 3; vez++) {
+			instanciaA.publicar(IntStream.range(0, 7)
+					.mapToObj(i -> new InvalidacaoCacheEvent("armarios", "alfa", String.valueOf(i)))
+					.toList());
+		}
+
+		assertEquals(3, instanciaA.enviarPendentes());
+		assertEquals(List.of(3, 3, 1), lotesEnviados.stream().map(lote -> lote.invalidacoes().size()).toList());
+		assertEquals(7, recebidosB.size());
+		assertEquals(0, instanciaA.enviarPendentes());
+	}
+
+	@Test
+	void acimaDoLimiteAmpliaParaARegiaoDeCadaCondominio() {
+		instanciaA.publicar(IntStream.range(0, 50)
+				.mapToObj(i -> new InvalidacaoCacheEvent("armarios", i % 2 == 0 ? "alfa" : "beta", String.valueOf(i)))
+				.toList());
+
+		assertEquals(1, instanciaA.enviarPendentes());
+		assertEquals(List.of(
+				new InvalidacaoCacheEvent("armarios", "alfa", null),
+				new InvalidacaoCacheEvent("armarios", "beta", null)), recebidosB);
+	}
+
+	@Test
+	void falhaNoTransporteDevolveAsInvalidacoesParaOProximoEnvio() {
+		List<InvalidacaoCacheEvent> antes = invalidacoes("alfa", 0, 4);
+		List<InvalidacaoCacheEvent> depois = invalidacoes("alfa", 4, 6);
+		instanciaA.publicar(antes);
+		transporteForaDoAr = true;
+
+		assertEquals(0, instanciaA.enviarPendentes());
+		assertTrue(recebidosB.isEmpty());
+
+		instanciaA.publicar(depois);
+		transporteForaDoAr = false;
+		assertEquals(2, instanciaA.enviarPendentes());
+		List<InvalidacaoCacheEvent> todas = new ArrayList<>(antes);
+		todas.addAll(depois);
+		assertEquals(todas, recebidosB);
+		assertEquals(0, instanciaA.enviarPendentes());
+	}
+
+	@Test
+	void filaAcumuladaDuranteAQuedaEAmpliadaParaARegiao() {
+		transporteForaDoAr = true;
+		for (int vez = 0; vez < 5; vez++) {
+			instanciaA.publicar(invalidacoes(vez % 2 == 0 ? "alfa" : "beta", vez * 10, vez * 10 + 10));
+			assertEquals(0, instanciaA.enviarPendentes());
+		}
+
+		transporteForaDoAr = false;
+		assertEquals(1, instanciaA.enviarPendentes());
+		assertEquals(List.of(
+				new InvalidacaoCacheEvent("armarios", "alfa", null),
+				new InvalidacaoCacheEvent("armarios", "beta", null)), recebidosB);
+	}
+
+	private static List<InvalidacaoCacheEvent> invalidacoes(String condominio, int inicio, int fim) {
+		return IntStream.range(inicio, fim)
+				.mapToObj(i -> new InvalidacaoCacheEvent("armarios", condominio, String.valueOf(i)))
+				.toList();
+	}
+}
@@ -0,0 +1,71 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o índice de busca das encomendas: termos sem acento, prefixo, remoção, um índice por
+ * condomínio e campos ausentes fora do índice.
+ */
+class BuscaEncomendaTest extends TesteIntegracao {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+	@Autowired
+	private BuscaEncomendaService buscaEncomendaService;
+
+	@Test
+	void buscaIgnoraAcentoECasaPorPrefixo() {
+		buscaEncomendaService.indexar(resumo("B-1", "Caixa de sapatos", "Amazônia Calçados", "zeta", BASE));
+		buscaEncomendaService.indexar(resumo("B-2", "Envelope", "Correios", "zeta", BASE.plusHours(1)));
+
+		assertEquals(List.of("B-1"), ids(buscar("zeta", "amazonia")));
+		assertEquals(List.of("B-1"), ids(buscar("zeta", "calc")));
+		assertEquals(List.of("B-2"), ids(buscar("zeta", "ENVELOPE")));
+
+		buscaEncomendaService.remover("B-1");
+		assertTrue(buscar("zeta", "amazonia").isEmpty());
+	}
+
+	@Test
+	void campoAusenteNaoViraTermo() {
+		buscaEncomendaService.indexar(resumo("N-1", "Pacote", null, "beta", BASE));
+		buscaEncomendaService.indexar(resumo("N-2", null, "Mercado", "beta", BASE));
+
+		assertTrue(buscar("beta", "null").isEmpty());
+		assertEquals(List.of("N-1"), ids(buscar("beta", "pacote")));
+		assertEquals(List.of("N-2"), ids(buscar("beta", "mercado")));
+	}
+
+	@Test
+	void cadaCondominioBuscaNoSeuIndice() {
+		buscaEncomendaService.indexar(resumo("C-1", "Geladeira", "Loja", "gama", BASE));
+
+		assertEquals(List.of("C-1"), ids(buscar("gama", "geladeira")));
+		assertTrue(buscar("delta", "geladeira").isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> buscar("gama", " "));
+	}
+
+	private List<EncomendaResumo> buscar(String condominio, String consulta) {
+		return ContextoCondominio.executar(condominio, () -> buscaEncomendaService.buscar(consulta, 10));
+	}
+
+	private static List<String> ids(List<EncomendaResumo> resumos) {
+		return resumos.stream().map(EncomendaResumo::idEncomenda).toList();
+	}
+
+	private static EncomendaResumo resumo(String id, String descricao, String remetente, String condominio,
+			LocalDateTime recebimento) {
+		return new EncomendaResumo(id, descricao, remetente, recebimento, condominio);
+	}
+}
@@ -0,0 +1,124 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.CacheConfig;
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testa o cache de armários: a segunda consulta igual não vai ao banco, as gravações invalidam
+ * os filtros afetados, cada condomínio tem as suas entradas e as métricas de acerto saem por região.
+ * As consultas "ao banco" são detectadas alterando a tabela por fora do Hibernate.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cache_armario;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class CacheArmarioTest {
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	private JdbcTemplate jdbc;
+
+	@BeforeEach
+	void limpar() {
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("DELETE FROM armario");
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+
+	@Test
+	void segundaConsultaIgualVemDoCache() {
+		Armario armario = armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		double acertos = contagem(CacheConfig.ARMARIOS_POR_FILTRO, "hit");
+
+		assertEquals(List.of("A1"), numeros(armarioService.buscarPorStatus(ArmarioStatus.DISPONIVEL)));
+		jdbc.update("UPDATE armario SET numero = 'ALTERADO-POR-FORA' WHERE id = ?", armario.getId());
+
+		assertEquals(List.of("A1"), numeros(armarioService.buscarPorStatus(ArmarioStatus.DISPONIVEL)));
+		assertEquals(acertos + 1, contagem(CacheConfig.ARMARIOS_POR_FILTRO, "hit"));
+	}
+
+	@Test
+	void atualizarStatusInvalidaOsFiltrosDoStatusAntigoEDoNovo() {
+		Armario armario = armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		Armario outroBloco = armarioService.salvar(armario("B1", ArmarioStatus.DISPONIVEL, "Bloco 2"));
+		armarioService.buscarPorStatus(ArmarioStatus.DISPONIVEL);
+		armarioService.buscarPorStatus(ArmarioStatus.OCUPADO);
+		armarioService.buscarPorStatusELocalizacao(ArmarioStatus.DISPONIVEL, "Bloco 2");
+		armarioService.buscarPorId(armario.getId());
+
+		armarioService.atualizarStatus(armario.getId(), ArmarioStatus.OCUPADO);
+		jdbc.update("UPDATE armario SET numero = 'ALTERADO-POR-FORA' WHERE id = ?", outroBloco.getId());
+
+		assertEquals(List.of("ALTERADO-POR-FORA"), numeros(armarioService.buscarPorStatus(ArmarioStatus.DISPONIVEL)));
+		assertEquals(List.of("A1"), numeros(armarioService.buscarPorStatus(ArmarioStatus.OCUPADO)));
+		assertEquals(ArmarioStatus.OCUPADO, armarioService.buscarPorId(armario.getId()).orElseThrow().status());
+		// Filtro de outra localização não é afetado pelo armário alterado
+		assertEquals(List.of("B1"), numeros(armarioService.buscarPorStatusELocalizacao(ArmarioStatus.DISPONIVEL, "Bloco 2")));
+	}
+
+	@Test
+	void cadaCondominioTemAsSuasEntradas() {
+		ContextoCondominio.executar("alfa", () -> armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1")));
+		ContextoCondominio.executar("beta", () -> armarioService.salvar(armario("B1", ArmarioStatus.DISPONIVEL, "Bloco 1")));
+
+		assertEquals(List.of("A1"), ContextoCondominio.executar("alfa", () -> numeros(armarioService.listarTodos())));
+		assertEquals(List.of("B1"), ContextoCondominio.executar("beta", () -> numeros(armarioService.listarTodos())));
+	}
+
+	@Test
+	void invalidacaoRecebidaDeOutraInstanciaDescartaAEntrada() {
+		Armario armario = armarioService.salvar(armario("A1", ArmarioStatus.DISPONIVEL, "Bloco 1"));
+		armarioService.buscarPorId(armario.getId());
+		jdbc.update("UPDATE armario SET numero = 'ALTERADO-EM-OUTRA' WHERE id = ?", armario.getId());
+
+		eventPublisher.publishEvent(new InvalidacaoCacheEvent(CacheConfig.ARMARIOS, "padrao", armario.getId().toString()));
+
+		assertEquals("ALTERADO-EM-OUTRA", armarioService.buscarPorId(armario.getId()).orElseThrow().numero());
+	}
+
+	private double contagem(String regiao, String resultado) {
+		return meterRegistry.get("cache.gets").tag("cache", regiao).tag("result", resultado).functionCounter().count();
+	}
+
+	private static List<String> numeros(List<ArmarioResposta> armarios) {
+		return armarios.stream().map(ArmarioResposta::numero).sorted().toList();
+	}
+
+	private Armario armario(String numero, ArmarioStatus status, String localizacao) {
+		return Armario.builder().numero(numero).status(status).localizacao(localizacao).build();
+	}
+}
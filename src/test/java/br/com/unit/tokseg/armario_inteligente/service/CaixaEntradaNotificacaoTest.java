@@ -0,0 +1,125 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.dto.NotificacaoResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.PaginaCursor;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a caixa de entrada de notificações: páginas por cursor da mais recente para a mais antiga
+ * (com empates na data), filtro de não lidas, marcação em lote só das notificações do próprio
+ * usuário e validação dos parâmetros.
+ */
+class CaixaEntradaNotificacaoTest extends TesteIntegracao {
+
+	@Autowired
+	private NotificacaoService notificacaoService;
+
+	@Test
+	void paginasPercorremACaixaSemRepetirNemPular() {
+		Usuario usuario = usuario();
+		Usuario outro = usuario();
+		LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		// Três notificações com a mesma data, desempatadas pelo ID
+		List<Notificacao> notificacoes = new ArrayList<>();
+		for (int minutos : new int[] { 0, 5, 5, 5, 10 }) {
+			notificacoes.add(salvar(usuario, base.minusMinutes(minutos)));
+		}
+		salvar(outro, base.plusMinutes(1));
+		no(() -> notificacaoService.marcarComoLida(notificacoes.get(1).getIdNotificacao()));
+
+		List<UUID> esperados = notificacoes.stream()
+				.sorted(Comparator.comparing(Notificacao::getDataEnvio).thenComparing(Notificacao::getIdNotificacao).reversed())
+				.map(Notificacao::getIdNotificacao)
+				.toList();
+		assertEquals(esperados, percorrer(usuario.getId(), 2, false));
+
+		List<UUID> naoLidas = new ArrayList<>(esperados);
+		naoLidas.remove(notificacoes.get(1).getIdNotificacao());
+		assertEquals(naoLidas, percorrer(usuario.getId(), 2, true));
+
+		PaginaCursor<NotificacaoResumo> unica = no(() -> notificacaoService.listarDoUsuario(usuario.getId(), null, 100, false));
+		assertEquals(5, unica.itens().size());
+		assertFalse(unica.temMais());
+		assertNull(unica.proximoCursor());
+	}
+
+	@Test
+	void marcacaoEmLoteSoAlcancaNotificacoesNaoLidasDoUsuario() {
+		Usuario usuario = usuario();
+		Usuario outro = usuario();
+		LocalDateTime agora = LocalDateTime.now();
+		Notificacao primeira = salvar(usuario, agora);
+		Notificacao segunda = salvar(usuario, agora);
+		Notificacao lida = salvar(usuario, agora);
+		Notificacao restante = salvar(usuario, agora);
+		Notificacao doOutro = salvar(outro, agora);
+		no(() -> notificacaoService.marcarComoLida(lida.getIdNotificacao()));
+
+		List<UUID> ids = Arrays.asList(primeira.getIdNotificacao(), segunda.getIdNotificacao(), segunda.getIdNotificacao(),
+				lida.getIdNotificacao(), doOutro.getIdNotificacao(), UUID.randomUUID(), null);
+		assertEquals(2, no(() -> notificacaoService.marcarComoLidas(usuario.getId(), ids)));
+		assertEquals(0, no(() -> notificacaoService.marcarComoLidas(usuario.getId(), ids)));
+		assertEquals(0, no(() -> notificacaoService.marcarComoLidas(usuario.getId(), List.of())));
+
+		assertEquals(List.of(restante.getIdNotificacao()), percorrer(usuario.getId(), 10, true));
+		assertEquals(List.of(doOutro.getIdNotificacao()), percorrer(outro.getId(), 10, true));
+
+		assertEquals(1, no(() -> notificacaoService.marcarTodasComoLidas(usuario.getId())));
+		assertTrue(percorrer(usuario.getId(), 10, true).isEmpty());
+		assertEquals(1, percorrer(outro.getId(), 10, true).size());
+	}
+
+	@Test
+	void parametrosInvalidosSaoRecusados() {
+		UUID usuario = UUID.randomUUID();
+		List<UUID> demais = IntStream.range(0, 1001).mapToObj(i -> UUID.randomUUID()).collect(Collectors.toList());
+
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.listarDoUsuario(null, null, 10, false)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.listarDoUsuario(usuario, null, 0, false)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.listarDoUsuario(usuario, null, 101, false)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.listarDoUsuario(usuario, "invalido", 10, false)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.marcarComoLidas(usuario, null)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.marcarComoLidas(usuario, demais)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> notificacaoService.marcarTodasComoLidas(null)));
+	}
+
+	private List<UUID> percorrer(UUID usuario, int limite, boolean somenteNaoLidas) {
+		List<UUID> ids = new ArrayList<>();
+		String cursor = null;
+		PaginaCursor<NotificacaoResumo> pagina;
+		do {
+			String atual = cursor;
+			pagina = no(() -> notificacaoService.listarDoUsuario(usuario, atual, limite, somenteNaoLidas));
+			assertTrue(pagina.itens().size() <= limite);
+			pagina.itens().forEach(resumo -> ids.add(resumo.idNotificacao()));
+			cursor = pagina.proximoCursor();
+		} while (pagina.temMais());
+		assertNull(cursor);
+		return ids;
+	}
+
+	private Notificacao salvar(Usuario usuario, LocalDateTime dataEnvio) {
+		return no(() -> notificacaoService.salvar(new Notificacao(UuidV7.gerar(), usuario, "Olá", dataEnvio)));
+	}
+}
@@ -0,0 +1,212 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.SimuladorArmario;
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.dto.ComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoComandoArmario;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoComandoArmario.Situacao;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+import br.com.unit.tokseg.armario_inteligente.model.TipoComandoArmario;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testa a fila de comandos por armário contra o simulador: ordem e execução um a um dentro do
+ * armário, armários em paralelo, retentativa sem ack, desistência, recusa, fila cheia, métricas
+ * e a resposta assíncrona do endpoint.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:comando_armario;DB_CLOSE_DELAY=-1",
+		"app.comandos.simulador.latencia=40ms",
+		"app.comandos.tempo-limite-ack=200ms",
+		"app.comandos.resolucao-ms=10",
+		"app.comandos.capacidade-fila=8"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class ComandoArmarioTest {
+
+	@Autowired
+	private ComandoArmarioService comandoArmarioService;
+
+	@Autowired
+	private SimuladorArmario simulador;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private CompartimentoService compartimentoService;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private WebApplicationContext contexto;
+
+	@Test
+	void comandosDeUmArmarioSaemEmOrdemEArmariosAndamEmParalelo() {
+		int armarios = 4;
+		int comandosPorArmario = 5;
+		List<List<UUID>> compartimentos = new ArrayList<>();
+		for (int a = 0; a < armarios; a++) {
+			compartimentos.add(compartimentos(armario("P" + a), comandosPorArmario));
+		}
+		int sobreposicoesAntes = simulador.sobreposicoes();
+
+		long inicio = System.nanoTime();
+		List<CompletableFuture<ResultadoComandoArmario>> futuros = new ArrayList<>();
+		for (int i = 0; i < comandosPorArmario; i++) {
+			for (List<UUID> doArmario : compartimentos) {
+				futuros.add(comandoArmarioService.enviar(doArmario.get(i), TipoComandoArmario.ABRIR));
+			}
+		}
+		List<ResultadoComandoArmario> resultados = futuros.stream().map(CompletableFuture::join).toList();
+		long decorridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+		assertTrue(resultados.stream().allMatch(resultado -> resultado.situacao() == Situacao.CONFIRMADO));
+		for (List<UUID> doArmario : compartimentos) {
+			UUID idArmario = resultados.stream()
+					.filter(resultado -> resultado.idCompartimento().equals(doArmario.get(0)))
+					.findFirst().orElseThrow().idArmario();
+			assertEquals(doArmario, simulador.executados(idArmario).stream().map(ComandoArmario::idCompartimento).toList());
+		}
+		assertEquals(sobreposicoesAntes, simulador.sobreposicoes());
+		// Um armário por vez levaria 4 x 5 x 40ms = 800ms
+		assertTrue(decorridoMs < 600, "Armários não andaram em paralelo: " + decorridoMs + "ms");
+		assertTrue(simulador.isAberto(compartimentos.get(0).get(0)));
+	}
+
+	@Test
+	void semAckReenviaComOMesmoIdAteDesistir() {
+		List<UUID> compartimentos = compartimentos(armario("R1"), 2);
+		double retentativasAntes = registry.get("armario.comandos.retentativas").tag("tipo", "TRAVAR").counter().count();
+
+		simulador.perderAcks(compartimentos.get(0), 1);
+		ResultadoComandoArmario repetido = comandoArmarioService.enviar(compartimentos.get(0), TipoComandoArmario.TRAVAR).join();
+		assertEquals(Situacao.CONFIRMADO, repetido.situacao());
+		assertEquals(2, repetido.tentativas());
+		List<ComandoArmario> executados = simulador.executados(repetido.idArmario());
+		assertEquals(List.of(repetido.id(), repetido.id()), executados.stream().map(ComandoArmario::id).toList());
+
+		// Sem ack em nenhuma tentativa: desiste, e o próximo comando do armário segue
+		simulador.perderAcks(compartimentos.get(1), 3);
+		CompletableFuture<ResultadoComandoArmario> perdido = comandoArmarioService.enviar(compartimentos.get(1), TipoComandoArmario.TRAVAR);
+		CompletableFuture<ResultadoComandoArmario> seguinte = comandoArmarioService.enviar(compartimentos.get(0), TipoComandoArmario.ABRIR);
+		assertEquals(Situacao.SEM_CONFIRMACAO, perdido.join().situacao());
+		assertEquals(3, perdido.join().tentativas());
+		assertEquals(Situacao.CONFIRMADO, seguinte.join().situacao());
+		assertTrue(perdido.join().latenciaMs() <= seguinte.join().latenciaMs());
+
+		assertEquals(retentativasAntes + 3,
+				registry.get("armario.comandos.retentativas").tag("tipo", "TRAVAR").counter().count());
+		assertTrue(registry.get("armario.comandos.latencia").tag("tipo", "TRAVAR").tag("situacao", "SEM_CONFIRMACAO")
+				.timer().count() > 0);
+		assertTrue(registry.get("armario.comandos.ack").tag("tipo", "TRAVAR").timer().count() > 0);
+	}
+
+	@Test
+	void recusaDoArmarioNaoTemNovaTentativa() {
+		UUID compartimento = compartimentos(armario("X1"), 1).get(0);
+		simulador.recusar(compartimento, 1);
+
+		ResultadoComandoArmario resultado = comandoArmarioService.enviar(compartimento, TipoComandoArmario.ABRIR).join();
+
+		assertEquals(Situacao.RECUSADO, resultado.situacao());
+		assertEquals(1, resultado.tentativas());
+		assertFalse(simulador.isAberto(compartimento));
+	}
+
+	@Test
+	void filaCheiaECompartimentoInexistenteSaoRecusados() {
+		UUID compartimento = compartimentos(armario("F1"), 1).get(0);
+		List<CompletableFuture<ResultadoComandoArmario>> aceitos = new ArrayList<>();
+		// Um em execução e oito aguardando
+		for (int i = 0; i < 9; i++) {
+			aceitos.add(comandoArmarioService.enviar(compartimento, TipoComandoArmario.ABRIR));
+		}
+
+		assertThrows(IllegalStateException.class,
+				() -> comandoArmarioService.enviar(compartimento, TipoComandoArmario.ABRIR));
+		assertThrows(EntityNotFoundException.class,
+				() -> comandoArmarioService.enviar(UUID.randomUUID(), TipoComandoArmario.ABRIR));
+		assertThrows(IllegalArgumentException.class,
+				() -> comandoArmarioService.enviar(compartimento, null));
+		aceitos.forEach(CompletableFuture::join);
+	}
+
+	@Test
+	void endpointRespondeQuandoOArmarioConfirma() throws Exception {
+		UUID compartimento = compartimentos(armario("H1"), 1).get(0);
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contexto).build();
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"porteiro@teste.com", null, List.of(new SimpleGrantedAuthority("ROLE_PORTEIRO"))));
+		try {
+			MvcResult aberto = mockMvc.perform(post("/api/compartimentos/{id}/comandos", compartimento).param("tipo", "ABRIR"))
+					.andExpect(request().asyncStarted())
+					.andReturn();
+			mockMvc.perform(asyncDispatch(aberto))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.situacao").value("CONFIRMADO"));
+
+			simulador.recusar(compartimento, 1);
+			MvcResult recusado = mockMvc.perform(post("/api/compartimentos/{id}/comandos", compartimento).param("tipo", "TRAVAR"))
+					.andReturn();
+			mockMvc.perform(asyncDispatch(recusado)).andExpect(status().isConflict());
+
+			MvcResult inexistente = mockMvc.perform(post("/api/compartimentos/{id}/comandos", UUID.randomUUID())
+					.param("tipo", "ABRIR")).andReturn();
+			mockMvc.perform(asyncDispatch(inexistente)).andExpect(status().isNotFound());
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	private Armario armario(String numero) {
+		return armarioService.salvar(Armario.builder()
+				.numero(numero + "-" + UUID.randomUUID())
+				.status(ArmarioStatus.DISPONIVEL)
+				.localizacao("Bloco 1")
+				.build());
+	}
+
+	private List<UUID> compartimentos(Armario armario, int quantidade) {
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			ids.add(compartimentoService.salvar(new Compartimento(armario, false, null)).getIdCompartimento());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,118 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.event.InvalidacaoCacheEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testa o contador de notificações não lidas: carga do banco na primeira consulta, ajustes ao
+ * criar, ler e remover notificações, nenhum ajuste em transação desfeita e recarga depois de uma
+ * invalidação vinda de outra instância.
+ */
+class ContadorNaoLidasTest extends TesteIntegracao {
+
+	@Autowired
+	private ContadorNaoLidasService contadorNaoLidasService;
+
+	@Autowired
+	private NotificacaoService notificacaoService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void contadorAcompanhaCriacaoLeituraERemocao() {
+		Usuario usuario = usuario();
+		UUID id = usuario.getId();
+		Notificacao primeira = no(() -> notificacaoService.salvar(notificacao(usuario)));
+		Notificacao segunda = no(() -> notificacaoService.salvar(notificacao(usuario)));
+		assertEquals(2, contar(id));
+
+		no(() -> notificacaoService.salvarEmLote(List.of(notificacao(usuario), notificacao(usuario), notificacao(usuario))));
+		assertEquals(5, contar(id));
+
+		no(() -> notificacaoService.marcarComoLida(primeira.getIdNotificacao()));
+		// Ler de novo a mesma notificação não desconta outra vez
+		no(() -> notificacaoService.marcarComoLida(primeira.getIdNotificacao()));
+		assertEquals(4, contar(id));
+
+		no(() -> notificacaoService.remover(segunda.getIdNotificacao()));
+		no(() -> notificacaoService.remover(primeira.getIdNotificacao()));
+		assertEquals(3, contar(id));
+		assertEquals(3, naoLidasNoBanco(id));
+
+		no(() -> notificacaoService.marcarTodasComoLidas(id));
+		assertEquals(0, contar(id));
+		assertThrows(IllegalArgumentException.class, () -> contar(null));
+	}
+
+	@Test
+	void transacaoDesfeitaNaoAjustaOContador() {
+		Usuario usuario = usuario();
+		no(() -> notificacaoService.salvar(notificacao(usuario)));
+		assertEquals(1, contar(usuario.getId()));
+
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		no(() -> transacao.executeWithoutResult(status -> {
+			notificacaoService.salvar(notificacao(usuario));
+			// O ajuste só vale depois do commit
+			assertEquals(1, contar(usuario.getId()));
+			status.setRollbackOnly();
+		}));
+
+		assertEquals(1, contar(usuario.getId()));
+		assertEquals(1, naoLidasNoBanco(usuario.getId()));
+	}
+
+	@Test
+	void invalidacaoDeOutraInstanciaRecarregaDoBanco() {
+		Usuario usuario = usuario();
+		assertEquals(0, contar(usuario.getId()));
+
+		// Gravada por outra instância, sem passar por este contador
+		jdbcTemplate.update("INSERT INTO notificacao (id_notificacao, id_usuario, modelo, parametros, data_envio, lida, condominio) "
+				+ "VALUES (?, ?, 'LIVRE', 'Olá', ?, FALSE, ?)", UuidV7.gerar(), usuario.getId(), LocalDateTime.now(), CONDOMINIO);
+		assertEquals(0, contar(usuario.getId()));
+
+		contadorNaoLidasService.aoReceberInvalidacao(
+				new InvalidacaoCacheEvent(ContadorNaoLidasService.REGIAO, null, usuario.getId().toString()));
+		assertEquals(1, contar(usuario.getId()));
+
+		// Invalidações de outras regiões não descartam o contador
+		jdbcTemplate.update("UPDATE notificacao SET lida = TRUE WHERE id_usuario = ?", usuario.getId());
+		contadorNaoLidasService.aoReceberInvalidacao(new InvalidacaoCacheEvent("armarios", CONDOMINIO, null));
+		assertEquals(1, contar(usuario.getId()));
+		contadorNaoLidasService.aoReceberInvalidacao(InvalidacaoCacheEvent.tudo());
+		assertEquals(0, contar(usuario.getId()));
+	}
+
+	private long contar(UUID usuario) {
+		return no(() -> contadorNaoLidasService.contar(usuario));
+	}
+
+	private int naoLidasNoBanco(UUID usuario) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notificacao WHERE id_usuario = ? AND lida = FALSE",
+				Integer.class, usuario);
+	}
+
+	private static Notificacao notificacao(Usuario usuario) {
+		return new Notificacao(UuidV7.gerar(), usuario, "Olá", LocalDateTime.now());
+	}
+}
@@ -0,0 +1,273 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.ArmarioInteligenteApplication;
+import br.com.unit.tokseg.armario_inteligente.config.ClienteCentralEdge;
+import br.com.unit.tokseg.armario_inteligente.config.EdgeProperties;
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.MutacaoEdgeRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge.Situacao;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.ArmarioRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRejeitadaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.ReplicaEdgeRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.UsuarioRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa um nó edge de verdade (segundo contexto, perfil {@code edge}, H2 em arquivo) contra um
+ * servidor central (porta aleatória): recebimento dos armários, alterações feitas sem link que
+ * ficam no journal e chegam ao central quando o link volta, e os dois lados de um conflito de
+ * ocupação.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:edge_central;DB_CLOSE_DELAY=-1",
+		"logging.level.org.hibernate.SQL=INFO",
+		"logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EdgeSincronizacaoTest {
+
+	private static final String CONDOMINIO = "edificio-a";
+	private static final String EMAIL = "totem@edificio-a.com";
+	private static final String SENHA = "senha-do-totem";
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private CompartimentoService compartimentoService;
+
+	@Autowired
+	private ReconciliacaoEdgeService reconciliacaoEdgeService;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@TempDir
+	static Path diretorio;
+
+	private ConfigurableApplicationContext edge;
+
+	@BeforeAll
+	void iniciarEdge() {
+		no(() -> {
+			Usuario porteiro = new Usuario();
+			porteiro.setNome("Totem do edifício A");
+			porteiro.setEmail(EMAIL);
+			porteiro.setSenha(passwordEncoder.encode(SENHA));
+			porteiro.setTelefone("79999990000");
+			porteiro.setTipo(TipoUsuarioEnum.PORTEIRO);
+			return usuarioRepository.save(porteiro);
+		});
+
+		edge = new SpringApplicationBuilder(ArmarioInteligenteApplication.class)
+				.profiles("test", "edge")
+				// Fora do @SpringBootTest as configurações de teste não são excluídas da varredura
+				.initializers(contexto -> contexto.getBeanFactory()
+						.registerSingleton("semConfiguracoesDeTeste", new SemConfiguracoesDeTeste()))
+				.run("--server.port=0",
+						"--app.edge.diretorio=" + diretorio,
+						"--app.edge.condominio=" + CONDOMINIO,
+						"--app.edge.central.url=http://localhost:" + porta,
+						"--app.edge.central.email=" + EMAIL,
+						"--app.edge.central.senha=" + SENHA,
+						// Os ciclos são disparados pelo teste
+						"--app.edge.intervalo-ms=3600000",
+						"--logging.level.org.hibernate.SQL=INFO",
+						"--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO");
+	}
+
+	@AfterAll
+	void pararEdge() {
+		if (edge != null) {
+			edge.close();
+		}
+	}
+
+	@Test
+	void alteracoesSemLinkChegamAoCentralQuandoOLinkVolta() {
+		Armario armario = no(() -> armarioService.salvar(armario("E1")));
+		Compartimento compartimento = no(() -> compartimentoService.salvar(new Compartimento(armario, false, null)));
+		assertTrue(sincronizarEdge());
+		UUID idCompartimento = compartimento.getIdCompartimento();
+		assertTrue(no(() -> edge.getBean(CompartimentoService.class).buscarPorId(idCompartimento)).isPresent());
+
+		// Sem link: o nó continua atendendo e o journal guarda as alterações
+		no(() -> edge.getBean(CompartimentoService.class).atualizarOcupacao(idCompartimento, true));
+		no(() -> edge.getBean(EncomendaService.class).salvar(Encomenda.builder()
+				.idEncomenda("EDGE-1")
+				.descricao("Caixa")
+				.remetente("Loja")
+				.dataRecebimento(LocalDateTime.now())
+				.armario(edge.getBean(ArmarioRepository.class).getReferenceById(armario.getId()))
+				.build()));
+		assertEquals(2, pendentes());
+		assertFalse(semLink().sincronizar());
+		assertEquals(2, pendentes());
+		assertFalse(no(() -> compartimentoService.buscarPorId(idCompartimento)).orElseThrow().ocupado());
+
+		// Link de volta
+		assertTrue(sincronizarEdge());
+		assertEquals(0, pendentes());
+		assertTrue(no(() -> compartimentoService.buscarPorId(idCompartimento)).orElseThrow().ocupado());
+		JdbcTemplate central = new JdbcTemplate(dataSource);
+		assertEquals(armario.getId(), central.queryForObject(
+				"SELECT armario_id FROM encomenda WHERE id_encomenda = 'EDGE-1'", UUID.class));
+
+		ContextoCondominio.executar(CONDOMINIO, () -> edge.getBean(EncomendaService.class).remover("EDGE-1"));
+		assertTrue(sincronizarEdge());
+		assertNotNull(central.queryForObject(
+				"SELECT data_retirada FROM encomenda WHERE id_encomenda = 'EDGE-1'", LocalDateTime.class));
+	}
+
+	@Test
+	void conflitoDeOcupacaoVenceAAlteracaoMaisRecente() throws InterruptedException {
+		Armario armario = no(() -> armarioService.salvar(armario("E2")));
+		UUID doEdge = no(() -> compartimentoService.salvar(new Compartimento(armario, false, null))).getIdCompartimento();
+		UUID doCentral = no(() -> compartimentoService.salvar(new Compartimento(armario, false, null))).getIdCompartimento();
+		assertTrue(sincronizarEdge());
+		CompartimentoService compartimentosEdge = edge.getBean(CompartimentoService.class);
+
+		// Primeiro compartimento: o nó ocupa e depois o central ocupa e libera
+		no(() -> compartimentosEdge.atualizarOcupacao(doCentral, true));
+		Thread.sleep(5);
+		no(() -> compartimentoService.atualizarOcupacao(doCentral, true));
+		no(() -> compartimentoService.atualizarOcupacao(doCentral, false));
+		// Segundo: o central ocupa e libera e depois o nó ocupa
+		no(() -> compartimentoService.atualizarOcupacao(doEdge, true));
+		no(() -> compartimentoService.atualizarOcupacao(doEdge, false));
+		Thread.sleep(5);
+		no(() -> compartimentosEdge.atualizarOcupacao(doEdge, true));
+
+		assertTrue(sincronizarEdge());
+
+		assertFalse(ocupado(compartimentoService, doCentral));
+		assertFalse(ocupado(compartimentosEdge, doCentral));
+		assertTrue(ocupado(compartimentoService, doEdge));
+		assertTrue(ocupado(compartimentosEdge, doEdge));
+		assertEquals(0, pendentes());
+	}
+
+	@Test
+	void encomendaJaArquivadaNoCentralFicaComOCentral() {
+		new JdbcTemplate(dataSource).update("INSERT INTO encomenda_arquivo (id_encomenda, descricao, remetente, "
+				+ "data_recebimento, data_retirada, data_arquivamento, condominio) VALUES ('EDGE-ARQ', 'Caixa', 'Loja', ?, ?, ?, ?)",
+				LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1), LocalDateTime.now(), CONDOMINIO);
+
+		// Um nó que ainda não sabe da retirada manda a encomenda de novo
+		MutacaoEdgeRequest mutacao = new MutacaoEdgeRequest(UUID.randomUUID(), TipoMutacaoEdge.ENCOMENDA_SALVA,
+				"EDGE-ARQ", LocalDateTime.now(), null, null, new EncomendaResposta("EDGE-ARQ", "Caixa", "Loja",
+						LocalDateTime.now().minusDays(2), null, null, null, null, null));
+		List<ResultadoMutacaoEdge> resultados = no(() -> reconciliacaoEdgeService.aplicar(List.of(mutacao)));
+
+		assertEquals(Situacao.CONFLITO_CENTRAL_VENCEU, resultados.get(0).situacao());
+	}
+
+	private long pendentes() {
+		return no(edge.getBean(MutacaoEdgeRepository.class)::count);
+	}
+
+	private boolean sincronizarEdge() {
+		return edge.getBean(SincronizacaoEdgeService.class).sincronizar();
+	}
+
+	/**
+	 * Mesmo nó, mas com o central apontado para uma porta sem servidor.
+	 */
+	private SincronizacaoEdgeService semLink() {
+		ClienteCentralEdge semServidor = new ClienteCentralEdge(
+				RestClient.builder().baseUrl("http://localhost:1").build(), EMAIL, SENHA);
+		return new SincronizacaoEdgeService(semServidor, edge.getBean(MutacaoEdgeRepository.class),
+				edge.getBean(MutacaoEdgeRejeitadaRepository.class), edge.getBean(ReplicaEdgeRepository.class), edge.getBean(EncomendaRepository.class),
+				edge.getBean(CacheArmarioService.class), edge.getBean(RevisaoSyncService.class),
+				edge.getBean(JdbcTemplate.class), edge.getBean(ObjectMapper.class),
+				edge.getBean(PlatformTransactionManager.class), edge.getBean(EdgeProperties.class));
+	}
+
+	private static boolean ocupado(CompartimentoService servico, UUID id) {
+		return no(() -> servico.buscarPorId(id)).map(CompartimentoResposta::ocupado).orElseThrow();
+	}
+
+	private static <T> T no(Supplier<T> acao) {
+		return ContextoCondominio.executar(CONDOMINIO, acao);
+	}
+
+	private static Armario armario(String numero) {
+		return Armario.builder().numero(numero).status(ArmarioStatus.DISPONIVEL).localizacao("Bloco 1").build();
+	}
+
+	/**
+	 * Exclui da varredura do nó as classes {@code @TestConfiguration} (e as aninhadas nos testes).
+	 */
+	static class SemConfiguracoesDeTeste extends TypeExcludeFilter {
+
+		@Override
+		public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+			return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj != null && obj.getClass() == getClass();
+		}
+
+		@Override
+		public int hashCode() {
+			return getClass().hashCode();
+		}
+	}
+}
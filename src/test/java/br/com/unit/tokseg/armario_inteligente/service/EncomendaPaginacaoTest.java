@@ -0,0 +1,98 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.dto.EncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.dto.PaginaCursor;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a paginação por cursor das encomendas do morador: mais recentes primeiro, desempate pelo
+ * ID entre encomendas recebidas no mesmo instante, sem repetir nem pular itens entre páginas, e
+ * encomendas retiradas ou de outros moradores fora da lista.
+ */
+class EncomendaPaginacaoTest extends TesteIntegracao {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 19, 9, 0);
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Test
+	void paginasPercorremTodasAsEncomendasSemRepetir() {
+		Usuario morador = usuario();
+		// Três encomendas no mesmo instante, na fronteira entre a primeira e a segunda página
+		salvar("P-1", BASE.minusHours(1), morador);
+		salvar("P-2", BASE, morador);
+		salvar("P-3", BASE, morador);
+		salvar("P-4", BASE, morador);
+		salvar("P-5", BASE.plusHours(1), morador);
+		salvar("P-RETIRADA", BASE.plusHours(2), morador);
+		no(() -> encomendaService.remover("P-RETIRADA"));
+		salvar("P-OUTRO", BASE, usuario());
+
+		List<String> lidos = new ArrayList<>();
+		List<Integer> tamanhos = new ArrayList<>();
+		String cursor = null;
+		PaginaCursor<EncomendaResumo> pagina;
+		do {
+			String atual = cursor;
+			pagina = no(() -> encomendaService.listarDoUsuario(morador.getId(), atual, 2));
+			pagina.itens().forEach(item -> lidos.add(item.idEncomenda()));
+			tamanhos.add(pagina.itens().size());
+			cursor = pagina.proximoCursor();
+		} while (pagina.temMais());
+
+		assertEquals(List.of("P-5", "P-4", "P-3", "P-2", "P-1"), lidos);
+		assertEquals(List.of(2, 2, 1), tamanhos);
+		assertNull(pagina.proximoCursor());
+	}
+
+	@Test
+	void paginaExataNaoPedeOutra() {
+		Usuario morador = usuario();
+		salvar("E-1", BASE, morador);
+		salvar("E-2", BASE.plusMinutes(1), morador);
+
+		PaginaCursor<EncomendaResumo> pagina = no(() -> encomendaService.listarDoUsuario(morador.getId(), null, 2));
+
+		assertEquals(2, pagina.itens().size());
+		assertFalse(pagina.temMais());
+		assertNull(pagina.proximoCursor());
+		UUID outro = usuario().getId();
+		assertTrue(no(() -> encomendaService.listarDoUsuario(outro, null, 10)).itens().isEmpty());
+	}
+
+	@Test
+	void parametrosInvalidosSaoRecusados() {
+		UUID id = usuario().getId();
+
+		assertThrows(IllegalArgumentException.class, () -> no(() -> encomendaService.listarDoUsuario(id, null, 0)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> encomendaService.listarDoUsuario(id, null, 101)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> encomendaService.listarDoUsuario(id, "%%%", 10)));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> encomendaService.listarDoUsuario(null, null, 10)));
+	}
+
+	private void salvar(String id, LocalDateTime recebimento, Usuario morador) {
+		no(() -> encomendaService.salvar(Encomenda.builder()
+				.idEncomenda(id)
+				.descricao("Caixa")
+				.remetente("Loja")
+				.dataRecebimento(recebimento)
+				.usuario(morador)
+				.build()));
+	}
+}
@@ -0,0 +1,100 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.repository.NotificacaoRepository;
+import br.com.unit.tokseg.armario_inteligente.util.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testa o expurgo de notificações: só as lidas mais antigas que a retenção são excluídas, de todos
+ * os condomínios, em lotes do tamanho configurado.
+ */
+class ExpurgoNotificacaoTest extends TesteIntegracao {
+
+	@Autowired
+	private NotificacaoRepository notificacaoRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EstrategiaDestinoCondominio estrategiaDestino;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Integer> lotes = new ArrayList<>();
+
+	@Test
+	void excluiEmLotesSoAsLidasAlemDaRetencao() {
+		LocalDateTime antiga = LocalDateTime.now().minusDays(45);
+		List<UUID> expurgadas = new ArrayList<>();
+		List<UUID> mantidas = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			expurgadas.add(inserir("alfa", antiga, true));
+		}
+		for (int i = 0; i < 2; i++) {
+			expurgadas.add(inserir("beta", antiga, true));
+		}
+		mantidas.add(inserir("alfa", antiga, false));
+		mantidas.add(inserir("beta", LocalDateTime.now().minusDays(10), true));
+		mantidas.add(inserir("alfa", LocalDateTime.now(), false));
+
+		assertEquals(5, expurgo().expurgarLidas());
+
+		assertEquals(List.of(2, 2, 1), lotes);
+		assertEquals(0, existentes(expurgadas));
+		assertEquals(mantidas.size(), existentes(mantidas));
+		// Nada mais a excluir
+		assertEquals(0, expurgo().expurgarLidas());
+	}
+
+	/**
+	 * Expurgo próprio do teste, com retenção de 30 dias e lotes de duas notificações, que registra
+	 * o tamanho de cada exclusão.
+	 */
+	private ExpurgoNotificacaoService expurgo() {
+		NotificacaoRepository registrando = (NotificacaoRepository) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] {NotificacaoRepository.class},
+				(proxy, metodo, argumentos) -> {
+					if (metodo.getName().equals("excluirPorIds")) {
+						lotes.add(((Collection<?>) argumentos[0]).size());
+					}
+					try {
+						return metodo.invoke(notificacaoRepository, argumentos);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		return new ExpurgoNotificacaoService(registrando, transactionManager, estrategiaDestino, Duration.ofDays(30), 2);
+	}
+
+	private long existentes(List<UUID> ids) {
+		return ids.stream()
+				.filter(id -> jdbcTemplate.queryForObject(
+						"SELECT COUNT(*) FROM notificacao WHERE id_notificacao = ?", Integer.class, id) > 0)
+				.count();
+	}
+
+	private UUID inserir(String condominio, LocalDateTime dataEnvio, boolean lida) {
+		UUID id = UuidV7.gerar();
+		jdbcTemplate.update("INSERT INTO notificacao (id_notificacao, modelo, parametros, data_envio, lida, condominio) "
+				+ "VALUES (?, 'LIVRE', 'Aviso', ?, ?, ?)", id, dataEnvio, lida, condominio);
+		return id;
+	}
+}
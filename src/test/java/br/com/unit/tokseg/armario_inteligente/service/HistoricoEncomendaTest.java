@@ -0,0 +1,152 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.EstadoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.dto.EventoEncomendaResumo;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.EventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoEventoEncomenda;
+import br.com.unit.tokseg.armario_inteligente.repository.EventoEncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.SnapshotEncomendaRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a gravação do histórico de encomendas na transação da operação: o evento só existe se a
+ * operação foi confirmada, uma falha ao gravá-lo desfaz a operação e o snapshot é consolidado no
+ * evento final. A falha é simulada por um proxy sobre o repositório de eventos.
+ */
+class HistoricoEncomendaTest extends TesteIntegracao {
+
+	private static final String INVALIDO = "RUIM-";
+
+	@Autowired
+	private HistoricoEncomendaService historicoEncomendaService;
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Autowired
+	private EventoEncomendaRepository eventoRepository;
+
+	@Autowired
+	private SnapshotEncomendaRepository snapshotRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CondominioIdentifierResolver condominioResolver;
+
+	@Test
+	void eventoSoExisteSeATransacaoForConfirmada() {
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+		no(() -> transacao.executeWithoutResult(status ->
+				historicoEncomendaService.registrar("T-1", TipoEventoEncomenda.RECEBIDA, null)));
+		no(() -> transacao.executeWithoutResult(status -> {
+			historicoEncomendaService.registrar("T-2", TipoEventoEncomenda.RECEBIDA, null);
+			status.setRollbackOnly();
+		}));
+
+		// Gravado no commit: a leitura logo em seguida já o encontra
+		assertEquals(1, no(() -> historicoEncomendaService.listarHistorico("T-1")).size());
+		assertTrue(no(() -> historicoEncomendaService.listarHistorico("T-2")).isEmpty());
+	}
+
+	@Test
+	void falhaAoGravarOEventoDesfazAOperacao() {
+		HistoricoEncomendaService historico = historicoComFalha();
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+		assertThrows(DataIntegrityViolationException.class, () -> no(() -> transacao.executeWithoutResult(status -> {
+			historico.registrar("F-1", TipoEventoEncomenda.RECEBIDA, null);
+			historico.registrar(INVALIDO + "1", TipoEventoEncomenda.RECEBIDA, null);
+		})));
+
+		assertTrue(no(() -> historico.listarHistorico("F-1")).isEmpty());
+		assertThrows(DataIntegrityViolationException.class,
+				() -> no(() -> historico.registrar(INVALIDO + "2", TipoEventoEncomenda.RECEBIDA, null)));
+	}
+
+	@Test
+	void eventoFinalConsolidaOSnapshot() {
+		no(() -> encomendaService.salvar(Encomenda.builder()
+				.idEncomenda("S-1")
+				.descricao("Caixa")
+				.remetente("Loja")
+				.dataRecebimento(LocalDateTime.now())
+				.build()));
+		assertEquals(0, no(() -> snapshotRepository.findById("S-1")).orElseThrow().getTotalEventos());
+
+		no(() -> encomendaService.remover("S-1"));
+
+		EstadoEncomenda estado = no(() -> historicoEncomendaService.buscarEstadoAtual("S-1")).orElseThrow();
+		assertEquals(TipoEventoEncomenda.RETIRADA, estado.situacao());
+		assertEquals(0, estado.eventosAposSnapshot());
+		assertEquals(estado.totalEventos(), no(() -> historicoEncomendaService.listarHistorico("S-1")).size());
+	}
+
+	@Test
+	void detalhesLongosSaoTruncados() {
+		no(() -> historicoEncomendaService.registrar("D-1", TipoEventoEncomenda.ARMAZENADA, "x".repeat(400)));
+
+		List<EventoEncomendaResumo> eventos = no(() -> historicoEncomendaService.listarHistorico("D-1"));
+
+		assertEquals(EventoEncomenda.TAMANHO_MAXIMO_DETALHES, eventos.get(0).detalhes().length());
+	}
+
+	@Test
+	void devolucaoComMotivoLongoERecusada() {
+		no(() -> encomendaService.salvar(Encomenda.builder()
+				.idEncomenda("D-2")
+				.descricao("Caixa")
+				.remetente("Loja")
+				.dataRecebimento(LocalDateTime.now())
+				.build()));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> no(() -> encomendaService.devolver("D-2", "x".repeat(256))));
+		no(() -> encomendaService.devolver("D-2", "Endereço errado"));
+	}
+
+	/**
+	 * Histórico próprio do teste, cujo repositório recusa os eventos das encomendas "RUIM-".
+	 */
+	private HistoricoEncomendaService historicoComFalha() {
+		EventoEncomendaRepository comFalha = (EventoEncomendaRepository) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] {EventoEncomendaRepository.class},
+				(proxy, metodo, argumentos) -> {
+					if (metodo.getName().equals("saveAll") && StreamSupport
+							.stream(((Iterable<?>) argumentos[0]).spliterator(), false)
+							.anyMatch(evento -> ((EventoEncomenda) evento).getIdEncomenda().startsWith(INVALIDO))) {
+						throw new DataIntegrityViolationException("Evento inválido");
+					}
+					try {
+						return metodo.invoke(eventoRepository, argumentos);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		return new HistoricoEncomendaService(comFalha, snapshotRepository, entityManager, transactionManager,
+				condominioResolver, 10);
+	}
+}
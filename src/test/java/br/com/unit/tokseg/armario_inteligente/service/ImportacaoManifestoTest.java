@@ -0,0 +1,183 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.StatusImportacaoManifesto;
+import br.com.unit.tokseg.armario_inteligente.dto.StatusImportacaoManifesto.Situacao;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa a importação de manifestos: campos entre aspas (com separador e aspas duplicadas),
+ * linhas rejeitadas com o número e o motivo no arquivo de erros, e o arquivo de erros já
+ * completo quando baixado no meio da importação.
+ */
+class ImportacaoManifestoTest extends TesteIntegracao {
+
+	@Autowired
+	private ImportacaoManifestoService importacaoManifestoService;
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private HistoricoEncomendaService historicoEncomendaService;
+
+	@Autowired
+	private CondominioIdentifierResolver condominioResolver;
+
+	@Autowired
+	private RevisaoSyncService revisaoSync;
+
+	@Test
+	void importaAsLinhasValidasERejeitaAsDemais() throws Exception {
+		String email = usuario().getEmail();
+		no(() -> encomendaService.salvar(Encomenda.builder()
+				.idEncomenda("M-0")
+				.descricao("Caixa")
+				.remetente("Loja")
+				.dataRecebimento(LocalDateTime.now())
+				.build()));
+		String manifesto = String.join("\n",
+				"\uFEFFid_encomenda;descricao;remetente;email;data_recebimento",
+				"M-1;\"Caixa; frágil\";\"Loja \"\"Boa\"\"\";" + email + ";19/10/2026 08:30",
+				"M-2;;Loja;" + email + ";",
+				"M-3;Caixa;Loja;ninguem@teste.com;",
+				"",
+				"M-1;Caixa;Loja;" + email + ";",
+				"M-4;Caixa;Loja;" + email + ";ontem",
+				"M-0;Caixa;Loja;" + email + ";",
+				"M-5;Envelope;Correios; " + email.toUpperCase() + " ;2026-10-19");
+
+		StatusImportacaoManifesto status = aguardar(no(() -> importacaoManifestoService.iniciar(arquivo(manifesto))).id());
+
+		assertEquals(Situacao.CONCLUIDA, status.situacao());
+		assertEquals(7, status.linhasLidas());
+		assertEquals(2, status.importadas());
+		assertEquals(5, status.rejeitadas());
+		assertTrue(status.possuiErros());
+		Map<String, Object> importada = jdbcTemplate.queryForMap(
+				"SELECT descricao, remetente, data_recebimento FROM encomenda WHERE id_encomenda = 'M-1'");
+		assertEquals("Caixa; frágil", importada.get("descricao"));
+		assertEquals("Loja \"Boa\"", importada.get("remetente"));
+		assertEquals("2026-10-19 08:30:00.0", importada.get("data_recebimento").toString());
+
+		List<String> erros = Files.readAllLines(no(() -> importacaoManifestoService.buscarArquivoErros(status.id())).orElseThrow());
+		assertEquals("linha;erro;conteudo", erros.get(0));
+		assertEquals(List.of("3", "4", "6", "7", "8"), erros.stream().skip(1).map(erro -> erro.split(";")[0]).toList());
+		assertTrue(erros.get(1).contains("Descrição da encomenda não pode ser vazia"));
+		assertTrue(erros.get(2).contains("Nenhum usuário com o e-mail informado"));
+		assertTrue(erros.get(3).contains("ID de encomenda repetido no manifesto"));
+		assertTrue(erros.get(4).contains("Data de recebimento inválida: ontem"));
+		assertTrue(erros.get(5).contains("Encomenda já cadastrada"));
+	}
+
+	@Test
+	void manifestoSemColunaObrigatoriaFalha() throws Exception {
+		StatusImportacaoManifesto status = aguardar(no(() -> importacaoManifestoService.iniciar(
+				arquivo("id_encomenda,descricao,email\nX-1,Caixa,a@b.com"))).id());
+
+		assertEquals(Situacao.FALHOU, status.situacao());
+		assertTrue(status.mensagem().contains("remetente"));
+	}
+
+	@Test
+	void arquivoDeErrosBaixadoDuranteAImportacaoTrazAsRejeicoes() throws Exception {
+		String email = usuario().getEmail();
+		AtomicReference<String> idImportacao = new AtomicReference<>();
+		CountDownLatch iniciada = new CountDownLatch(1);
+		AtomicReference<List<String>> baixadoNoMeio = new AtomicReference<>();
+		AtomicReference<ImportacaoManifestoService> servico = new AtomicReference<>();
+		// A importação só começa depois que o ID é conhecido
+		TaskExecutor executor = tarefa -> new Thread(() -> {
+			aguardar(iniciada);
+			tarefa.run();
+		}).start();
+		// As encomendas válidas são gravadas depois das rejeições: baixa o arquivo nesse ponto
+		ApplicationEventPublisher publicador = evento -> {
+			if (evento instanceof EncomendaSalvaEvent && baixadoNoMeio.get() == null) {
+				baixadoNoMeio.set(ler(servico.get().buscarArquivoErros(idImportacao.get()).orElseThrow()));
+			}
+		};
+		servico.set(new ImportacaoManifestoService(jdbcTemplate, transactionManager, publicador,
+				historicoEncomendaService, executor, condominioResolver, revisaoSync));
+		String manifesto = String.join("\n",
+				"id_encomenda,descricao,remetente,email",
+				"N-1,,Loja," + email,
+				"N-2,Caixa,," + email,
+				"N-3,Caixa,Loja," + email);
+
+		idImportacao.set(no(() -> servico.get().iniciar(arquivo(manifesto))).id());
+		iniciada.countDown();
+		StatusImportacaoManifesto status = aguardar(servico.get(), idImportacao.get());
+
+		assertEquals(1, status.importadas());
+		assertEquals(3, baixadoNoMeio.get().size());
+		assertTrue(baixadoNoMeio.get().get(2).startsWith("3;"));
+	}
+
+	private StatusImportacaoManifesto aguardar(String id) throws InterruptedException {
+		return aguardar(importacaoManifestoService, id);
+	}
+
+	private static StatusImportacaoManifesto aguardar(ImportacaoManifestoService servico, String id)
+			throws InterruptedException {
+		long limite = System.currentTimeMillis() + 10_000;
+		StatusImportacaoManifesto status;
+		do {
+			Thread.sleep(20);
+			status = no(() -> servico.buscarStatus(id)).orElseThrow();
+		} while ((status.situacao() == Situacao.AGUARDANDO || status.situacao() == Situacao.PROCESSANDO)
+				&& System.currentTimeMillis() < limite);
+		return status;
+	}
+
+
+	private static MockMultipartFile arquivo(String conteudo) {
+		return new MockMultipartFile("arquivo", "manifesto.csv", "text/csv", conteudo.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<String> ler(Path arquivo) {
+		try {
+			return Files.readAllLines(arquivo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void aguardar(CountDownLatch sinal) {
+		try {
+			sinal.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
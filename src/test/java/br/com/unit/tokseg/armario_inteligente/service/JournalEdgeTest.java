@@ -0,0 +1,156 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.ClienteCentralEdge;
+import br.com.unit.tokseg.armario_inteligente.config.EdgeProperties;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracoesSync;
+import br.com.unit.tokseg.armario_inteligente.dto.MutacaoEdgeRequest;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge.Situacao;
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.model.MutacaoEdgeRejeitada;
+import br.com.unit.tokseg.armario_inteligente.model.TipoMutacaoEdge;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRejeitadaRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.MutacaoEdgeRepository;
+import br.com.unit.tokseg.armario_inteligente.repository.ReplicaEdgeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o envio do journal de um nó edge contra um central simulado: alterações rejeitadas vão
+ * para a tabela de rejeitadas com os dados originais, e alterações sem resultado ficam no journal
+ * sem prender o ciclo num laço.
+ */
+class JournalEdgeTest extends TesteIntegracao {
+
+	@Autowired
+	private MutacaoEdgeRepository mutacaoEdgeRepository;
+
+	@Autowired
+	private MutacaoEdgeRejeitadaRepository mutacaoEdgeRejeitadaRepository;
+
+	@Autowired
+	private ReplicaEdgeRepository replicaEdgeRepository;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private CacheArmarioService cacheArmarioService;
+
+	@Autowired
+	private RevisaoSyncService revisaoSyncService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final Set<UUID> rejeitar = ConcurrentHashMap.newKeySet();
+	private final Set<UUID> semResultado = ConcurrentHashMap.newKeySet();
+	private final List<List<UUID>> lotesEnviados = new ArrayList<>();
+
+	@BeforeEach
+	void limpar() {
+		jdbcTemplate.update("DELETE FROM mutacao_edge");
+		jdbcTemplate.update("DELETE FROM mutacao_edge_rejeitada");
+	}
+
+	@Test
+	void rejeitadaSaiDoJournalEFicaGuardada() {
+		MutacaoEdge rejeitada = journal(true);
+		journal(false);
+		journal(true);
+		rejeitar.add(rejeitada.getId());
+
+		assertTrue(sincronizacao().sincronizar());
+
+		assertEquals(0L, no(() -> mutacaoEdgeRepository.count()));
+		List<MutacaoEdgeRejeitada> guardadas = no(() -> mutacaoEdgeRejeitadaRepository.findAll());
+		assertEquals(1, guardadas.size());
+		MutacaoEdgeRejeitada guardada = guardadas.get(0);
+		assertEquals(rejeitada.getId(), guardada.getId());
+		assertEquals(TipoMutacaoEdge.OCUPACAO_COMPARTIMENTO, guardada.getTipo());
+		assertEquals(rejeitada.getIdRegistro(), guardada.getIdRegistro());
+		assertEquals(true, guardada.getOcupado());
+		assertEquals(CONDOMINIO, guardada.getCondominio());
+	}
+
+	@Test
+	void alteracaoSemResultadoNaoPrendeOCiclo() {
+		MutacaoEdge pendente = journal(true);
+		MutacaoEdge segunda = journal(false);
+		MutacaoEdge terceira = journal(true);
+		semResultado.add(pendente.getId());
+
+		assertTrue(sincronizacao().sincronizar());
+
+		// Cada lote tira uma alteração do journal; o terceiro só tem a pendente e encerra o envio
+		assertEquals(List.of(
+				List.of(pendente.getId(), segunda.getId()),
+				List.of(pendente.getId(), terceira.getId()),
+				List.of(pendente.getId())), lotesEnviados);
+		assertEquals(List.of(pendente.getId()), no(() -> mutacaoEdgeRepository.findAll()).stream().map(MutacaoEdge::getId).toList());
+
+		// Lote cheio sem nenhum resultado: encerra logo, sem reenviar o mesmo lote
+		journal(false);
+		lotesEnviados.clear();
+		semResultado.addAll(no(() -> mutacaoEdgeRepository.findAll()).stream().map(MutacaoEdge::getId).toList());
+		assertTrue(sincronizacao().sincronizar());
+		assertEquals(1, lotesEnviados.size());
+		assertEquals(2L, no(() -> mutacaoEdgeRepository.count()));
+	}
+
+	/**
+	 * Sincronização com lotes de duas alterações e um central simulado, que aplica as alterações,
+	 * rejeita as marcadas, omite o resultado das marcadas e não tem nada a enviar ao nó.
+	 */
+	private SincronizacaoEdgeService sincronizacao() {
+		ClienteCentralEdge central = new ClienteCentralEdge(null, "totem@alfa.com", "senha") {
+			@Override
+			public List<ResultadoMutacaoEdge> enviar(List<MutacaoEdgeRequest> mutacoes) {
+				lotesEnviados.add(mutacoes.stream().map(MutacaoEdgeRequest::id).toList());
+				return mutacoes.stream()
+						.filter(mutacao -> !semResultado.contains(mutacao.id()))
+						.map(mutacao -> new ResultadoMutacaoEdge(mutacao.id(),
+								rejeitar.contains(mutacao.id()) ? Situacao.REJEITADA : Situacao.APLICADA, null))
+						.toList();
+			}
+
+			@Override
+			public AlteracoesSync receber(long desde, int limite) {
+				return new AlteracoesSync(desde, false, List.of());
+			}
+		};
+		EdgeProperties edge = new EdgeProperties();
+		edge.setCondominio(CONDOMINIO);
+		edge.setTamanhoLote(2);
+		return new SincronizacaoEdgeService(central, mutacaoEdgeRepository, mutacaoEdgeRejeitadaRepository,
+				replicaEdgeRepository, encomendaRepository, cacheArmarioService, revisaoSyncService, jdbcTemplate,
+				objectMapper, transactionManager, edge);
+	}
+
+	private MutacaoEdge journal(boolean ocupado) {
+		return no(() -> mutacaoEdgeRepository.save(new MutacaoEdge(TipoMutacaoEdge.OCUPACAO_COMPARTIMENTO,
+				UUID.randomUUID().toString(), LocalDateTime.now(), null, ocupado)));
+	}
+}
@@ -0,0 +1,119 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa as leituras compartilhadas dos armários: só quem executa a consulta abre transação e
+ * segura conexão, quem espera recebe o mesmo resultado, e quem espera além do limite faz a
+ * própria consulta.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:leitura_unica;DB_CLOSE_DELAY=-1",
+		"app.leitura-unica.tempo-espera=300ms"
+})
+class LeituraUnicaTest extends TesteIntegracao {
+
+	private static final int ESPERANDO = 6;
+
+	@Autowired
+	private LeituraUnicaService leituraUnica;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private HikariDataSource dataSource;
+
+	@Test
+	void quemEsperaNaoSeguraConexao() throws Exception {
+		List<ArmarioResposta> resultado = new ArrayList<>();
+		CountDownLatch consultando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(ESPERANDO + 1);
+		try {
+			Future<List<ArmarioResposta>> primeira = executor.submit(() -> no(() ->
+					leituraUnica.executar("armario.listarTodos", () -> {
+						assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+						consultando.countDown();
+						aguardar(liberar);
+						return resultado;
+					})));
+			assertTrue(consultando.await(10, TimeUnit.SECONDS));
+
+			List<Future<List<ArmarioResposta>>> seguintes = new ArrayList<>();
+			for (int i = 0; i < ESPERANDO; i++) {
+				seguintes.add(executor.submit(() -> no(armarioService::listarTodos)));
+			}
+			Thread.sleep(100);
+			// Só a transação da consulta em andamento (e alguma tarefa agendada) usa o pool
+			assertTrue(dataSource.getHikariPoolMXBean().getActiveConnections() <= 2,
+					"Conexões ativas: " + dataSource.getHikariPoolMXBean().getActiveConnections());
+
+			liberar.countDown();
+			assertSame(resultado, primeira.get(10, TimeUnit.SECONDS));
+			for (Future<List<ArmarioResposta>> seguinte : seguintes) {
+				assertSame(resultado, seguinte.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			liberar.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void esperaAlemDoLimiteFazAPropriaConsulta() throws Exception {
+		List<ArmarioResposta> travado = new ArrayList<>();
+		CountDownLatch consultando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<List<ArmarioResposta>> lenta = executor.submit(() -> no(() ->
+					leituraUnica.executar("armario.listarTodos", () -> {
+						consultando.countDown();
+						aguardar(liberar);
+						return travado;
+					})));
+			assertTrue(consultando.await(10, TimeUnit.SECONDS));
+
+			long inicio = System.nanoTime();
+			List<ArmarioResposta> propria = no(armarioService::listarTodos);
+			assertNotSame(travado, propria);
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) >= 300);
+
+			liberar.countDown();
+			assertSame(travado, lenta.get(10, TimeUnit.SECONDS));
+			assertEquals(propria, no(armarioService::listarTodos));
+		} finally {
+			liberar.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
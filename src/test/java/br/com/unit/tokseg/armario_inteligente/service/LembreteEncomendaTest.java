@@ -0,0 +1,125 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.EstrategiaDestinoCondominio;
+import br.com.unit.tokseg.armario_inteligente.event.EncomendaSalvaEvent;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.Notificacao;
+import br.com.unit.tokseg.armario_inteligente.model.Usuario;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o disparo dos lembretes: o prazo vencido vira notificação ao morador, e um disparo que
+ * falha ao gravar as notificações devolve o prazo à roda em vez de perdê-lo. As notificações
+ * passam por um serviço de teste que pode recusar as gravações.
+ */
+class LembreteEncomendaTest extends TesteIntegracao {
+
+	private static final long RESOLUCAO_MS = 10;
+	// Folga para o cadastro da encomenda terminar antes do prazo
+	private static final Duration PRAZO_LEMBRETE = Duration.ofSeconds(1);
+
+	@Autowired
+	private EncomendaService encomendaService;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private HistoricoEncomendaService historicoEncomendaService;
+
+	@Autowired
+	private EstrategiaDestinoCondominio estrategiaDestino;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final AtomicInteger falhasRestantes = new AtomicInteger();
+	private final List<Notificacao> gravadas = new ArrayList<>();
+
+	@Test
+	void disparoQueFalhaVoltaParaARoda() throws InterruptedException {
+		LembreteEncomendaService lembretes = lembretes();
+		Encomenda encomenda = encomenda("L-1");
+		lembretes.aoSalvarEncomenda(new EncomendaSalvaEvent(encomenda));
+		aguardarLembrete(encomenda);
+
+		falhasRestantes.set(1);
+		lembretes.dispararVencidos();
+
+		assertTrue(gravadas.isEmpty());
+		assertEquals(1, lembretes.contarAgendados());
+
+		Thread.sleep(3 * RESOLUCAO_MS);
+		lembretes.dispararVencidos();
+
+		assertEquals(1, gravadas.size());
+		assertEquals(encomenda.getUsuario().getId(), gravadas.get(0).getUsuario().getId());
+		assertTrue(gravadas.get(0).getMensagem().contains("Caixa L-1"));
+		// Depois do lembrete fica agendado o escalonamento
+		assertEquals(1, lembretes.contarAgendados());
+		lembretes.dispararVencidos();
+		assertEquals(1, gravadas.size());
+	}
+
+	@Test
+	void encomendaRetiradaNaoRecebeLembrete() throws InterruptedException {
+		LembreteEncomendaService lembretes = lembretes();
+		Encomenda encomenda = encomenda("L-2");
+		lembretes.aoSalvarEncomenda(new EncomendaSalvaEvent(encomenda));
+		no(() -> encomendaService.remover("L-2"));
+		aguardarLembrete(encomenda);
+
+		lembretes.dispararVencidos();
+
+		assertTrue(gravadas.isEmpty());
+		assertEquals(0, lembretes.contarAgendados());
+	}
+
+	private static void aguardarLembrete(Encomenda encomenda) throws InterruptedException {
+		Thread.sleep(Math.max(Duration.between(LocalDateTime.now(),
+				encomenda.getDataRecebimento().plus(PRAZO_LEMBRETE)).toMillis(), 0) + 3 * RESOLUCAO_MS);
+	}
+
+	/**
+	 * Lembretes próprios do teste, com notificações gravadas em memória.
+	 */
+	private LembreteEncomendaService lembretes() {
+		NotificacaoService notificacoes = new NotificacaoService(null, null, null) {
+			@Override
+			public void salvarEmLote(List<Notificacao> lote) {
+				if (falhasRestantes.getAndUpdate(restantes -> Math.max(restantes - 1, 0)) > 0) {
+					throw new DataAccessResourceFailureException("Banco indisponível");
+				}
+				gravadas.addAll(lote);
+			}
+		};
+		return new LembreteEncomendaService(encomendaRepository, usuarioRepository, notificacoes,
+				historicoEncomendaService, estrategiaDestino, transactionManager,
+				RESOLUCAO_MS, PRAZO_LEMBRETE, Duration.ofHours(1));
+	}
+
+	private Encomenda encomenda(String id) {
+		Usuario morador = usuario();
+		return no(() -> encomendaService.salvar(Encomenda.builder()
+				.idEncomenda(id)
+				.descricao("Caixa " + id)
+				.remetente("Loja")
+				.dataRecebimento(LocalDateTime.now())
+				.usuario(morador)
+				.build()));
+	}
+}
@@ -0,0 +1,125 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.model.RegistroAuditoria;
+import br.com.unit.tokseg.armario_inteligente.repository.RegistroAuditoriaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifica que os registros de auditoria são incluídos em lotes JDBC: com o ID vindo de sequence,
+ * 120 registros com {@code hibernate.jdbc.batch_size=50} saem em 3 chamadas a {@code executeBatch},
+ * e não em 120 INSERTs individuais como acontecia com IDENTITY.
+ * As chamadas são contadas por um proxy sobre o DataSource principal.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:auditoria_lote;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.jdbc.batch_size=50",
+		"spring.jpa.properties.hibernate.order_inserts=true"
+})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TestSecurityConfig.class, RegistroAuditoriaLoteTest.ContagemLotesConfig.class})
+class RegistroAuditoriaLoteTest {
+
+	private static final String INSERCAO = "insert into registro_auditoria";
+
+	private static final AtomicInteger lotes = new AtomicInteger();
+	private static final AtomicInteger insercoesAvulsas = new AtomicInteger();
+
+	@Autowired
+	private RegistroAuditoriaService registroAuditoriaService;
+
+	@Autowired
+	private RegistroAuditoriaRepository registroAuditoriaRepository;
+
+	@BeforeEach
+	void limpar() {
+		registroAuditoriaRepository.deleteAllInBatch();
+		lotes.set(0);
+		insercoesAvulsas.set(0);
+	}
+
+	@Test
+	void salvarEmLoteAgrupaOsInsertsEmLotesJdbc() {
+		List<RegistroAuditoria> registros = IntStream.rangeClosed(1, 120)
+				.mapToObj(i -> new RegistroAuditoria(0, "ACAO_" + i, "Registro " + i, LocalDateTime.now()))
+				.toList();
+
+		registroAuditoriaService.salvarEmLote(registros);
+
+		assertEquals(3, lotes.get());
+		assertEquals(0, insercoesAvulsas.get());
+		assertEquals(120, registroAuditoriaRepository.count());
+		assertEquals(120, registros.stream().mapToInt(RegistroAuditoria::getIdRegistro).distinct().count());
+	}
+
+	@TestConfiguration
+	static class ContagemLotesConfig {
+
+		@Bean
+		static BeanPostProcessor contagemLotesJdbc() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String nome) {
+					return "dataSource".equals(nome) ? envolver(bean, DataSource.class, null) : bean;
+				}
+			};
+		}
+
+		/**
+		 * Envolve DataSource, Connection e PreparedStatement em proxies; nos comandos de inclusão de
+		 * registro de auditoria, conta as chamadas a {@code executeBatch} e as execuções avulsas.
+		 */
+		private static Object envolver(Object alvo, Class<?> tipo, String sql) {
+			return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (proxy, metodo, argumentos) -> {
+				Object resultado = invocar(alvo, metodo, argumentos);
+				String nome = metodo.getName();
+				if (resultado instanceof Connection conexao && nome.equals("getConnection")) {
+					return envolver(conexao, Connection.class, null);
+				}
+				if (resultado instanceof PreparedStatement comando && nome.equals("prepareStatement")) {
+					return envolver(comando, PreparedStatement.class, (String) argumentos[0]);
+				}
+				if (sql != null && sql.toLowerCase(Locale.ROOT).startsWith(INSERCAO)) {
+					if (nome.equals("executeBatch")) {
+						lotes.incrementAndGet();
+					} else if (nome.equals("executeUpdate") || nome.equals("execute")) {
+						insercoesAvulsas.incrementAndGet();
+					}
+				}
+				return resultado;
+			});
+		}
+
+		private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+			try {
+				return metodo.invoke(alvo, argumentos);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
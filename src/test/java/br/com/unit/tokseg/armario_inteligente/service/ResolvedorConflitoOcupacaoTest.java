@@ -0,0 +1,48 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.dto.ResultadoMutacaoEdge.Situacao;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testa as regras de conflito de ocupação entre um nó edge e o central.
+ */
+class ResolvedorConflitoOcupacaoTest {
+
+	private static final LocalDateTime AGORA = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+	@Test
+	void mesmoEstadoJaEstaAplicado() {
+		assertEquals(Situacao.JA_APLICADA,
+				ResolvedorConflitoOcupacao.resolver(true, 3L, AGORA, true, 9L, AGORA.plusMinutes(1)));
+	}
+
+	@Test
+	void semMudancaNoCentralDesdeABaseAplica() {
+		assertEquals(Situacao.APLICADA,
+				ResolvedorConflitoOcupacao.resolver(true, 9L, AGORA, false, 9L, AGORA.plusMinutes(1)));
+		// Registro que o central nunca registrou no feed
+		assertEquals(Situacao.APLICADA,
+				ResolvedorConflitoOcupacao.resolver(true, null, AGORA, false, null, null));
+	}
+
+	@Test
+	void conflitoVenceAAlteracaoMaisRecente() {
+		assertEquals(Situacao.CONFLITO_EDGE_VENCEU,
+				ResolvedorConflitoOcupacao.resolver(true, 3L, AGORA, false, 9L, AGORA.minusMinutes(1)));
+		assertEquals(Situacao.CONFLITO_CENTRAL_VENCEU,
+				ResolvedorConflitoOcupacao.resolver(true, 3L, AGORA, false, 9L, AGORA.plusMinutes(1)));
+	}
+
+	@Test
+	void semRevisaoBaseQualquerRevisaoDoCentralEConflito() {
+		assertEquals(Situacao.CONFLITO_CENTRAL_VENCEU,
+				ResolvedorConflitoOcupacao.resolver(true, null, AGORA, false, 1L, AGORA.plusMinutes(1)));
+		// Empate no horário: fica o estado do central
+		assertEquals(Situacao.CONFLITO_CENTRAL_VENCEU,
+				ResolvedorConflitoOcupacao.resolver(true, null, AGORA, false, 1L, AGORA));
+	}
+}
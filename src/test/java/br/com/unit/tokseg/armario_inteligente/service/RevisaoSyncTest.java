@@ -0,0 +1,208 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.config.TestSecurityConfig;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracaoSync;
+import br.com.unit.tokseg.armario_inteligente.dto.AlteracoesSync;
+import br.com.unit.tokseg.armario_inteligente.dto.ArmarioResposta;
+import br.com.unit.tokseg.armario_inteligente.dto.CompartimentoResposta;
+import br.com.unit.tokseg.armario_inteligente.model.Armario;
+import br.com.unit.tokseg.armario_inteligente.model.ArmarioStatus;
+import br.com.unit.tokseg.armario_inteligente.model.Compartimento;
+import br.com.unit.tokseg.armario_inteligente.model.Encomenda;
+import br.com.unit.tokseg.armario_inteligente.model.TipoRegistroSync;
+import br.com.unit.tokseg.armario_inteligente.repository.EncomendaRepository;
+import br.com.unit.tokseg.armario_inteligente.util.ContextoCondominio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o feed de sincronização dos totens: revisões crescentes entre os tipos de registro, só o
+ * que mudou depois da revisão informada (uma entrada por registro), marcadores de remoção,
+ * paginação, um feed por condomínio e a carga inicial da migração para os registros anteriores ao feed.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:revisao_sync;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TestSecurityConfig.class)
+class RevisaoSyncTest {
+
+	@Autowired
+	private RevisaoSyncService revisaoSyncService;
+
+	@Autowired
+	private ArmarioService armarioService;
+
+	@Autowired
+	private CompartimentoService compartimentoService;
+
+	@Autowired
+	private EncomendaRepository encomendaRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeEach
+	void limpar() {
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("DELETE FROM revisao_sync");
+		jdbc.update("DELETE FROM encomenda");
+		jdbc.update("DELETE FROM compartimento");
+		jdbc.update("DELETE FROM armario");
+	}
+
+	@Test
+	void feedTrazSoOQueMudouDepoisDaRevisao() {
+		Armario armario = armarioService.salvar(armario("A1"));
+		Compartimento compartimento = compartimentoService.salvar(new Compartimento(armario, false, null));
+		AlteracoesSync inicial = revisaoSyncService.listarDesde(0, 100);
+
+		assertEquals(List.of(TipoRegistroSync.ARMARIO, TipoRegistroSync.COMPARTIMENTO), tipos(inicial));
+		assertTrue(inicial.alteracoes().get(0).revisao() < inicial.alteracoes().get(1).revisao());
+		assertEquals(inicial.alteracoes().get(1).revisao(), inicial.revisao());
+
+		compartimentoService.atualizarOcupacao(compartimento.getIdCompartimento(), true);
+		AlteracoesSync delta = revisaoSyncService.listarDesde(inicial.revisao(), 100);
+
+		assertEquals(1, delta.alteracoes().size());
+		AlteracaoSync alteracao = delta.alteracoes().get(0);
+		assertEquals(compartimento.getIdCompartimento().toString(), alteracao.id());
+		assertTrue(((CompartimentoResposta) alteracao.dados()).ocupado());
+		// Desde o início, cada registro aparece uma vez, na revisão da última alteração
+		assertEquals(List.of(TipoRegistroSync.ARMARIO, TipoRegistroSync.COMPARTIMENTO),
+				tipos(revisaoSyncService.listarDesde(0, 100)));
+		assertEquals(delta.revisao(), revisaoSyncService.listarDesde(0, 100).revisao());
+		assertTrue(revisaoSyncService.listarDesde(delta.revisao(), 100).alteracoes().isEmpty());
+	}
+
+	@Test
+	void remocaoViraMarcadorSemDados() {
+		Armario armario = armarioService.salvar(armario("A1"));
+		Compartimento compartimento = compartimentoService.salvar(new Compartimento(armario, false, null));
+		long revisao = revisaoSyncService.listarDesde(0, 100).revisao();
+
+		compartimentoService.remover(compartimento.getIdCompartimento());
+
+		AlteracaoSync alteracao = revisaoSyncService.listarDesde(revisao, 100).alteracoes().get(0);
+		assertEquals(compartimento.getIdCompartimento().toString(), alteracao.id());
+		assertTrue(alteracao.removido());
+		assertNull(alteracao.dados());
+	}
+
+	@Test
+	void renomearArmarioReenviaOsCompartimentosDele() {
+		Armario armario = armarioService.salvar(armario("A1"));
+		compartimentoService.salvar(new Compartimento(armario, false, null));
+		long revisao = revisaoSyncService.listarDesde(0, 100).revisao();
+
+		armario.setNumero("A1-NOVO");
+		armarioService.salvar(armario);
+
+		AlteracoesSync delta = revisaoSyncService.listarDesde(revisao, 100);
+		assertEquals(List.of(TipoRegistroSync.COMPARTIMENTO, TipoRegistroSync.ARMARIO), tipos(delta));
+		assertEquals("A1-NOVO", ((CompartimentoResposta) delta.alteracoes().get(0).dados()).numeroArmario());
+		assertEquals("A1-NOVO", ((ArmarioResposta) delta.alteracoes().get(1).dados()).numero());
+	}
+
+	@Test
+	void paginaIndicaQueHaMaisAlteracoes() {
+		for (int i = 0; i < 3; i++) {
+			armarioService.salvar(armario("A" + i));
+		}
+
+		AlteracoesSync primeira = revisaoSyncService.listarDesde(0, 2);
+		AlteracoesSync segunda = revisaoSyncService.listarDesde(primeira.revisao(), 2);
+
+		assertEquals(2, primeira.alteracoes().size());
+		assertTrue(primeira.temMais());
+		assertEquals(1, segunda.alteracoes().size());
+		assertFalse(segunda.temMais());
+		assertThrows(IllegalArgumentException.class, () -> revisaoSyncService.listarDesde(-1, 10));
+		assertThrows(IllegalArgumentException.class, () -> revisaoSyncService.listarDesde(0, 1001));
+	}
+
+	@Test
+	void cadaCondominioTemOSeuFeed() {
+		ContextoCondominio.executar("alfa", () -> armarioService.salvar(armario("A1")));
+		ContextoCondominio.executar("alfa", () -> armarioService.salvar(armario("A2")));
+		ContextoCondominio.executar("beta", () -> armarioService.salvar(armario("B1")));
+
+		AlteracoesSync alfa = ContextoCondominio.executar("alfa", () -> revisaoSyncService.listarDesde(0, 100));
+		AlteracoesSync beta = ContextoCondominio.executar("beta", () -> revisaoSyncService.listarDesde(0, 100));
+
+		assertEquals(List.of("A1", "A2"), alfa.alteracoes().stream()
+				.map(alteracao -> ((ArmarioResposta) alteracao.dados()).numero()).toList());
+		assertEquals(List.of("B1"), beta.alteracoes().stream()
+				.map(alteracao -> ((ArmarioResposta) alteracao.dados()).numero()).toList());
+		// As revisões são do condomínio: o segundo armário de alfa vem logo depois do primeiro
+		assertEquals(alfa.alteracoes().get(0).revisao() + 1, alfa.alteracoes().get(1).revisao());
+	}
+
+	@Test
+	void registrosAnterioresAoFeedEntramPelaCargaInicial() {
+		Armario a1 = ContextoCondominio.executar("alfa", () -> armarioService.salvar(armario("A1")));
+		Compartimento compartimento = ContextoCondominio.executar("alfa",
+				() -> compartimentoService.salvar(new Compartimento(a1, false, null)));
+		ContextoCondominio.executar("alfa", () -> {
+			encomendaRepository.save(encomenda("EM-ABERTO", null));
+			encomendaRepository.save(encomenda("RETIRADA", LocalDateTime.now()));
+		});
+		Armario b1 = ContextoCondominio.executar("beta", () -> armarioService.salvar(armario("B1")));
+		// Como num banco que já tinha dados quando o feed foi criado
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.update("DELETE FROM revisao_sync");
+		jdbc.update("DELETE FROM contador_revisao");
+
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V26__revisao_sync.sql")).execute(dataSource);
+
+		AlteracoesSync alfa = ContextoCondominio.executar("alfa", () -> revisaoSyncService.listarDesde(0, 100));
+		assertEquals(List.of(TipoRegistroSync.ARMARIO, TipoRegistroSync.COMPARTIMENTO, TipoRegistroSync.ENCOMENDA), tipos(alfa));
+		assertEquals(List.of(1L, 2L, 3L), alfa.alteracoes().stream().map(AlteracaoSync::revisao).toList());
+		assertEquals(List.of(a1.getId().toString(), compartimento.getIdCompartimento().toString(), "EM-ABERTO"),
+				alfa.alteracoes().stream().map(AlteracaoSync::id).toList());
+		assertTrue(alfa.alteracoes().stream().noneMatch(AlteracaoSync::removido));
+		AlteracoesSync beta = ContextoCondominio.executar("beta", () -> revisaoSyncService.listarDesde(0, 100));
+		assertEquals(List.of(b1.getId().toString()), beta.alteracoes().stream().map(AlteracaoSync::id).toList());
+		assertEquals(1, beta.revisao());
+
+		// O contador continua da carga inicial
+		ContextoCondominio.executar("alfa", () -> compartimentoService.atualizarOcupacao(compartimento.getIdCompartimento(), true));
+		AlteracoesSync depois = ContextoCondominio.executar("alfa", () -> revisaoSyncService.listarDesde(3, 100));
+		assertEquals(List.of(4L), depois.alteracoes().stream().map(AlteracaoSync::revisao).toList());
+	}
+
+	private static List<TipoRegistroSync> tipos(AlteracoesSync alteracoes) {
+		return alteracoes.alteracoes().stream().map(AlteracaoSync::tipo).toList();
+	}
+
+	private static Armario armario(String numero) {
+		return Armario.builder().numero(numero).status(ArmarioStatus.DISPONIVEL).localizacao("Bloco 1").build();
+	}
+
+	private static Encomenda encomenda(String id, LocalDateTime dataRetirada) {
+		return Encomenda.builder()
+				.idEncomenda(id)
+				.descricao("Caixa")
+				.remetente("Loja")
+				.dataRecebimento(LocalDateTime.now())
+				.dataRetirada(dataRetirada)
+				.build();
+	}
+}
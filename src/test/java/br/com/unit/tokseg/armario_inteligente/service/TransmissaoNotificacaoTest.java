@@ -0,0 +1,112 @@
+package br.com.unit.tokseg.armario_inteligente.service;
+
+import br.com.unit.tokseg.armario_inteligente.TesteIntegracao;
+import br.com.unit.tokseg.armario_inteligente.config.CondominioIdentifierResolver;
+import br.com.unit.tokseg.armario_inteligente.dto.TransmissaoRequest;
+import br.com.unit.tokseg.armario_inteligente.model.ModeloNotificacao;
+import br.com.unit.tokseg.armario_inteligente.model.TipoUsuarioEnum;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testa o envio de mensagens a grupos de usuários: destinatários por tipo no condomínio, envio só
+ * depois do commit quando pedido dentro de uma transação (e nenhum se ela for desfeita) e fila cheia.
+ */
+class TransmissaoNotificacaoTest extends TesteIntegracao {
+
+	@Autowired
+	private TransmissaoNotificacaoService transmissaoNotificacaoService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ContadorNaoLidasService contadorNaoLidasService;
+
+	@Autowired
+	private CondominioIdentifierResolver condominioResolver;
+
+	@Test
+	void mensagemChegaAosUsuariosDoTipoNoCondominio() throws InterruptedException {
+		UUID porteiro = usuario(TipoUsuarioEnum.PORTEIRO, CONDOMINIO).getId();
+		UUID morador = usuario().getId();
+		UUID porteiroDeOutro = usuario(TipoUsuarioEnum.PORTEIRO, "beta").getId();
+		TransmissaoRequest requisicao = new TransmissaoRequest();
+		requisicao.setMensagem("  Elevador em manutenção  ");
+		requisicao.setTipoUsuario(TipoUsuarioEnum.PORTEIRO);
+
+		no(() -> transmissaoNotificacaoService.transmitir(requisicao));
+
+		aguardarNotificacoes(porteiro, 1);
+		assertEquals(0, notificacoes(morador));
+		assertEquals(0, notificacoes(porteiroDeOutro));
+		assertEquals(ModeloNotificacao.codificar("Elevador em manutenção"), jdbcTemplate.queryForObject(
+				"SELECT parametros FROM notificacao WHERE id_usuario = ?", String.class, porteiro));
+		assertThrows(IllegalArgumentException.class, () -> no(() -> transmissaoNotificacaoService.transmitir(new TransmissaoRequest())));
+	}
+
+	@Test
+	void dentroDeTransacaoOEnvioSoSaiDepoisDoCommit() {
+		List<Runnable> agendados = new ArrayList<>();
+		TransmissaoNotificacaoService transmissao = transmissao(agendados::add);
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+		no(() -> transacao.executeWithoutResult(status -> {
+			transmissao.transmitirParaTipo(TipoUsuarioEnum.ADMIN, ModeloNotificacao.NOVO_ARMARIO, "A1");
+			assertTrue(agendados.isEmpty());
+		}));
+		assertEquals(1, agendados.size());
+
+		no(() -> transacao.executeWithoutResult(status -> {
+			transmissao.transmitirParaTipo(TipoUsuarioEnum.ADMIN, ModeloNotificacao.NOVO_ARMARIO, "A2");
+			status.setRollbackOnly();
+		}));
+		assertEquals(1, agendados.size());
+	}
+
+	@Test
+	void filaCheiaERecusadaForaDeTransacaoEDescartadaDepoisDoCommit() {
+		TransmissaoNotificacaoService transmissao = transmissao(envio -> {
+			throw new TaskRejectedException("Fila cheia");
+		});
+
+		assertThrows(IllegalStateException.class, () -> no(
+				() -> transmissao.transmitirParaTipo(TipoUsuarioEnum.ADMIN, ModeloNotificacao.NOVO_ARMARIO, "A1")));
+		// Depois do commit o erro fica no log, sem chegar a quem fez a alteração
+		no(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				transmissao.transmitirParaTipo(TipoUsuarioEnum.ADMIN, ModeloNotificacao.NOVO_ARMARIO, "A2")));
+	}
+
+	private TransmissaoNotificacaoService transmissao(TaskExecutor executor) {
+		return new TransmissaoNotificacaoService(usuarioRepository, jdbcTemplate, transactionManager, executor,
+				contadorNaoLidasService, condominioResolver);
+	}
+
+	private void aguardarNotificacoes(UUID usuario, int esperadas) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 10_000;
+		while (notificacoes(usuario) < esperadas && System.currentTimeMillis() < limite) {
+			Thread.sleep(20);
+		}
+		assertEquals(esperadas, notificacoes(usuario));
+	}
+
+	private int notificacoes(UUID usuario) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notificacao WHERE id_usuario = ?", Integer.class, usuario);
+	}
+}
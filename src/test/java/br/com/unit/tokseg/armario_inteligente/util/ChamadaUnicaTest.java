@@ -0,0 +1,157 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChamadaUnicaTest {
+
+	private static final int CHAMADAS = 32;
+	private static final Duration ESPERA = Duration.ofSeconds(10);
+
+	@Test
+	void chamadasSimultaneasIdenticasFazemUmaConsulta() throws Exception {
+		ChamadaUnica chamadaUnica = new ChamadaUnica(Duration.ZERO, ESPERA);
+		AtomicInteger consultas = new AtomicInteger();
+		CountDownLatch todasEsperando = new CountDownLatch(CHAMADAS - 1);
+		List<Object> resultado = List.of("A1", "A2");
+
+		List<Object> resultados = executarEmParalelo(() -> {
+			// A primeira chamada executa a consulta e a segura até as demais chegarem
+			todasEsperando.countDown();
+			return chamadaUnica.executar("disponiveis", () -> {
+				consultas.incrementAndGet();
+				aguardar(todasEsperando);
+				dormir(200);
+				return resultado;
+			});
+		});
+
+		assertEquals(1, consultas.get());
+		resultados.forEach(recebido -> assertSame(resultado, recebido));
+		assertEquals(0, chamadaUnica.tamanho());
+	}
+
+	@Test
+	void chavesDiferentesNaoCompartilham() {
+		ChamadaUnica chamadaUnica = new ChamadaUnica(Duration.ZERO, ESPERA);
+
+		String primeiro = chamadaUnica.executar("DISPONIVEL", () -> chamadaUnica.executar("OCUPADO", () -> "ocupado") + "/disponivel");
+
+		assertEquals("ocupado/disponivel", primeiro);
+	}
+
+	@Test
+	void excecaoDaConsultaChegaATodasAsChamadas() throws Exception {
+		ChamadaUnica chamadaUnica = new ChamadaUnica(Duration.ZERO, ESPERA);
+		CountDownLatch todasEsperando = new CountDownLatch(CHAMADAS - 1);
+
+		List<Object> resultados = executarEmParalelo(() -> {
+			todasEsperando.countDown();
+			try {
+				return chamadaUnica.executar("falha", () -> {
+					aguardar(todasEsperando);
+					throw new IllegalStateException("banco indisponível");
+				});
+			} catch (IllegalStateException e) {
+				return e.getMessage();
+			}
+		});
+
+		resultados.forEach(recebido -> assertEquals("banco indisponível", recebido));
+		assertEquals(0, chamadaUnica.tamanho());
+		assertEquals("ok", chamadaUnica.executar("falha", () -> "ok"));
+	}
+
+	@Test
+	void resultadoValeDuranteAValidade() throws Exception {
+		ChamadaUnica chamadaUnica = new ChamadaUnica(Duration.ofMillis(200), ESPERA);
+		AtomicInteger consultas = new AtomicInteger();
+
+		chamadaUnica.executar("contagem", consultas::incrementAndGet);
+		assertEquals(1, (int) chamadaUnica.executar("contagem", consultas::incrementAndGet));
+
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (chamadaUnica.tamanho() > 0 && System.nanoTime() < limite) {
+			Thread.sleep(20);
+		}
+		assertEquals(2, (int) chamadaUnica.executar("contagem", consultas::incrementAndGet));
+	}
+
+	@Test
+	void esperaPassaDoLimiteEAChamadaFazAPropriaConsulta() throws Exception {
+		ChamadaUnica chamadaUnica = new ChamadaUnica(Duration.ZERO, Duration.ofMillis(100));
+		CountDownLatch travada = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> lenta = executor.submit(() -> chamadaUnica.executar("lenta", () -> {
+				travada.countDown();
+				aguardar(liberar);
+				return "lenta";
+			}));
+			aguardar(travada);
+
+			assertEquals("propria", chamadaUnica.executar("lenta", () -> "propria"));
+			liberar.countDown();
+			assertEquals("lenta", lenta.get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void validadeOuEsperaInvalidasSaoRejeitadas() {
+		assertThrows(IllegalArgumentException.class, () -> new ChamadaUnica(Duration.ofMillis(-1), ESPERA));
+		assertThrows(IllegalArgumentException.class, () -> new ChamadaUnica(Duration.ZERO, Duration.ZERO));
+	}
+
+	private static List<Object> executarEmParalelo(Callable<Object> chamada) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(CHAMADAS);
+		try {
+			List<Future<Object>> futuros = new ArrayList<>();
+			for (int i = 0; i < CHAMADAS; i++) {
+				futuros.add(executor.submit(chamada));
+			}
+			List<Object> resultados = new ArrayList<>();
+			for (Future<Object> futuro : futuros) {
+				resultados.add(futuro.get(10, TimeUnit.SECONDS));
+			}
+			return resultados;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void dormir(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPaginacaoTest {
+
+	private static final LocalDateTime DATA = LocalDateTime.of(2026, 10, 19, 8, 30, 15, 123_000_000);
+
+	@Test
+	void cursorVoltaAMesmaPosicao() {
+		String cursor = CursorPaginacao.codificar(DATA, "ENC-1");
+
+		assertEquals(new CursorPaginacao.Posicao(DATA, "ENC-1"), CursorPaginacao.decodificar(cursor));
+		// Seguro para ir na query string sem escape
+		assertFalse(cursor.contains("=") || cursor.contains("+") || cursor.contains("/"));
+	}
+
+	@Test
+	void idComSeparadorSobreviveAoCursor() {
+		String cursor = CursorPaginacao.codificar(DATA, "LOJA|123|A");
+
+		assertEquals("LOJA|123|A", CursorPaginacao.decodificar(cursor).id());
+	}
+
+	@Test
+	void cursorInvalidoERecusado() {
+		assertThrows(IllegalArgumentException.class, () -> CursorPaginacao.decodificar("não é base64!"));
+		assertThrows(IllegalArgumentException.class, () -> CursorPaginacao.decodificar(codificar("sem-separador")));
+		assertThrows(IllegalArgumentException.class, () -> CursorPaginacao.decodificar(codificar("ontem|ENC-1")));
+	}
+
+	private static String codificar(String valor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+}
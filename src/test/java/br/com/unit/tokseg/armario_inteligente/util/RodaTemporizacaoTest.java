@@ -0,0 +1,118 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RodaTemporizacaoTest {
+
+	private static final long RESOLUCAO = 10;
+
+	@Test
+	void prazoVenceNoTickCertoEmQualquerNivel() {
+		// Um tick, o fim do primeiro nível, a virada para o segundo, e prazos do terceiro ao quinto
+		for (long ticks : new long[] {1, 63, 64, 65, 4095, 4096, 4097, 300_000, 20_000_000}) {
+			RodaTemporizacao<String, Long> roda = new RodaTemporizacao<>(RESOLUCAO, 0);
+			roda.agendar("a", ticks * RESOLUCAO, ticks);
+
+			assertTrue(roda.avancar((ticks - 1) * RESOLUCAO).isEmpty(), "Venceu antes: " + ticks);
+			assertEquals(List.of(ticks), roda.avancar(ticks * RESOLUCAO), "Não venceu: " + ticks);
+			assertEquals(0, roda.tamanho());
+		}
+	}
+
+	@Test
+	void cascataEntregaCadaPrazoUmaVezNoTickCerto() {
+		Random aleatorio = new Random(42);
+		long inicio = 1_000_003 * RESOLUCAO;
+		RodaTemporizacao<Integer, Integer> roda = new RodaTemporizacao<>(RESOLUCAO, inicio);
+		Map<Integer, Long> vencimentos = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			// Distâncias espalhadas pelos níveis, de 1 a 64^3 ticks
+			long distancia = 1 + (long) Math.pow(262_144, aleatorio.nextDouble());
+			vencimentos.put(i, inicio / RESOLUCAO + distancia);
+			roda.agendar(i, (inicio / RESOLUCAO + distancia) * RESOLUCAO, i);
+		}
+
+		long instante = inicio;
+		int entregues = 0;
+		while (roda.tamanho() > 0) {
+			long anterior = instante / RESOLUCAO;
+			instante += RESOLUCAO * (1 + aleatorio.nextInt(700));
+			for (int item : roda.avancar(instante)) {
+				long vencimento = vencimentos.remove(item);
+				assertTrue(vencimento > anterior && vencimento <= instante / RESOLUCAO,
+						"Item " + item + " com vencimento " + vencimento + " entregue entre " + anterior + " e " + instante / RESOLUCAO);
+				entregues++;
+			}
+		}
+		assertEquals(2000, entregues);
+		assertTrue(vencimentos.isEmpty());
+	}
+
+	@Test
+	void avancoDevolveEmOrdemDeVencimento() {
+		RodaTemporizacao<String, String> roda = new RodaTemporizacao<>(RESOLUCAO, 0);
+		roda.agendar("c", 5000 * RESOLUCAO, "c");
+		roda.agendar("a", 3 * RESOLUCAO, "a");
+		roda.agendar("b", 70 * RESOLUCAO, "b");
+
+		assertEquals(List.of("a", "b", "c"), roda.avancar(10_000 * RESOLUCAO));
+	}
+
+	@Test
+	void cancelarEReagendarSubstituemOPrazo() {
+		RodaTemporizacao<String, String> roda = new RodaTemporizacao<>(RESOLUCAO, 0);
+		roda.agendar("a", 100 * RESOLUCAO, "primeiro");
+		roda.agendar("b", 5000 * RESOLUCAO, "b");
+		roda.agendar("c", 5000 * RESOLUCAO, "c");
+
+		roda.agendar("a", 200 * RESOLUCAO, "segundo");
+		// Cancelar o do meio da lista não perde os vizinhos
+		assertTrue(roda.cancelar("b"));
+		assertFalse(roda.cancelar("b"));
+		assertFalse(roda.contem("b"));
+
+		assertTrue(roda.avancar(150 * RESOLUCAO).isEmpty());
+		assertEquals(List.of("segundo"), roda.avancar(200 * RESOLUCAO));
+		assertEquals(List.of("c"), roda.avancar(5000 * RESOLUCAO));
+		assertEquals(0, roda.tamanho());
+	}
+
+	@Test
+	void prazoVencidoSaiNoProximoAvanco() {
+		RodaTemporizacao<String, String> roda = new RodaTemporizacao<>(RESOLUCAO, 1000 * RESOLUCAO);
+		roda.agendar("a", 0, "a");
+
+		assertTrue(roda.contem("a"));
+		assertEquals(List.of("a"), roda.avancar(1001 * RESOLUCAO));
+		assertThrows(IllegalArgumentException.class, () -> new RodaTemporizacao<String, String>(0, 0));
+	}
+
+	@Test
+	void muitosPrazosNaMesmaPosicao() {
+		RodaTemporizacao<Integer, Integer> roda = new RodaTemporizacao<>(RESOLUCAO, 0);
+		List<Integer> esperados = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			roda.agendar(i, 4100 * RESOLUCAO, i);
+			if (i % 3 != 0) {
+				esperados.add(i);
+			} else {
+				roda.cancelar(i);
+			}
+		}
+
+		List<Integer> vencidos = new ArrayList<>(roda.avancar(4100 * RESOLUCAO));
+		vencidos.sort(null);
+		assertEquals(esperados, vencidos);
+	}
+}
@@ -0,0 +1,115 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara UUID aleatório (versão 4) e ordenado no tempo (versão 7) como chave primária: vazão de
+ * inclusão em lotes e espaço ocupado pela tabela com o índice da chave.
+ * Fica fora da suíte padrão; rode com {@code mvn test -Pbenchmark}.
+ *
+ * Por padrão usa um H2 em arquivo em {@code target/} e mede o espaço com {@code DISK_SPACE_USED}.
+ * Com {@code -Dbenchmark.uuid.url=jdbc:postgresql://...} (e {@code .usuario}/{@code .senha}) mede
+ * no PostgreSQL o tamanho do índice da chave primária com {@code pg_relation_size}.
+ * A quantidade de linhas por variante vem de {@code -Dbenchmark.uuid.linhas} (padrão 1.000.000).
+ */
+@Tag("benchmark")
+class UuidV7BenchmarkTest {
+
+	private static final int TAMANHO_LOTE = 1_000;
+
+	private final long linhas = Long.getLong("benchmark.uuid.linhas", 1_000_000L);
+	private final String url = System.getProperty("benchmark.uuid.url");
+
+	@Test
+	void uuidV7OcupaMenosEInsereMaisRapidoQueV4() throws Exception {
+		Medicao v4 = medir("v4", UUID::randomUUID);
+		Medicao v7 = medir("v7", UuidV7::gerar);
+
+		assertTrue(v7.bytes() < v4.bytes());
+	}
+
+	@Test
+	void uuidV7SaiEmOrdemEComVersaoEVarianteCorretas() {
+		UUID anterior = UuidV7.gerar();
+		for (int i = 0; i < 100_000; i++) {
+			UUID atual = UuidV7.gerar();
+			assertEquals(7, atual.version());
+			assertEquals(2, atual.variant());
+			assertTrue(Long.compareUnsigned(anterior.getMostSignificantBits(), atual.getMostSignificantBits()) < 0);
+			anterior = atual;
+		}
+	}
+
+	private Medicao medir(String nome, Supplier<UUID> gerador) throws Exception {
+		try (Connection conexao = conectar(nome)) {
+			conexao.setAutoCommit(false);
+			try (Statement comando = conexao.createStatement()) {
+				comando.execute("DROP TABLE IF EXISTS uuid_benchmark");
+				comando.execute("CREATE TABLE uuid_benchmark (id UUID PRIMARY KEY, dado VARCHAR(40) NOT NULL)");
+			}
+			conexao.commit();
+
+			long inicio = System.nanoTime();
+			try (PreparedStatement insercao = conexao.prepareStatement("INSERT INTO uuid_benchmark (id, dado) VALUES (?, ?)")) {
+				for (long i = 1; i <= linhas; i++) {
+					insercao.setObject(1, gerador.get());
+					insercao.setString(2, "linha " + i);
+					insercao.addBatch();
+					if (i % TAMANHO_LOTE == 0 || i == linhas) {
+						insercao.executeBatch();
+						conexao.commit();
+					}
+				}
+			}
+			double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+			long bytes = espacoOcupado(conexao);
+			System.out.printf("BENCHMARK uuid/%s %,d linhas %,10.0f inclusões/s %,14d bytes%n",
+					nome, linhas, linhas / segundos, bytes);
+			return new Medicao(linhas / segundos, bytes);
+		}
+	}
+
+	private Connection conectar(String nome) throws Exception {
+		if (url != null) {
+			return DriverManager.getConnection(url,
+					System.getProperty("benchmark.uuid.usuario"), System.getProperty("benchmark.uuid.senha"));
+		}
+		Path diretorio = Path.of("target", "benchmark-uuid");
+		Files.createDirectories(diretorio);
+		Files.deleteIfExists(diretorio.resolve(nome + ".mv.db"));
+		return DriverManager.getConnection("jdbc:h2:file:" + diretorio.toAbsolutePath().resolve(nome), "sa", "");
+	}
+
+	/**
+	 * No PostgreSQL, só o índice da chave primária; no H2, a tabela com o índice (o H2 guarda as
+	 * linhas na própria árvore da chave primária).
+	 */
+	private long espacoOcupado(Connection conexao) throws SQLException {
+		String consulta = url != null
+				? "SELECT pg_relation_size('uuid_benchmark_pkey')"
+				: "SELECT DISK_SPACE_USED('UUID_BENCHMARK')";
+		try (Statement comando = conexao.createStatement(); ResultSet resultado = comando.executeQuery(consulta)) {
+			resultado.next();
+			return resultado.getLong(1);
+		}
+	}
+
+	private record Medicao(double inclusoesPorSegundo, long bytes) {
+	}
+}
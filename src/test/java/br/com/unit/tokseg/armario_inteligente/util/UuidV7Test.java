@@ -0,0 +1,80 @@
+package br.com.unit.tokseg.armario_inteligente.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+	@Test
+	void geraVersao7ComVarianteDaRfcEInstanteAtual() {
+		long antes = System.currentTimeMillis();
+		UUID id = UuidV7.gerar();
+
+		assertEquals(7, id.version());
+		assertEquals(2, id.variant());
+		assertTrue(instante(id) >= antes && instante(id) <= System.currentTimeMillis() + 1_000, "Instante: " + instante(id));
+	}
+
+	@Test
+	void idsDoMesmoMilissegundoSaemEmOrdemEstrita() {
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			ids.add(UuidV7.gerar());
+		}
+
+		for (int i = 1; i < ids.size(); i++) {
+			assertEquals(7, ids.get(i).version());
+			assertEquals(2, ids.get(i).variant());
+			assertTrue(maior(ids.get(i), ids.get(i - 1)), "Fora de ordem na posição " + i);
+		}
+	}
+
+	@Test
+	void estouroDoContadorAvancaOInstanteSemPerderAOrdem() {
+		// Relógio parado: mais de 4096 IDs no mesmo milissegundo estouram o contador de 12 bits
+		long parado = System.currentTimeMillis();
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 3 * 4096; i++) {
+			ids.add(UuidV7.gerar(parado));
+		}
+
+		int viradas = 0;
+		for (int i = 1; i < ids.size(); i++) {
+			UUID anterior = ids.get(i - 1);
+			UUID atual = ids.get(i);
+			assertEquals(7, atual.version());
+			assertEquals(2, atual.variant());
+			assertTrue(maior(atual, anterior), "Fora de ordem na posição " + i);
+			if (instante(atual) != instante(anterior)) {
+				// Na virada o instante anda um milissegundo e o contador recomeça
+				assertEquals(instante(anterior) + 1, instante(atual));
+				assertEquals(0xFFF, contador(anterior));
+				assertEquals(0, contador(atual));
+				viradas++;
+			}
+		}
+		assertTrue(viradas >= 2, "Viradas do contador: " + viradas);
+		assertTrue(instante(ids.get(0)) >= parado);
+	}
+
+	/**
+	 * Ordem do banco (bytes sem sinal). Os bits altos já precisam crescer: os baixos são aleatórios.
+	 */
+	private static boolean maior(UUID a, UUID b) {
+		return Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits()) > 0;
+	}
+
+	private static long instante(UUID id) {
+		return id.getMostSignificantBits() >>> 16;
+	}
+
+	private static long contador(UUID id) {
+		return id.getMostSignificantBits() & 0xFFFL;
+	}
+}